@@ -0,0 +1,150 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.utils;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writer which keeps text in a list of fixed size chunks.
+ * Unlike StringWriter it is not synchronized and it doesn't copy written text when buffer grows.
+ * Use it to collect large texts (e.g. for clipboard).
+ */
+public class ChunkedStringWriter extends Writer {
+
+    public static final int DEFAULT_CHUNK_SIZE = 65536;
+
+    private final int chunkSize;
+    private final List<char[]> chunks = new ArrayList<>();
+    private char[] chunk;
+    private int chunkLength;
+    private long length;
+
+    public ChunkedStringWriter() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedStringWriter(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Bad chunk size: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Total number of written characters
+     */
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public void write(int c) {
+        if (chunk == null || chunkLength == chunkSize) {
+            nextChunk();
+        }
+        chunk[chunkLength++] = (char) c;
+        length++;
+    }
+
+    @Override
+    public void write(@NotNull char[] cbuf, int off, int len) {
+        while (len > 0) {
+            if (chunk == null || chunkLength == chunkSize) {
+                nextChunk();
+            }
+            int count = Math.min(len, chunkSize - chunkLength);
+            System.arraycopy(cbuf, off, chunk, chunkLength, count);
+            chunkLength += count;
+            length += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) {
+        while (len > 0) {
+            if (chunk == null || chunkLength == chunkSize) {
+                nextChunk();
+            }
+            int count = Math.min(len, chunkSize - chunkLength);
+            str.getChars(off, off + count, chunk, chunkLength);
+            chunkLength += count;
+            length += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Writes collected text to another writer
+     */
+    public void writeTo(@NotNull Writer writer) throws IOException {
+        for (char[] fullChunk : chunks) {
+            writer.write(fullChunk, 0, fullChunk.length);
+        }
+        if (chunk != null) {
+            writer.write(chunk, 0, chunkLength);
+        }
+    }
+
+    /**
+     * Returns collected text. Chunks are copied directly into the result string buffer.
+     */
+    @Override
+    public String toString() {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Text is too long (" + length + " characters)");
+        }
+        if (chunks.isEmpty()) {
+            return chunk == null ? "" : new String(chunk, 0, chunkLength);
+        }
+        char[] text = new char[(int) length];
+        int offset = 0;
+        for (char[] fullChunk : chunks) {
+            System.arraycopy(fullChunk, 0, text, offset, fullChunk.length);
+            offset += fullChunk.length;
+        }
+        if (chunk != null) {
+            System.arraycopy(chunk, 0, text, offset, chunkLength);
+        }
+        return new String(text);
+    }
+
+    private void nextChunk() {
+        if (chunk != null) {
+            chunks.add(chunk);
+        }
+        chunk = new char[chunkSize];
+        chunkLength = 0;
+    }
+
+}
@@ -0,0 +1,43 @@
+package org.jkiss.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+public class ChunkedStringWriterTest {
+
+  @Test
+  public void testEmpty() {
+    ChunkedStringWriter writer = new ChunkedStringWriter(4);
+    Assert.assertEquals(0, writer.length());
+    Assert.assertEquals("", writer.toString());
+  }
+
+  @Test
+  public void testWriteAcrossChunks() {
+    ChunkedStringWriter writer = new ChunkedStringWriter(4);
+    writer.write("abc");
+    writer.write('d');
+    writer.write('e');
+    writer.write("fghijklmn".toCharArray(), 1, 7);
+    writer.append("xyz", 1, 2);
+    Assert.assertEquals(13, writer.length());
+    Assert.assertEquals("abcdeghijklmy", writer.toString());
+  }
+
+  @Test
+  public void testWriteTo() throws IOException {
+    ChunkedStringWriter writer = new ChunkedStringWriter(3);
+    writer.write("0123456789");
+    StringWriter out = new StringWriter();
+    writer.writeTo(out);
+    Assert.assertEquals("0123456789", out.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadChunkSize() {
+    new ChunkedStringWriter(0);
+  }
+}
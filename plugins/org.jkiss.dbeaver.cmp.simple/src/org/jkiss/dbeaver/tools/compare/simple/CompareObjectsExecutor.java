@@ -19,19 +19,14 @@ package org.jkiss.dbeaver.tools.compare.simple;
 import org.eclipse.core.runtime.IStatus;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
-import org.jkiss.dbeaver.model.DBConstants;
-import org.jkiss.dbeaver.model.DBPDataSource;
-import org.jkiss.dbeaver.model.DBPNamedObject;
-import org.jkiss.dbeaver.model.DBPSystemObject;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
-import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
 import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
-import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
-import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
-import org.jkiss.dbeaver.runtime.properties.*;
+import org.jkiss.dbeaver.runtime.properties.ILazyPropertyLoadListener;
+import org.jkiss.dbeaver.runtime.properties.ObjectPropertyDescriptor;
+import org.jkiss.dbeaver.runtime.properties.PropertiesContributor;
 
 import java.util.*;
 
@@ -39,106 +34,81 @@ public class CompareObjectsExecutor {
 
     private static final Log log = Log.getLog(CompareObjectsExecutor.class);
 
-    private final Object PROPS_LOCK = new Object();
-
     private CompareObjectsSettings settings;
 
     private final List<DBNDatabaseNode> rootNodes;
-    private final Map<DBPDataSource, DataSourcePropertyFilter> dataSourceFilters = new IdentityHashMap<>();
 
-    private final DBRProgressListener initializeFinisher;
     private final ILazyPropertyLoadListener lazyPropertyLoadListener;
 
-    private volatile int initializedCount = 0;
     private volatile IStatus initializeError;
-    private final Map<Object, Map<DBPPropertyDescriptor, Object>> propertyValues = new IdentityHashMap<>();
+    private final Map<Object, Map<String, Object>> lazyPropertyValues = new IdentityHashMap<>();
+    private CompareSnapshotJob[] snapshots;
 
-    private final List<CompareReportLine> reportLines = new ArrayList<>();
+    private CompareReport report;
     private int reportDepth = 0;
-    private CompareReportLine lastLine;
 
-    private void reportObjectsCompareBegin(List<DBNDatabaseNode> objects)
+    /**
+     * Creates report line of matched nodes. Line is filled completely before it is added to the report.
+     */
+    private CompareReportLine createReportLine(DBNDatabaseNode[] matchedNodes)
     {
-        reportDepth++;
-        lastLine = new CompareReportLine();
-        lastLine.depth = reportDepth;
-        lastLine.structure = objects.get(0);
-        lastLine.nodes = new DBNDatabaseNode[rootNodes.size()];
-        for (int i = 0; i < rootNodes.size(); i++) {
-            for (DBNDatabaseNode node : objects) {
-                if (node == rootNodes.get(i) || node.isChildOf(rootNodes.get(i))) {
-                    lastLine.nodes[i] = node;
-                    break;
-                }
-            }
-        }
-        for (DBNDatabaseNode node : lastLine.nodes) {
+        CompareReportLine line = new CompareReportLine();
+        line.depth = reportDepth;
+        line.nodes = matchedNodes;
+        for (DBNDatabaseNode node : matchedNodes) {
             if (node == null) {
-                lastLine.hasDifference = true;
-                break;
+                line.hasDifference = true;
+            } else if (line.structure == null) {
+                line.structure = node;
             }
         }
-        reportLines.add(lastLine);
+        return line;
     }
 
-    private void reportPropertyCompare(ObjectPropertyDescriptor property)
+    private void reportPropertyCompare(CompareReportLine line, ObjectPropertyDescriptor property)
     {
         CompareReportProperty reportProperty = new CompareReportProperty(property);
         reportProperty.values = new Object[rootNodes.size()];
-        for (int i = 0; i < lastLine.nodes.length; i++) {
-            DBNDatabaseNode node = lastLine.nodes[i];
+        for (int i = 0; i < line.nodes.length; i++) {
+            DBNDatabaseNode node = line.nodes[i];
             if (node == null) {
                 continue;
             }
-            Map<DBPPropertyDescriptor, Object> valueMap = propertyValues.get(node.getObject());
+            Map<String, Object> valueMap = getPropertyValues(i, node.getObject());
             if (valueMap != null) {
-                reportProperty.values[i] = valueMap.get(property);
+                reportProperty.values[i] = valueMap.get(property.getId());
             }
         }
-        if (lastLine.properties == null) {
-            lastLine.properties = new ArrayList<>();
+        if (line.properties == null) {
+            line.properties = new ArrayList<>();
         }
-        lastLine.properties.add(reportProperty);
+        line.properties.add(reportProperty);
 
         Object firstValue = reportProperty.values[0];
         for (int i = 1; i < rootNodes.size(); i++) {
             if (!CompareUtils.equalPropertyValues(reportProperty.values[i], firstValue)) {
-                lastLine.hasDifference = true;
+                line.hasDifference = true;
                 break;
             }
         }
     }
 
-    private void reportObjectsCompareEnd()
-    {
-        reportDepth--;
-    }
-
     public CompareObjectsExecutor(CompareObjectsSettings settings)
     {
         this.settings = settings;
         this.rootNodes = settings.getNodes();
 
-        initializeFinisher = new DBRProgressListener() {
-            @Override
-            public void onTaskFinished(IStatus status)
-            {
-                if (!status.isOK()) {
-                    initializeError = status;
-                } else {
-                    initializedCount++;
-                }
-            }
-        };
         lazyPropertyLoadListener = new ILazyPropertyLoadListener() {
             @Override
             public void handlePropertyLoad(Object object, DBPPropertyDescriptor property, Object propertyValue, boolean completed)
             {
-                synchronized (propertyValues) {
-                    Map<DBPPropertyDescriptor, Object> objectProps = propertyValues.get(object);
-                    if (objectProps != null) {
-                        objectProps.put(property, propertyValue);
+                synchronized (lazyPropertyValues) {
+                    Map<String, Object> objectProps = lazyPropertyValues.get(object);
+                    if (objectProps == null) {
+                        objectProps = new HashMap<>();
+                        lazyPropertyValues.put(object, objectProps);
                     }
+                    objectProps.put(property.getId(), propertyValue);
                 }
             }
         };
@@ -150,219 +120,198 @@ public class CompareObjectsExecutor {
         return initializeError;
     }
 
-    public void dispose()
+    /**
+     * Report of the current (or last) compare. Lines are added while compare is running.
+     */
+    public CompareReport getReport()
     {
-        PropertiesContributor.getInstance().removeLazyListener(lazyPropertyLoadListener);
+        return report;
     }
 
-    public CompareReport compareObjects(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
-        throws DBException, InterruptedException
+    public void dispose()
     {
-        reportLines.clear();
-        lastLine = null;
-
-        compareNodes(monitor, nodes);
-        return new CompareReport(rootNodes, reportLines);
+        PropertiesContributor.getInstance().removeLazyListener(lazyPropertyLoadListener);
     }
 
-    private void compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
+    public CompareReport compareObjects(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
         throws DBException, InterruptedException
     {
-        reportObjectsCompareBegin(nodes);
+        report = new CompareReport(rootNodes);
+        reportDepth = 0;
+        initializeError = null;
+        synchronized (lazyPropertyValues) {
+            lazyPropertyValues.clear();
+        }
 
+        final int sideCount = rootNodes.size();
+        snapshots = new CompareSnapshotJob[sideCount];
+        for (int i = 0; i < sideCount; i++) {
+            snapshots[i] = new CompareSnapshotJob(settings, rootNodes.get(i));
+        }
         try {
-            if (nodes.size() > 1) {
-                // Go deeper only if we have more than one node
-                if (!settings.isCompareOnlyStructure() && !(nodes.get(0) instanceof DBNDatabaseFolder)) {
-                    compareProperties(monitor, nodes);
+            DBNDatabaseNode[] matchedNodes = new DBNDatabaseNode[sideCount];
+            for (int i = 0; i < sideCount; i++) {
+                for (DBNDatabaseNode node : nodes) {
+                    if (node == rootNodes.get(i) || node.isChildOf(rootNodes.get(i))) {
+                        matchedNodes[i] = node;
+                        break;
+                    }
+                }
+            }
+            requestLoad(Collections.singletonList(matchedNodes));
+            compareNodes(monitor, matchedNodes);
+        } catch (DBException e) {
+            for (CompareSnapshotJob job : snapshots) {
+                if (job.getLoadError() != null && job.getLoadError().getSeverity() != IStatus.CANCEL) {
+                    initializeError = job.getLoadError();
+                    break;
                 }
-
-                compareChildren(monitor, nodes);
             }
+            throw e;
         } finally {
-            reportObjectsCompareEnd();
+            for (CompareSnapshotJob job : snapshots) {
+                job.cancel();
+            }
+            snapshots = null;
         }
+        report.setCompleted();
+        return report;
     }
 
-    private void compareProperties(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    /**
+     * Queues metadata load of nodes which present in more than one side.
+     * Each side is loaded by a separate job, so sides are read in parallel and ahead of compare.
+     */
+    private void requestLoad(List<DBNDatabaseNode[]> matchedGroups)
     {
-        // Clear compare singletons
-        this.initializedCount = 0;
-        this.initializeError = null;
-        this.propertyValues.clear();
-
-        StringBuilder title = new StringBuilder();
-        // Initialize nodes
-        {
-            monitor.subTask("Initialize nodes");
-            for (DBNDatabaseNode node : nodes) {
-                if (title.length() > 0) title.append(", ");
-                title.append(node.getNodeFullName());
-                node.initializeNode(null, initializeFinisher);
-                monitor.worked(1);
-            }
-            while (initializedCount != nodes.size()) {
-                if (initializeError != null) {
-                    throw new DBException(initializeError.getMessage());
-                }
-                Thread.sleep(100);
-                if (monitor.isCanceled()) {
-                    throw new InterruptedException();
+        for (int i = 0; i < snapshots.length; i++) {
+            List<DBNDatabaseNode> sideNodes = new ArrayList<>(matchedGroups.size());
+            for (DBNDatabaseNode[] matched : matchedGroups) {
+                if (matched[i] != null && getMatchCount(matched) > 1) {
+                    sideNodes.add(matched[i]);
                 }
             }
+            snapshots[i].requestLoad(sideNodes);
         }
+    }
 
-        monitor.subTask("Compare " + title.toString());
-        boolean compareLazyProperties = false;
-
-        DBNDatabaseNode firstNode = nodes.get(0);
-        List<ObjectPropertyDescriptor> properties = ObjectPropertyDescriptor.extractAnnotations(
-            null,
-            firstNode.getObject().getClass(),
-            getDataSourceFilter(firstNode), null);
-        for (ObjectPropertyDescriptor prop : properties) {
-            if (prop.isLazy()) {
-                compareLazyProperties = true;
-                break;
-            }
+    /**
+     * Compares matched nodes as soon as all sides loaded them.
+     * Report line is added before children compare, so report is filled while the rest of the tree is still loading.
+     */
+    private void compareNodes(DBRProgressMonitor monitor, DBNDatabaseNode[] matchedNodes)
+        throws DBException, InterruptedException
+    {
+        if (monitor.isCanceled()) {
+            throw new InterruptedException();
         }
-        boolean compareScripts = compareLazyProperties && settings.isCompareScripts();
-        compareLazyProperties = compareLazyProperties && settings.isCompareLazyProperties();
-
-        // Load all properties
-        for (DBNDatabaseNode node : nodes) {
-            if (monitor.isCanceled()) {
-                throw new InterruptedException();
-            }
-            DBSObject databaseObject = node.getObject();
-            Map<DBPPropertyDescriptor, Object> nodeProperties = propertyValues.get(databaseObject);
-            if (nodeProperties == null) {
-                nodeProperties = new IdentityHashMap<>();
-                propertyValues.put(databaseObject, nodeProperties);
-            }
-            PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties || compareScripts);
-            for (ObjectPropertyDescriptor prop : properties) {
-                if (prop.isLazy()) {
-                    if (!compareLazyProperties) {
-                        if (compareScripts) {
-                            // Only DBPScriptObject methods
-                            if (!prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) && !prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT)) {
-                                continue;
-                            }
-                        } else {
-                            continue;
-                        }
-                    }
-                } else {
-                    if (prop.isHidden()) {
-                        continue;
+        reportDepth++;
+        try {
+            CompareReportLine line = createReportLine(matchedNodes);
+            boolean goDeeper = getMatchCount(matchedNodes) > 1;
+            if (goDeeper) {
+                // Go deeper only if we have more than one node
+                monitor.subTask("Compare " + line.structure.getNodeName());
+                for (int i = 0; i < matchedNodes.length; i++) {
+                    if (matchedNodes[i] != null) {
+                        snapshots[i].waitForNode(monitor, matchedNodes[i]);
                     }
                 }
-                Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop, true);
-                synchronized (PROPS_LOCK) {
-                    if (propertyValue instanceof DBPNamedObject) {
-                        // Compare just object names
-                        propertyValue = ((DBPNamedObject) propertyValue).getName();
-                    }
-                    nodeProperties.put(prop, propertyValue);
+                if (!settings.isCompareOnlyStructure() && !(line.structure instanceof DBNDatabaseFolder)) {
+                    compareProperties(line);
                 }
             }
-            monitor.worked(1);
+            report.addReportLine(line);
+
+            if (goDeeper) {
+                compareChildren(monitor, line);
+            }
+        } finally {
+            reportDepth--;
         }
+    }
 
-        // Compare properties
-        for (ObjectPropertyDescriptor prop : properties) {
-            reportPropertyCompare(prop);
+    private void compareProperties(CompareReportLine line)
+    {
+        // Descriptors of the first side are used as a template for all sides
+        DBNDatabaseNode firstNode = null;
+        CompareSnapshotJob firstSnapshot = null;
+        for (int i = 0; i < line.nodes.length; i++) {
+            if (line.nodes[i] != null) {
+                firstNode = line.nodes[i];
+                firstSnapshot = snapshots[i];
+                break;
+            }
+        }
+        if (firstNode == null || firstNode.getObject() == null) {
+            return;
+        }
+        for (ObjectPropertyDescriptor prop : firstSnapshot.getPropertyDescriptors(firstNode.getObject())) {
+            reportPropertyCompare(line, prop);
         }
     }
 
-    private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    private void compareChildren(DBRProgressMonitor monitor, CompareReportLine line) throws DBException, InterruptedException
     {
-        // Compare children
-        int nodeCount = nodes.size();
-        List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
+        // Match children by name. Child maps are keyed by node name so lookup doesn't depend on children count.
+        int nodeCount = line.nodes.length;
+        List<Map<String, DBNDatabaseNode>> allChildren = new ArrayList<>(nodeCount);
         for (int i = 0; i < nodeCount; i++) {
-            DBNDatabaseNode node = nodes.get(i);
-            // Cache structure if possible
-            if (node.getObject() instanceof DBSObjectContainer) {
-                ((DBSObjectContainer) node.getObject()).cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
-            }
-            try {
-                DBNDatabaseNode[] children = node.getChildren(monitor);
-                allChildren.add(children);
-            } catch (Exception e) {
-                log.warn("Error reading child nodes for compare", e);
-                allChildren.add(null);
-            }
+            allChildren.add(line.nodes[i] == null ? null : snapshots[i].getChildren(line.nodes[i]));
         }
 
         Set<String> allChildNames = new LinkedHashSet<>();
-        for (DBNDatabaseNode[] childList : allChildren) {
-            if (childList == null) continue;
-            for (DBNDatabaseNode child : childList) {
-                DBXTreeNode meta = child.getMeta();
-                if (meta.isVirtual()) {
-                    // Skip virtual nodes
-                    continue;
-                }
-                if (settings.isSkipSystemObjects() && child.getObject() instanceof DBPSystemObject && ((DBPSystemObject) child.getObject()).isSystem()) {
-                    // Skip system objects
-                    continue;
-                }
-                allChildNames.add(child.getNodeName());
+        for (Map<String, DBNDatabaseNode> childMap : allChildren) {
+            if (childMap != null) {
+                allChildNames.addAll(childMap.keySet());
             }
         }
 
+        List<DBNDatabaseNode[]> matchedChildren = new ArrayList<>(allChildNames.size());
         for (String childName : allChildNames) {
-            int[] childIndexes = new int[nodeCount];
+            DBNDatabaseNode[] matched = new DBNDatabaseNode[nodeCount];
             for (int i = 0; i < nodeCount; i++) {
-                childIndexes[i] = -1;
-                DBNDatabaseNode[] childList = allChildren.get(i);
-                if (childList == null) continue;
-                for (int k = 0; k < childList.length; k++) {
-                    DBNDatabaseNode child = childList[k];
-                    if (child.getNodeName().equals(childName)) {
-                        childIndexes[i] = k;
-                        break;
-                    }
-                }
-            }
-
-            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
-            for (int i = 0; i < nodeCount; i++) {
-                if (childIndexes[i] == -1) {
-                    // Missing
-                } else {
-                    for (int k = 0; k < nodeCount; k++) {
-                        if (k != i && childIndexes[k] != childIndexes[i]) {
-                            // Wrong index - add to report
-                            break;
-                        }
-                    }
-                    final DBNDatabaseNode[] childList = allChildren.get(i);
-                    if (childList != null) {
-                        nodesToCompare.add(childList[childIndexes[i]]);
-                    }
+                Map<String, DBNDatabaseNode> childMap = allChildren.get(i);
+                if (childMap != null) {
+                    matched[i] = childMap.get(childName);
                 }
             }
+            matchedChildren.add(matched);
+        }
+        // Load all children in background while the first of them are compared
+        requestLoad(matchedChildren);
+        for (DBNDatabaseNode[] matched : matchedChildren) {
             // Compare children recursively
-            compareNodes(monitor, nodesToCompare);
+            compareNodes(monitor, matched);
         }
+        monitor.worked(1);
     }
 
-
-    private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
+    private static int getMatchCount(DBNDatabaseNode[] matchedNodes)
     {
-        DBPDataSource dataSource = node.getDataSourceContainer().getDataSource();
-        if (dataSource == null) {
-            return null;
+        int count = 0;
+        for (DBNDatabaseNode node : matchedNodes) {
+            if (node != null) {
+                count++;
+            }
         }
-        DataSourcePropertyFilter filter = dataSourceFilters.get(dataSource);
-        if (filter == null) {
-            filter = new DataSourcePropertyFilter(dataSource);
-            dataSourceFilters.put(dataSource, filter);
+        return count;
+    }
+
+    private Map<String, Object> getPropertyValues(int sideIndex, DBSObject object)
+    {
+        Map<String, Object> values = snapshots[sideIndex].getProperties(object);
+        synchronized (lazyPropertyValues) {
+            Map<String, Object> lazyValues = lazyPropertyValues.get(object);
+            if (lazyValues != null) {
+                if (values == null) {
+                    return lazyValues;
+                }
+                values = new HashMap<>(values);
+                values.putAll(lazyValues);
+            }
         }
-        return filter;
+        return values;
     }
 
-}
\ No newline at end of file
+}
@@ -18,19 +18,21 @@ package org.jkiss.dbeaver.tools.compare.simple;
 
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
-* Report
+* Report.
+* Lines are appended while compare is in progress, so report may be consumed before compare is completed.
 */
 public class CompareReport {
-    private List<DBNDatabaseNode> nodes;
-    private List<CompareReportLine> reportLines;
+    private final List<DBNDatabaseNode> nodes;
+    private final List<CompareReportLine> reportLines = new ArrayList<>();
+    private volatile boolean completed;
 
-    CompareReport(List<DBNDatabaseNode> nodes, List<CompareReportLine> reportLines)
+    CompareReport(List<DBNDatabaseNode> nodes)
     {
         this.nodes = nodes;
-        this.reportLines = reportLines;
     }
 
     public List<DBNDatabaseNode> getNodes()
@@ -38,8 +40,30 @@ public class CompareReport {
         return nodes;
     }
 
+    /**
+     * Copy of report lines added so far
+     */
     public List<CompareReportLine> getReportLines()
     {
-        return reportLines;
+        synchronized (reportLines) {
+            return new ArrayList<>(reportLines);
+        }
+    }
+
+    public boolean isCompleted()
+    {
+        return completed;
+    }
+
+    void addReportLine(CompareReportLine line)
+    {
+        synchronized (reportLines) {
+            reportLines.add(line);
+        }
+    }
+
+    void setCompleted()
+    {
+        this.completed = true;
     }
 }
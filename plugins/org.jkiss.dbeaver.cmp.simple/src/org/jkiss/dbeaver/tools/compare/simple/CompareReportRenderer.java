@@ -30,12 +30,14 @@ import java.util.List;
 public class CompareReportRenderer {
 
     private CompareReport report;
+    private List<CompareReportLine> reportLines;
     private XMLBuilder xml;
     private CompareObjectsSettings settings;
 
     public void renderReport(DBRProgressMonitor monitor, CompareReport report, CompareObjectsSettings settings, OutputStream outputStream) throws IOException
     {
         this.report = report;
+        this.reportLines = report.getReportLines();
         this.settings = settings;
         this.xml = new XMLBuilder(outputStream, GeneralUtils.UTF8_ENCODING, true);
         this.xml.setButify(true);
@@ -46,7 +48,6 @@ public class CompareReportRenderer {
 
         if (settings.isShowOnlyDifferences()) {
             // Mark differences on tree nodes
-            List<CompareReportLine> reportLines = report.getReportLines();
             int reportLinesSize = reportLines.size();
             for (int i = 0; i < reportLinesSize; i++) {
                 if (reportLines.get(i).hasDifference) {
@@ -97,7 +98,7 @@ public class CompareReportRenderer {
     private void renderHeader() throws IOException
     {
         int maxLevel = 0;
-        for (CompareReportLine line : report.getReportLines()) {
+        for (CompareReportLine line : reportLines) {
             if (line.depth > maxLevel) {
                 maxLevel = line.depth;
             }
@@ -136,7 +137,6 @@ public class CompareReportRenderer {
         // Table body
         boolean showOnlyDifferences = settings.isShowOnlyDifferences();
         int objectCount = report.getNodes().size();
-        List<CompareReportLine> reportLines = report.getReportLines();
         int reportLinesSize = reportLines.size();
         for (int i = 0; i < reportLinesSize; i++) {
             monitor.worked(1);
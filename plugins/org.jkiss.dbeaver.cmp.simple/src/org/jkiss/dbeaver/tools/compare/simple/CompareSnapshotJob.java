@@ -0,0 +1,279 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBConstants;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPNamedObject;
+import org.jkiss.dbeaver.model.DBPSystemObject;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.jkiss.dbeaver.runtime.properties.DataSourcePropertyFilter;
+import org.jkiss.dbeaver.runtime.properties.ObjectPropertyDescriptor;
+import org.jkiss.dbeaver.runtime.properties.PropertyCollector;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+
+import java.util.*;
+
+/**
+ * Loads the metadata snapshot of one compare side: child nodes keyed by name and property values.
+ * Each side is loaded by its own job, so all compared databases are read at the same time.
+ * Job loads queued nodes (only nodes which were matched with other sides) while compare of
+ * already loaded nodes is in progress. Compare waits for particular nodes with {@link #waitForNode}.
+ */
+class CompareSnapshotJob extends AbstractJob {
+
+    private static final Log log = Log.getLog(CompareSnapshotJob.class);
+
+    private static final long NODE_WAIT_TIMEOUT = 500;
+
+    private final CompareObjectsSettings settings;
+    private final DBNDatabaseNode rootNode;
+
+    // All maps are guarded by job instance lock
+    private final Map<DBNDatabaseNode, Map<String, DBNDatabaseNode>> children = new IdentityHashMap<>();
+    private final Map<DBSObject, Map<String, Object>> properties = new IdentityHashMap<>();
+    private final Map<Class<?>, List<ObjectPropertyDescriptor>> classProperties = new HashMap<>();
+    private final Deque<DBNDatabaseNode> pendingNodes = new ArrayDeque<>();
+    private final Set<DBNDatabaseNode> loadedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+    private DataSourcePropertyFilter dataSourceFilter;
+    private boolean initialized;
+    private IStatus loadError;
+
+    CompareSnapshotJob(CompareObjectsSettings settings, DBNDatabaseNode rootNode) {
+        super("Load compare snapshot of " + rootNode.getNodeFullName());
+        this.settings = settings;
+        this.rootNode = rootNode;
+        setSystem(true);
+        setUser(false);
+    }
+
+    DBNDatabaseNode getRootNode() {
+        return rootNode;
+    }
+
+    /**
+     * Adds nodes to the load queue and starts the job if it isn't running
+     */
+    void requestLoad(Collection<DBNDatabaseNode> nodes) {
+        if (nodes.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            pendingNodes.addAll(nodes);
+        }
+        schedule();
+    }
+
+    /**
+     * Waits until the node is loaded.
+     * Job wakes up waiters after each loaded node, timeout is used only to check compare cancel.
+     */
+    void waitForNode(DBRProgressMonitor monitor, DBNDatabaseNode node) throws DBException, InterruptedException {
+        synchronized (this) {
+            while (!loadedNodes.contains(node)) {
+                if (loadError != null) {
+                    if (loadError.getSeverity() == IStatus.CANCEL) {
+                        throw new InterruptedException();
+                    }
+                    throw new DBException("Error loading metadata of " + rootNode.getNodeFullName() + ": " + loadError.getMessage(), loadError.getException());
+                }
+                if (monitor.isCanceled()) {
+                    throw new InterruptedException();
+                }
+                wait(NODE_WAIT_TIMEOUT);
+            }
+        }
+    }
+
+    synchronized IStatus getLoadError() {
+        return loadError;
+    }
+
+    /**
+     * Child nodes of the specified node keyed by name. Null if node children weren't loaded.
+     */
+    synchronized Map<String, DBNDatabaseNode> getChildren(DBNDatabaseNode node) {
+        return children.get(node);
+    }
+
+    /**
+     * Property values of the specified object keyed by property id.
+     * Descriptors are extracted separately for each side so they can't be compared by identity.
+     */
+    synchronized Map<String, Object> getProperties(DBSObject object) {
+        return properties.get(object);
+    }
+
+    synchronized List<ObjectPropertyDescriptor> getPropertyDescriptors(DBSObject object) {
+        List<ObjectPropertyDescriptor> props = classProperties.get(object.getClass());
+        return props == null ? Collections.emptyList() : props;
+    }
+
+    @Override
+    protected IStatus run(DBRProgressMonitor monitor) {
+        IStatus result;
+        try {
+            if (!initialized) {
+                rootNode.initializeNode(monitor, null);
+                DBPDataSource dataSource = rootNode.getDataSourceContainer().getDataSource();
+                if (dataSource != null) {
+                    dataSourceFilter = new DataSourcePropertyFilter(dataSource);
+                }
+                initialized = true;
+            }
+            for (;;) {
+                DBNDatabaseNode node;
+                synchronized (this) {
+                    node = pendingNodes.poll();
+                }
+                if (node == null) {
+                    break;
+                }
+                loadNode(monitor, node);
+                synchronized (this) {
+                    loadedNodes.add(node);
+                    notifyAll();
+                }
+            }
+            result = monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+        } catch (InterruptedException e) {
+            result = Status.CANCEL_STATUS;
+        } catch (Exception e) {
+            result = GeneralUtils.makeExceptionStatus(e);
+        }
+        if (!result.isOK()) {
+            synchronized (this) {
+                loadError = result;
+                notifyAll();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected void canceling() {
+        synchronized (this) {
+            if (loadError == null) {
+                loadError = Status.CANCEL_STATUS;
+            }
+            notifyAll();
+        }
+        super.canceling();
+    }
+
+    private void loadNode(DBRProgressMonitor monitor, DBNDatabaseNode node) throws DBException, InterruptedException {
+        if (monitor.isCanceled()) {
+            throw new InterruptedException();
+        }
+        if (!settings.isCompareOnlyStructure() && !(node instanceof DBNDatabaseFolder)) {
+            loadProperties(monitor, node);
+        }
+
+        // Read whole container structure at once instead of per-object queries
+        if (node.getObject() instanceof DBSObjectContainer) {
+            ((DBSObjectContainer) node.getObject()).cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
+        }
+        DBNDatabaseNode[] childNodes;
+        try {
+            childNodes = node.getChildren(monitor);
+        } catch (Exception e) {
+            log.warn("Error reading child nodes for compare", e);
+            return;
+        }
+        Map<String, DBNDatabaseNode> childMap = new LinkedHashMap<>();
+        if (childNodes != null) {
+            for (DBNDatabaseNode child : childNodes) {
+                if (child.getMeta().isVirtual()) {
+                    // Skip virtual nodes
+                    continue;
+                }
+                if (settings.isSkipSystemObjects() && child.getObject() instanceof DBPSystemObject && ((DBPSystemObject) child.getObject()).isSystem()) {
+                    // Skip system objects
+                    continue;
+                }
+                childMap.putIfAbsent(child.getNodeName(), child);
+            }
+        }
+        synchronized (this) {
+            children.put(node, childMap);
+        }
+    }
+
+    private void loadProperties(DBRProgressMonitor monitor, DBNDatabaseNode node) {
+        DBSObject databaseObject = node.getObject();
+        if (databaseObject == null) {
+            return;
+        }
+        List<ObjectPropertyDescriptor> props;
+        synchronized (this) {
+            props = classProperties.get(databaseObject.getClass());
+            if (props == null) {
+                props = ObjectPropertyDescriptor.extractAnnotations(null, databaseObject.getClass(), dataSourceFilter, null);
+                classProperties.put(databaseObject.getClass(), props);
+            }
+        }
+        boolean compareLazyProperties = false;
+        for (ObjectPropertyDescriptor prop : props) {
+            if (prop.isLazy()) {
+                compareLazyProperties = true;
+                break;
+            }
+        }
+        boolean compareScripts = compareLazyProperties && settings.isCompareScripts();
+        compareLazyProperties = compareLazyProperties && settings.isCompareLazyProperties();
+
+        Map<String, Object> nodeProperties = new HashMap<>();
+        PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties || compareScripts);
+        for (ObjectPropertyDescriptor prop : props) {
+            if (prop.isLazy()) {
+                if (!compareLazyProperties) {
+                    if (compareScripts) {
+                        // Only DBPScriptObject methods
+                        if (!prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) && !prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT)) {
+                            continue;
+                        }
+                    } else {
+                        continue;
+                    }
+                }
+            } else {
+                if (prop.isHidden()) {
+                    continue;
+                }
+            }
+            Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop, true);
+            if (propertyValue instanceof DBPNamedObject) {
+                // Compare just object names
+                propertyValue = ((DBPNamedObject) propertyValue).getName();
+            }
+            nodeProperties.put(prop.getId(), propertyValue);
+        }
+        synchronized (this) {
+            properties.put(databaseObject, nodeProperties);
+        }
+    }
+
+}
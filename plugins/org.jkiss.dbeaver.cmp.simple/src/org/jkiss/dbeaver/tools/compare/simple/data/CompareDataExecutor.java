@@ -0,0 +1,725 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Compares data of two tables (possibly in different databases) without transferring rows.
+ *
+ * Tables are split into key chunks. For each chunk both sides calculate row count and
+ * sum of row hashes, only chunks with different hashes are compared row by row using key and row hash.
+ * Single integral key is split into value ranges (mismatching ranges are split further).
+ * Any other key (composite, strings, uuids) is split with keyset pagination: chunk bounds are read from
+ * the source table ordered by key, so each chunk contains at most chunk size source rows.
+ * Rows are compared by merging two key-ordered cursors, so only unmatched rows are kept in memory.
+ * Hashes are calculated on server side if both databases support the same hash function, otherwise
+ * rows are streamed and hashed on client side.
+ *
+ * Key columns are expected to be not null. Keyset chunks rely on the same key order in both databases,
+ * if collations differ then rows near chunk bounds may be reported as missing.
+ */
+public class CompareDataExecutor {
+
+    private static final Log log = Log.getLog(CompareDataExecutor.class);
+
+    private static final String NULL_VALUE = "\\N";
+
+    private final CompareDataSettings settings;
+    private CompareDataReport report;
+    private TableSide source;
+    private TableSide target;
+    private boolean serverHash;
+
+    private static class TableSide {
+        final DBSEntity entity;
+        final String tableName;
+        final List<DBSEntityAttribute> keyAttributes = new ArrayList<>();
+        final List<String> keyColumns = new ArrayList<>();
+        final List<String> dataColumns = new ArrayList<>();
+        final CompareDataHashFunction hashFunction;
+        DBCSession session;
+
+        TableSide(DBSEntity entity) throws DBException {
+            this.entity = entity;
+            DBPDataSource dataSource = entity.getDataSource();
+            if (dataSource == null) {
+                throw new DBException("Table '" + entity.getName() + "' isn't connected");
+            }
+            this.tableName = DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML);
+            this.hashFunction = CompareDataHashFunction.getFunction(dataSource);
+        }
+
+        /**
+         * Row hash covers both key and data columns (the same as client side hash)
+         */
+        String getRowHashExpression() {
+            List<String> hashColumns = new ArrayList<>(keyColumns);
+            hashColumns.addAll(dataColumns);
+            return hashFunction.getRowHashExpression(hashColumns);
+        }
+
+        String getSelectList(boolean withHash) {
+            StringBuilder sql = new StringBuilder();
+            sql.append(String.join(",", keyColumns));
+            if (withHash) {
+                sql.append(",").append(getRowHashExpression());
+            } else if (!dataColumns.isEmpty()) {
+                sql.append(",").append(String.join(",", dataColumns));
+            }
+            return sql.toString();
+        }
+
+        KeyCondition makeRangeCondition(long fromKey, long toKey) {
+            String keyColumn = keyColumns.get(0);
+            return new KeyCondition(keyColumn + " >= " + fromKey + " AND " + keyColumn + " < " + toKey);
+        }
+
+        @Nullable
+        KeyCondition makeKeysetCondition(@Nullable Object[] afterKey, @Nullable Object[] upToKey) {
+            return KeyCondition.makeKeyset(keyColumns, afterKey, upToKey);
+        }
+    }
+
+    /**
+     * Key condition. Key values are bound as statement parameters.
+     */
+    static class KeyCondition {
+        private final StringBuilder sql = new StringBuilder();
+        // Index of key column and value of each parameter
+        private final List<Integer> paramColumns = new ArrayList<>();
+        private final List<Object> paramValues = new ArrayList<>();
+
+        KeyCondition(String sql) {
+            this.sql.append(sql);
+        }
+
+        private KeyCondition() {
+        }
+
+        /**
+         * Condition for keys in (afterKey, upToKey]. Open bound is skipped. Returns null if both bounds are open.
+         */
+        @Nullable
+        static KeyCondition makeKeyset(List<String> keyColumns, @Nullable Object[] afterKey, @Nullable Object[] upToKey) {
+            if (afterKey == null && upToKey == null) {
+                return null;
+            }
+            KeyCondition condition = new KeyCondition();
+            if (afterKey != null) {
+                condition.appendKeyCompare(keyColumns, afterKey, true);
+            }
+            if (upToKey != null) {
+                if (afterKey != null) {
+                    condition.sql.append(" AND ");
+                }
+                condition.appendKeyCompare(keyColumns, upToKey, false);
+            }
+            return condition;
+        }
+
+        /**
+         * Appends portable form of row value comparison (some databases do not support (a,b) > (?,?)).
+         * (a,b) > (x,y) is a > x OR (a = x AND b > y).
+         * (a,b) <= (x,y) is a < x OR (a = x AND b <= y).
+         */
+        private void appendKeyCompare(List<String> keyColumns, Object[] keyValues, boolean after) {
+            int keyCount = keyColumns.size();
+            sql.append("(");
+            for (int i = 0; i < keyCount; i++) {
+                if (i > 0) sql.append(" OR ");
+                sql.append("(");
+                for (int k = 0; k < i; k++) {
+                    sql.append(keyColumns.get(k)).append(" = ? AND ");
+                    addParameter(k, keyValues[k]);
+                }
+                String operator = after ? ">" : (i < keyCount - 1 ? "<" : "<=");
+                sql.append(keyColumns.get(i)).append(" ").append(operator).append(" ?");
+                addParameter(i, keyValues[i]);
+                sql.append(")");
+            }
+            sql.append(")");
+        }
+
+        private void addParameter(int keyIndex, Object value) {
+            paramColumns.add(keyIndex);
+            paramValues.add(value);
+        }
+
+        String getSql() {
+            return sql.toString();
+        }
+
+        List<Object> getParameterValues() {
+            return paramValues;
+        }
+
+        void bindParameters(DBCSession session, DBCStatement statement, List<DBSEntityAttribute> keyAttributes) throws DBCException {
+            for (int i = 0; i < paramValues.size(); i++) {
+                DBSEntityAttribute keyAttribute = keyAttributes.get(paramColumns.get(i));
+                DBUtils.findValueHandler(session, keyAttribute).bindValueObject(session, statement, keyAttribute, i, paramValues.get(i));
+            }
+        }
+    }
+
+    private static class ChunkHash {
+        final long rowCount;
+        final String hash;
+
+        ChunkHash(long rowCount, String hash) {
+            this.rowCount = rowCount;
+            this.hash = hash;
+        }
+
+        boolean matches(ChunkHash other) {
+            return rowCount == other.rowCount && CommonUtils.equalObjects(hash, other.hash);
+        }
+    }
+
+    private interface RowHandler {
+        void handleRow(DBCResultSet resultSet) throws DBCException;
+    }
+
+    /**
+     * Key-ordered rows of one side
+     */
+    interface RowSource {
+        /**
+         * Moves to the next row. Returns false if there are no more rows.
+         */
+        boolean next() throws DBCException;
+
+        Object[] getKeyValues();
+
+        /**
+         * Normalized key text. Equal keys have equal text.
+         */
+        String getKey();
+
+        String getRowHash();
+    }
+
+    /**
+     * Reads key and row hash of table rows ordered by key
+     */
+    private static class RowCursor implements RowSource, AutoCloseable {
+        private final TableSide side;
+        private final boolean withHash;
+        private final DBCStatement statement;
+        private DBCResultSet resultSet;
+        private Object[] keyValues;
+        private String key;
+        private String rowHash;
+
+        RowCursor(TableSide side, @Nullable KeyCondition condition, boolean withHash) throws DBCException {
+            this.side = side;
+            this.withHash = withHash;
+            this.statement = side.session.prepareStatement(
+                DBCStatementType.QUERY,
+                "SELECT " + side.getSelectList(withHash) + " FROM " + side.tableName + makeWhere(condition) +
+                    " ORDER BY " + String.join(",", side.keyColumns),
+                false, false, false);
+            try {
+                if (condition != null) {
+                    condition.bindParameters(side.session, statement, side.keyAttributes);
+                }
+                if (statement.executeStatement()) {
+                    resultSet = statement.openResultSet();
+                }
+            } catch (DBCException e) {
+                statement.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean next() throws DBCException {
+            if (resultSet == null || !resultSet.nextRow()) {
+                key = null;
+                return false;
+            }
+            int keyCount = side.keyColumns.size();
+            keyValues = readValues(resultSet, keyCount);
+            key = makeKeyText(keyValues);
+            if (withHash) {
+                rowHash = normalizeValue(resultSet.getAttributeValue(keyCount));
+            } else {
+                rowHash = String.valueOf(calcRowHash(readValues(resultSet, keyCount + side.dataColumns.size())));
+            }
+            return true;
+        }
+
+        @Override
+        public Object[] getKeyValues() {
+            return keyValues;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getRowHash() {
+            return rowHash;
+        }
+
+        @Override
+        public void close() {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            statement.close();
+        }
+    }
+
+    public CompareDataExecutor(CompareDataSettings settings) {
+        this.settings = settings;
+    }
+
+    public CompareDataReport compareData(DBRProgressMonitor monitor) throws DBException, InterruptedException {
+        report = new CompareDataReport(settings.getMaxDifferences());
+        source = new TableSide(settings.getSourceEntity());
+        target = new TableSide(settings.getTargetEntity());
+
+        monitor.subTask("Read table metadata");
+        List<DBSEntityAttribute> keyAttributes = new ArrayList<>(DBUtils.getBestTableIdentifier(monitor, source.entity));
+        if (keyAttributes.isEmpty()) {
+            throw new DBException("Table '" + source.tableName + "' has no unique key. Data compare isn't possible");
+        }
+        for (DBSEntityAttribute attribute : CommonUtils.safeCollection(source.entity.getAttributes(monitor))) {
+            if (DBUtils.isPseudoAttribute(attribute) || DBUtils.isHiddenObject(attribute)) {
+                continue;
+            }
+            DBSEntityAttribute targetAttribute = target.entity.getAttribute(monitor, attribute.getName());
+            if (targetAttribute == null) {
+                throw new DBException("Column '" + attribute.getName() + "' not found in table '" + target.tableName + "'");
+            }
+            if (keyAttributes.contains(attribute)) {
+                continue;
+            }
+            if (attribute.getDataKind().isComplex() || attribute.getDataKind() == DBPDataKind.CONTENT) {
+                log.debug("Column '" + attribute.getName() + "' is skipped in data compare");
+                continue;
+            }
+            source.dataColumns.add(DBUtils.getQuotedIdentifier(attribute));
+            target.dataColumns.add(DBUtils.getQuotedIdentifier(targetAttribute));
+        }
+        for (DBSEntityAttribute keyAttribute : keyAttributes) {
+            DBSEntityAttribute targetAttribute = target.entity.getAttribute(monitor, keyAttribute.getName());
+            if (targetAttribute == null) {
+                throw new DBException("Key column '" + keyAttribute.getName() + "' not found in table '" + target.tableName + "'");
+            }
+            source.keyAttributes.add(keyAttribute);
+            target.keyAttributes.add(targetAttribute);
+            source.keyColumns.add(DBUtils.getQuotedIdentifier(keyAttribute));
+            target.keyColumns.add(DBUtils.getQuotedIdentifier(targetAttribute));
+        }
+        serverHash = settings.isServerHash() &&
+            source.hashFunction != null && source.hashFunction == target.hashFunction;
+        report.setServerHash(serverHash);
+
+        try (DBCSession sourceSession = DBUtils.openUtilSession(monitor, source.entity, "Compare data");
+             DBCSession targetSession = DBUtils.openUtilSession(monitor, target.entity, "Compare data"))
+        {
+            source.session = sourceSession;
+            target.session = targetSession;
+
+            long[] keyRange = null;
+            if (keyAttributes.size() == 1 && keyAttributes.get(0).getDataKind() == DBPDataKind.NUMERIC) {
+                keyRange = readKeyRange(monitor);
+            }
+            if (keyRange != null) {
+                compareRange(monitor, keyRange[0], keyRange[1]);
+            } else {
+                // Key can't be split into value ranges. Split it into chunks of ordered keys.
+                compareKeysetChunks(monitor);
+            }
+        } finally {
+            source.session = null;
+            target.session = null;
+        }
+
+        return report;
+    }
+
+    /**
+     * Reads common key range of both tables. Returns null if key values are not integral.
+     */
+    @Nullable
+    private long[] readKeyRange(DBRProgressMonitor monitor) throws DBCException {
+        long minValue = Long.MAX_VALUE, maxValue = Long.MIN_VALUE;
+        for (TableSide side : new TableSide[] { source, target }) {
+            String keyColumn = side.keyColumns.get(0);
+            Object[] range = new Object[2];
+            executeQuery(side, "SELECT MIN(" + keyColumn + "),MAX(" + keyColumn + ") FROM " + side.tableName, null, 0, resultSet -> {
+                range[0] = resultSet.getAttributeValue(0);
+                range[1] = resultSet.getAttributeValue(1);
+            });
+            if (range[0] == null || range[1] == null) {
+                // Empty table
+                continue;
+            }
+            Long min = toIntegralKey(range[0]), max = toIntegralKey(range[1]);
+            if (min == null || max == null) {
+                return null;
+            }
+            minValue = Math.min(minValue, min);
+            maxValue = Math.max(maxValue, max);
+        }
+        if (minValue > maxValue) {
+            // Both tables are empty
+            return new long[] { 0, 1 };
+        }
+        if (maxValue == Long.MAX_VALUE) {
+            return null;
+        }
+        return new long[] { minValue, maxValue + 1 };
+    }
+
+    private void compareRange(DBRProgressMonitor monitor, long fromKey, long toKey) throws DBCException, InterruptedException {
+        KeyCondition sourceCondition = source.makeRangeCondition(fromKey, toKey);
+        KeyCondition targetCondition = target.makeRangeCondition(fromKey, toKey);
+        monitor.subTask("Compare keys [" + fromKey + " - " + toKey + ")");
+
+        ChunkHash sourceHash = readChunkHash(monitor, source, sourceCondition);
+        ChunkHash targetHash = readChunkHash(monitor, target, targetCondition);
+        if (sourceHash.matches(targetHash)) {
+            report.addMatchedChunk(sourceHash.rowCount);
+            return;
+        }
+        report.addMismatchedChunk();
+
+        long maxRows = Math.max(sourceHash.rowCount, targetHash.rowCount);
+        BigInteger rangeSize = BigInteger.valueOf(toKey).subtract(BigInteger.valueOf(fromKey));
+        if (maxRows <= settings.getChunkSize() || rangeSize.compareTo(BigInteger.valueOf(settings.getSplitFactor())) <= 0) {
+            compareRows(monitor, sourceCondition, targetCondition);
+            return;
+        }
+        // Split mismatching range and go deeper
+        BigInteger step = rangeSize.add(BigInteger.valueOf(settings.getSplitFactor() - 1)).divide(BigInteger.valueOf(settings.getSplitFactor()));
+        for (long chunkStart = fromKey; chunkStart < toKey; ) {
+            long chunkEnd = BigInteger.valueOf(chunkStart).add(step).min(BigInteger.valueOf(toKey)).longValue();
+            compareRange(monitor, chunkStart, chunkEnd);
+            chunkStart = chunkEnd;
+        }
+    }
+
+    /**
+     * Splits table into chunks of at most chunk size source rows using key order (keyset pagination).
+     * Only keys are read to find chunk bounds. The last chunk is open so it includes all remaining target rows.
+     */
+    private void compareKeysetChunks(DBRProgressMonitor monitor) throws DBCException, InterruptedException {
+        Object[] lastKey = null;
+        long chunkNumber = 0;
+        for (;;) {
+            checkCanceled(monitor);
+            monitor.subTask("Compare keys chunk " + (++chunkNumber));
+            Object[] boundKey = readChunkBound(lastKey);
+            KeyCondition sourceCondition = source.makeKeysetCondition(lastKey, boundKey);
+            KeyCondition targetCondition = target.makeKeysetCondition(lastKey, boundKey);
+
+            ChunkHash sourceHash = readChunkHash(monitor, source, sourceCondition);
+            ChunkHash targetHash = readChunkHash(monitor, target, targetCondition);
+            if (sourceHash.matches(targetHash)) {
+                report.addMatchedChunk(sourceHash.rowCount);
+            } else {
+                report.addMismatchedChunk();
+                compareRows(monitor, sourceCondition, targetCondition);
+            }
+            if (boundKey == null) {
+                break;
+            }
+            lastKey = boundKey;
+        }
+    }
+
+    /**
+     * Returns key of the last row of the next source chunk or null if there are less than chunk size rows after the specified key
+     */
+    @Nullable
+    private Object[] readChunkBound(@Nullable Object[] afterKey) throws DBCException {
+        int chunkSize = settings.getChunkSize();
+        KeyCondition condition = source.makeKeysetCondition(afterKey, null);
+        int keyCount = source.keyColumns.size();
+        Object[][] lastRow = new Object[1][];
+        int[] rowCount = new int[1];
+        executeQuery(source,
+            "SELECT " + String.join(",", source.keyColumns) + " FROM " + source.tableName + makeWhere(condition) +
+                " ORDER BY " + String.join(",", source.keyColumns),
+            condition,
+            chunkSize,
+            resultSet -> {
+                if (rowCount[0] < chunkSize) {
+                    rowCount[0]++;
+                    lastRow[0] = readValues(resultSet, keyCount);
+                }
+            });
+        return rowCount[0] < chunkSize ? null : lastRow[0];
+    }
+
+    private void compareRows(DBRProgressMonitor monitor, @Nullable KeyCondition sourceCondition, @Nullable KeyCondition targetCondition) throws DBCException, InterruptedException {
+        checkCanceled(monitor);
+        try (RowCursor sourceCursor = new RowCursor(source, sourceCondition, serverHash);
+             RowCursor targetCursor = new RowCursor(target, targetCondition, serverHash))
+        {
+            long sourceRows = mergeRows(monitor, sourceCursor, targetCursor, report, settings.getChunkSize());
+            report.addComparedRows(sourceRows);
+        }
+    }
+
+    /**
+     * Merges key-ordered rows of both sides and reports differences. Returns number of source rows.
+     * Rows which were not matched yet are kept in pending maps. If both databases order keys the same way
+     * these maps contain only missing rows. Otherwise (e.g. different collations) result is still correct
+     * but more rows are kept in memory. Each pending map keeps at most pendingLimit rows, the oldest
+     * (i.e. lowest) keys are reported as missing when limit is reached.
+     */
+    static long mergeRows(DBRProgressMonitor monitor, RowSource sourceRows, RowSource targetRows, CompareDataReport report, int pendingLimit) throws DBCException, InterruptedException {
+        LinkedHashMap<String, String> pendingSource = new LinkedHashMap<>();
+        LinkedHashMap<String, String> pendingTarget = new LinkedHashMap<>();
+        long sourceCount = 0;
+        boolean hasSource = sourceRows.next();
+        boolean hasTarget = targetRows.next();
+        while (hasSource || hasTarget) {
+            checkCanceled(monitor);
+            int order = !hasTarget ? -1 : !hasSource ? 1 : compareKeys(sourceRows.getKeyValues(), targetRows.getKeyValues());
+            if (order == 0 && sourceRows.getKey().equals(targetRows.getKey())) {
+                sourceCount++;
+                if (!sourceRows.getRowHash().equals(targetRows.getRowHash())) {
+                    report.addDifference(sourceRows.getKey(), CompareDataReport.DifferenceType.CHANGED);
+                }
+                hasSource = sourceRows.next();
+                hasTarget = targetRows.next();
+            } else if (order <= 0) {
+                sourceCount++;
+                matchPendingRow(report, sourceRows, pendingTarget, pendingSource, pendingLimit, CompareDataReport.DifferenceType.MISSING_IN_TARGET);
+                hasSource = sourceRows.next();
+            } else {
+                matchPendingRow(report, targetRows, pendingSource, pendingTarget, pendingLimit, CompareDataReport.DifferenceType.MISSING_IN_SOURCE);
+                hasTarget = targetRows.next();
+            }
+        }
+        for (String key : pendingSource.keySet()) {
+            report.addDifference(key, CompareDataReport.DifferenceType.MISSING_IN_TARGET);
+        }
+        for (String key : pendingTarget.keySet()) {
+            report.addDifference(key, CompareDataReport.DifferenceType.MISSING_IN_SOURCE);
+        }
+        return sourceCount;
+    }
+
+    private static void matchPendingRow(
+        CompareDataReport report,
+        RowSource row,
+        Map<String, String> otherPending,
+        LinkedHashMap<String, String> ownPending,
+        int pendingLimit,
+        CompareDataReport.DifferenceType missingType)
+    {
+        String otherRowHash = otherPending.remove(row.getKey());
+        if (otherRowHash == null) {
+            ownPending.put(row.getKey(), row.getRowHash());
+            if (ownPending.size() > pendingLimit) {
+                Iterator<String> iterator = ownPending.keySet().iterator();
+                report.addDifference(iterator.next(), missingType);
+                iterator.remove();
+            }
+        } else if (!otherRowHash.equals(row.getRowHash())) {
+            report.addDifference(row.getKey(), CompareDataReport.DifferenceType.CHANGED);
+        }
+    }
+
+    private ChunkHash readChunkHash(DBRProgressMonitor monitor, TableSide side, @Nullable KeyCondition condition) throws DBCException, InterruptedException {
+        checkCanceled(monitor);
+        if (serverHash) {
+            Object[] result = new Object[2];
+            executeQuery(side,
+                "SELECT COUNT(*),SUM(" + side.getRowHashExpression() + ") FROM " + side.tableName + makeWhere(condition),
+                condition,
+                0,
+                resultSet -> {
+                    result[0] = resultSet.getAttributeValue(0);
+                    result[1] = resultSet.getAttributeValue(1);
+                });
+            return new ChunkHash(CommonUtils.toLong(result[0]), normalizeValue(result[1]));
+        } else {
+            long[] result = new long[2];
+            int columnCount = side.keyColumns.size() + side.dataColumns.size();
+            executeQuery(side, "SELECT " + side.getSelectList(false) + " FROM " + side.tableName + makeWhere(condition), condition, 0, resultSet -> {
+                result[0]++;
+                // Sum of row hashes doesn't depend on rows order
+                result[1] += calcRowHash(readValues(resultSet, columnCount));
+            });
+            return new ChunkHash(result[0], String.valueOf(result[1]));
+        }
+    }
+
+    private static void executeQuery(TableSide side, String query, @Nullable KeyCondition condition, int maxRows, RowHandler handler) throws DBCException {
+        try (DBCStatement dbStat = side.session.prepareStatement(DBCStatementType.QUERY, query, false, false, false)) {
+            if (condition != null) {
+                condition.bindParameters(side.session, dbStat, side.keyAttributes);
+            }
+            if (maxRows > 0) {
+                dbStat.setLimit(0, maxRows);
+            }
+            if (dbStat.executeStatement()) {
+                try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                    while (dbResult.nextRow()) {
+                        handler.handleRow(dbResult);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Object[] readValues(DBCResultSet resultSet, int columnCount) throws DBCException {
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = resultSet.getAttributeValue(i);
+        }
+        return values;
+    }
+
+    /**
+     * Client side row hash. Each value is prefixed with null flag and text length, so
+     * null, empty and any other value can't produce the same input.
+     */
+    static long calcRowHash(Object[] values) {
+        CRC32 crc = new CRC32();
+        for (Object value : values) {
+            if (value == null) {
+                crc.update(0);
+                continue;
+            }
+            byte[] bytes = normalizeValue(value).getBytes(StandardCharsets.UTF_8);
+            crc.update(1);
+            crc.update(bytes.length >>> 24);
+            crc.update(bytes.length >>> 16);
+            crc.update(bytes.length >>> 8);
+            crc.update(bytes.length);
+            crc.update(bytes);
+        }
+        return crc.getValue();
+    }
+
+    static String makeKeyText(Object[] keyValues) {
+        StringBuilder keyText = new StringBuilder();
+        for (int i = 0; i < keyValues.length; i++) {
+            if (i > 0) keyText.append(", ");
+            keyText.append(normalizeValue(keyValues[i]));
+        }
+        return keyText.toString();
+    }
+
+    /**
+     * Compares keys in the same way as database orders them (numbers numerically, other values as strings).
+     * Exact match is checked by normalized key text.
+     */
+    static int compareKeys(Object[] keys1, Object[] keys2) {
+        for (int i = 0; i < keys1.length; i++) {
+            int result = compareKeyValues(keys1[i], keys2[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private static int compareKeyValues(@Nullable Object value1, @Nullable Object value2) {
+        if (value1 == null || value2 == null) {
+            return value1 == null ? (value2 == null ? 0 : -1) : 1;
+        }
+        if (value1 instanceof Number && value2 instanceof Number) {
+            try {
+                return new BigDecimal(value1.toString()).compareTo(new BigDecimal(value2.toString()));
+            } catch (NumberFormatException e) {
+                // NaN or infinity - compare as strings
+            }
+        }
+        return normalizeValue(value1).compareTo(normalizeValue(value2));
+    }
+
+    @NotNull
+    static String normalizeValue(@Nullable Object value) {
+        if (value == null) {
+            return NULL_VALUE;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).stripTrailingZeros().toPlainString();
+        }
+        if (value instanceof Number) {
+            try {
+                return new BigDecimal(value.toString()).stripTrailingZeros().toPlainString();
+            } catch (NumberFormatException e) {
+                // NaN or infinity
+                return value.toString();
+            }
+        }
+        if (value instanceof byte[]) {
+            return CommonUtils.toHexString((byte[]) value);
+        }
+        return value.toString();
+    }
+
+    @Nullable
+    private static Long toIntegralKey(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        try {
+            if (value instanceof BigInteger) {
+                return ((BigInteger) value).longValueExact();
+            }
+            if (value instanceof BigDecimal) {
+                return ((BigDecimal) value).longValueExact();
+            }
+        } catch (ArithmeticException e) {
+            // Fractional or too big
+        }
+        return null;
+    }
+
+    private static String makeWhere(@Nullable KeyCondition condition) {
+        return condition == null ? "" : " WHERE " + condition.getSql();
+    }
+
+    private static void checkCanceled(DBRProgressMonitor monitor) throws InterruptedException {
+        if (monitor.isCanceled()) {
+            throw new InterruptedException();
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.sql.SQLDataSource;
+
+import java.util.List;
+
+/**
+ * Server-side row hash function.
+ * Produces SQL expression which calculates numeric hash of row columns.
+ * Hashes are comparable only between databases which use the same function.
+ * NULL must never produce the same hash input as some value, so functions which concatenate values
+ * hash null flags of all columns separately.
+ */
+public enum CompareDataHashFunction {
+
+    POSTGRESQL("PostgreSQL") {
+        @Override
+        public String getRowHashExpression(List<String> columns) {
+            // First 32 bits of MD5 of row text representation. Row text distinguishes NULL (empty) and empty string ("")
+            return "('x' || substr(md5(ROW(" + String.join(",", columns) + ")::text), 1, 8))::bit(32)::int";
+        }
+    },
+    MYSQL("MySQL") {
+        @Override
+        public String getRowHashExpression(List<String> columns) {
+            // Null flags (ISNULL returns 1 or 0) followed by values. CONCAT_WS skips NULLs, so nulls are replaced with empty strings.
+            StringBuilder expr = new StringBuilder("CRC32(CONCAT_WS('|',CONCAT(");
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) expr.append(",");
+                expr.append("ISNULL(").append(columns.get(i)).append(")");
+            }
+            expr.append(")");
+            for (String column : columns) {
+                expr.append(",COALESCE(CAST(").append(column).append(" AS CHAR),'')");
+            }
+            return expr.append("))").toString();
+        }
+    },
+    ORACLE("Oracle") {
+        @Override
+        public String getRowHashExpression(List<String> columns) {
+            // Null flags followed by values. Oracle treats empty strings as NULLs so they are equal here too.
+            StringBuilder expr = new StringBuilder("ORA_HASH(");
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) expr.append(" || ");
+                expr.append("NVL2(").append(columns.get(i)).append(",'1','0')");
+            }
+            for (String column : columns) {
+                expr.append(" || '|' || ").append(column);
+            }
+            return expr.append(")").toString();
+        }
+    };
+
+    private final String dialectName;
+
+    CompareDataHashFunction(String dialectName) {
+        this.dialectName = dialectName;
+    }
+
+    /**
+     * Returns SQL expression which evaluates row hash
+     * @param columns quoted column names
+     */
+    public abstract String getRowHashExpression(List<String> columns);
+
+    @Nullable
+    public static CompareDataHashFunction getFunction(@NotNull DBPDataSource dataSource) {
+        if (!(dataSource instanceof SQLDataSource)) {
+            return null;
+        }
+        String dialectName = ((SQLDataSource) dataSource).getSQLDialect().getDialectName();
+        for (CompareDataHashFunction function : values()) {
+            if (function.dialectName.equals(dialectName)) {
+                return function;
+            }
+        }
+        return null;
+    }
+
+}
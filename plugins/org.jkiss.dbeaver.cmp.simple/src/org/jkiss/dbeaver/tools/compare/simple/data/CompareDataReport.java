@@ -0,0 +1,165 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple.data;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Table data compare report
+ */
+public class CompareDataReport {
+
+    public enum DifferenceType {
+        MISSING_IN_TARGET,
+        MISSING_IN_SOURCE,
+        CHANGED
+    }
+
+    public static class RowDifference {
+        private final String key;
+        private final DifferenceType type;
+
+        RowDifference(String key, DifferenceType type) {
+            this.key = key;
+            this.type = type;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public DifferenceType getType() {
+            return type;
+        }
+
+        @Override
+        public String toString() {
+            return type + ": " + key;
+        }
+    }
+
+    private final int maxDifferences;
+    private final List<RowDifference> differences = new ArrayList<>();
+    private boolean serverHash;
+    private long matchedChunks;
+    private long mismatchedChunks;
+    private long comparedRows;
+    private long missingInTarget;
+    private long missingInSource;
+    private long changedRows;
+
+    CompareDataReport(int maxDifferences) {
+        this.maxDifferences = maxDifferences;
+    }
+
+    /**
+     * First reported row differences. Limited by max differences setting.
+     */
+    public List<RowDifference> getDifferences() {
+        return differences;
+    }
+
+    public boolean isServerHash() {
+        return serverHash;
+    }
+
+    void setServerHash(boolean serverHash) {
+        this.serverHash = serverHash;
+    }
+
+    public long getMatchedChunks() {
+        return matchedChunks;
+    }
+
+    public long getMismatchedChunks() {
+        return mismatchedChunks;
+    }
+
+    public long getComparedRows() {
+        return comparedRows;
+    }
+
+    public long getMissingInTarget() {
+        return missingInTarget;
+    }
+
+    public long getMissingInSource() {
+        return missingInSource;
+    }
+
+    public long getChangedRows() {
+        return changedRows;
+    }
+
+    public boolean hasDifferences() {
+        return missingInTarget > 0 || missingInSource > 0 || changedRows > 0;
+    }
+
+    void addMatchedChunk(long rowCount) {
+        matchedChunks++;
+        comparedRows += rowCount;
+    }
+
+    void addMismatchedChunk() {
+        mismatchedChunks++;
+    }
+
+    void addComparedRows(long rowCount) {
+        comparedRows += rowCount;
+    }
+
+    void addDifference(String key, DifferenceType type) {
+        switch (type) {
+            case MISSING_IN_TARGET: missingInTarget++; break;
+            case MISSING_IN_SOURCE: missingInSource++; break;
+            default: changedRows++; break;
+        }
+        if (differences.size() < maxDifferences) {
+            differences.add(new RowDifference(key, type));
+        }
+    }
+
+    /**
+     * Writes summary and reported differences (one per line)
+     */
+    public void writeReport(Writer writer, String lineSeparator) throws IOException {
+        writer.write(toString());
+        writer.write(lineSeparator);
+        for (RowDifference difference : differences) {
+            writer.write(difference.toString());
+            writer.write(lineSeparator);
+        }
+        long totalDifferences = missingInTarget + missingInSource + changedRows;
+        if (totalDifferences > differences.size()) {
+            writer.write("... " + (totalDifferences - differences.size()) + " more differences");
+            writer.write(lineSeparator);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Compared rows: " + comparedRows +
+            ", matched chunks: " + matchedChunks +
+            ", mismatched chunks: " + mismatchedChunks +
+            ", missing in target: " + missingInTarget +
+            ", missing in source: " + missingInSource +
+            ", changed: " + changedRows;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple.data;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.task.DBTTask;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.Map;
+
+/**
+ * Table data compare settings
+ */
+public class CompareDataSettings {
+
+    public static final String PROP_SOURCE = "source";
+    public static final String PROP_TARGET = "target";
+    public static final String PROP_PROJECT = "project";
+    public static final String PROP_CHUNK_SIZE = "chunkSize";
+    public static final String PROP_SPLIT_FACTOR = "splitFactor";
+    public static final String PROP_SERVER_HASH = "serverHash";
+    public static final String PROP_MAX_DIFFERENCES = "maxDifferences";
+    public static final String PROP_OUTPUT_FILE = "outputFile";
+
+    public static final int DEFAULT_CHUNK_SIZE = 10000;
+    public static final int DEFAULT_SPLIT_FACTOR = 16;
+    public static final int DEFAULT_MAX_DIFFERENCES = 1000;
+
+    private DBSEntity sourceEntity;
+    private DBSEntity targetEntity;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int splitFactor = DEFAULT_SPLIT_FACTOR;
+    private boolean serverHash = true;
+    private int maxDifferences = DEFAULT_MAX_DIFFERENCES;
+    private String outputFile;
+
+    public CompareDataSettings() {
+    }
+
+    public CompareDataSettings(DBSEntity sourceEntity, DBSEntity targetEntity) {
+        this.sourceEntity = sourceEntity;
+        this.targetEntity = targetEntity;
+    }
+
+    public DBSEntity getSourceEntity() {
+        return sourceEntity;
+    }
+
+    public void setSourceEntity(DBSEntity sourceEntity) {
+        this.sourceEntity = sourceEntity;
+    }
+
+    public DBSEntity getTargetEntity() {
+        return targetEntity;
+    }
+
+    public void setTargetEntity(DBSEntity targetEntity) {
+        this.targetEntity = targetEntity;
+    }
+
+    /**
+     * Maximum number of rows in a chunk which is compared row by row.
+     * Bigger mismatching chunks are split further.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Number of sub-ranges a mismatching key range is split into
+     */
+    public int getSplitFactor() {
+        return splitFactor;
+    }
+
+    public void setSplitFactor(int splitFactor) {
+        this.splitFactor = splitFactor;
+    }
+
+    /**
+     * Calculate hashes on server side if both databases support the same hash function
+     */
+    public boolean isServerHash() {
+        return serverHash;
+    }
+
+    public void setServerHash(boolean serverHash) {
+        this.serverHash = serverHash;
+    }
+
+    public int getMaxDifferences() {
+        return maxDifferences;
+    }
+
+    public void setMaxDifferences(int maxDifferences) {
+        this.maxDifferences = maxDifferences;
+    }
+
+    /**
+     * File the report is written to. Report is written only to the task log if file isn't specified.
+     */
+    public String getOutputFile() {
+        return outputFile;
+    }
+
+    public void setOutputFile(String outputFile) {
+        this.outputFile = outputFile;
+    }
+
+    public void loadFrom(DBRProgressMonitor monitor, DBTTask task) throws DBException {
+        Map<String, Object> config = task.getProperties();
+        String projectName = CommonUtils.toString(config.get(PROP_PROJECT));
+        DBPProject project = CommonUtils.isEmpty(projectName) ? null : DBWorkbench.getPlatform().getWorkspace().getProject(projectName);
+        if (project == null) {
+            project = task.getProject();
+        }
+        sourceEntity = findEntity(monitor, project, CommonUtils.toString(config.get(PROP_SOURCE)));
+        targetEntity = findEntity(monitor, project, CommonUtils.toString(config.get(PROP_TARGET)));
+        chunkSize = CommonUtils.toInt(config.get(PROP_CHUNK_SIZE), DEFAULT_CHUNK_SIZE);
+        splitFactor = CommonUtils.toInt(config.get(PROP_SPLIT_FACTOR), DEFAULT_SPLIT_FACTOR);
+        serverHash = CommonUtils.getBoolean(config.get(PROP_SERVER_HASH), true);
+        maxDifferences = CommonUtils.toInt(config.get(PROP_MAX_DIFFERENCES), DEFAULT_MAX_DIFFERENCES);
+        outputFile = CommonUtils.toString(config.get(PROP_OUTPUT_FILE), null);
+    }
+
+    public void saveTo(Map<String, Object> config) {
+        if (sourceEntity.getDataSource() != null) {
+            config.put(PROP_PROJECT, sourceEntity.getDataSource().getContainer().getProject().getName());
+        }
+        config.put(PROP_SOURCE, DBUtils.getObjectFullId(sourceEntity));
+        config.put(PROP_TARGET, DBUtils.getObjectFullId(targetEntity));
+        config.put(PROP_CHUNK_SIZE, chunkSize);
+        config.put(PROP_SPLIT_FACTOR, splitFactor);
+        config.put(PROP_SERVER_HASH, serverHash);
+        config.put(PROP_MAX_DIFFERENCES, maxDifferences);
+        if (!CommonUtils.isEmpty(outputFile)) {
+            config.put(PROP_OUTPUT_FILE, outputFile);
+        }
+    }
+
+    private static DBSEntity findEntity(DBRProgressMonitor monitor, DBPProject project, String id) throws DBException {
+        if (CommonUtils.isEmpty(id)) {
+            throw new DBException("Compare table not specified");
+        }
+        DBSObject object = DBUtils.findObjectById(monitor, project, id);
+        if (!(object instanceof DBSEntity)) {
+            throw new DBException("Table '" + id + "' not found");
+        }
+        return (DBSEntity) object;
+    }
+
+}
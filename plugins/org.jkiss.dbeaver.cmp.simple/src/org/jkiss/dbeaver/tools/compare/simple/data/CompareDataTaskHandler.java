@@ -0,0 +1,87 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
+import org.jkiss.dbeaver.model.task.DBTTask;
+import org.jkiss.dbeaver.model.task.DBTTaskExecutionListener;
+import org.jkiss.dbeaver.model.task.DBTTaskHandler;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Table data compare task handler
+ */
+public class CompareDataTaskHandler implements DBTTaskHandler {
+
+    @Override
+    public void executeTask(
+        @NotNull DBRRunnableContext runnableContext,
+        @NotNull DBTTask task,
+        @NotNull Locale locale,
+        @NotNull Log log,
+        @NotNull DBTTaskExecutionListener listener) throws DBException
+    {
+        CompareDataSettings settings = new CompareDataSettings();
+        listener.taskStarted(settings);
+
+        Throwable error = null;
+        try {
+            runnableContext.run(true, true, monitor -> {
+                try {
+                    settings.loadFrom(monitor, task);
+                    log.debug("Compare data of " + settings.getSourceEntity().getName() + " and " + settings.getTargetEntity().getName());
+
+                    monitor.beginTask("Compare data", 1);
+                    CompareDataReport report = new CompareDataExecutor(settings).compareData(monitor);
+                    monitor.done();
+
+                    log.info(report.toString());
+                    for (CompareDataReport.RowDifference difference : report.getDifferences()) {
+                        log.info(difference.toString());
+                    }
+                    if (!CommonUtils.isEmpty(settings.getOutputFile())) {
+                        File outputFile = new File(settings.getOutputFile());
+                        try (Writer writer = new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8)) {
+                            report.writeReport(writer, GeneralUtils.getDefaultLineSeparator());
+                        }
+                        log.info("Compare report saved to " + outputFile.getAbsolutePath());
+                    }
+                } catch (DBException | IOException e) {
+                    throw new InvocationTargetException(e);
+                }
+            });
+        } catch (InvocationTargetException e) {
+            error = e.getTargetException();
+        } catch (InterruptedException e) {
+            log.debug("Data compare canceled");
+        }
+        listener.taskFinished(settings, error);
+        if (error != null) {
+            throw new DBException("Error comparing data", error);
+        }
+    }
+
+}
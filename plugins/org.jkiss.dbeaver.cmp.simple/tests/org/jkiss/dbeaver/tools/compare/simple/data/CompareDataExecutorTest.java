@@ -0,0 +1,186 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple.data;
+
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+public class CompareDataExecutorTest {
+
+    private static class ListRowSource implements CompareDataExecutor.RowSource {
+        private final Iterator<Object[]> rows;
+        private Object[] current;
+
+        ListRowSource(Object[]... rows) {
+            this.rows = Arrays.asList(rows).iterator();
+        }
+
+        @Override
+        public boolean next() {
+            current = rows.hasNext() ? rows.next() : null;
+            return current != null;
+        }
+
+        @Override
+        public Object[] getKeyValues() {
+            return new Object[] { current[0] };
+        }
+
+        @Override
+        public String getKey() {
+            return CompareDataExecutor.makeKeyText(getKeyValues());
+        }
+
+        @Override
+        public String getRowHash() {
+            return String.valueOf(current[1]);
+        }
+    }
+
+    private static Object[] row(Object key, Object hash) {
+        return new Object[] { key, hash };
+    }
+
+    @Test
+    public void testKeysetConditionSingleColumn() {
+        //given
+        List<String> columns = Collections.singletonList("id");
+        //when
+        CompareDataExecutor.KeyCondition condition = CompareDataExecutor.KeyCondition.makeKeyset(
+            columns, new Object[] { "a" }, new Object[] { "k" });
+        //then
+        Assert.assertEquals("((id > ?)) AND ((id <= ?))", condition.getSql());
+        Assert.assertEquals(Arrays.asList("a", "k"), condition.getParameterValues());
+    }
+
+    @Test
+    public void testKeysetConditionCompositeKey() {
+        //given
+        List<String> columns = Arrays.asList("a", "b");
+        //when
+        CompareDataExecutor.KeyCondition after = CompareDataExecutor.KeyCondition.makeKeyset(
+            columns, new Object[] { 1, "x" }, null);
+        CompareDataExecutor.KeyCondition upTo = CompareDataExecutor.KeyCondition.makeKeyset(
+            columns, null, new Object[] { 2, "y" });
+        //then
+        Assert.assertEquals("((a > ?) OR (a = ? AND b > ?))", after.getSql());
+        Assert.assertEquals(Arrays.asList(1, 1, "x"), after.getParameterValues());
+        Assert.assertEquals("((a < ?) OR (a = ? AND b <= ?))", upTo.getSql());
+        Assert.assertEquals(Arrays.asList(2, 2, "y"), upTo.getParameterValues());
+    }
+
+    @Test
+    public void testKeysetConditionOpenBounds() {
+        Assert.assertNull(CompareDataExecutor.KeyCondition.makeKeyset(Collections.singletonList("id"), null, null));
+    }
+
+    @Test
+    public void testRowHashDistinguishesNull() {
+        //given
+        long nullHash = CompareDataExecutor.calcRowHash(new Object[] { 1, null });
+        //when
+        long nullTextHash = CompareDataExecutor.calcRowHash(new Object[] { 1, "\\N" });
+        long emptyHash = CompareDataExecutor.calcRowHash(new Object[] { 1, "" });
+        long letterHash = CompareDataExecutor.calcRowHash(new Object[] { 1, "N" });
+        //then
+        Assert.assertNotEquals(nullHash, nullTextHash);
+        Assert.assertNotEquals(nullHash, emptyHash);
+        Assert.assertNotEquals(nullHash, letterHash);
+    }
+
+    @Test
+    public void testRowHashDistinguishesValueBounds() {
+        Assert.assertNotEquals(
+            CompareDataExecutor.calcRowHash(new Object[] { "a|", "b" }),
+            CompareDataExecutor.calcRowHash(new Object[] { "a", "|b" }));
+    }
+
+    @Test
+    public void testRowHashNormalizesNumbers() {
+        Assert.assertEquals(
+            CompareDataExecutor.calcRowHash(new Object[] { 10, new java.math.BigDecimal("1.50") }),
+            CompareDataExecutor.calcRowHash(new Object[] { 10L, 1.5d }));
+    }
+
+    @Test
+    public void testMergeRows() throws Exception {
+        //given
+        CompareDataReport report = new CompareDataReport(100);
+        ListRowSource source = new ListRowSource(row(1, "a"), row(2, "b"), row(3, "c"), row(5, "e"));
+        ListRowSource target = new ListRowSource(row(1, "a"), row(3, "x"), row(4, "d"), row(5, "e"));
+        //when
+        long sourceRows = CompareDataExecutor.mergeRows(new VoidProgressMonitor(), source, target, report, 100);
+        //then
+        Assert.assertEquals(4, sourceRows);
+        Assert.assertEquals(1, report.getMissingInTarget());
+        Assert.assertEquals(1, report.getMissingInSource());
+        Assert.assertEquals(1, report.getChangedRows());
+    }
+
+    @Test
+    public void testMergeRowsDifferentOrder() throws Exception {
+        //given
+        CompareDataReport report = new CompareDataReport(100);
+        // Target orders keys differently (e.g. another collation)
+        ListRowSource source = new ListRowSource(row("A", "1"), row("b", "2"), row("C", "3"));
+        ListRowSource target = new ListRowSource(row("b", "2"), row("A", "1"), row("C", "4"));
+        //when
+        CompareDataExecutor.mergeRows(new VoidProgressMonitor(), source, target, report, 100);
+        //then
+        Assert.assertEquals(0, report.getMissingInTarget());
+        Assert.assertEquals(0, report.getMissingInSource());
+        Assert.assertEquals(1, report.getChangedRows());
+    }
+
+    @Test
+    public void testMergeRowsPendingLimit() throws Exception {
+        //given
+        CompareDataReport report = new CompareDataReport(100);
+        ListRowSource source = new ListRowSource(row(1, "a"), row(2, "b"), row(3, "c"), row(4, "d"));
+        ListRowSource target = new ListRowSource();
+        //when
+        long sourceRows = CompareDataExecutor.mergeRows(new VoidProgressMonitor(), source, target, report, 2);
+        //then
+        Assert.assertEquals(4, sourceRows);
+        Assert.assertEquals(4, report.getMissingInTarget());
+        Assert.assertEquals("MISSING_IN_TARGET: 1", report.getDifferences().get(0).toString());
+        Assert.assertEquals("MISSING_IN_TARGET: 4", report.getDifferences().get(3).toString());
+    }
+
+    @Test
+    public void testReportLimit() throws Exception {
+        //given
+        CompareDataReport report = new CompareDataReport(1);
+        //when
+        report.addDifference("1", CompareDataReport.DifferenceType.CHANGED);
+        report.addDifference("2", CompareDataReport.DifferenceType.MISSING_IN_SOURCE);
+        java.io.StringWriter out = new java.io.StringWriter();
+        report.writeReport(out, "\n");
+        //then
+        Assert.assertEquals(1, report.getDifferences().size());
+        Assert.assertEquals(
+            report.toString() + "\nCHANGED: 1\n... 1 more differences\n",
+            out.toString());
+    }
+
+}
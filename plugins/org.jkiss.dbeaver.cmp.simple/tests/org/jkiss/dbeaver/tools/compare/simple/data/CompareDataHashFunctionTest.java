@@ -0,0 +1,56 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple.data;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CompareDataHashFunctionTest {
+
+    private final List<String> columns = Arrays.asList("`id`", "`name`");
+
+    @Test
+    public void testMySQLHashesNullFlags() {
+        //when
+        String expression = CompareDataHashFunction.MYSQL.getRowHashExpression(columns);
+        //then
+        Assert.assertEquals(
+            "CRC32(CONCAT_WS('|',CONCAT(ISNULL(`id`),ISNULL(`name`)),COALESCE(CAST(`id` AS CHAR),''),COALESCE(CAST(`name` AS CHAR),'')))",
+            expression);
+    }
+
+    @Test
+    public void testOracleHashesNullFlags() {
+        //when
+        String expression = CompareDataHashFunction.ORACLE.getRowHashExpression(Arrays.asList("ID", "NAME"));
+        //then
+        Assert.assertEquals(
+            "ORA_HASH(NVL2(ID,'1','0') || NVL2(NAME,'1','0') || '|' || ID || '|' || NAME)",
+            expression);
+    }
+
+    @Test
+    public void testPostgreSQLHashesRow() {
+        Assert.assertEquals(
+            "('x' || substr(md5(ROW(\"id\",\"name\")::text), 1, 8))::bit(32)::int",
+            CompareDataHashFunction.POSTGRESQL.getRowHashExpression(Arrays.asList("\"id\"", "\"name\"")));
+    }
+
+}
@@ -34,9 +34,11 @@ import org.jkiss.dbeaver.DBeaverPreferences;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.core.DBeaverActivator;
+import org.jkiss.dbeaver.core.DBeaverCore;
 import org.jkiss.dbeaver.core.application.update.DBeaverVersionChecker;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.registry.DataSourceRegistry;
+import org.jkiss.dbeaver.runtime.StartupProfiler;
 import org.jkiss.dbeaver.ui.actions.datasource.DataSourceHandler;
 import org.jkiss.dbeaver.ui.dialogs.ConfirmationDialog;
 import org.jkiss.dbeaver.ui.editors.content.ContentEditorInput;
@@ -142,6 +144,10 @@ public class ApplicationWorkbenchAdvisor extends WorkbenchAdvisor {
 
         startVersionChecker();
 
+        // Workbench is shown. Initialize non-critical services and finish startup profiling.
+        DBeaverCore.getInstance().activateLazyServices();
+        StartupProfiler.finish();
+
 /*
         settingsChangeListener = event -> {
             if (isPropertyChangeRequiresRestart(event.getProperty())) {
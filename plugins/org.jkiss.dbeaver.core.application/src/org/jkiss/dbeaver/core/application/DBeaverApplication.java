@@ -44,6 +44,7 @@ import org.jkiss.dbeaver.model.impl.app.DefaultSecureStorage;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.registry.BaseWorkspaceImpl;
 import org.jkiss.dbeaver.registry.updater.VersionDescriptor;
+import org.jkiss.dbeaver.runtime.StartupProfiler;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.dbeaver.utils.SystemVariablesResolver;
@@ -193,7 +194,9 @@ public class DBeaverApplication implements IApplication, DBPApplication {
         Display.setAppName(GeneralUtils.getProductName());
 
         // Create display
-        getDisplay();
+        try (StartupProfiler.Phase ignored = StartupProfiler.startPhase("Create display")) {
+            getDisplay();
+        }
 
         try {
             // look and see if there's a splash shell we can parent off of
@@ -231,10 +234,14 @@ public class DBeaverApplication implements IApplication, DBPApplication {
         // Write version info
         writeWorkspaceInfo();
 
-        initializeApplication();
+        try (StartupProfiler.Phase ignored = StartupProfiler.startPhase("Initialize application")) {
+            initializeApplication();
+        }
 
         // Run instance server
-        instanceServer = DBeaverInstanceServer.startInstanceServer(createInstanceController());
+        try (StartupProfiler.Phase ignored = StartupProfiler.startPhase("Instance server")) {
+            instanceServer = DBeaverInstanceServer.startInstanceServer(createInstanceController());
+        }
 
         // Prefs default
         PlatformUI.getPreferenceStore().setDefault(
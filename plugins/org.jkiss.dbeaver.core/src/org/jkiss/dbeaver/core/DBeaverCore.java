@@ -36,6 +36,7 @@ import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.registry.BasePlatformImpl;
 import org.jkiss.dbeaver.registry.DataSourceProviderRegistry;
 import org.jkiss.dbeaver.runtime.SecurityProviderUtils;
+import org.jkiss.dbeaver.runtime.StartupProfiler;
 import org.jkiss.dbeaver.runtime.qm.QMControllerImpl;
 import org.jkiss.dbeaver.runtime.qm.QMLogFileWriter;
 import org.jkiss.dbeaver.ui.resources.DefaultResourceHandlerImpl;
@@ -147,33 +148,48 @@ public class DBeaverCore extends BasePlatformImpl {
     protected void initialize() {
         long startTime = System.currentTimeMillis();
         log.debug("Initialize Core...");
+        try (StartupProfiler.Phase ignored = StartupProfiler.startPhase("Initialize core")) {
+            // Validate that UI was initialized
+            try (StartupProfiler.Phase ignored1 = StartupProfiler.startPhase("Initialize UI")) {
+                DBeaverUI.getInstance();
+            }
 
-        // Validate that UI was initialized
-        DBeaverUI.getInstance();
-
-        if (getPreferenceStore().getBoolean(DBeaverPreferences.SECURITY_USE_BOUNCY_CASTLE)) {
-            // Register BC security provider
-            SecurityProviderUtils.registerSecurityProvider();
-        }
+            if (getPreferenceStore().getBoolean(DBeaverPreferences.SECURITY_USE_BOUNCY_CASTLE)) {
+                // Register BC security provider
+                try (StartupProfiler.Phase ignored1 = StartupProfiler.startPhase("Security provider")) {
+                    SecurityProviderUtils.registerSecurityProvider();
+                }
+            }
 
-        this.certificateStorage = new DefaultCertificateStorage(
-            new File(DBeaverActivator.getInstance().getStateLocation().toFile(), "security"));
+            this.certificateStorage = new DefaultCertificateStorage(
+                new File(DBeaverActivator.getInstance().getStateLocation().toFile(), "security"));
 
-        // Register properties adapter
-        this.workspace = new DBeaverWorkspace(this, ResourcesPlugin.getWorkspace());
-        this.workspace.initializeProjects();
+            // Register properties adapter
+            try (StartupProfiler.Phase ignored1 = StartupProfiler.startPhase("Workspace")) {
+                this.workspace = new DBeaverWorkspace(this, ResourcesPlugin.getWorkspace());
+                this.workspace.initializeProjects();
+            }
 
-        QMUtils.initApplication(this);
-        this.queryManager = new QMControllerImpl();
+            try (StartupProfiler.Phase ignored1 = StartupProfiler.startPhase("Query manager")) {
+                QMUtils.initApplication(this);
+                this.queryManager = new QMControllerImpl();
 
-        this.qmLogWriter = new QMLogFileWriter();
-        this.queryManager.registerMetaListener(qmLogWriter);
+                this.qmLogWriter = new QMLogFileWriter();
+                this.queryManager.registerMetaListener(qmLogWriter);
+            }
 
-        super.initialize();
+            super.initialize();
+        }
 
         log.debug("Core initialized (" + (System.currentTimeMillis() - startTime) + "ms)");
     }
 
+    @Override
+    protected boolean isLazyServicesActivationDeferred() {
+        // Standalone workbench activates lazy services after startup (see ApplicationWorkbenchAdvisor)
+        return isStandalone() && PlatformUI.isWorkbenchRunning();
+    }
+
     public synchronized void dispose() {
         long startTime = System.currentTimeMillis();
         log.debug("Shutdown Core...");
@@ -0,0 +1,173 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.views.qm;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IToolBarManager;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.ColumnViewerToolTipSupport;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.ui.model.IWorkbenchAdapter;
+import org.eclipse.ui.model.WorkbenchAdapter;
+import org.eclipse.ui.part.ViewPart;
+import org.jkiss.dbeaver.model.qm.QMMCollector;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementStatistics;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.ui.DBeaverIcons;
+import org.jkiss.dbeaver.ui.UIIcon;
+import org.jkiss.dbeaver.ui.UIUtils;
+import org.jkiss.dbeaver.ui.controls.ViewerColumnController;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Top statements view.
+ * Shows statements executed in this session grouped by datasource and query fingerprint.
+ * Statements are ranked by total time by default (other columns can be used for sorting).
+ */
+public class TopStatementsView extends ViewPart
+{
+    public static final String VIEW_ID = "org.jkiss.dbeaver.core.qm.topStatements";
+
+    private static final int TOTAL_TIME_COLUMN = 3;
+
+    private TableViewer statementsViewer;
+    private ViewerColumnController<Object, QMMStatementStatistics> columnController;
+
+    private Action refreshAction = new Action("Refresh", DBeaverIcons.getImageDescriptor(UIIcon.REFRESH)) {
+        @Override
+        public void run() {
+            refreshStatements();
+        }
+    };
+
+    private Action resetAction = new Action("Reset statistics", DBeaverIcons.getImageDescriptor(UIIcon.ERASE)) {
+        @Override
+        public void run() {
+            QMMCollector collector = getCollector();
+            if (collector != null) {
+                collector.resetStatementStatistics();
+            }
+            refreshStatements();
+        }
+    };
+
+    @Override
+    public void createPartControl(Composite parent)
+    {
+        Composite group = UIUtils.createPlaceholder(parent, 1);
+
+        statementsViewer = new TableViewer(group, SWT.MULTI | SWT.FULL_SELECTION | SWT.BORDER);
+        Table table = statementsViewer.getTable();
+        table.setHeaderVisible(true);
+        table.setLinesVisible(true);
+        table.setLayoutData(new GridData(GridData.FILL_BOTH));
+        statementsViewer.setContentProvider(new ArrayContentProvider());
+        ColumnViewerToolTipSupport.enableFor(statementsViewer);
+
+        columnController = new ViewerColumnController<>(VIEW_ID, statementsViewer);
+        addColumn("Connection", "Datasource name", false, QMMStatementStatistics::getContainerName);
+        addColumn("Statement", "Normalized statement text (literals are replaced with '?')", false, QMMStatementStatistics::getFingerprint);
+        addColumn("Calls", "Number of executions", true, s -> String.valueOf(s.getCalls()));
+        addColumn("Total (ms)", "Total execute and fetch time", true, s -> String.valueOf(s.getTotalTime()));
+        addColumn("Mean (ms)", "Mean execute and fetch time", true, s -> String.valueOf(s.getMeanTime()));
+        addColumn("P50 (ms)", "Median execute time", true, s -> String.valueOf(s.getExecuteTimePercentile(50)));
+        addColumn("P95 (ms)", "95th percentile of execute time", true, s -> String.valueOf(s.getExecuteTimePercentile(95)));
+        addColumn("P99 (ms)", "99th percentile of execute time", true, s -> String.valueOf(s.getExecuteTimePercentile(99)));
+        addColumn("Max (ms)", "Maximum execute time", true, s -> String.valueOf(s.getMaxExecuteTime()));
+        addColumn("Fetch (ms)", "Total fetch time", true, s -> String.valueOf(s.getTotalFetchTime()));
+        addColumn("Rows", "Total number of fetched and updated rows", true, s -> String.valueOf(s.getRowCount()));
+        addColumn("Errors", "Number of failed executions", true, s -> String.valueOf(s.getErrors()));
+        columnController.createColumns(false);
+
+        IToolBarManager toolBarManager = getViewSite().getActionBars().getToolBarManager();
+        toolBarManager.add(refreshAction);
+        toolBarManager.add(resetAction);
+
+        refreshStatements();
+        columnController.repackColumns();
+        columnController.sortByColumn(TOTAL_TIME_COLUMN, SWT.DOWN);
+    }
+
+    private void addColumn(String name, String description, boolean numeric, Function<QMMStatementStatistics, String> textProvider)
+    {
+        columnController.addColumn(name, description, numeric ? SWT.RIGHT : SWT.LEFT, true, !numeric, numeric, null, new ColumnLabelProvider() {
+            @Override
+            public String getText(Object element) {
+                return textProvider.apply((QMMStatementStatistics) element);
+            }
+
+            @Override
+            public String getToolTipText(Object element) {
+                return ((QMMStatementStatistics) element).getSampleQuery();
+            }
+        }, null);
+    }
+
+    public void refreshStatements()
+    {
+        if (statementsViewer == null || statementsViewer.getControl().isDisposed()) {
+            return;
+        }
+        QMMCollector collector = getCollector();
+        List<QMMStatementStatistics> statistics = collector == null ? Collections.emptyList() : collector.getStatementStatistics();
+        statementsViewer.setInput(statistics);
+    }
+
+    private static QMMCollector getCollector()
+    {
+        return DBWorkbench.getPlatform().getQueryManager().getMetaCollector();
+    }
+
+    @Override
+    public void setFocus()
+    {
+        refreshStatements();
+        statementsViewer.getControl().setFocus();
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (columnController != null) {
+            columnController.dispose();
+        }
+        super.dispose();
+    }
+
+    @Override
+    public <T> T getAdapter(Class<T> adapter)
+    {
+        if (adapter == IWorkbenchAdapter.class) {
+            return adapter.cast(new WorkbenchAdapter() {
+                @Override
+                public String getLabel(Object o)
+                {
+                    return "Top Statements";
+                }
+            });
+        }
+        return super.getAdapter(adapter);
+    }
+}
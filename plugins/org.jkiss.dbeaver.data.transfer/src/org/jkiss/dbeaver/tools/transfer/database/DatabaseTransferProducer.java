@@ -44,6 +44,7 @@ import org.jkiss.dbeaver.tools.transfer.IDataTransferNodePrimary;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProducer;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferConsumer;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
@@ -191,7 +192,16 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                     monitor.subTask("Read data");
 
                     // Perform export
-                    if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                    DBCStatistics nativeStatistics = null;
+                    if (readFlags == DBSDataContainer.FLAG_NONE && consumer instanceof StreamTransferConsumer) {
+                        nativeStatistics = ((StreamTransferConsumer) consumer).exportNativeData(session, dataContainer, dataFilter);
+                    }
+                    if (nativeStatistics != null) {
+                        // Data was exported by database native exporter
+                        monitor.worked((int) nativeStatistics.getRowsFetched());
+                        log.debug("Native export of '" + dataContainer.getName() + "' finished: " +
+                            nativeStatistics.getRowsFetched() + " rows (" + nativeStatistics.getExecuteTime() + "ms)");
+                    } else if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
                         // Just do it in single query
                         dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize());
                     } else {
@@ -0,0 +1,34 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCNativeDataExporter;
+
+/**
+ * Stream exporter which output may be produced by database native exporter (e.g. PostgreSQL COPY).
+ */
+public interface IStreamDataExporterNative extends IStreamDataExporter {
+
+    /**
+     * Returns native export options or null if native export is disabled or can't be used with current exporter settings.
+     * Called after exporter initialization.
+     */
+    @Nullable
+    DBCNativeDataExporter.Options getNativeExportOptions();
+
+}
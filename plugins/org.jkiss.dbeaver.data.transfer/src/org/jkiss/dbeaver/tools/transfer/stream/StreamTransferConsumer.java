@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.tools.transfer.stream;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
@@ -24,10 +25,13 @@ import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDContent;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCNativeDataExporter;
 import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
 import org.jkiss.dbeaver.model.meta.DBSerializable;
 import org.jkiss.dbeaver.model.runtime.DBRProcessDescriptor;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -48,6 +52,7 @@ import org.jkiss.dbeaver.utils.ContentUtils;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.Base64;
+import org.jkiss.utils.ChunkedStringWriter;
 import org.jkiss.utils.IOUtils;
 
 import java.io.*;
@@ -86,6 +91,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private PrintWriter writer;
     private int multiFileNumber;
     private long bytesWritten = 0;
+    private long rowsExported = 0;
 
     private DBDAttributeBinding[] columnMetas;
     private DBDAttributeBinding[] columnBindings;
@@ -94,7 +100,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private File outputFile;
     private StreamExportSite exportSite;
     private Map<Object, Object> processorProperties;
-    private StringWriter outputBuffer;
+    private ChunkedStringWriter outputBuffer;
     private boolean initialized = false;
     private TransferParameters parameters;
 
@@ -103,7 +109,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     @Override
     public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
-        if (!initialized) {
+        if (!initialized && exportSite == null) {
             // Can be invoked multiple times in case of per-segment transfer
             initExporter(session);
         }
@@ -168,6 +174,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             }
             // Export row
             processor.exportRow(session, resultSet, targetRow);
+            rowsExported++;
 
             // Check for file split
             if (settings.isSplitOutFiles() && !parameters.isBinary) {
@@ -188,6 +195,57 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
     }
 
+    /**
+     * Number of rows written by this consumer (including rows exported by native exporter)
+     */
+    public long getRowsExported() {
+        return rowsExported;
+    }
+
+    /**
+     * Exports data with database native exporter (e.g. PostgreSQL COPY).
+     * Values are not fetched and formatted on the client side, exporter output is written to the output file as is.
+     *
+     * @return export statistics or null if native export is not supported by data source or exporter settings
+     */
+    @Nullable
+    public DBCStatistics exportNativeData(DBCSession session, DBSDataContainer sourceContainer, DBDDataFilter dataFilter) throws DBCException {
+        if (initialized || parameters.isBinary || settings.isOutputClipboard() || !(processor instanceof IStreamDataExporterNative)) {
+            return null;
+        }
+        DBCNativeDataExporter nativeExporter = DBUtils.getAdapter(DBCNativeDataExporter.class, session.getDataSource());
+        if (nativeExporter == null) {
+            return null;
+        }
+        if (exportSite == null) {
+            initExporter(session);
+        }
+        DBCNativeDataExporter.Options options = ((IStreamDataExporterNative) processor).getNativeExportOptions();
+        if (options == null) {
+            return null;
+        }
+        options.setEncoding(settings.getOutputEncoding());
+        if (!nativeExporter.isExportSupported(sourceContainer, dataFilter, options)) {
+            return null;
+        }
+        DBCStatistics statistics = new DBCStatistics();
+        long startTime = System.currentTimeMillis();
+        try {
+            exportSite.flush();
+            OutputStream out = settings.isSplitOutFiles() ? new NativeOutputSplitter(options.getQuoteChar()) : outputStream;
+            long rowCount = nativeExporter.exportData(session, sourceContainer, dataFilter, options, out);
+            exportSite.flush();
+            rowsExported += rowCount;
+            statistics.setRowsFetched(rowCount);
+        } catch (IOException e) {
+            throw new DBCException("IO error", e);
+        }
+        statistics.addStatementsCount();
+        statistics.setExecuteTime(System.currentTimeMillis() - startTime);
+        initialized = true;
+        return statistics;
+    }
+
     @Override
     public void close() {
         columnBindings = null;
@@ -230,7 +288,8 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         outputFile = !parameters.isBinary && outputClipboard ? null : makeOutputFile();
         try {
             if (outputClipboard) {
-                this.outputBuffer = new StringWriter(2048);
+                // Clipboard contents may be large. Keep it in chunks until export is finished.
+                this.outputBuffer = new ChunkedStringWriter();
                 this.writer = new PrintWriter(this.outputBuffer, true);
             } else {
                 openOutputStreams();
@@ -674,6 +733,46 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     }
 
+    /**
+     * Splits native exporter output into several files (by max file size).
+     * Files are switched only at row boundaries (line feed outside of quoted value).
+     */
+    private class NativeOutputSplitter extends OutputStream {
+        private final int quoteByte;
+        private boolean inQuotes;
+
+        NativeOutputSplitter(char quoteChar) {
+            this.quoteByte = quoteChar;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int start = off;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == quoteByte) {
+                    inQuotes = !inQuotes;
+                } else if (b[i] == '\n' && !inQuotes && bytesWritten + (i - start + 1) >= settings.getMaxOutFileSize()) {
+                    outputStream.write(b, start, i - start + 1);
+                    start = i + 1;
+                    createNewOutFile();
+                }
+            }
+            if (start < off + len) {
+                outputStream.write(b, start, off + len - start);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            outputStream.flush();
+        }
+    }
+
     public static class ObjectSerializer implements DBPObjectSerializer<DBTTask, StreamTransferConsumer> {
 
         @Override
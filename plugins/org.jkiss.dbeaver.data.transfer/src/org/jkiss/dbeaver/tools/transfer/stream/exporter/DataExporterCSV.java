@@ -25,9 +25,11 @@ import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDContent;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.exec.DBCNativeDataExporter;
 import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterNative;
 import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferUtils;
 import org.jkiss.dbeaver.utils.ContentUtils;
@@ -43,7 +45,7 @@ import java.util.Map;
 /**
  * CSV Exporter
  */
-public class DataExporterCSV extends StreamExporterAbstract {
+public class DataExporterCSV extends StreamExporterAbstract implements IStreamDataExporterNative {
 
     private static final String PROP_DELIMITER = "delimiter";
     private static final String PROP_HEADER = "header";
@@ -52,6 +54,7 @@ public class DataExporterCSV extends StreamExporterAbstract {
     private static final String PROP_QUOTE_NEVER = "quoteNever";
     private static final String PROP_NULL_STRING = "nullString";
     private static final String PROP_FORMAT_NUMBERS = "formatNumbers";
+    private static final String PROP_NATIVE_EXPORT = "nativeExport";
 
     private static final String DEF_QUOTE_CHAR = "\"";
 
@@ -105,6 +108,27 @@ public class DataExporterCSV extends StreamExporterAbstract {
         super.dispose();
     }
 
+    @Override
+    public DBCNativeDataExporter.Options getNativeExportOptions() {
+        Map<Object, Object> properties = getSite().getProperties();
+        if (!CommonUtils.toBoolean(properties.get(PROP_NATIVE_EXPORT)) ||
+            !useQuotes ||
+            headerPosition == HeaderPosition.bottom || headerPosition == HeaderPosition.both ||
+            CommonUtils.toBoolean(properties.get(PROP_FORMAT_NUMBERS)))
+        {
+            // Native exporters write header on top only and always quote values with special characters
+            return null;
+        }
+        DBCNativeDataExporter.Options options = new DBCNativeDataExporter.Options();
+        options.setDelimiter(delimiter);
+        options.setQuoteChar(quoteChar);
+        options.setQuoteAlways(quoteAlways);
+        options.setHeader(headerPosition == HeaderPosition.top);
+        options.setNullString(CommonUtils.notEmpty(nullString));
+        options.setRowDelimiter(rowDelimiter);
+        return options;
+    }
+
     @Override
     protected DBDDisplayFormat getValueExportFormat(DBDAttributeBinding column) {
         if (column.getDataKind() == DBPDataKind.NUMERIC && !Boolean.TRUE.equals(getSite().getProperties().get(PROP_FORMAT_NUMBERS))) {
@@ -26,6 +26,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ext.erd.ERDActivator;
 import org.jkiss.dbeaver.ext.erd.ERDConstants;
 import org.jkiss.dbeaver.ext.erd.model.DiagramLoader;
+import org.jkiss.dbeaver.ext.erd.model.DiagramObjectCollector;
 import org.jkiss.dbeaver.ext.erd.model.ERDEntity;
 import org.jkiss.dbeaver.ext.erd.model.EntityDiagram;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
@@ -324,6 +325,7 @@ public class ERDEditorEmbedded extends ERDEditorPart implements IDatabaseEditor,
             } catch (DBException e) {
                 log.warn("Can't load table references", e);
             }
+            DiagramObjectCollector.prefetchMetadata(monitor, result);
 
             monitor.done();
         }
@@ -38,6 +38,11 @@ public class DiagramObjectCollector {
 
     private static final Log log = Log.getLog(DiagramObjectCollector.class);
 
+    // Minimal number of tables in container to read its metadata in bulk
+    private static final int BULK_PREFETCH_MIN_TABLES = 10;
+    // Minimal part of container tables which must be in diagram to read container metadata in bulk
+    private static final double BULK_PREFETCH_MIN_RATIO = 0.25;
+
     private final EntityDiagram diagram;
     private final List<ERDEntity> erdEntities = new ArrayList<>();
     private boolean showViews;
@@ -53,7 +58,7 @@ public class DiagramObjectCollector {
         throws DBException
     {
         Set<DBSEntity> tables = new LinkedHashSet<>();
-        collectTables(monitor, roots, tables);
+        collectTables(monitor, roots, tables, new HashSet<>());
         return tables;
     }
 
@@ -68,7 +73,8 @@ public class DiagramObjectCollector {
     private static void collectTables(
         DBRProgressMonitor monitor,
         Collection<? extends DBSObject> roots,
-        Set<DBSEntity> tables)
+        Set<DBSEntity> tables,
+        Set<DBSObjectContainer> cachedContainers)
         throws DBException
     {
         for (DBSObject root : roots) {
@@ -79,12 +85,12 @@ public class DiagramObjectCollector {
                 root = ((DBSAlias) root).getTargetObject(monitor);
             }
             if (root instanceof DBSFolder) {
-                collectTables(monitor, ((DBSFolder) root).getChildrenObjects(monitor), tables);
+                collectTables(monitor, ((DBSFolder) root).getChildrenObjects(monitor), tables, cachedContainers);
             } else if (root instanceof DBSEntity) {
                 tables.add((DBSEntity) root);
             }
             if (root instanceof DBSObjectContainer) {
-                collectTables(monitor, (DBSObjectContainer) root, tables);
+                collectTables(monitor, (DBSObjectContainer) root, tables, cachedContainers);
             }
         }
     }
@@ -92,13 +98,15 @@ public class DiagramObjectCollector {
     private static void collectTables(
         DBRProgressMonitor monitor,
         DBSObjectContainer container,
-        Set<DBSEntity> tables)
+        Set<DBSEntity> tables,
+        Set<DBSObjectContainer> cachedContainers)
         throws DBException
     {
         if (monitor.isCanceled()) {
             return;
         }
         container.cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
+        cachedContainers.add(container);
         final Collection<? extends DBSObject> children = container.getChildren(monitor);
         if (!CommonUtils.isEmpty(children)) {
             Class<? extends DBSObject> childType = container.getChildType(monitor);
@@ -113,7 +121,7 @@ public class DiagramObjectCollector {
                 if (entity instanceof DBSEntity) {
                     tables.add((DBSEntity) entity);
                 } else if (entity instanceof DBSObjectContainer) {
-                    collectTables(monitor, (DBSObjectContainer) entity, tables);
+                    collectTables(monitor, (DBSObjectContainer) entity, tables, cachedContainers);
                 }
             }
         }
@@ -124,7 +132,11 @@ public class DiagramObjectCollector {
         Collection<? extends DBSObject> roots)
         throws DBException
     {
-        Collection<DBSEntity> tables = collectTables(monitor, roots);
+        Set<DBSEntity> tables = new LinkedHashSet<>();
+        Set<DBSObjectContainer> cachedContainers = new HashSet<>();
+        collectTables(monitor, roots, tables, cachedContainers);
+        // Whole structure of root containers is already cached
+        prefetchMetadata(monitor, tables, cachedContainers);
         for (DBSEntity table : tables) {
             if (DBUtils.isHiddenObject(table)) {
                 // Skip hidden tables
@@ -143,6 +155,57 @@ public class DiagramObjectCollector {
         }
     }
 
+    /**
+     * Reads attributes, constraints and references of all specified tables before diagram entities are created.
+     * Tables are grouped by container and each container structure is cached at once with set-based queries,
+     * otherwise entity creation reads metadata table by table.
+     * Container is read in bulk only if diagram contains a significant part of its tables.
+     */
+    public static void prefetchMetadata(DBRProgressMonitor monitor, Collection<DBSEntity> tables)
+    {
+        prefetchMetadata(monitor, tables, Collections.emptySet());
+    }
+
+    private static void prefetchMetadata(DBRProgressMonitor monitor, Collection<DBSEntity> tables, Set<DBSObjectContainer> cachedContainers)
+    {
+        Map<DBSObjectContainer, Integer> containers = new LinkedHashMap<>();
+        for (DBSEntity table : tables) {
+            DBSObject parent = table.getParentObject();
+            if (parent instanceof DBSObjectContainer && !cachedContainers.contains(parent)) {
+                containers.merge((DBSObjectContainer) parent, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<DBSObjectContainer, Integer> entry : containers.entrySet()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            DBSObjectContainer container = entry.getKey();
+            int tableCount = entry.getValue();
+            if (tableCount < BULK_PREFETCH_MIN_TABLES || tableCount < getChildrenCount(monitor, container) * BULK_PREFETCH_MIN_RATIO) {
+                // Per-table reads are cheaper than reading whole container
+                continue;
+            }
+            monitor.subTask("Read metadata of '" + container.getName() + "'");
+            try {
+                container.cacheStructure(monitor, DBSObjectContainer.STRUCT_ATTRIBUTES | DBSObjectContainer.STRUCT_ASSOCIATIONS);
+            } catch (DBException e) {
+                log.debug("Error caching structure of '" + container.getName() + "'", e);
+            }
+        }
+    }
+
+    private static int getChildrenCount(DBRProgressMonitor monitor, DBSObjectContainer container)
+    {
+        try {
+            // Children list is usually already cached because tables were read from it
+            Collection<? extends DBSObject> children = container.getChildren(monitor);
+            return children == null ? 0 : children.size();
+        } catch (DBException e) {
+            log.debug("Error reading children of '" + container.getName() + "'", e);
+            return Integer.MAX_VALUE;
+        }
+    }
+
     private void addDiagramEntity(DBRProgressMonitor monitor, DBSEntity table)
     {
         if (diagram.containsTable(table) && !diagram.getDecorator().allowEntityDuplicates()) {
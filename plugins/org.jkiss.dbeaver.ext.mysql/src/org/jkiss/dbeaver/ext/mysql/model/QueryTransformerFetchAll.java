@@ -16,36 +16,39 @@
  */
 package org.jkiss.dbeaver.ext.mysql.model;
 
-import org.jkiss.dbeaver.model.exec.DBCException;
-import org.jkiss.dbeaver.model.exec.DBCQueryTransformer;
-import org.jkiss.dbeaver.model.exec.DBCStatement;
-import org.jkiss.dbeaver.model.sql.SQLQuery;
-
-import java.sql.SQLException;
-import java.sql.Statement;
+import org.jkiss.dbeaver.ext.mysql.MySQLConstants;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCQueryTransformerFetchAll;
+import org.jkiss.utils.CommonUtils;
 
 /**
-* Query transformer for fetch-all selects
+* Query transformer for fetch-all selects.
+* By default MySQL driver streams results row by row (fetch size Integer.MIN_VALUE).
+* If server cursors are enabled (useCursorFetch) then rows are fetched by configured fetch size.
 */
-class QueryTransformerFetchAll implements DBCQueryTransformer {
+class QueryTransformerFetchAll extends JDBCQueryTransformerFetchAll {
 
-    @Override
-    public void setParameters(Object... parameters)
-    {
+    QueryTransformerFetchAll() {
+        super(false);
     }
 
     @Override
-    public String transformQueryString(SQLQuery query) throws DBCException {
-        return query.getText();
+    protected int getStreamingFetchSize(JDBCSession session) {
+        if (isCursorFetchEnabled(session)) {
+            return super.getStreamingFetchSize(session);
+        }
+        return Integer.MIN_VALUE;
     }
 
-    @Override
-    public void transformStatement(DBCStatement statement, int parameterIndex) throws DBCException {
-        // Set fetch size to Integer.MIN_VALUE to enable result set streaming
-        try {
-            ((Statement)statement).setFetchSize(Integer.MIN_VALUE);
-        } catch (SQLException e) {
-            throw new DBCException(e, statement.getSession().getDataSource());
+    private static boolean isCursorFetchEnabled(JDBCSession session) {
+        DBPConnectionConfiguration connectionInfo = session.getDataSource().getContainer().getActualConnectionConfiguration();
+        String cursorFetch = connectionInfo.getProperty(MySQLConstants.PROP_USE_CURSOR_FETCH);
+        if (cursorFetch == null) {
+            Object driverValue = session.getDataSource().getContainer().getDriver().getConnectionProperties().get(MySQLConstants.PROP_USE_CURSOR_FETCH);
+            cursorFetch = driverValue == null ? null : driverValue.toString();
         }
+        return CommonUtils.toBoolean(cursorFetch);
     }
-}
\ No newline at end of file
+
+}
@@ -116,6 +116,8 @@ public class OracleUIMessages extends NLS {
 	public static String edit_create_checkbox_adds_rule_tool_tip_text;
 	public static String edit_create_checkbox_group_use_metadata_optimizer;
 	public static String edit_create_checkbox_group_use_metadata_optimizer_tip;
+	public static String edit_create_checkbox_group_prefetch_schema_metadata;
+	public static String edit_create_checkbox_group_prefetch_schema_metadata_tip;
 	public static String pref_page_oracle_checkbox_disable_escape_processing;
 	public static String pref_page_oracle_checkbox_enable_dbms_output;
 	public static String pref_page_oracle_checkbox_use_rowid_to_identify_rows;
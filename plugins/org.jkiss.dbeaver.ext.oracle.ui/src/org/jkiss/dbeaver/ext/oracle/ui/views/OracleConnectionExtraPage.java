@@ -48,6 +48,7 @@ public class OracleConnectionExtraPage extends ConnectionPageAbstract
     private Button useSysSchemaCheckbox;
     private Button useRuleHint;
     private Button useOptimizerHint;
+    private Button prefetchSchemaMetadata;
     private Button useSimpleConstraints;
 
     public OracleConnectionExtraPage()
@@ -116,6 +117,9 @@ public class OracleConnectionExtraPage extends ConnectionPageAbstract
             useOptimizerHint = UIUtils.createCheckbox(contentGroup, OracleUIMessages.edit_create_checkbox_group_use_metadata_optimizer, true);
             useOptimizerHint.setToolTipText(OracleUIMessages.edit_create_checkbox_group_use_metadata_optimizer_tip);
 
+            prefetchSchemaMetadata = UIUtils.createCheckbox(contentGroup, OracleUIMessages.edit_create_checkbox_group_prefetch_schema_metadata, false);
+            prefetchSchemaMetadata.setToolTipText(OracleUIMessages.edit_create_checkbox_group_prefetch_schema_metadata_tip);
+
             useSimpleConstraints = UIUtils.createCheckbox(contentGroup, OracleUIMessages.edit_create_checkbox_content_group_use_simple_constraints,  OracleUIMessages.edit_create_checkbox_content_group_use_simple_constraints_description, false, 1);
         }
 
@@ -166,6 +170,7 @@ public class OracleConnectionExtraPage extends ConnectionPageAbstract
         useSimpleConstraints.setSelection(CommonUtils.getBoolean(providerProperties.get(OracleConstants.PROP_METADATA_USE_SIMPLE_CONSTRAINTS), false));
         useRuleHint.setSelection(CommonUtils.getBoolean(providerProperties.get(OracleConstants.PROP_USE_RULE_HINT), false));
         useOptimizerHint.setSelection(CommonUtils.getBoolean(providerProperties.get(OracleConstants.PROP_USE_META_OPTIMIZER), false));
+        prefetchSchemaMetadata.setSelection(CommonUtils.getBoolean(providerProperties.get(OracleConstants.PROP_METADATA_PREFETCH_SCHEMA), false));
     }
 
     @Override
@@ -219,6 +224,9 @@ public class OracleConnectionExtraPage extends ConnectionPageAbstract
             providerProperties.put(
                 OracleConstants.PROP_USE_META_OPTIMIZER,
                 String.valueOf(useOptimizerHint.getSelection()));
+            providerProperties.put(
+                OracleConstants.PROP_METADATA_PREFETCH_SCHEMA,
+                String.valueOf(prefetchSchemaMetadata.getSelection()));
 
         }
         saveConnectionURL(dataSource.getConnectionConfiguration());
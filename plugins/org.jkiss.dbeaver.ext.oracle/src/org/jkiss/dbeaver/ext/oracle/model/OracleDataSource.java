@@ -74,6 +74,7 @@ public class OracleDataSource extends JDBCDataSource
     private boolean isAdminVisible;
     private String planTableName;
     private boolean useRuleHint;
+    private boolean prefetchSchemaMetadata;
     private boolean resolveGeometryAsStruct = true;
 
     private final Map<String, Boolean> availableViews = new HashMap<>();
@@ -309,6 +310,13 @@ public class OracleDataSource extends JDBCDataSource
         return useRuleHint;
     }
 
+    /**
+     * Schema metadata (tables, columns, constraints, indexes, triggers) is read for the whole schema at once
+     */
+    public boolean isPrefetchSchemaMetadata() {
+        return prefetchSchemaMetadata;
+    }
+
     @Association
     public Collection<OracleSchema> getSchemas(DBRProgressMonitor monitor) throws DBException {
         return schemaCache.getAllObjects(monitor, this);
@@ -397,6 +405,7 @@ public class OracleDataSource extends JDBCDataSource
             if (useRuleHintProp != null) {
                 useRuleHint = CommonUtils.getBoolean(useRuleHintProp, false);
             }
+            prefetchSchemaMetadata = CommonUtils.getBoolean(connectionInfo.getProviderProperty(OracleConstants.PROP_METADATA_PREFETCH_SCHEMA), false);
         }
 
         this.publicSchema = new OracleSchema(this, 1, OracleConstants.USER_PUBLIC);
@@ -678,6 +687,16 @@ public class OracleDataSource extends JDBCDataSource
     public DBCQueryTransformer createQueryTransformer(@NotNull DBCQueryTransformType type) {
         if (type == DBCQueryTransformType.RESULT_SET_LIMIT) {
             //return new QueryTransformerRowNum();
+        } else if (type == DBCQueryTransformType.FETCH_ALL_TABLE) {
+            // Fetch size is a row prefetch for Oracle driver (default is 10 rows per round trip).
+            // Driver allocates prefetch buffers up front so use result set fetch size rather than streaming one.
+            return new JDBCQueryTransformerFetchAll(false) {
+                @Override
+                protected int getStreamingFetchSize(JDBCSession session) {
+                    int fetchSize = getContainer().getPreferenceStore().getInt(ModelPreferences.RESULT_SET_MAX_ROWS);
+                    return fetchSize > 0 ? fetchSize : super.getStreamingFetchSize(session);
+                }
+            };
         }
         return super.createQueryTransformer(type);
     }
@@ -20,6 +20,7 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPRefreshableObject;
 import org.jkiss.dbeaver.model.DBPSystemObject;
 import org.jkiss.dbeaver.model.DBUtils;
@@ -75,6 +76,8 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
     private String name;
     private Date createTime;
     private transient OracleUser user;
+    private volatile boolean structurePrefetched;
+    private boolean structurePrefetching;
 
     public OracleSchema(OracleDataSource dataSource, long id, String name)
     {
@@ -378,10 +381,81 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
         }
     }
 
+    /**
+     * Reads all tables, columns, constraints, indexes and table triggers of this schema with one query per
+     * dictionary view. Does nothing if schema prefetch is disabled in connection settings.
+     * After prefetch per-table metadata queries are not needed.
+     */
+    public void prefetchStructure(@NotNull DBRProgressMonitor monitor)
+        throws DBException
+    {
+        if (structurePrefetched || !getDataSource().isPrefetchSchemaMetadata()) {
+            return;
+        }
+        synchronized (this) {
+            if (structurePrefetched || structurePrefetching) {
+                return;
+            }
+            structurePrefetching = true;
+            try {
+                monitor.subTask("Prefetch tables of " + getName());
+                tableCache.getAllObjects(monitor, this);
+                monitor.subTask("Prefetch columns of " + getName());
+                tableCache.loadChildren(monitor, this, null);
+                monitor.subTask("Prefetch constraints of " + getName());
+                constraintCache.getAllObjects(monitor, this);
+                foreignKeyCache.getAllObjects(monitor, this);
+                monitor.subTask("Prefetch indexes of " + getName());
+                indexCache.getAllObjects(monitor, this);
+                monitor.subTask("Prefetch triggers of " + getName());
+                prefetchTableTriggers(monitor);
+                structurePrefetched = !monitor.isCanceled();
+            } finally {
+                structurePrefetching = false;
+            }
+        }
+    }
+
+    private void prefetchTableTriggers(DBRProgressMonitor monitor)
+        throws DBException
+    {
+        Map<OracleTableBase, List<OracleTableTrigger>> tableTriggers = new HashMap<>();
+        try (JDBCSession session = DBUtils.openMetaSession(monitor, this, "Load table triggers")) {
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT " + OracleUtils.getSysCatalogHint(getDataSource(), true) + " *\n" +
+                "FROM " + OracleUtils.getAdminAllViewPrefix(monitor, getDataSource(), "TRIGGERS") + " WHERE TABLE_OWNER=? AND TABLE_NAME IS NOT NULL\n" +
+                "ORDER BY TRIGGER_NAME"))
+            {
+                dbStat.setString(1, getName());
+                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    while (dbResult.next()) {
+                        if (monitor.isCanceled()) {
+                            return;
+                        }
+                        OracleTableBase table = tableCache.getCachedObject(JDBCUtils.safeGetString(dbResult, "TABLE_NAME"));
+                        if (table != null) {
+                            tableTriggers.computeIfAbsent(table, t -> new ArrayList<>()).add(new OracleTableTrigger(table, dbResult));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DBException(e, getDataSource());
+        }
+        for (OracleTableBase table : tableCache.getCachedObjects()) {
+            if (!table.triggerCache.isFullyCached()) {
+                List<OracleTableTrigger> triggers = tableTriggers.get(table);
+                table.triggerCache.setCache(triggers == null ? new ArrayList<>() : triggers);
+            }
+        }
+    }
+
     @Override
     public synchronized DBSObject refreshObject(@NotNull DBRProgressMonitor monitor)
         throws DBException
     {
+        structurePrefetched = false;
         tableCache.clearCache();
         foreignKeyCache.clearCache();
         constraintCache.clearCache();
@@ -452,6 +526,26 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
             return dbStat;
         }
 
+        @Nullable
+        @Override
+        public List<OracleTableColumn> getChildren(DBRProgressMonitor monitor, OracleSchema owner, OracleTableBase forObject) throws DBException
+        {
+            if (forObject != null && !isChildrenCached(forObject)) {
+                owner.prefetchStructure(monitor);
+            }
+            return super.getChildren(monitor, owner, forObject);
+        }
+
+        @Nullable
+        @Override
+        public OracleTableColumn getChild(DBRProgressMonitor monitor, OracleSchema owner, OracleTableBase forObject, String objectName) throws DBException
+        {
+            if (forObject != null && !isChildrenCached(forObject)) {
+                owner.prefetchStructure(monitor);
+            }
+            return super.getChild(monitor, owner, forObject, objectName);
+        }
+
         @Override
         protected OracleTableBase fetchObject(@NotNull JDBCSession session, @NotNull OracleSchema owner, @NotNull JDBCResultSet dbResult)
             throws SQLException, DBException
@@ -474,7 +568,7 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
             }
             StringBuilder sql = new StringBuilder(500);
             sql
-                .append("SELECT ").append(OracleUtils.getSysCatalogHint(owner.getDataSource())).append("\nc.* " +
+                .append("SELECT ").append(OracleUtils.getSysCatalogHint(owner.getDataSource(), forTable == null)).append("\nc.* " +
                     "FROM ").append(OracleUtils.getSysSchemaPrefix(owner.getDataSource())).append(colsView).append(" c\n" +
 //                    "LEFT OUTER JOIN " + OracleUtils.getSysSchemaPrefix(getDataSource()) + "ALL_COL_COMMENTS cc ON CC.OWNER=c.OWNER AND cc.TABLE_NAME=c.TABLE_NAME AND cc.COLUMN_NAME=c.COLUMN_NAME\n" +
                     "WHERE c.OWNER=?");
@@ -520,6 +614,16 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
             super(tableCache, OracleTableBase.class, "TABLE_NAME", "CONSTRAINT_NAME");
         }
 
+        @Override
+        protected void loadObjects(DBRProgressMonitor monitor, OracleSchema schema, OracleTableBase forParent)
+            throws DBException
+        {
+            if (forParent != null) {
+                schema.prefetchStructure(monitor);
+            }
+            super.loadObjects(monitor, schema, forParent);
+        }
+
         @NotNull
         @Override
         protected JDBCStatement prepareObjectsStatement(JDBCSession session, OracleSchema owner, OracleTableBase forTable)
@@ -598,7 +702,7 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
                 
             } else {
                 sql
-                    .append("SELECT ").append(OracleUtils.getSysCatalogHint(owner.getDataSource())).append("\n" +
+                    .append("SELECT ").append(OracleUtils.getSysCatalogHint(owner.getDataSource(), forTable == null)).append("\n" +
                         "c.TABLE_NAME, c.CONSTRAINT_NAME,c.CONSTRAINT_TYPE,c.STATUS,c.SEARCH_CONDITION," +
                         "col.COLUMN_NAME,col.POSITION\n" +
                         "FROM " + OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), getDataSource(), "CONSTRAINTS") +
@@ -745,6 +849,8 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
             // Cache schema constraints if not table specified
             if (forParent == null) {
                 constraintCache.getAllObjects(monitor, schema);
+            } else {
+                schema.prefetchStructure(monitor);
             }
             super.loadObjects(monitor, schema, forParent);
         }
@@ -827,7 +933,7 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
 
             } else {
             
-                sql.append("SELECT " + OracleUtils.getSysCatalogHint(owner.getDataSource()) + " \r\n" +
+                sql.append("SELECT " + OracleUtils.getSysCatalogHint(owner.getDataSource(), forTable == null) + " \r\n" +
                     "c.TABLE_NAME, c.CONSTRAINT_NAME,c.CONSTRAINT_TYPE,c.STATUS,c.R_OWNER,c.R_CONSTRAINT_NAME,rc.TABLE_NAME as R_TABLE_NAME,c.DELETE_RULE, \n" +
                     "col.COLUMN_NAME,col.POSITION\r\n" +
                     "FROM " + OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), getDataSource(), "CONSTRAINTS") +
@@ -923,13 +1029,23 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
             super(tableCache, OracleTablePhysical.class, "TABLE_NAME", "INDEX_NAME");
         }
 
+        @Override
+        protected void loadObjects(DBRProgressMonitor monitor, OracleSchema schema, OracleTablePhysical forParent)
+            throws DBException
+        {
+            if (forParent != null) {
+                schema.prefetchStructure(monitor);
+            }
+            super.loadObjects(monitor, schema, forParent);
+        }
+
         @NotNull
         @Override
         protected JDBCStatement prepareObjectsStatement(JDBCSession session, OracleSchema owner, OracleTablePhysical forTable)
             throws SQLException
         {
             StringBuilder sql = new StringBuilder();
-            sql.append("SELECT ").append(OracleUtils.getSysCatalogHint(owner.getDataSource())).append(" " +
+            sql.append("SELECT ").append(OracleUtils.getSysCatalogHint(owner.getDataSource(), forTable == null)).append(" " +
                     "i.OWNER,i.INDEX_NAME,i.INDEX_TYPE,i.TABLE_OWNER,i.TABLE_NAME,i.UNIQUENESS,i.TABLESPACE_NAME,i.STATUS,i.NUM_ROWS,i.SAMPLE_SIZE,\n" +
                     "ic.COLUMN_NAME,ic.COLUMN_POSITION,ic.COLUMN_LENGTH,ic.DESCEND,iex.COLUMN_EXPRESSION\n" +
                     "FROM " + OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), getDataSource(), "INDEXES") + " i\n" +
@@ -236,6 +236,9 @@ public abstract class OracleTableBase extends JDBCTable<OracleDataSource, Oracle
     public Collection<OracleTableTrigger> getTriggers(DBRProgressMonitor monitor)
         throws DBException
     {
+        if (!triggerCache.isFullyCached()) {
+            getContainer().prefetchStructure(monitor);
+        }
         return triggerCache.getAllObjects(monitor, this);
     }
 
@@ -305,6 +305,19 @@ public class OracleUtils {
         return dataSource.isUseRuleHint() ? "/*+RULE*/" : "";
     }
 
+    /**
+     * Hint for dictionary queries which read the whole schema.
+     * In schema prefetch mode RULE hint is not used for such queries: it forces nested loops over dictionary
+     * indexes which is good for a single table lookup but very slow for reading all schema objects.
+     */
+    public static String getSysCatalogHint(OracleDataSource dataSource, boolean bulkRead)
+    {
+        if (bulkRead && dataSource.isPrefetchSchemaMetadata()) {
+            return "/*+ALL_ROWS*/";
+        }
+        return getSysCatalogHint(dataSource);
+    }
+
     static <PARENT extends DBSObject> Object resolveLazyReference(
         DBRProgressMonitor monitor,
         PARENT parent,
@@ -347,7 +347,8 @@ public class OraclePlanNode extends AbstractExecutionPlanNode implements DBCPlan
 
     @Override
     public String getNodeType() {
-        return operation;
+        // Options tell how object is accessed (e.g. TABLE ACCESS FULL vs TABLE ACCESS BY INDEX ROWID)
+        return getOperation();
     }
 
     @Override
@@ -0,0 +1,233 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCNativeDataExporter;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLQueryContainer;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Native data exporter. Uses COPY ... TO STDOUT (CSV format).
+ * Output of COPY is written in the stream as is, without values decoding.
+ */
+public class PostgreCopyExporter implements DBCNativeDataExporter {
+
+    private static final Log log = Log.getLog(PostgreCopyExporter.class);
+
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection"; //$NON-NLS-1$
+    private static final String TABLE_ALIAS = "x"; //$NON-NLS-1$
+
+    private static final Map<String, String> ENCODINGS = new HashMap<>();
+
+    static {
+        ENCODINGS.put("UTF-8", "UTF8"); //$NON-NLS-1$ //$NON-NLS-2$
+        ENCODINGS.put("ISO-8859-1", "LATIN1"); //$NON-NLS-1$ //$NON-NLS-2$
+        ENCODINGS.put("ISO-8859-2", "LATIN2"); //$NON-NLS-1$ //$NON-NLS-2$
+        ENCODINGS.put("ISO-8859-5", "ISO_8859_5"); //$NON-NLS-1$ //$NON-NLS-2$
+        ENCODINGS.put("ISO-8859-15", "LATIN9"); //$NON-NLS-1$ //$NON-NLS-2$
+        ENCODINGS.put("KOI8-R", "KOI8R"); //$NON-NLS-1$ //$NON-NLS-2$
+        ENCODINGS.put("windows-1250", "WIN1250"); //$NON-NLS-1$ //$NON-NLS-2$
+        ENCODINGS.put("windows-1251", "WIN1251"); //$NON-NLS-1$ //$NON-NLS-2$
+        ENCODINGS.put("windows-1252", "WIN1252"); //$NON-NLS-1$ //$NON-NLS-2$
+        ENCODINGS.put("Shift_JIS", "SJIS"); //$NON-NLS-1$ //$NON-NLS-2$
+        ENCODINGS.put("EUC-JP", "EUC_JP"); //$NON-NLS-1$ //$NON-NLS-2$
+        ENCODINGS.put("GBK", "GBK"); //$NON-NLS-1$ //$NON-NLS-2$
+        ENCODINGS.put("Big5", "BIG5"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private final PostgreDataSource dataSource;
+
+    public PostgreCopyExporter(PostgreDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public boolean isExportSupported(@NotNull DBSDataContainer dataContainer, @Nullable DBDDataFilter dataFilter, @NotNull Options options) {
+        if (!dataSource.getServerType().supportsCopyExport()) {
+            return false;
+        }
+        if (dataContainer instanceof PostgreTableBase) {
+            if (!((PostgreTableBase) dataContainer).isPersisted()) {
+                return false;
+            }
+        } else if (getSelectQuery(dataContainer) == null || (dataFilter != null && dataFilter.hasFilters())) {
+            return false;
+        }
+        // COPY delimiter and quote must be single one-byte characters and COPY always uses LF as rows delimiter
+        String delimiter = options.getDelimiter();
+        if (delimiter == null || delimiter.length() != 1 || !isSingleByteChar(delimiter.charAt(0)) ||
+            !isSingleByteChar(options.getQuoteChar()) || delimiter.charAt(0) == options.getQuoteChar() ||
+            !"\n".equals(options.getRowDelimiter()))
+        {
+            return false;
+        }
+        String nullString = CommonUtils.notEmpty(options.getNullString());
+        if (nullString.indexOf(delimiter.charAt(0)) != -1 || nullString.indexOf(options.getQuoteChar()) != -1 ||
+            nullString.indexOf('\r') != -1 || nullString.indexOf('\n') != -1)
+        {
+            return false;
+        }
+        return options.getEncoding() == null || getServerEncoding(options.getEncoding()) != null;
+    }
+
+    @Override
+    public long exportData(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter,
+        @NotNull Options options,
+        @NotNull OutputStream stream)
+        throws DBCException
+    {
+        String copyQuery = "COPY (" + getSourceQuery(dataContainer, dataFilter) + ") TO STDOUT WITH (" + getCopyOptions(options) + ")";
+        log.debug("Native export: " + copyQuery);
+        try {
+            Connection connection = ((JDBCSession) session).getOriginal();
+            Class<?> pgConnectionClass = Class.forName(PG_CONNECTION_CLASS, true, connection.getClass().getClassLoader());
+            Object copyAPI = pgConnectionClass.getMethod("getCopyAPI").invoke(connection.unwrap(pgConnectionClass));
+            Method copyOutMethod = copyAPI.getClass().getMethod("copyOut", String.class, OutputStream.class);
+            Object rowCount = copyOutMethod.invoke(copyAPI, copyQuery, new MonitoredOutputStream(session.getProgressMonitor(), stream));
+            return rowCount instanceof Number ? ((Number) rowCount).longValue() : -1;
+        } catch (InvocationTargetException e) {
+            throw new DBCException(e.getTargetException(), dataSource);
+        } catch (Exception e) {
+            throw new DBCException(e, dataSource);
+        }
+    }
+
+    private String getSourceQuery(DBSDataContainer dataContainer, DBDDataFilter dataFilter) {
+        if (dataContainer instanceof PostgreTableBase) {
+            String tableAlias = dataFilter != null && dataFilter.hasConditions() ? TABLE_ALIAS : null;
+            StringBuilder query = new StringBuilder(100);
+            query.append("SELECT * FROM ").append(((PostgreTableBase) dataContainer).getFullyQualifiedName(DBPEvaluationContext.DML));
+            if (tableAlias != null) {
+                query.append(" ").append(tableAlias);
+            }
+            SQLUtils.appendQueryConditions(dataSource, query, tableAlias, dataFilter);
+            SQLUtils.appendQueryOrder(dataSource, query, tableAlias, dataFilter);
+            return query.toString();
+        }
+        SQLQuery query = getSelectQuery(dataContainer);
+        if (query == null) {
+            throw new IllegalArgumentException("Unsupported data container: " + dataContainer);
+        }
+        return query.getText();
+    }
+
+    private String getCopyOptions(Options options) {
+        StringBuilder copyOptions = new StringBuilder();
+        copyOptions.append("FORMAT csv");
+        copyOptions.append(", DELIMITER ").append(SQLUtils.quoteString(dataSource, options.getDelimiter()));
+        copyOptions.append(", QUOTE ").append(SQLUtils.quoteString(dataSource, String.valueOf(options.getQuoteChar())));
+        copyOptions.append(", NULL ").append(SQLUtils.quoteString(dataSource, CommonUtils.notEmpty(options.getNullString())));
+        if (options.isHeader()) {
+            copyOptions.append(", HEADER");
+        }
+        if (options.isQuoteAlways()) {
+            copyOptions.append(", FORCE_QUOTE *");
+        }
+        if (options.getEncoding() != null) {
+            copyOptions.append(", ENCODING ").append(SQLUtils.quoteString(dataSource, getServerEncoding(options.getEncoding())));
+        }
+        return copyOptions.toString();
+    }
+
+    @Nullable
+    private static SQLQuery getSelectQuery(DBSDataContainer dataContainer) {
+        if (dataContainer instanceof SQLQueryContainer) {
+            SQLScriptElement query = ((SQLQueryContainer) dataContainer).getQuery();
+            if (query instanceof SQLQuery && ((SQLQuery) query).isPlainSelect() && CommonUtils.isEmpty(((SQLQuery) query).getParameters())) {
+                return (SQLQuery) query;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String getServerEncoding(String encoding) {
+        try {
+            return ENCODINGS.get(Charset.forName(encoding).name());
+        } catch (Exception e) {
+            log.debug("Unsupported encoding: " + encoding);
+            return null;
+        }
+    }
+
+    private static boolean isSingleByteChar(char c) {
+        return c > 0 && c < 128 && c != '\r' && c != '\n';
+    }
+
+    /**
+     * Aborts COPY when export is canceled (driver cancels copy operation on write error).
+     */
+    private static class MonitoredOutputStream extends OutputStream {
+        private final DBRProgressMonitor monitor;
+        private final OutputStream out;
+
+        MonitoredOutputStream(DBRProgressMonitor monitor, OutputStream out) {
+            this.monitor = monitor;
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkCanceled();
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkCanceled();
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        private void checkCanceled() throws IOException {
+            if (monitor.isCanceled()) {
+                throw new InterruptedIOException("Export canceled");
+            }
+        }
+    }
+
+}
@@ -389,6 +389,8 @@ public class PostgreDataSource extends JDBCDataSource implements DBSObjectSelect
             return adapter.cast(new PostgreSessionManager(this));
         } else if (adapter == DBCQueryPlanner.class) {
             return adapter.cast(new PostgreQueryPlaner(this));
+        } else if (adapter == DBCNativeDataExporter.class) {
+            return adapter.cast(new PostgreCopyExporter(this));
         }
         return super.getAdapter(adapter);
     }
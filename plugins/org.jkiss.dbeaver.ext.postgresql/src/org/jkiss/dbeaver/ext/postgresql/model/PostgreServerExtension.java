@@ -108,6 +108,9 @@ public interface PostgreServerExtension
 
     boolean supportsTeblespaceLocation();
 
+    // COPY ... TO STDOUT with options list (used for native data export)
+    boolean supportsCopyExport();
+
     // Stored procedures support (workarounds for Redshift mostly)
     boolean supportsStoredProcedures();
 
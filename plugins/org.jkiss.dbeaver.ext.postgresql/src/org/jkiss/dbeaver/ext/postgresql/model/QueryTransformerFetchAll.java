@@ -16,36 +16,16 @@
  */
 package org.jkiss.dbeaver.ext.postgresql.model;
 
-import org.jkiss.dbeaver.model.exec.DBCException;
-import org.jkiss.dbeaver.model.exec.DBCQueryTransformer;
-import org.jkiss.dbeaver.model.exec.DBCStatement;
-import org.jkiss.dbeaver.model.sql.SQLQuery;
-
-import java.sql.SQLException;
-import java.sql.Statement;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCQueryTransformerFetchAll;
 
 /**
-* Query transformer for fetch-all selects
+* Query transformer for fetch-all selects.
+* PostgreSQL driver reads results with server cursor (by fetch size) only in manual commit mode.
 */
-class QueryTransformerFetchAll implements DBCQueryTransformer {
-
-    @Override
-    public void setParameters(Object... parameters)
-    {
-    }
+class QueryTransformerFetchAll extends JDBCQueryTransformerFetchAll {
 
-    @Override
-    public String transformQueryString(SQLQuery query) throws DBCException {
-        return query.getText();
+    QueryTransformerFetchAll() {
+        super(true);
     }
 
-    @Override
-    public void transformStatement(DBCStatement statement, int parameterIndex) throws DBCException {
-        // Set fetch size to 100k (maybe this should be configurable?)
-        try {
-            ((Statement)statement).setFetchSize(100000);
-        } catch (SQLException e) {
-            throw new DBCException(e, statement.getSession().getDataSource());
-        }
-    }
-}
\ No newline at end of file
+}
@@ -161,6 +161,11 @@ public class PostgreServerCockroachDB extends PostgreServerExtensionBase {
         return false;
     }
 
+    @Override
+    public boolean supportsCopyExport() {
+        return false;
+    }
+
     @Override
     public List<PostgrePrivilege> readObjectPermissions(DBRProgressMonitor monitor, PostgreTableBase table, boolean includeNestedObjects) throws DBException {
         try (JDBCSession session = DBUtils.openMetaSession(monitor, table, "Load CockroachDB table grants")) {
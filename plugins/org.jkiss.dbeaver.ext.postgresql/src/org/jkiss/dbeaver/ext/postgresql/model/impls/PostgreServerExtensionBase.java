@@ -333,6 +333,11 @@ public abstract class PostgreServerExtensionBase implements PostgreServerExtensi
         return true;
     }
 
+    @Override
+    public boolean supportsCopyExport() {
+        return dataSource.isServerVersionAtLeast(9, 0);
+    }
+
     @Override
     public boolean supportsDatabaseDescription() {
         return dataSource.isServerVersionAtLeast(9, 4);
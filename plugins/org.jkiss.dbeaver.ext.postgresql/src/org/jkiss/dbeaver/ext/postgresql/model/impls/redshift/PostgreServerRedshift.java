@@ -137,6 +137,11 @@ public class PostgreServerRedshift extends PostgreServerExtensionBase {
         return false;
     }
 
+    @Override
+    public boolean supportsCopyExport() {
+        return false;
+    }
+
     @Override
     public boolean supportsSequences() {
         return false;
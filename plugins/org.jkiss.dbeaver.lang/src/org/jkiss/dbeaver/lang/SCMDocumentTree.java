@@ -0,0 +1,301 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.lang;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Persistent segment tree of a document.
+ *
+ * Document is split into top-level segments (statements) by segment splitter. Tree is updated incrementally:
+ * after document change only damaged segments are re-split, splitting stops at the first boundary which matches
+ * an old segment boundary. Other segments are reused.
+ *
+ * Segments after the last edit keep their offsets relative to the document end (like text after the gap in gap buffer),
+ * so edits don't shift them. Moving the gap costs the number of segments between two subsequent edits.
+ * Thus typing costs O(edit size), not O(document size).
+ */
+public class SCMDocumentTree implements IDocumentListener, SCMSourceText {
+
+    @NotNull
+    private final IDocument document;
+    @NotNull
+    private final SCMSegmentSplitter splitter;
+    @Nullable
+    private final SCMSourceParser nodeParser;
+
+    private final List<SCMSegment> segments = new ArrayList<>();
+    // Segments before gap have absolute offsets, segments after gap have offsets relative to the document end
+    private int gap;
+    private int documentLength;
+    // Damaged segments range. Determined before document change.
+    private int damageStart = -1;
+    private int damageEnd = -1;
+    // Length of text split during the last update
+    private int lastSplitLength;
+
+    public SCMDocumentTree(@NotNull IDocument document, @NotNull SCMSegmentSplitter splitter, @Nullable SCMSourceParser nodeParser) {
+        this.document = document;
+        this.splitter = splitter;
+        this.nodeParser = nodeParser;
+    }
+
+    @NotNull
+    public IDocument getDocument() {
+        return document;
+    }
+
+    @Nullable
+    public SCMSourceParser getNodeParser() {
+        return nodeParser;
+    }
+
+    /**
+     * Splits whole document and starts listening for document changes
+     */
+    public void install() {
+        reparse();
+        document.addDocumentListener(this);
+    }
+
+    public void uninstall() {
+        document.removeDocumentListener(this);
+    }
+
+    /**
+     * Splits the whole document
+     */
+    public synchronized void reparse() {
+        segments.clear();
+        gap = 0;
+        documentLength = document.getLength();
+        damageStart = damageEnd = -1;
+        splitSegments(0, 0, 0, 0);
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    @NotNull
+    public synchronized SCMSegment getSegment(int index) {
+        return segments.get(index);
+    }
+
+    @NotNull
+    public synchronized List<SCMSegment> getSegments() {
+        return Collections.unmodifiableList(new ArrayList<>(segments));
+    }
+
+    /**
+     * Returns segment which contains the specified offset.
+     * Document end position belongs to the last segment.
+     */
+    @Nullable
+    public synchronized SCMSegment findSegment(int offset) {
+        int index = findSegmentIndex(offset);
+        return index < 0 ? null : segments.get(index);
+    }
+
+    /**
+     * Returns segments which intersect the specified region
+     */
+    @NotNull
+    public synchronized List<SCMSegment> findSegments(int offset, int length) {
+        List<SCMSegment> result = new ArrayList<>();
+        for (int i = Math.max(0, findSegmentIndex(offset)); i < segments.size(); i++) {
+            SCMSegment segment = segments.get(i);
+            if (getBeginOffset(segment) >= offset + length && !result.isEmpty()) {
+                break;
+            }
+            result.add(segment);
+        }
+        return result;
+    }
+
+    @Nullable
+    synchronized SCMSegment getPreviousSegment(@NotNull SCMSegment segment) {
+        int index = findSegmentIndex(getBeginOffset(segment));
+        return index <= 0 || segments.get(index) != segment ? null : segments.get(index - 1);
+    }
+
+    @Nullable
+    synchronized SCMSegment getNextSegment(@NotNull SCMSegment segment) {
+        int index = findSegmentIndex(getBeginOffset(segment));
+        return index < 0 || index >= segments.size() - 1 || segments.get(index) != segment ? null : segments.get(index + 1);
+    }
+
+    /**
+     * Returns current begin offset of the segment.
+     * Segment offsets are changed when the gap moves, so they are read under the tree lock.
+     */
+    synchronized int getSegmentBeginOffset(@NotNull SCMSegment segment) {
+        return getBeginOffset(segment);
+    }
+
+    /**
+     * Length of text which was split during the last update
+     */
+    public synchronized int getLastSplitLength() {
+        return lastSplitLength;
+    }
+
+    ////////////////////////////////////////////////
+    // Document listener
+
+    @Override
+    public synchronized void documentAboutToBeChanged(DocumentEvent event) {
+        if (segments.isEmpty()) {
+            damageStart = damageEnd = 0;
+            return;
+        }
+        // Previous segment may be merged with the changed one (e.g. when delimiter is removed)
+        damageStart = Math.max(0, findSegmentIndex(event.getOffset()) - 1);
+        damageEnd = Math.max(damageStart, findSegmentIndex(event.getOffset() + event.getLength())) + 1;
+        // Segments after damaged ones keep their place relative to the document end
+        moveGap(damageEnd);
+    }
+
+    @Override
+    public synchronized void documentChanged(DocumentEvent event) {
+        documentLength = document.getLength();
+        if (damageStart < 0 || damageEnd > segments.size()) {
+            reparse();
+            return;
+        }
+        int startOffset = damageStart < segments.size() ? getBeginOffset(segments.get(damageStart)) : 0;
+        int changeEnd = event.getOffset() + (event.getText() == null ? 0 : event.getText().length());
+        splitSegments(damageStart, startOffset, damageEnd, changeEnd);
+        damageStart = damageEnd = -1;
+    }
+
+    ////////////////////////////////////////////////
+    // Source text
+
+    @Override
+    public int getLength() {
+        return documentLength;
+    }
+
+    @Override
+    public char getChar(int offset) {
+        try {
+            return document.getChar(offset);
+        } catch (BadLocationException e) {
+            throw new IndexOutOfBoundsException(e.getMessage());
+        }
+    }
+
+    @NotNull
+    @Override
+    public String getSegment(int beginOffset, int endOffset) {
+        try {
+            return document.get(beginOffset, endOffset - beginOffset);
+        } catch (BadLocationException e) {
+            throw new IndexOutOfBoundsException(e.getMessage());
+        }
+    }
+
+    ////////////////////////////////////////////////
+    // Internals
+
+    /**
+     * Splits document from the specified offset and replaces segments [index, syncIndex..) with new ones.
+     * Splitting stops when new segment ends at the begin of an old segment (after changed region).
+     */
+    private void splitSegments(int index, int startOffset, int syncIndex, int changeEnd) {
+        List<SCMSegment> newSegments = new ArrayList<>();
+        splitter.setRange(document, startOffset, documentLength - startOffset);
+        int segmentBegin = startOffset;
+        boolean synced = false;
+        while (segmentBegin < documentLength) {
+            int segmentEnd = splitter.nextSegmentEnd();
+            if (segmentEnd < 0 || segmentEnd > documentLength) {
+                segmentEnd = documentLength;
+            } else if (segmentEnd <= segmentBegin) {
+                continue;
+            }
+            newSegments.add(new SCMSegment(this, segmentBegin, segmentEnd - segmentBegin));
+            segmentBegin = segmentEnd;
+            if (segmentEnd >= changeEnd) {
+                // Skip damaged old segments and check for sync point
+                while (syncIndex < segments.size() && getBeginOffset(segments.get(syncIndex)) < segmentEnd) {
+                    syncIndex++;
+                }
+                if (syncIndex < segments.size() && getBeginOffset(segments.get(syncIndex)) == segmentEnd) {
+                    synced = true;
+                    break;
+                }
+            }
+        }
+        if (!synced) {
+            syncIndex = segments.size();
+        }
+        lastSplitLength = segmentBegin - startOffset;
+
+        // Replace damaged segments. All segments after them are relative.
+        segments.subList(index, syncIndex).clear();
+        segments.addAll(index, newSegments);
+        gap = index + newSegments.size();
+    }
+
+    private void moveGap(int newGap) {
+        while (gap < newGap) {
+            SCMSegment segment = segments.get(gap);
+            segment.offset = documentLength - segment.offset;
+            segment.relative = false;
+            gap++;
+        }
+        while (gap > newGap) {
+            gap--;
+            SCMSegment segment = segments.get(gap);
+            segment.offset = documentLength - segment.offset;
+            segment.relative = true;
+        }
+    }
+
+    private int getBeginOffset(SCMSegment segment) {
+        return segment.relative ? documentLength - segment.offset : segment.offset;
+    }
+
+    /**
+     * Returns index of the last segment which begins before or at the specified offset
+     */
+    private int findSegmentIndex(int offset) {
+        int low = 0, high = segments.size() - 1, result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (getBeginOffset(segments.get(mid)) <= offset) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.lang;
+
+import org.eclipse.jface.text.rules.IToken;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.*;
+
+/**
+ * Top-level segment (statement) of document tree.
+ * Segment text never changes - segment is replaced by new segments when its text is edited.
+ * Child nodes are parsed on demand.
+ */
+public class SCMSegment implements SCMCompositeNode {
+
+    @NotNull
+    private final SCMDocumentTree tree;
+    // Begin offset. Distance from the document end if segment is relative.
+    // Changed by tree when its gap moves, guarded by tree lock.
+    int offset;
+    boolean relative;
+    private final int length;
+
+    private List<SCMNode> childNodes;
+    // Begin offset of parsed child nodes. Nodes are re-parsed if segment was moved.
+    private int childNodesOffset = -1;
+    private Set<String> words;
+
+    SCMSegment(@NotNull SCMDocumentTree tree, int offset, int length) {
+        this.tree = tree;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int getBeginOffset() {
+        return tree.getSegmentBeginOffset(this);
+    }
+
+    @Override
+    public int getEndOffset() {
+        return getBeginOffset() + length;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public boolean contains(int position) {
+        int beginOffset = getBeginOffset();
+        return position >= beginOffset && position < beginOffset + length;
+    }
+
+    @NotNull
+    public String getText() {
+        int beginOffset = getBeginOffset();
+        return tree.getSegment(beginOffset, beginOffset + length);
+    }
+
+    /**
+     * Checks whether segment contains the specified word (case insensitive).
+     * Words are sequences of letters, digits and underscores.
+     */
+    public synchronized boolean containsWord(@NotNull String word) {
+        if (words == null) {
+            words = new HashSet<>();
+            String text = getText();
+            int wordStart = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                if (i < text.length() && isWordPart(text.charAt(i))) {
+                    if (wordStart < 0) {
+                        wordStart = i;
+                    }
+                } else if (wordStart >= 0) {
+                    words.add(text.substring(wordStart, i).toLowerCase(Locale.ENGLISH));
+                    wordStart = -1;
+                }
+            }
+        }
+        return words.contains(word.toLowerCase(Locale.ENGLISH));
+    }
+
+    public static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    @NotNull
+    @Override
+    public SCMSourceText getSource() {
+        return tree;
+    }
+
+    @Nullable
+    @Override
+    public SCMCompositeNode getParentNode() {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public SCMNode getPreviousNode() {
+        return tree.getPreviousSegment(this);
+    }
+
+    @Nullable
+    @Override
+    public SCMNode getNextNode() {
+        return tree.getNextSegment(this);
+    }
+
+    @NotNull
+    @Override
+    public synchronized List<SCMNode> getChildNodes() {
+        SCMSourceParser nodeParser = tree.getNodeParser();
+        if (nodeParser == null) {
+            return Collections.emptyList();
+        }
+        int beginOffset = getBeginOffset();
+        if (childNodes == null || childNodesOffset != beginOffset) {
+            childNodes = new ArrayList<>();
+            childNodesOffset = beginOffset;
+            SCMSourceScanner scanner = nodeParser.createScanner(tree.getDocument());
+            scanner.setRange(tree.getDocument(), beginOffset, length);
+            parseComposite(scanner);
+        }
+        return childNodes;
+    }
+
+    @Nullable
+    @Override
+    public SCMNode getFirstChild() {
+        List<SCMNode> nodes = getChildNodes();
+        return nodes.isEmpty() ? null : nodes.get(0);
+    }
+
+    @Nullable
+    @Override
+    public SCMNode getLastChild() {
+        List<SCMNode> nodes = getChildNodes();
+        return nodes.isEmpty() ? null : nodes.get(nodes.size() - 1);
+    }
+
+    @Nullable
+    @Override
+    public SCMNode getNextChild(SCMNode node) {
+        List<SCMNode> nodes = getChildNodes();
+        int index = nodes.indexOf(node);
+        return index < 0 || index >= nodes.size() - 1 ? null : nodes.get(index + 1);
+    }
+
+    @Nullable
+    @Override
+    public SCMNode getPreviousChild(SCMNode node) {
+        List<SCMNode> nodes = getChildNodes();
+        int index = nodes.indexOf(node);
+        return index <= 0 ? null : nodes.get(index - 1);
+    }
+
+    @Override
+    public void addChild(@NotNull SCMNode node) {
+        childNodes.add(node);
+    }
+
+    @Nullable
+    @Override
+    public IToken parseComposite(@NotNull SCMSourceScanner scanner) {
+        for (; ; ) {
+            IToken token = scanner.nextToken();
+            if (token.isEOF()) {
+                break;
+            }
+            parseToken(scanner, token);
+        }
+        return null;
+    }
+
+    private void parseToken(SCMSourceScanner scanner, IToken token) {
+        SCMNode node = tree.getNodeParser().parseNode(this, token, scanner);
+        addChild(node);
+        if (node instanceof SCMCompositeNode) {
+            token = ((SCMCompositeNode) node).parseComposite(scanner);
+            if (token != null && !token.isEOF()) {
+                parseToken(scanner, token);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        int beginOffset = getBeginOffset();
+        return "[" + beginOffset + "," + (beginOffset + length) + ")";
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.lang;
+
+import org.eclipse.jface.text.IDocument;
+import org.jkiss.code.NotNull;
+
+/**
+ * Splits source text into top-level segments (statements).
+ *
+ * Splitter may be restarted at any segment boundary it has returned before. So segment boundaries must not depend
+ * on text before the segment begin (i.e. splitter must be in initial state at each boundary).
+ */
+public interface SCMSegmentSplitter {
+
+    void setRange(@NotNull IDocument document, int offset, int length);
+
+    /**
+     * Returns end offset of the next segment. Returns -1 if there are no more boundaries in range.
+     */
+    int nextSegmentEnd();
+
+}
@@ -16,9 +16,8 @@
  */
 package org.jkiss.dbeaver.lang;
 
-import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.rules.IToken;
-import org.eclipse.jface.text.rules.RuleBasedScanner;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 
@@ -27,7 +26,7 @@ import org.jkiss.code.Nullable;
  */
 public interface SCMSourceParser {
 
-    SCMSourceScanner createScanner(Document document);
+    SCMSourceScanner createScanner(IDocument document);
 
     /**
      * Returns parsed node. Null on end of file
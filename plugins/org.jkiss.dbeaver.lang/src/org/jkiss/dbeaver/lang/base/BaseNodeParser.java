@@ -16,7 +16,7 @@
  */
 package org.jkiss.dbeaver.lang.base;
 
-import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.rules.*;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.lang.*;
@@ -36,7 +36,7 @@ public class BaseNodeParser implements SCMSourceParser {
     public static final IToken COMMENT_TOKEN = new Token(SCMToken.COMMENT);
 
     @Override
-    public SCMSourceScanner createScanner(Document document) {
+    public SCMSourceScanner createScanner(IDocument document) {
         List<IRule> rules = new ArrayList<>();
         addRules(rules);
         return new BaseSourceScanner(document, rules);
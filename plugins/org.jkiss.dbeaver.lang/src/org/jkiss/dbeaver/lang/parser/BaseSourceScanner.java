@@ -17,7 +17,7 @@
 package org.jkiss.dbeaver.lang.parser;
 
 import org.eclipse.jface.text.BadLocationException;
-import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.rules.*;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.lang.SCMSourceScanner;
@@ -32,7 +32,7 @@ import java.util.Collection;
  */
 public class BaseSourceScanner extends RuleBasedScanner implements SCMSourceScanner, SCMSourceText {
 
-    public BaseSourceScanner(Document document, Collection<IRule> rules) {
+    public BaseSourceScanner(IDocument document, Collection<IRule> rules) {
 
         setRules(ArrayUtils.toArray(IRule.class, rules));
 
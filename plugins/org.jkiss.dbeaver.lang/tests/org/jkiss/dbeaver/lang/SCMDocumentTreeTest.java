@@ -0,0 +1,161 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.lang;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SCMDocumentTreeTest {
+
+    private static final String EDIT_CHARS = "ab ;\n";
+
+    @Test
+    public void shouldSplitDocumentByDelimiters() {
+        //given
+        Document document = new Document("select 1;\nselect 2;select 3");
+
+        //when
+        SCMDocumentTree tree = createTree(document);
+
+        //then
+        assertEquals(3, tree.getSegmentCount());
+        assertEquals("select 1;", tree.getSegment(0).getText());
+        assertEquals("\nselect 2;", tree.getSegment(1).getText());
+        assertEquals("select 3", tree.getSegment(2).getText());
+    }
+
+    @Test
+    public void shouldMergeSegmentsWhenDelimiterIsRemoved() throws BadLocationException {
+        //given
+        Document document = new Document("select 1;select 2;select 3;");
+        SCMDocumentTree tree = createTree(document);
+        tree.install();
+
+        //when
+        document.replace(8, 1, "");
+
+        //then
+        assertEquals(getSegmentBounds(createTree(document)), getSegmentBounds(tree));
+        assertEquals(2, tree.getSegmentCount());
+        assertEquals("select 1select 2;", tree.getSegment(0).getText());
+        tree.uninstall();
+    }
+
+    @Test
+    public void shouldSplitOnlyChangedSegments() throws BadLocationException {
+        //given
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("select ").append(i).append(";\n");
+        }
+        Document document = new Document(text.toString());
+        SCMDocumentTree tree = createTree(document);
+        tree.install();
+
+        //when
+        int offset = document.getLength() / 2;
+        document.replace(offset, 0, "x");
+
+        //then
+        assertEquals(getSegmentBounds(createTree(document)), getSegmentBounds(tree));
+        assertTrue(tree.getLastSplitLength() < 100);
+        tree.uninstall();
+    }
+
+    @Test
+    public void shouldMatchFullReparseAfterRandomEdits() throws BadLocationException {
+        //given
+        Random random = new Random(1);
+        Document document = new Document("select 1;\nselect 2;\nselect 3;");
+        SCMDocumentTree tree = createTree(document);
+        tree.install();
+
+        for (int i = 0; i < 5000; i++) {
+            //when
+            int offset = random.nextInt(document.getLength() + 1);
+            int length = random.nextInt(Math.min(10, document.getLength() - offset) + 1);
+            document.replace(offset, length, makeRandomText(random));
+
+            //then
+            assertEquals("Edit #" + i + " of '" + document.get() + "'", getSegmentBounds(createTree(document)), getSegmentBounds(tree));
+        }
+        tree.uninstall();
+    }
+
+    private static SCMDocumentTree createTree(IDocument document) {
+        SCMDocumentTree tree = new SCMDocumentTree(document, new DelimiterSplitter(), null);
+        tree.reparse();
+        return tree;
+    }
+
+    private static String makeRandomText(Random random) {
+        int length = random.nextInt(4) == 0 ? 0 : random.nextInt(12);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(EDIT_CHARS.charAt(random.nextInt(EDIT_CHARS.length())));
+        }
+        return text.toString();
+    }
+
+    private static List<String> getSegmentBounds(SCMDocumentTree tree) {
+        List<String> bounds = new ArrayList<>();
+        for (SCMSegment segment : tree.getSegments()) {
+            bounds.add(segment + segment.getText());
+        }
+        return bounds;
+    }
+
+    /**
+     * Each segment ends with delimiter
+     */
+    private static class DelimiterSplitter implements SCMSegmentSplitter {
+        private IDocument document;
+        private int position;
+        private int endOffset;
+
+        @Override
+        public void setRange(IDocument document, int offset, int length) {
+            this.document = document;
+            this.position = offset;
+            this.endOffset = offset + length;
+        }
+
+        @Override
+        public int nextSegmentEnd() {
+            try {
+                while (position < endOffset) {
+                    if (document.getChar(position++) == ';') {
+                        return position;
+                    }
+                }
+            } catch (BadLocationException e) {
+                throw new IllegalStateException(e);
+            }
+            return -1;
+        }
+    }
+
+}
@@ -23,6 +23,7 @@ import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCFetchSizeController;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.*;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
@@ -113,9 +114,10 @@ public class SQLQueryDataContainer implements DBSDataContainer, SQLQueryContaine
 
                     try {
                         long fetchStartTime = System.currentTimeMillis();
+                        JDBCFetchSizeController fetchSizeController = new JDBCFetchSizeController(resultSet, maxRows);
 
                         // Fetch all rows
-                        while (!fetchProgress.isMaxRowsFetched(maxRows) && !fetchProgress.isCanceled() && resultSet.nextRow()) {
+                        while (!fetchProgress.isMaxRowsFetched(maxRows) && !fetchProgress.isCanceled() && fetchSizeController.nextRow()) {
                             dataReceiver.fetchRow(session, resultSet);
                             fetchProgress.monitorRowFetch();
                         }
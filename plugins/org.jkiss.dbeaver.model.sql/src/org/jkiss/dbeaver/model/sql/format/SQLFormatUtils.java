@@ -18,7 +18,11 @@ package org.jkiss.dbeaver.model.sql.format;
 
 import org.jkiss.dbeaver.model.sql.SQLDataSource;
 import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.format.tokenized.SQLFormatterTokenized;
 import org.jkiss.dbeaver.model.sql.registry.SQLFormatterConfigurationRegistry;
+import org.jkiss.utils.IOUtils;
+
+import java.io.*;
 
 /**
  * SQL Formatter
@@ -37,4 +41,24 @@ public class SQLFormatUtils {
         return formatter.format(query, configuration);
     }
 
+    /**
+     * Formats SQL script file. Doesn't need UI so may be used for batch formatting of large scripts.
+     * Default formatter writes formatted script to the output file statement by statement.
+     * Note: input script is read into memory entirely (tokenizer works on in-memory text),
+     * so memory usage is proportional to the input file size.
+     */
+    public static void formatScript(SQLFormatterConfiguration configuration, File inputFile, File outputFile) throws IOException
+    {
+        final String encoding = configuration.getSourceEncoding();
+        final String script = IOUtils.toString(inputFile, encoding);
+        SQLFormatter formatter = SQLFormatterConfigurationRegistry.getInstance().createFormatter(configuration);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), encoding))) {
+            if (formatter instanceof SQLFormatterTokenized) {
+                ((SQLFormatterTokenized) formatter).format(script, configuration, writer);
+            } else {
+                writer.write(formatter == null ? script : formatter.format(script, configuration));
+            }
+        }
+    }
+
 }
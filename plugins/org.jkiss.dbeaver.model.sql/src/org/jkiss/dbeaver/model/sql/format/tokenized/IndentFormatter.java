@@ -25,6 +25,7 @@ class IndentFormatter {
     private int bracketsDepth = 0;
     private boolean encounterBetween = false;
     private List<Boolean> functionBracket = new ArrayList<>();
+    private final List<Integer> bracketIndent = new ArrayList<>();
     private static final String[] JOIN_BEGIN = {"LEFT", "RIGHT", "INNER", "OUTER", "FULL", "CROSS", "JOIN"};
 
     IndentFormatter(SQLFormatterConfiguration formatterCfg, boolean isCompact) {
@@ -39,7 +40,7 @@ class IndentFormatter {
         this.isCompact = isCompact;
     }
 
-    private int formatSymbol(String tokenString, List<Integer> bracketIndent, List<FormatterToken> argList, Integer index, FormatterToken prev) {
+    private int formatSymbol(String tokenString, List<FormatterToken> argList, Integer index, FormatterToken prev) {
         int result = index;
 
         switch (tokenString) {
@@ -231,15 +232,18 @@ class IndentFormatter {
         return result;
     }
 
+    /**
+     * Formats list of tokens. May be called several times for subsequent parts of the same script,
+     * indent state is kept between calls.
+     */
     public void format(List<FormatterToken> argList) {
-        final List<Integer> bracketIndent = new ArrayList<>();
         FormatterToken prev = new FormatterToken(TokenType.SPACE, " "); //$NON-NLS-1$
         for (int index = 0; index < argList.size(); index++) {
             FormatterToken token = argList.get(index);
             String tokenString = token.getString().toUpperCase(Locale.ENGLISH);
             switch (token.getType()) {
                 case SYMBOL:
-                    index = formatSymbol(tokenString, bracketIndent, argList, index, prev);
+                    index = formatSymbol(tokenString, argList, index, prev);
                     break;
                 case KEYWORD:
                     index = formatKeyword(argList, tokenString, index);
@@ -24,7 +24,9 @@ import org.jkiss.dbeaver.model.sql.format.SQLFormatterConfiguration;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.ArrayUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 
@@ -37,6 +39,9 @@ public class SQLFormatterTokenized implements SQLFormatter {
 
     private static final String[] DML_KEYWORD = { "SELECT", "UPDATE", "INSERT", "DELETE" };
 
+    // Long statements are split by commas after this number of tokens
+    private static final int MAX_PART_SIZE = 1000;
+
 
     private SQLFormatterConfiguration formatterCfg;
 
@@ -47,32 +52,74 @@ public class SQLFormatterTokenized implements SQLFormatter {
 
     @Override
     public String format(final String argSql, SQLFormatterConfiguration configuration) {
+        StringBuilder after = new StringBuilder(argSql.length() + 20);
+        try {
+            format(argSql, configuration, after);
+        } catch (IOException e) {
+            // Never happens for StringBuilder
+            throw new IllegalStateException(e);
+        }
+        return after.toString();
+    }
+
+    /**
+     * Formats SQL script and writes result to the output.
+     * Script is tokenized incrementally and formatted statement by statement (long statements are split by commas),
+     * so formatting time is linear to the script size. Formatted statements are written to the output immediately.
+     */
+    public void format(final String argSql, SQLFormatterConfiguration configuration, Appendable output) throws IOException {
         formatterCfg = configuration;
 
+        statementDelimiters.clear();
         for (String delim : formatterCfg.getSyntaxManager().getStatementDelimiters()) {
             statementDelimiters.add(delim.toUpperCase(Locale.ENGLISH));
         }
 
-        SQLTokensParser fParser = new SQLTokensParser(formatterCfg);
-
         boolean isSqlEndsWithNewLine = false;
         if (argSql.endsWith("\n")) { //$NON-NLS-1$
             isSqlEndsWithNewLine = true;
         }
 
-        List<FormatterToken> list = fParser.parse(argSql);
-        list = format(list);
+        TokenStream tokens = new TokenStream(argSql);
+        IndentFormatter indentFormatter = new IndentFormatter(formatterCfg, isCompact);
 
-        StringBuilder after = new StringBuilder(argSql.length() + 20);
-        for (FormatterToken token : list) {
-            after.append(token.getString());
+        List<FormatterToken> part = new ArrayList<>();
+        boolean firstPart = true;
+        while (tokens.peek(0).getType() != TokenType.END) {
+            FormatterToken token = tokens.next();
+            part.add(token);
+            if (!isPartEnd(part, token, tokens)) {
+                continue;
+            }
+            if (tokens.peek(0).getType() == TokenType.SPACE) {
+                part.add(tokens.next());
+            } else {
+                // Delimiter without trailing spaces. Line feed will be inserted here.
+                part.add(new FormatterToken(TokenType.SPACE, " ")); //$NON-NLS-1$
+            }
+            if (format(part, indentFormatter, firstPart, false)) {
+                // Trailing space is formatted along with the next statement (it depends on the next keyword),
+                // so it is written later.
+                FormatterToken lastSpace = part.get(part.size() - 1);
+                for (int i = 0; i < part.size() - 1; i++) {
+                    output.append(part.get(i).getString());
+                }
+                part.clear();
+                part.add(lastSpace);
+            } else {
+                part.clear();
+            }
+            firstPart = false;
+        }
+        if (!part.isEmpty() && format(part, indentFormatter, firstPart, true)) {
+            for (FormatterToken token : part) {
+                output.append(token.getString());
+            }
         }
 
         if (isSqlEndsWithNewLine) {
-            after.append(GeneralUtils.getDefaultLineSeparator());
+            output.append(GeneralUtils.getDefaultLineSeparator());
         }
-
-        return after.toString();
     }
 
     public boolean isCompact() {
@@ -83,33 +130,51 @@ public class SQLFormatterTokenized implements SQLFormatter {
         isCompact = compact;
     }
 
-    private List<FormatterToken> format(final List<FormatterToken> argList) {
-        if (argList.isEmpty()) {
-            return argList;
+    /**
+     * Checks whether script part may be formatted separately from the rest of the script.
+     * Script is split after statement delimiters (and after commas in very long statements)
+     * followed by a regular token. Comments and script end stick to the previous part.
+     */
+    private boolean isPartEnd(List<FormatterToken> part, FormatterToken token, TokenStream tokens) {
+        FormatterToken next = tokens.peek(0);
+        boolean nextIsSpace = next.getType() == TokenType.SPACE;
+        FormatterToken after = nextIsSpace ? tokens.peek(1) : next;
+        if (after.getType() == TokenType.END || after.getType() == TokenType.COMMENT) {
+            return false;
         }
-
-        if (isEmptyAfterSpaceRemoving(argList, 0) ||
-                isEmptyAfterSpaceRemoving(argList, argList.size() - 1)){
-            return argList;
+        if (token.getType() != TokenType.SPACE && statementDelimiters.contains(token.getString().toUpperCase(Locale.ENGLISH))) {
+            return true;
         }
+        return nextIsSpace && part.size() >= MAX_PART_SIZE &&
+            token.getType() == TokenType.SYMBOL && token.getString().equals(","); //$NON-NLS-1$
+    }
 
-        transformCase(argList);
+    /**
+     * Formats script part.
+     * All parts except the first one start with the trailing space of the previous part.
+     * @return false if part is empty after formatting
+     */
+    private boolean format(final List<FormatterToken> argList, IndentFormatter indentFormatter, boolean isFirst, boolean isLast) {
+        if (argList.isEmpty()) {
+            return false;
+        }
 
-        if (formatterCfg.getPreferenceStore().getBoolean(ModelPreferences.SQL_FORMAT_INSERT_DELIMITERS_IN_EMPTY_LINES)) {
-            convertEmptyLinesIntoDelimiters(argList);
+        if ((isFirst && isEmptyAfterSpaceRemoving(argList, 0)) ||
+                (isLast && isEmptyAfterSpaceRemoving(argList, argList.size() - 1))){
+            return false;
         }
+
         removeSpacesAroundCommentToken(argList);
 
         concatenateDoublewordedKeywords(argList);
 
-        IndentFormatter indentFormatter = new IndentFormatter(formatterCfg, isCompact);
         indentFormatter.format(argList);
 
         trimSpacesBetweenBraces(argList);
 
         insertSpaces(argList);
 
-        return argList;
+        return true;
     }
 
     private void insertSpaces(List<FormatterToken> argList) {
@@ -201,15 +266,6 @@ public class SQLFormatterTokenized implements SQLFormatter {
         }
     }
 
-    private void transformCase(List<FormatterToken> argList) {
-        final DBPIdentifierCase keywordCase = formatterCfg.getKeywordCase();
-        for (FormatterToken token : argList) {
-            if (token.getType() == TokenType.KEYWORD) {
-                token.setString(keywordCase.transform(token.getString()));
-            }
-        }
-    }
-
     private boolean isEmptyAfterSpaceRemoving(List<FormatterToken> argList, int tokenPosition) {
         FormatterToken token = argList.get(tokenPosition);
         if (token.getType() == TokenType.SPACE) {
@@ -234,28 +290,6 @@ public class SQLFormatterTokenized implements SQLFormatter {
         }
     }
 
-    private void convertEmptyLinesIntoDelimiters(List<FormatterToken> argList) {
-        for (int i= 0; i < argList.size(); i++) {
-            FormatterToken token = argList.get(i);
-            if (token.getType() == TokenType.SPACE) {
-                int lfCount = 0;
-                for (int k = 0; k < token.getString().length(); k++) {
-                    if (token.getString().charAt(k) == '\n') {
-                        lfCount++;
-                    }
-                }
-                if (lfCount > 1) {
-                    if (i > 0 && statementDelimiters.contains(argList.get(i - 1).getString())) {
-                        // Do nothing - there is a delimiter already
-                    } else {
-                        argList.add(i, new FormatterToken(TokenType.SYMBOL, statementDelimiters.get(0)));
-                        i++;
-                    }
-                }
-            }
-        }
-    }
-
     private void concatenateDoublewordedKeywords(List<FormatterToken> argList) {
         for (int index = 0; index < argList.size() - 2; index++) {
             FormatterToken t0 = argList.get(index);
@@ -320,8 +354,66 @@ public class SQLFormatterTokenized implements SQLFormatter {
         }
     }
 
+    /**
+     * Stream of script tokens with lookahead.
+     * Transforms keywords case and inserts delimiters in empty lines (if enabled).
+     */
+    private class TokenStream {
+        private final SQLTokensParser parser;
+        private final DBPIdentifierCase keywordCase;
+        private final boolean insertDelimitersInEmptyLines;
+        private final LinkedList<FormatterToken> buffer = new LinkedList<>();
+        private FormatterToken pendingToken;
+        private FormatterToken lastToken;
+
+        TokenStream(String argSql) {
+            this.parser = new SQLTokensParser(formatterCfg);
+            this.parser.setSource(argSql);
+            this.keywordCase = formatterCfg.getKeywordCase();
+            this.insertDelimitersInEmptyLines = formatterCfg.getPreferenceStore().getBoolean(ModelPreferences.SQL_FORMAT_INSERT_DELIMITERS_IN_EMPTY_LINES);
+        }
 
+        FormatterToken peek(int index) {
+            while (buffer.size() <= index) {
+                buffer.add(readToken());
+            }
+            return buffer.get(index);
+        }
+
+        FormatterToken next() {
+            return buffer.isEmpty() ? readToken() : buffer.removeFirst();
+        }
 
+        private FormatterToken readToken() {
+            FormatterToken token = pendingToken;
+            if (token != null) {
+                pendingToken = null;
+            } else {
+                token = parser.nextToken();
+                if (token.getType() == TokenType.KEYWORD) {
+                    token.setString(keywordCase.transform(token.getString()));
+                } else if (insertDelimitersInEmptyLines && token.getType() == TokenType.SPACE &&
+                    lastToken != null && parser.hasMoreTokens() &&
+                    !statementDelimiters.contains(lastToken.getString()) && getLineFeedCount(token) > 1)
+                {
+                    // Empty line - add delimiter before it
+                    pendingToken = token;
+                    token = new FormatterToken(TokenType.SYMBOL, statementDelimiters.get(0));
+                }
+            }
+            lastToken = token;
+            return token;
+        }
 
+        private int getLineFeedCount(FormatterToken token) {
+            int lfCount = 0;
+            for (int k = 0; k < token.getString().length(); k++) {
+                if (token.getString().charAt(k) == '\n') {
+                    lfCount++;
+                }
+            }
+            return lfCount;
+        }
+    }
 
 }
\ No newline at end of file
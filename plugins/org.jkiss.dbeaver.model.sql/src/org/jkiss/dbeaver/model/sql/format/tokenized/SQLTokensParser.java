@@ -104,6 +104,18 @@ class SQLTokensParser {
         }
     }
 
+    /**
+     * Starts tokenizing of the specified script. Tokens are read by {@link #nextToken()}.
+     */
+    void setSource(final String argSql) {
+        fPos = 0;
+        fBefore = argSql;
+    }
+
+    boolean hasMoreTokens() {
+        return fPos < fBefore.length();
+    }
+
     FormatterToken nextToken() {
         int start_pos = fPos;
         if (fPos >= fBefore.length()) {
@@ -285,8 +297,7 @@ class SQLTokensParser {
     }
 
     public List<FormatterToken> parse(final String argSql) {
-        fPos = 0;
-        fBefore = argSql;
+        setSource(argSql);
 
         final List<FormatterToken> list = new ArrayList<>();
         for (;;) {
@@ -147,6 +147,47 @@ public class SQLFormatterTokenizedTest {
         assertEquals(expectedString, formattedString);
     }
 
+    @Test
+    public void shouldWriteStatementsToAppendable() throws Exception {
+        //given
+        String expectedString = "SELECT" + lineBreak + "\ta" + lineBreak + "FROM" + lineBreak + "\tt;" + lineBreak + lineBreak +
+            "SELECT" + lineBreak + "\tb" + lineBreak + "FROM" + lineBreak + "\tu";
+        String inputString = "select a from t;select b from u";
+
+        //when
+        StringBuilder output = new StringBuilder();
+        formatter.format(inputString, configuration, output);
+
+        //then
+        assertEquals(expectedString, output.toString());
+        assertEquals(expectedString, formatter.format(inputString, configuration));
+    }
+
+    @Test
+    public void shouldSplitLongStatementByCommas() {
+        //given
+        StringBuilder input = new StringBuilder("select ");
+        StringBuilder expected = new StringBuilder("SELECT").append(lineBreak);
+        for (int i = 0; i < 600; i++) {
+            if (i > 0) {
+                input.append(", ");
+                expected.append(",").append(lineBreak);
+            }
+            input.append("c").append(i);
+            expected.append("\tc").append(i);
+        }
+        input.append(" from t;select 1 from dual");
+        expected.append(lineBreak).append("FROM").append(lineBreak).append("\tt;").append(lineBreak).append(lineBreak)
+            .append("SELECT").append(lineBreak).append("\t1").append(lineBreak)
+            .append("FROM").append(lineBreak).append("\tdual");
+
+        //when
+        String formattedString = formatter.format(input.toString(), configuration);
+
+        //then
+        assertEquals(expected.toString(), formattedString);
+    }
+
     private String getExpectedStringWithLineBreakBeforeBraces() {
         StringBuilder sb = new StringBuilder();
         sb.append("SELECT").append(lineBreak)
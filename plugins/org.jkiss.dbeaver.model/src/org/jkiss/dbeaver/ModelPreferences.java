@@ -50,6 +50,14 @@ public final class ModelPreferences
     public static final String CONNECTION_OPEN_TIMEOUT = "connection.open.timeout"; //$NON-NLS-1$
     public static final String CONNECTION_VALIDATION_TIMEOUT = "connection.validation.timeout"; //$NON-NLS-1$
     public static final String CONNECTION_CLOSE_TIMEOUT = "connection.close.timeout"; //$NON-NLS-1$
+    public static final String CONNECTION_KEEP_ALIVE_MAX_CONCURRENT = "connection.keepalive.concurrent"; //$NON-NLS-1$
+    public static final String CONNECTION_KEEP_ALIVE_MAX_BACKOFF = "connection.keepalive.backoff.max"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_ENABLED = "connection.pool.enabled"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_MAX_SIZE = "connection.pool.size.max"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_MAX_IDLE = "connection.pool.idle.max"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_IDLE_TIMEOUT = "connection.pool.idle.timeout"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_MAX_WAIT = "connection.pool.wait.max"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_LEAK_TIMEOUT = "connection.pool.leak.timeout"; //$NON-NLS-1$
 
     public static final String SCRIPT_STATEMENT_DELIMITER = "script.sql.delimiter"; //$NON-NLS-1$
     public static final String SCRIPT_IGNORE_NATIVE_DELIMITER = "script.sql.ignoreNativeDelimiter"; //$NON-NLS-1$
@@ -61,6 +69,7 @@ public final class ModelPreferences
     public static final String CONTENT_CACHE_CLOB = "content.cache.clob"; //$NON-NLS-1$
     public static final String CONTENT_CACHE_BLOB = "content.cache.blob"; //$NON-NLS-1$
     public static final String CONTENT_CACHE_MAX_SIZE = "content.cache.maxsize"; //$NON-NLS-1$
+    public static final String CONTENT_SPOOL_ENABLED = "content.spool.enabled"; //$NON-NLS-1$
     public static final String META_SEPARATE_CONNECTION = "database.meta.separate.connection"; //$NON-NLS-1$
     public static final String META_CASE_SENSITIVE = "database.meta.casesensitive"; //$NON-NLS-1$
     public static final String META_USE_SERVER_SIDE_FILTERS = "database.meta.server.side.filters"; //$NON-NLS-1$
@@ -80,6 +89,11 @@ public final class ModelPreferences
 
     // ResultSet
     public static final String RESULT_SET_USE_FETCH_SIZE = "resultset.fetch.size"; //$NON-NLS-1$
+    public static final String RESULT_SET_FETCH_SIZE_ADAPTIVE = "resultset.fetch.size.adaptive"; //$NON-NLS-1$
+    public static final String RESULT_SET_FETCH_SIZE_MAX = "resultset.fetch.size.max"; //$NON-NLS-1$
+    public static final String RESULT_SET_FETCH_MEMORY_MAX = "resultset.fetch.memory.max"; //$NON-NLS-1$
+    public static final String RESULT_SET_STREAMING_FETCH_SIZE = "resultset.streaming.fetch.size"; //$NON-NLS-1$
+    public static final String RESULT_SET_MAX_ROWS = "resultset.maxrows"; //$NON-NLS-1$
     public static final String RESULT_SET_MAX_ROWS_USE_SQL = "resultset.maxrows.sql"; //$NON-NLS-1$
     public static final String RESULT_SET_BINARY_PRESENTATION = "resultset.binary.representation"; //$NON-NLS-1$
     public static final String RESULT_SET_BINARY_STRING_MAX_LEN = "resultset.binary.stringMaxLength"; //$NON-NLS-1$
@@ -119,6 +133,8 @@ public final class ModelPreferences
     public static final String NAVIGATOR_SHOW_FOLDER_PLACEHOLDERS = "navigator.show.folder.placeholders"; //$NON-NLS-1$
     public static final String NAVIGATOR_SORT_ALPHABETICALLY = "navigator.sort.case.insensitive"; //$NON-NLS-1$
     public static final String NAVIGATOR_SORT_FOLDERS_FIRST = "navigator.sort.forlers.first"; //$NON-NLS-1$
+    // Max number of threads which read independent navigator folders of one datasource in parallel. 1 disables prefetch.
+    public static final String NAVIGATOR_PREFETCH_THREADS = "navigator.prefetch.threads"; //$NON-NLS-1$
 
     public static final String PLATFORM_LANGUAGE = "platform.language"; //$NON-NLS-1$
 
@@ -156,6 +172,14 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, CONNECTION_OPEN_TIMEOUT, 0);
         PrefUtils.setDefaultPreferenceValue(store, CONNECTION_VALIDATION_TIMEOUT, 10000);
         PrefUtils.setDefaultPreferenceValue(store, CONNECTION_CLOSE_TIMEOUT, 5000);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_KEEP_ALIVE_MAX_CONCURRENT, 4);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_KEEP_ALIVE_MAX_BACKOFF, 600);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_ENABLED, true);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_MAX_SIZE, 16);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_MAX_IDLE, 2);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_IDLE_TIMEOUT, 300);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_MAX_WAIT, 0);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_LEAK_TIMEOUT, 0);
 
         // SQL execution
         PrefUtils.setDefaultPreferenceValue(store, SCRIPT_STATEMENT_DELIMITER, SQLConstants.DEFAULT_STATEMENT_DELIMITER);
@@ -181,6 +205,7 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, CONTENT_CACHE_CLOB, true);
         PrefUtils.setDefaultPreferenceValue(store, CONTENT_CACHE_BLOB, false);
         PrefUtils.setDefaultPreferenceValue(store, CONTENT_CACHE_MAX_SIZE, 1000000);
+        PrefUtils.setDefaultPreferenceValue(store, CONTENT_SPOOL_ENABLED, true);
 
         // Network
         PrefUtils.setDefaultPreferenceValue(store, NET_TUNNEL_PORT_MIN, 10000);
@@ -191,6 +216,10 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_BINARY_PRESENTATION, DBConstants.BINARY_FORMATS[0].getId());
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_BINARY_STRING_MAX_LEN, 32);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_USE_FETCH_SIZE, false);
+        PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_FETCH_SIZE_ADAPTIVE, false);
+        PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_FETCH_SIZE_MAX, 50000);
+        PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_FETCH_MEMORY_MAX, 16);
+        PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_STREAMING_FETCH_SIZE, 10000);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_IGNORE_COLUMN_LABEL, false);
 
         // QM
@@ -233,5 +262,6 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, ModelPreferences.NAVIGATOR_SHOW_FOLDER_PLACEHOLDERS, true);
         PrefUtils.setDefaultPreferenceValue(store, ModelPreferences.NAVIGATOR_SORT_ALPHABETICALLY, false);
         PrefUtils.setDefaultPreferenceValue(store, ModelPreferences.NAVIGATOR_SORT_FOLDERS_FIRST, true);
+        PrefUtils.setDefaultPreferenceValue(store, ModelPreferences.NAVIGATOR_PREFETCH_THREADS, 4);
     }
 }
@@ -34,6 +34,7 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
 import org.jkiss.dbeaver.model.virtual.DBVModel;
+import org.jkiss.dbeaver.runtime.jobs.DataSourceHealthStats;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 
 import java.util.Collection;
@@ -202,6 +203,12 @@ public interface DBPDataSourceContainer extends DBSObject, DBDPreferences, DBPNa
 
     Date getConnectTime();
 
+    /**
+     * Connection health statistics (ping latency, reconnects) collected by keep-alive monitor
+     */
+    @NotNull
+    DataSourceHealthStats getHealthStats();
+
     GeneralUtils.IVariableResolver getVariablesResolver();
 
     DBPDataSourceContainer createCopy(DBPDataSourceRegistry forRegistry);
@@ -0,0 +1,187 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.storage;
+
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.data.DBDContentCached;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.ref.SoftReference;
+
+/**
+ * Content stored in a spool file.
+ * Contents is immutable so clone just creates a new handle of the same spool segment.
+ */
+public class SpoolContentStorage implements DBDContentStorage, DBDContentCached {
+
+    private static final Log log = Log.getLog(SpoolContentStorage.class);
+
+    private final SpoolContentStore store;
+    private final long offset;
+    private final long length;
+    private final String charset;
+    private boolean released;
+    private SoftReference<byte[]> cachedData;
+
+    SpoolContentStorage(SpoolContentStore store, long offset, long length, String charset)
+    {
+        this.store = store;
+        this.offset = offset;
+        this.length = length;
+        this.charset = CommonUtils.toString(charset, GeneralUtils.DEFAULT_ENCODING);
+    }
+
+    @Override
+    public InputStream getContentStream()
+        throws IOException
+    {
+        if (released) {
+            throw new IOException("Content was released");
+        }
+        return new SpoolInputStream();
+    }
+
+    @Override
+    public Reader getContentReader()
+        throws IOException
+    {
+        return new InputStreamReader(getContentStream(), charset);
+    }
+
+    @Override
+    public long getContentLength()
+    {
+        return length;
+    }
+
+    @Override
+    public String getCharset()
+    {
+        return charset;
+    }
+
+    @Override
+    public DBDContentStorage cloneStorage(DBRProgressMonitor monitor)
+        throws IOException
+    {
+        if (released) {
+            throw new IOException("Content was released");
+        }
+        if (!store.addReference()) {
+            throw new IOException("Content spool was deleted");
+        }
+        return new SpoolContentStorage(store, offset, length, charset);
+    }
+
+    @Override
+    public synchronized void release()
+    {
+        if (!released) {
+            released = true;
+            cachedData = null;
+            store.releaseReference();
+        }
+    }
+
+    /**
+     * Returns content bytes if content is small enough to be kept in memory.
+     */
+    @Override
+    public synchronized Object getCachedValue() {
+        if (released || length > store.getPlatform().getPreferenceStore().getInt(ModelPreferences.MEMORY_CONTENT_MAX_SIZE)) {
+            return null;
+        }
+        byte[] data = cachedData == null ? null : cachedData.get();
+        if (data == null) {
+            data = new byte[(int) length];
+            try {
+                if (length > 0 && store.readBytes(offset, data, 0, data.length) != data.length) {
+                    return null;
+                }
+            } catch (IOException e) {
+                log.debug("Error reading spooled content", e);
+                return null;
+            }
+            cachedData = new SoftReference<>(data);
+        }
+        return data;
+    }
+
+    private class SpoolInputStream extends InputStream {
+        private long position;
+        private long mark;
+
+        @Override
+        public int read() throws IOException {
+            byte[] buffer = new byte[1];
+            return read(buffer, 0, 1) < 0 ? -1 : buffer[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            long remaining = length - position;
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = store.readBytes(offset + position, b, off, (int) Math.min(len, remaining));
+            if (count < 0) {
+                throw new IOException("Content spool was deleted");
+            }
+            position += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            long count = Math.max(0, Math.min(n, length - position));
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, length - position);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int readlimit) {
+            mark = position;
+        }
+
+        @Override
+        public synchronized void reset() {
+            position = mark;
+        }
+    }
+
+}
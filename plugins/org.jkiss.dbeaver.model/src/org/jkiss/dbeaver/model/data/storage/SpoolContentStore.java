@@ -0,0 +1,299 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.storage;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.app.DBPPlatform;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only content spool file.
+ *
+ * Keeps contents of many LOBs (usually all LOBs of one result set) in a single temporary file.
+ * Contents are appended with positional writes. Complete chunks of the file are memory-mapped (read-only)
+ * on first read, the last incomplete chunk is read directly from the file. Each stored content is referenced by {@link SpoolContentStorage} handle
+ * (offset and length in the spool). Identical contents are stored only once (contents are compared by digest).
+ * Store is reference counted: the owner (result set), contents which may be spooled later and content handles
+ * hold references. Spool file is deleted when the last reference is released.
+ */
+public class SpoolContentStore {
+
+    private static final Log log = Log.getLog(SpoolContentStore.class);
+
+    private static final int CHUNK_SIZE = 16 * 1024 * 1024;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static class Segment {
+        final long offset;
+        final long length;
+
+        Segment(long offset, long length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    @NotNull
+    private final DBPPlatform platform;
+    private File file;
+    private RandomAccessFile spoolFile;
+    private FileChannel channel;
+    // Read-only mapped chunks. Null for chunks which weren't read yet
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private long spoolLength;
+    private final Map<String, Segment> segments = new HashMap<>();
+    // Initial reference belongs to the store owner
+    private int referenceCount = 1;
+    private boolean closed;
+    private boolean deleted;
+
+    private long storedCount;
+    private long dedupCount;
+    private long dedupBytes;
+
+    public SpoolContentStore(@NotNull DBPPlatform platform) {
+        this.platform = platform;
+    }
+
+    @NotNull
+    public DBPPlatform getPlatform() {
+        return platform;
+    }
+
+    /**
+     * Copies content stream into the spool.
+     * If the same content was already stored then returns handle of existing content.
+     */
+    @NotNull
+    public synchronized SpoolContentStorage storeContent(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull InputStream stream,
+        long contentLength,
+        String charset)
+        throws IOException
+    {
+        if (deleted) {
+            throw new IOException("Content spool was deleted");
+        }
+        openSpool(monitor);
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        long offset = spoolLength;
+        long position = offset;
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        for (;;) {
+            if (monitor.isCanceled()) {
+                throw new IOException("Content copy canceled");
+            }
+            int count = stream.read(buffer);
+            if (count < 0) {
+                break;
+            }
+            digest.update(buffer, 0, count);
+            writeBytes(position, buffer, count);
+            position += count;
+        }
+        long length = position - offset;
+        if (contentLength >= 0 && length != contentLength) {
+            log.debug("Actual content length (" + length + ") differs from declared: " + contentLength);
+        }
+
+        String key = CommonUtils.toHexString(digest.digest()) + ":" + length;
+        Segment segment = segments.get(key);
+        if (segment != null) {
+            // Same content is already in spool. Written bytes will be overwritten by the next content.
+            dedupCount++;
+            dedupBytes += length;
+        } else {
+            segment = new Segment(offset, length);
+            segments.put(key, segment);
+            spoolLength = position;
+        }
+        storedCount++;
+        referenceCount++;
+        return new SpoolContentStorage(this, segment.offset, segment.length, charset);
+    }
+
+    /**
+     * Releases owner reference.
+     * Spool file is deleted after all other references are released.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (storedCount > 0) {
+            log.debug(toString());
+        }
+        releaseReference();
+    }
+
+    /**
+     * Adds reference to the store. Returns false if spool was already deleted.
+     */
+    public synchronized boolean addReference() {
+        if (deleted) {
+            return false;
+        }
+        referenceCount++;
+        return true;
+    }
+
+    public synchronized void releaseReference() {
+        referenceCount--;
+        if (referenceCount <= 0 && !deleted) {
+            deleteSpool();
+        }
+    }
+
+    public synchronized long getSpoolLength() {
+        return spoolLength;
+    }
+
+    public synchronized long getStoredCount() {
+        return storedCount;
+    }
+
+    public synchronized long getDeduplicatedCount() {
+        return dedupCount;
+    }
+
+    public synchronized long getDeduplicatedBytes() {
+        return dedupBytes;
+    }
+
+    /**
+     * Reads spool bytes. Returns number of read bytes or -1 if spool is already deleted.
+     * Synchronized with spool deletion, so chunks are never read after the file was closed.
+     */
+    synchronized int readBytes(long position, byte[] buffer, int offset, int length) throws IOException {
+        if (deleted || channel == null) {
+            return -1;
+        }
+        length = (int) Math.min(length, spoolLength - position);
+        if (length <= 0) {
+            return -1;
+        }
+        int read = 0;
+        while (read < length) {
+            int chunkOffset = (int) (position % CHUNK_SIZE);
+            int count = Math.min(length - read, CHUNK_SIZE - chunkOffset);
+            ByteBuffer chunk = getChunk(position);
+            if (chunk != null) {
+                chunk.position(chunkOffset);
+                chunk.get(buffer, offset + read, count);
+            } else {
+                // Chunk isn't complete yet
+                ByteBuffer target = ByteBuffer.wrap(buffer, offset + read, count);
+                while (target.hasRemaining()) {
+                    if (channel.read(target, position + target.position() - offset - read) < 0) {
+                        throw new IOException("Unexpected end of spool file");
+                    }
+                }
+            }
+            read += count;
+            position += count;
+        }
+        return read;
+    }
+
+    private void openSpool(DBRProgressMonitor monitor) throws IOException {
+        if (channel == null) {
+            file = ContentUtils.createTempContentFile(monitor, platform, "spool" + hashCode());
+            spoolFile = new RandomAccessFile(file, "rw");
+            channel = spoolFile.getChannel();
+        }
+    }
+
+    private void writeBytes(long position, byte[] buffer, int length) throws IOException {
+        ByteBuffer source = ByteBuffer.wrap(buffer, 0, length);
+        while (source.hasRemaining()) {
+            channel.write(source, position + source.position());
+        }
+    }
+
+    /**
+     * Returns mapped chunk which contains specified position. Chunk is mapped on first access.
+     * Returns null if chunk isn't complete yet (contents may still be appended to it).
+     */
+    private ByteBuffer getChunk(long position) throws IOException {
+        int chunkIndex = (int) (position / CHUNK_SIZE);
+        long chunkStart = (long) chunkIndex * CHUNK_SIZE;
+        if (chunkStart + CHUNK_SIZE > spoolLength) {
+            return null;
+        }
+        while (chunks.size() <= chunkIndex) {
+            chunks.add(null);
+        }
+        MappedByteBuffer chunk = chunks.get(chunkIndex);
+        if (chunk == null) {
+            chunk = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, CHUNK_SIZE);
+            chunks.set(chunkIndex, chunk);
+        }
+        return chunk.duplicate();
+    }
+
+    private void deleteSpool() {
+        deleted = true;
+        // Mapped buffers are unmapped by GC. Just drop all references
+        chunks.clear();
+        segments.clear();
+        if (channel != null) {
+            ContentUtils.close(spoolFile);
+            channel = null;
+            spoolFile = null;
+        }
+        if (file != null) {
+            if (!file.delete()) {
+                // File is still mapped (Windows)
+                file.deleteOnExit();
+            }
+            file = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Content spool: " + storedCount + " contents stored, " + spoolLength + " bytes" +
+            (dedupCount > 0 ? ", " + dedupCount + " duplicates (" + dedupBytes + " bytes)" : "");
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+
+import java.io.OutputStream;
+
+/**
+ * Native data exporter.
+ * Exports data container contents in delimited text (CSV) format with database native facilities
+ * (e.g. PostgreSQL COPY). Values are formatted by the server and written directly in the output stream.
+ * Data source adapter.
+ */
+public interface DBCNativeDataExporter {
+
+    /**
+     * Delimited text format options
+     */
+    class Options {
+        private String delimiter = ","; //$NON-NLS-1$
+        private char quoteChar = '"';
+        private boolean quoteAlways;
+        private boolean header;
+        private String nullString = ""; //$NON-NLS-1$
+        private String rowDelimiter = "\n"; //$NON-NLS-1$
+        private String encoding;
+
+        public String getDelimiter() {
+            return delimiter;
+        }
+
+        public void setDelimiter(String delimiter) {
+            this.delimiter = delimiter;
+        }
+
+        public char getQuoteChar() {
+            return quoteChar;
+        }
+
+        public void setQuoteChar(char quoteChar) {
+            this.quoteChar = quoteChar;
+        }
+
+        public boolean isQuoteAlways() {
+            return quoteAlways;
+        }
+
+        public void setQuoteAlways(boolean quoteAlways) {
+            this.quoteAlways = quoteAlways;
+        }
+
+        public boolean isHeader() {
+            return header;
+        }
+
+        public void setHeader(boolean header) {
+            this.header = header;
+        }
+
+        public String getNullString() {
+            return nullString;
+        }
+
+        public void setNullString(String nullString) {
+            this.nullString = nullString;
+        }
+
+        public String getRowDelimiter() {
+            return rowDelimiter;
+        }
+
+        public void setRowDelimiter(String rowDelimiter) {
+            this.rowDelimiter = rowDelimiter;
+        }
+
+        /**
+         * Output encoding (Java charset name)
+         */
+        public String getEncoding() {
+            return encoding;
+        }
+
+        public void setEncoding(String encoding) {
+            this.encoding = encoding;
+        }
+    }
+
+    /**
+     * Checks whether data container can be exported with the specified options
+     */
+    boolean isExportSupported(@NotNull DBSDataContainer dataContainer, @Nullable DBDDataFilter dataFilter, @NotNull Options options);
+
+    /**
+     * Exports data container contents in the stream.
+     * @return number of exported rows
+     */
+    long exportData(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter,
+        @NotNull Options options,
+        @NotNull OutputStream stream)
+        throws DBCException;
+
+}
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.model.exec;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
@@ -25,6 +26,7 @@ import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.DBPErrorAssistant;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.net.DBWForwarder;
 import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
 import org.jkiss.dbeaver.model.net.DBWHandlerType;
@@ -32,6 +34,7 @@ import org.jkiss.dbeaver.model.net.DBWNetworkHandler;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableParametrized;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.jobs.InvalidateJob;
 import org.jkiss.dbeaver.runtime.net.GlobalProxyAuthenticator;
@@ -56,6 +59,10 @@ public class DBExecUtils {
      */
     private static final ThreadLocal<DBPDataSourceContainer> ACTIVE_CONTEXT = new ThreadLocal<>();
     private static final List<DBPDataSourceContainer> ACTIVE_CONTEXTS = new ArrayList<>();
+    /**
+     * Metadata context bound to the current thread. Used by parallel metadata readers.
+     */
+    private static final ThreadLocal<DBCExecutionContext> BOUND_META_CONTEXT = new ThreadLocal<>();
 
     public static DBPDataSourceContainer getCurrentThreadContext() {
         return ACTIVE_CONTEXT.get();
@@ -94,6 +101,24 @@ public class DBExecUtils {
         }
     }
 
+    /**
+     * Binds metadata context to the current thread (or unbinds it if context is null).
+     * Metadata of the context owner instance read in this thread will be read with the bound context.
+     */
+    public static void bindMetaContext(@Nullable DBCExecutionContext context) {
+        if (context == null) {
+            BOUND_META_CONTEXT.remove();
+        } else {
+            BOUND_META_CONTEXT.set(context);
+        }
+    }
+
+    @Nullable
+    public static DBCExecutionContext getBoundMetaContext(@NotNull DBSInstance instance) {
+        DBCExecutionContext context = BOUND_META_CONTEXT.get();
+        return context != null && context.getOwnerInstance() == instance && context.isConnected() ? context : null;
+    }
+
     public static DBPDataSourceContainer findConnectionContext(String host, int port, String path) {
         DBPDataSourceContainer curContext = getCurrentThreadContext();
         if (curContext != null) {
@@ -204,6 +229,10 @@ public class DBExecUtils {
                 fetchSize = DEFAULT_READ_FETCH_SIZE;
             }
             try {
+                if (maxRows <= 0 && dbStat instanceof JDBCStatement && ((JDBCStatement) dbStat).getFetchSize() == Integer.MIN_VALUE) {
+                    // Row streaming mode was enabled by fetch-all transformer (MySQL). Positive fetch size disables it.
+                    return;
+                }
                 dbStat.setResultsFetchSize(
                     firstRow < 0 || maxRows <= 0 ? fetchSize : (int) (firstRow + maxRows));
             } catch (Exception e) {
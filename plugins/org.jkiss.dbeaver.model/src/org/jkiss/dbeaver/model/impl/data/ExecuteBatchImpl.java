@@ -22,6 +22,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueBinder;
 import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.edit.DBEPersistAction;
 import org.jkiss.dbeaver.model.exec.*;
@@ -32,8 +33,11 @@ import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -49,6 +53,7 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
     protected final List<Object[]> values = new ArrayList<>();
     protected final DBDDataReceiver keysReceiver;
     protected final boolean reuseStatement;
+    private final BitSet executedRows = new BitSet();
 
     /**
      * Constructs new batch
@@ -79,6 +84,12 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         return processBatch(session, null);
     }
 
+    @NotNull
+    @Override
+    public BitSet getExecutedRows() {
+        return executedRows;
+    }
+
     @NotNull
     @Override
     public void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions) throws DBCException {
@@ -105,10 +116,20 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
             }
         }
 
+        boolean reuseStatement = this.reuseStatement;
+        for (DBDValueHandler handler : handlers) {
+            if (handler instanceof DBDValueBinder) {
+                // Query text may depend on bound value
+                reuseStatement = false;
+                break;
+            }
+        }
         boolean useBatch = session.getDataSource().getInfo().supportsBatchUpdates() && reuseStatement;
-        if (values.size() <= 1) {
+        if (values.size() <= 1 || keysReceiver != null) {
+            // Generated keys can be read only after each statement execution
             useBatch = false;
         }
+        executedRows.clear();
 
         DBCStatistics statistics = new DBCStatistics();
         DBCStatement statement = null;
@@ -122,6 +143,7 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
             boolean[] prevNulls = new boolean[attributes.length];
             boolean[] nulls = new boolean[attributes.length];
             int statementsInBatch = 0;
+            int batchStartRow = 0;
 
             for (int rowIndex = 0; rowIndex < values.size(); rowIndex++) {
                 Object[] rowValues = values.get(rowIndex);
@@ -140,7 +162,7 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
                     if (!reuse && statementsInBatch > 0) {
                         // Flush batch
                         if (actions == null) {
-                            flushBatch(statistics, statement);
+                            flushBatch(statistics, statement, batchStartRow, statementsInBatch);
                         }
                         statement.close();
                         statement = null;
@@ -157,6 +179,9 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
                     bindStatement(handlers, statement, rowValues);
                     if (actions == null) {
                         if (useBatch) {
+                            if (statementsInBatch == 0) {
+                                batchStartRow = rowIndex;
+                            }
                             statement.addToBatch();
                             statementsInBatch++;
                         } else {
@@ -164,6 +189,7 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
                             long startTime = System.currentTimeMillis();
                             executeStatement(statement);
                             statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+                            executedRows.set(rowIndex);
 
                             long rowCount = statement.getUpdateRowCount();
                             if (rowCount > 0) {
@@ -196,7 +222,7 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
 
             if (statementsInBatch > 0) {
                 if (actions == null) {
-                    flushBatch(statistics, statement);
+                    flushBatch(statistics, statement, batchStartRow, statementsInBatch);
                 }
                 statement.close();
                 statement = null;
@@ -268,10 +294,26 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         return formatted.toString();
     }
 
-    private void flushBatch(DBCStatistics statistics, DBCStatement statement) throws DBCException {
+    private void flushBatch(DBCStatistics statistics, DBCStatement statement, int batchStartRow, int batchSize) throws DBCException {
         long startTime = System.currentTimeMillis();
-        int[] updatedRows = statement.executeStatementBatch();
+        int[] updatedRows;
+        try {
+            updatedRows = statement.executeStatementBatch();
+        } catch (DBCException e) {
+            // Some statements might be executed before the error
+            BatchUpdateException batchError = findBatchUpdateException(e);
+            if (batchError != null && batchError.getUpdateCounts() != null) {
+                int[] updateCounts = batchError.getUpdateCounts();
+                for (int i = 0; i < updateCounts.length && i < batchSize; i++) {
+                    if (updateCounts[i] != Statement.EXECUTE_FAILED) {
+                        executedRows.set(batchStartRow + i);
+                    }
+                }
+            }
+            throw e;
+        }
         statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        executedRows.set(batchStartRow, batchStartRow + batchSize);
         if (!ArrayUtils.isEmpty(updatedRows)) {
             for (int rows : updatedRows) {
                 if (rows < 0) {
@@ -288,6 +330,19 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         }
     }
 
+    @Nullable
+    private static BatchUpdateException findBatchUpdateException(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof BatchUpdateException) {
+                return (BatchUpdateException) e;
+            }
+            if (e.getCause() == e) {
+                break;
+            }
+        }
+        return null;
+    }
+
     @Override
     public void close()
     {
@@ -20,6 +20,7 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.DBPTransactionIsolation;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
@@ -28,6 +29,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCSavepointImpl;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
@@ -55,11 +57,25 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     private volatile Connection connection;
     private volatile Boolean autoCommit;
     private volatile Integer transactionIsolationLevel;
+    private volatile boolean transactionIsolationChanged;
+    // User queries were executed in this connection
+    private volatile boolean userSessionOpened;
+    @Nullable
+    private volatile JDBCExecutionContextPool contextPool;
+    @NotNull
+    private volatile String contextName;
 
     public JDBCExecutionContext(@NotNull JDBCRemoteInstance instance, String purpose)
     {
         super(instance.getDataSource(), purpose);
         this.instance = instance;
+        this.contextName = purpose;
+    }
+
+    @NotNull
+    @Override
+    public String getContextName() {
+        return contextName;
     }
 
     @Override
@@ -116,6 +132,8 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
                 }
             }
 
+            this.transactionIsolationChanged = false;
+            this.userSessionOpened = false;
             if (!this.autoCommit && txnLevel != null) {
                 try {
                     this.connection.setTransactionIsolation(txnLevel);
@@ -179,6 +197,9 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     @Override
     public JDBCSession openSession(@NotNull DBRProgressMonitor monitor, @NotNull DBCExecutionPurpose purpose, @NotNull String taskTitle)
     {
+        if (purpose.isUser()) {
+            userSessionOpened = true;
+        }
         return dataSource.createConnection(monitor, this, purpose, taskTitle);
     }
 
@@ -214,7 +235,7 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
             Integer txnLevel = transactionIsolationLevel;
             boolean addNewContext = false;
             if (closeOnFailure) {
-                close();
+                disconnect();
                 addNewContext = true;
             }
             connect(monitor, prevAutocommit, txnLevel, true, addNewContext);
@@ -226,6 +247,16 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
 
     @Override
     public void close()
+    {
+        final JDBCExecutionContextPool pool = this.contextPool;
+        if (pool != null && pool.releaseContext(this)) {
+            // Context was returned to the pool. Connection remains open.
+            return;
+        }
+        disconnect();
+    }
+
+    private void disconnect()
     {
         // [JDBC] Need sync here because real connection close could take some time
         // while UI may invoke callbacks to operate with connection
@@ -241,6 +272,95 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         this.instance.removeContext(this);
     }
 
+    //////////////////////////////////////////////////////////////
+    // Context pool
+    //////////////////////////////////////////////////////////////
+
+    void setContextPool(@Nullable JDBCExecutionContextPool contextPool) {
+        this.contextPool = contextPool;
+    }
+
+    Connection getPooledConnection() {
+        return connection;
+    }
+
+    /**
+     * Prepares idle pooled context for the new owner.
+     * Default catalog/schema could be changed since context was released so we copy them again.
+     */
+    void activatePooled(@NotNull DBRProgressMonitor monitor, @NotNull String purpose) throws DBCException
+    {
+        this.contextName = purpose;
+        QMUtils.getDefaultHandler().handleContextOpen(this, !autoCommit);
+        try {
+            this.dataSource.initializeContextState(monitor, this, !dataSource.getContainer().isConnectionReadOnly());
+        } catch (DBCException e) {
+            super.closeContext();
+            throw e;
+        }
+        this.instance.addContext(this);
+    }
+
+    /**
+     * Resets transaction state of context which is returned to the pool.
+     * If context executed user queries then default catalog/schema is restored as well.
+     * @return false if context state can't be reset and context must be closed
+     */
+    boolean passivatePooled()
+    {
+        final DBPDataSourceContainer container = dataSource.getContainer();
+        synchronized (this) {
+            if (connection == null) {
+                return false;
+            }
+            try {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+                boolean defaultAutoCommit = container.isDefaultAutoCommit();
+                if (connection.getAutoCommit() != defaultAutoCommit) {
+                    connection.setAutoCommit(defaultAutoCommit);
+                }
+                this.autoCommit = connection.getAutoCommit();
+                if (transactionIsolationChanged) {
+                    Integer txnLevel = container.getDefaultTransactionsIsolation();
+                    if (txnLevel == null) {
+                        // Original isolation level is unknown
+                        return false;
+                    }
+                    connection.setTransactionIsolation(txnLevel);
+                    this.transactionIsolationLevel = txnLevel;
+                    this.transactionIsolationChanged = false;
+                }
+                if (userSessionOpened) {
+                    // User could change active catalog/schema
+                    this.dataSource.initializeContextState(new VoidProgressMonitor(), this, !container.isConnectionReadOnly());
+                    this.userSessionOpened = false;
+                }
+            } catch (Throwable e) {
+                log.debug("Can't reset state of pooled context '" + contextName + "'", e);
+                return false;
+            }
+            super.closeContext();
+        }
+        this.instance.removeContext(this);
+        return true;
+    }
+
+    /**
+     * Closes connection of idle pooled context
+     */
+    void closePooledConnection()
+    {
+        synchronized (this) {
+            if (this.connection != null) {
+                this.dataSource.closeConnection(connection, purpose);
+            }
+            this.connection = null;
+        }
+        this.contextPool = null;
+    }
+
     //////////////////////////////////////////////////////////////
     // Transaction manager
     //////////////////////////////////////////////////////////////
@@ -275,6 +395,7 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         try {
             getConnection().setTransactionIsolation(jdbcTIL.getCode());
             transactionIsolationLevel = jdbcTIL.getCode();
+            transactionIsolationChanged = true;
         } catch (SQLException e) {
             throw new JDBCException(e, dataSource);
         } finally {
@@ -417,7 +538,7 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     }
 
     public void reconnect(DBRProgressMonitor monitor) throws DBCException {
-        close();
+        disconnect();
         connect(monitor, null, null, false, true);
     }
 
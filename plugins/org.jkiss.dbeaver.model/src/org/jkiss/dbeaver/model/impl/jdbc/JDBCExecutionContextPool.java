@@ -0,0 +1,429 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.*;
+
+/**
+ * Pool of isolated execution contexts of remote instance.
+ *
+ * Closed isolated contexts are not disconnected but kept open (with already executed bootstrap queries)
+ * and reused by subsequent openIsolatedContext calls. Transaction state of returned context is reset
+ * (open transaction is rolled back, auto-commit and default catalog/schema are restored).
+ * Idle contexts are validated on borrow and closed after idle timeout.
+ * Number of contexts managed by pool is limited. If pool is exhausted then new context will be
+ * opened without pooling (after optional wait).
+ */
+public class JDBCExecutionContextPool {
+
+    private static final Log log = Log.getLog(JDBCExecutionContextPool.class);
+
+    // Contexts returned to the pool recently are not validated on borrow
+    private static final long VALIDATION_BYPASS_TIME = 1000;
+    private static final long MAINTENANCE_INTERVAL = 30000;
+
+    private static class IdleContext {
+        final JDBCExecutionContext context;
+        final long releaseTime;
+
+        IdleContext(JDBCExecutionContext context, long releaseTime) {
+            this.context = context;
+            this.releaseTime = releaseTime;
+        }
+    }
+
+    private static class BorrowInfo {
+        final long borrowTime;
+        final Throwable borrowTrace;
+        boolean leakReported;
+
+        BorrowInfo(long borrowTime, Throwable borrowTrace) {
+            this.borrowTime = borrowTime;
+            this.borrowTrace = borrowTrace;
+        }
+    }
+
+    @NotNull
+    private final JDBCRemoteInstance instance;
+    // Most recently released contexts go first
+    private final Deque<IdleContext> idleContexts = new ArrayDeque<>();
+    private final Map<JDBCExecutionContext, BorrowInfo> activeContexts = new IdentityHashMap<>();
+    // Borrowers which currently open new connection
+    private int pendingContexts;
+    private boolean closed;
+    private MaintenanceJob maintenanceJob;
+
+    private long borrowCount;
+    private long hitCount;
+    private long createCount;
+    private long overflowCount;
+    private long invalidCount;
+    private long evictCount;
+    private long leakCount;
+    private long totalWaitTime;
+    private long maxWaitTime;
+
+    JDBCExecutionContextPool(@NotNull JDBCRemoteInstance instance) {
+        this.instance = instance;
+    }
+
+    public boolean isEnabled() {
+        return getPreferenceStore().getBoolean(ModelPreferences.CONNECTION_POOL_ENABLED);
+    }
+
+    /**
+     * Borrows context from the pool. Opens new context if there are no idle contexts.
+     * Borrowed context is returned to the pool by {@link JDBCExecutionContext#close()}.
+     */
+    @NotNull
+    JDBCExecutionContext openContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose) throws DBCException {
+        final DBPPreferenceStore prefStore = getPreferenceStore();
+        final int maxSize = Math.max(1, prefStore.getInt(ModelPreferences.CONNECTION_POOL_MAX_SIZE));
+        final long maxWait = prefStore.getInt(ModelPreferences.CONNECTION_POOL_MAX_WAIT);
+        final long leakTimeout = prefStore.getInt(ModelPreferences.CONNECTION_POOL_LEAK_TIMEOUT) * 1000L;
+        final long startTime = System.currentTimeMillis();
+
+        JDBCExecutionContext context = null;
+        boolean pooled = true;
+        while (context == null) {
+            IdleContext idle;
+            synchronized (this) {
+                if (closed) {
+                    throw new DBCException("Context pool of '" + instance.getName() + "' is closed");
+                }
+                idle = idleContexts.pollFirst();
+                if (idle != null || activeContexts.size() + pendingContexts < maxSize) {
+                    pendingContexts++;
+                } else if (!monitor.isCanceled() && System.currentTimeMillis() - startTime < maxWait) {
+                    try {
+                        wait(100);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                    continue;
+                } else {
+                    // Pool is exhausted
+                    overflowCount++;
+                    pooled = false;
+                }
+            }
+            if (idle == null) {
+                // Open new context
+                context = new JDBCExecutionContext(instance, purpose);
+                try {
+                    context.connect(monitor, null, null, true, true);
+                } catch (DBCException e) {
+                    if (pooled) {
+                        synchronized (this) {
+                            pendingContexts--;
+                        }
+                    }
+                    throw e;
+                }
+                if (!pooled) {
+                    return context;
+                }
+                synchronized (this) {
+                    createCount++;
+                }
+                break;
+            }
+            // Reuse idle context
+            if (System.currentTimeMillis() - idle.releaseTime > VALIDATION_BYPASS_TIME &&
+                !JDBCUtils.isConnectionAlive(instance.getDataSource(), idle.context.getPooledConnection()))
+            {
+                log.debug("Pooled context '" + idle.context.getContextName() + "' is invalid and will be closed");
+                idle.context.closePooledConnection();
+                synchronized (this) {
+                    pendingContexts--;
+                    invalidCount++;
+                }
+                continue;
+            }
+            try {
+                idle.context.activatePooled(monitor, purpose);
+            } catch (DBCException e) {
+                log.debug("Error activating pooled context", e);
+                idle.context.closePooledConnection();
+                synchronized (this) {
+                    pendingContexts--;
+                    invalidCount++;
+                }
+                continue;
+            }
+            context = idle.context;
+            synchronized (this) {
+                hitCount++;
+            }
+        }
+        if (context == null) {
+            throw new DBCException("Context open interrupted");
+        }
+        context.setContextPool(this);
+
+        long waitTime = System.currentTimeMillis() - startTime;
+        synchronized (this) {
+            pendingContexts--;
+            activeContexts.put(context, new BorrowInfo(
+                System.currentTimeMillis(),
+                leakTimeout > 0 ? new Exception("Context '" + purpose + "' opened here") : null));
+            borrowCount++;
+            totalWaitTime += waitTime;
+            if (waitTime > maxWaitTime) {
+                maxWaitTime = waitTime;
+            }
+            if (leakTimeout > 0) {
+                scheduleMaintenance();
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Returns context to the pool.
+     * @return false if context can't be reused and must be closed
+     */
+    boolean releaseContext(@NotNull JDBCExecutionContext context) {
+        synchronized (this) {
+            if (activeContexts.remove(context) == null) {
+                // Context may be already released (closed twice)
+                for (IdleContext idle : idleContexts) {
+                    if (idle.context == context) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            notifyAll();
+            if (closed || idleContexts.size() >= getPreferenceStore().getInt(ModelPreferences.CONNECTION_POOL_MAX_IDLE)) {
+                return false;
+            }
+        }
+        if (!context.isConnected() || !context.passivatePooled()) {
+            return false;
+        }
+        synchronized (this) {
+            if (closed) {
+                context.closePooledConnection();
+            } else {
+                idleContexts.addFirst(new IdleContext(context, System.currentTimeMillis()));
+                notifyAll();
+                scheduleMaintenance();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes context from the pool without returning it to the idle list.
+     */
+    synchronized void removeContext(@NotNull JDBCExecutionContext context) {
+        if (activeContexts.remove(context) != null) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Reopens pool closed by instance shutdown. Called when instance main context is initialized again.
+     */
+    synchronized void reopen() {
+        closed = false;
+    }
+
+    /**
+     * Closes all idle contexts. Contexts which are still in use will be closed on release.
+     * Closed pool refuses new contexts until it is reopened.
+     */
+    void close() {
+        List<IdleContext> toClose;
+        String stats = null;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayList<>(idleContexts);
+            idleContexts.clear();
+            notifyAll();
+            if (maintenanceJob != null) {
+                maintenanceJob.cancel();
+                maintenanceJob = null;
+            }
+            if (borrowCount > 0) {
+                stats = toString();
+            }
+        }
+        for (IdleContext idle : toClose) {
+            idle.context.closePooledConnection();
+        }
+        if (stats != null) {
+            log.debug("Context pool of '" + instance.getName() + "' closed. " + stats);
+        }
+    }
+
+    ///////////////////////////////////////////////
+    // Statistics
+
+    public synchronized int getActiveCount() {
+        return activeContexts.size();
+    }
+
+    public synchronized int getIdleCount() {
+        return idleContexts.size();
+    }
+
+    public synchronized long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getCreateCount() {
+        return createCount;
+    }
+
+    /**
+     * Number of contexts opened without pooling because pool was exhausted
+     */
+    public synchronized long getOverflowCount() {
+        return overflowCount;
+    }
+
+    public synchronized long getInvalidCount() {
+        return invalidCount;
+    }
+
+    public synchronized long getEvictCount() {
+        return evictCount;
+    }
+
+    public synchronized long getLeakCount() {
+        return leakCount;
+    }
+
+    public synchronized long getAverageWaitTime() {
+        return borrowCount == 0 ? 0 : totalWaitTime / borrowCount;
+    }
+
+    public synchronized long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "active=" + activeContexts.size() +
+            ", idle=" + idleContexts.size() +
+            ", borrowed=" + borrowCount +
+            ", reused=" + hitCount +
+            ", created=" + createCount +
+            ", overflow=" + overflowCount +
+            ", invalid=" + invalidCount +
+            ", evicted=" + evictCount +
+            ", leaks=" + leakCount +
+            ", wait avg=" + getAverageWaitTime() + "ms max=" + maxWaitTime + "ms";
+    }
+
+    ///////////////////////////////////////////////
+    // Maintenance
+
+    private DBPPreferenceStore getPreferenceStore() {
+        return instance.getDataSource().getContainer().getPreferenceStore();
+    }
+
+    private void scheduleMaintenance() {
+        if (maintenanceJob == null) {
+            maintenanceJob = new MaintenanceJob();
+        }
+        if (maintenanceJob.getState() == Job.NONE) {
+            maintenanceJob.schedule(MAINTENANCE_INTERVAL);
+        }
+    }
+
+    /**
+     * Closes expired idle contexts and reports leaks.
+     * @return true if maintenance must be run again
+     */
+    private boolean runMaintenance() {
+        final DBPPreferenceStore prefStore = getPreferenceStore();
+        final long idleTimeout = prefStore.getInt(ModelPreferences.CONNECTION_POOL_IDLE_TIMEOUT) * 1000L;
+        final long leakTimeout = prefStore.getInt(ModelPreferences.CONNECTION_POOL_LEAK_TIMEOUT) * 1000L;
+        final long currentTime = System.currentTimeMillis();
+
+        List<JDBCExecutionContext> expired = new ArrayList<>();
+        boolean needMaintenance;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            // Idle contexts are ordered by release time, the oldest are in the end
+            while (!idleContexts.isEmpty() && currentTime - idleContexts.peekLast().releaseTime > idleTimeout) {
+                expired.add(idleContexts.pollLast().context);
+                evictCount++;
+            }
+            if (leakTimeout > 0) {
+                for (Map.Entry<JDBCExecutionContext, BorrowInfo> entry : activeContexts.entrySet()) {
+                    BorrowInfo info = entry.getValue();
+                    if (!info.leakReported && currentTime - info.borrowTime > leakTimeout) {
+                        info.leakReported = true;
+                        leakCount++;
+                        log.warn("Context '" + entry.getKey().getContextName() + "' of '" + instance.getName() +
+                            "' is not closed for " + ((currentTime - info.borrowTime) / 1000) + " seconds. Possible context leak.",
+                            info.borrowTrace);
+                    }
+                }
+            }
+            needMaintenance = !idleContexts.isEmpty() || (leakTimeout > 0 && !activeContexts.isEmpty());
+        }
+        for (JDBCExecutionContext context : expired) {
+            log.debug("Close idle pooled context '" + context.getContextName() + "'");
+            context.closePooledConnection();
+        }
+        return needMaintenance;
+    }
+
+    private class MaintenanceJob extends AbstractJob {
+        MaintenanceJob() {
+            super("Execution context pool maintenance (" + instance.getName() + ")");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            if (runMaintenance()) {
+                synchronized (JDBCExecutionContextPool.this) {
+                    // Pool could be closed while we closed expired contexts
+                    if (!closed && maintenanceJob == this) {
+                        schedule(MAINTENANCE_INTERVAL);
+                    }
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.exec.DBCAttributeMetaData;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCResultSetMetaData;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+
+import java.sql.SQLException;
+
+/**
+ * Adaptive result set fetch size.
+ *
+ * Fetch size is limited by the estimated row width (from result set metadata) so a single batch doesn't exceed
+ * configured memory limit. While rows are fetched the controller measures round trip time of each batch.
+ * If batch time is dominated by server round trip (e.g. high latency network) then fetch size grows.
+ * If round trip takes a small part of batch time (rows processing is slow) then fetch size shrinks back,
+ * so rows are not held in memory longer than needed.
+ * Works only for JDBC result sets. If fetch size wasn't set explicitly (driver default is used) then
+ * controller starts from the minimal fetch size: most drivers with small default fetch size (e.g. Oracle) benefit from it
+ * while drivers which read all rows at once just ignore it.
+ * Row streaming mode (negative fetch size, MySQL) is never changed.
+ * Disabled by default (resultset.fetch.size.adaptive).
+ */
+public class JDBCFetchSizeController {
+
+    private static final Log log = Log.getLog(JDBCFetchSizeController.class);
+
+    public static final int MIN_FETCH_SIZE = 10;
+
+    // Fetch size grows if round trip takes more than 1/2 of batch time
+    // and shrinks if it takes less than 1/8 of batch time
+    private static final int GROW_RATIO = 2;
+    private static final int SHRINK_RATIO = 8;
+
+    // Estimated value sizes (in bytes)
+    private static final int ROW_OVERHEAD = 32;
+    private static final int VALUE_OVERHEAD = 16;
+    private static final int MAX_STRING_SIZE = 2000;
+    private static final int MAX_BINARY_SIZE = 4000;
+    private static final int CONTENT_SIZE = 64 * 1024;
+    private static final int COMPLEX_VALUE_SIZE = 1024;
+
+    @NotNull
+    private final DBCResultSet resultSet;
+    private boolean adaptive;
+    private final int maxFetchSize;
+    private final long rowSize;
+    private int fetchSize;
+
+    private long batchStartTime;
+    private long batchRoundTripTime;
+    private int batchRows;
+
+    public JDBCFetchSizeController(@NotNull DBCResultSet resultSet, long maxRows) {
+        this.resultSet = resultSet;
+
+        int curFetchSize = 0;
+        long estimatedRowSize = 0;
+        int maxSize = 0;
+        DBPPreferenceStore prefStore = resultSet.getSession().getDataSource().getContainer().getPreferenceStore();
+        if (resultSet instanceof JDBCResultSet && prefStore.getBoolean(ModelPreferences.RESULT_SET_FETCH_SIZE_ADAPTIVE)) {
+            try {
+                curFetchSize = ((JDBCResultSet) resultSet).getFetchSize();
+                if (curFetchSize == 0) {
+                    // Driver default
+                    curFetchSize = MIN_FETCH_SIZE;
+                }
+                if (curFetchSize > 0) {
+                    estimatedRowSize = estimateRowSize(resultSet.getMeta());
+                    maxSize = getMaxFetchSize(
+                        estimatedRowSize,
+                        prefStore.getLong(ModelPreferences.RESULT_SET_FETCH_MEMORY_MAX) * 1024 * 1024,
+                        prefStore.getInt(ModelPreferences.RESULT_SET_FETCH_SIZE_MAX),
+                        maxRows);
+                }
+            } catch (Exception e) {
+                log.debug("Error reading result set fetch size", e);
+                curFetchSize = 0;
+            }
+        }
+        this.adaptive = curFetchSize > 0 && maxSize > 0;
+        this.fetchSize = curFetchSize;
+        this.rowSize = estimatedRowSize;
+        this.maxFetchSize = Math.max(MIN_FETCH_SIZE, maxSize);
+        if (adaptive && fetchSize > maxFetchSize) {
+            // Too wide rows - first batch is already read but others will be smaller
+            applyFetchSize(maxFetchSize);
+        }
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Estimated row size in bytes
+     */
+    public long getRowSize() {
+        return rowSize;
+    }
+
+    /**
+     * Moves result set to the next row. Tunes fetch size after each batch.
+     */
+    public boolean nextRow() throws DBCException {
+        if (!adaptive) {
+            return resultSet.nextRow();
+        }
+        long startTime = System.nanoTime();
+        if (batchRows == 0) {
+            batchStartTime = startTime;
+            batchRoundTripTime = 0;
+        }
+        boolean hasRow = resultSet.nextRow();
+        long callTime = System.nanoTime() - startTime;
+        // The longest call in a batch is the one which made server round trip
+        if (callTime > batchRoundTripTime) {
+            batchRoundTripTime = callTime;
+        }
+        batchRows++;
+        if (hasRow && batchRows >= fetchSize) {
+            int newFetchSize = getNextFetchSize(fetchSize, maxFetchSize, batchRoundTripTime, System.nanoTime() - batchStartTime);
+            if (newFetchSize != fetchSize) {
+                applyFetchSize(newFetchSize);
+            }
+            batchRows = 0;
+        }
+        return hasRow;
+    }
+
+    private void applyFetchSize(int newFetchSize) {
+        try {
+            ((JDBCResultSet) resultSet).setFetchSize(newFetchSize);
+            log.debug("Result set fetch size changed " + fetchSize + " -> " + newFetchSize + " (estimated row size " + rowSize + " bytes)");
+            fetchSize = newFetchSize;
+        } catch (SQLException e) {
+            log.debug("Error changing result set fetch size", e);
+            // Do not try again
+            adaptive = false;
+        }
+    }
+
+    /**
+     * Maximum fetch size. Batch of rows must fit in memory limit and shouldn't exceed number of rows to read.
+     * @param maxRows maximum number of rows to read or 0 if unlimited
+     */
+    static int getMaxFetchSize(long rowSize, long memoryLimit, int maxFetchSize, long maxRows) {
+        long maxSizeByMemory = Math.max(MIN_FETCH_SIZE, memoryLimit / Math.max(1, rowSize));
+        int maxSize = (int) Math.min(maxFetchSize, maxSizeByMemory);
+        if (maxRows > 0 && maxRows < maxSize) {
+            // Do not fetch more than we need
+            maxSize = (int) Math.max(maxRows, MIN_FETCH_SIZE);
+        }
+        return Math.max(MIN_FETCH_SIZE, maxSize);
+    }
+
+    /**
+     * Fetch size for the next batch.
+     * Grows twice while network latency dominates over rows processing, shrinks twice when processing dominates.
+     */
+    static int getNextFetchSize(int fetchSize, int maxFetchSize, long roundTripTime, long batchTime) {
+        if (roundTripTime * GROW_RATIO > batchTime) {
+            return (int) Math.min((long) fetchSize * 2, maxFetchSize);
+        }
+        if (roundTripTime * SHRINK_RATIO < batchTime) {
+            return Math.max(fetchSize / 2, MIN_FETCH_SIZE);
+        }
+        return Math.min(fetchSize, maxFetchSize);
+    }
+
+    /**
+     * Estimates size of result set row in bytes
+     */
+    public static long estimateRowSize(@NotNull DBCResultSetMetaData meta) {
+        long rowSize = ROW_OVERHEAD;
+        for (DBCAttributeMetaData attr : meta.getAttributes()) {
+            rowSize += VALUE_OVERHEAD;
+            long maxLength = attr.getMaxLength();
+            switch (attr.getDataKind()) {
+                case BOOLEAN:
+                    rowSize += 1;
+                    break;
+                case NUMERIC:
+                case DATETIME:
+                case ROWID:
+                    rowSize += 16;
+                    break;
+                case STRING:
+                    rowSize += maxLength > 0 && maxLength < MAX_STRING_SIZE ? maxLength * 2 : MAX_STRING_SIZE;
+                    break;
+                case BINARY:
+                    rowSize += maxLength > 0 && maxLength < MAX_BINARY_SIZE ? maxLength : MAX_BINARY_SIZE;
+                    break;
+                case CONTENT:
+                    rowSize += CONTENT_SIZE;
+                    break;
+                default:
+                    rowSize += COMPLEX_VALUE_SIZE;
+                    break;
+            }
+        }
+        return rowSize;
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCStatementImpl;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+
+import java.sql.SQLException;
+
+/**
+ * Query transformer for fetch-all selects (result set streaming).
+ *
+ * Sets statement fetch size so rows are read from server cursor in batches instead of being
+ * loaded in memory all at once. Some drivers (e.g. PostgreSQL) use server cursors only in manual commit mode -
+ * for them auto-commit is switched off by the context transaction manager and restored when statement is closed.
+ * This is done only for isolated contexts: main and metadata contexts are shared with other tasks, so there
+ * streaming works only if the context is already in manual commit mode.
+ */
+public class JDBCQueryTransformerFetchAll implements DBCQueryTransformer {
+
+    private static final Log log = Log.getLog(JDBCQueryTransformerFetchAll.class);
+
+    private final boolean cursorRequiresTransaction;
+
+    public JDBCQueryTransformerFetchAll(boolean cursorRequiresTransaction) {
+        this.cursorRequiresTransaction = cursorRequiresTransaction;
+    }
+
+    @Override
+    public void setParameters(Object... parameters)
+    {
+    }
+
+    @Override
+    public String transformQueryString(SQLQuery query) throws DBCException {
+        return query.getText();
+    }
+
+    @Override
+    public void transformStatement(DBCStatement statement, int parameterIndex) throws DBCException {
+        JDBCStatement dbStat = (JDBCStatement) statement;
+        try {
+            if (cursorRequiresTransaction && dbStat instanceof JDBCStatementImpl) {
+                beginStreamingTransaction((JDBCStatementImpl<?>) dbStat);
+            }
+            dbStat.setFetchSize(getStreamingFetchSize(dbStat.getConnection()));
+        } catch (SQLException e) {
+            throw new DBCException(e, statement.getSession().getDataSource());
+        }
+    }
+
+    protected int getStreamingFetchSize(JDBCSession session) {
+        int fetchSize = session.getDataSource().getContainer().getPreferenceStore().getInt(ModelPreferences.RESULT_SET_STREAMING_FETCH_SIZE);
+        return fetchSize <= 0 ? DBExecUtils.DEFAULT_READ_FETCH_SIZE : fetchSize;
+    }
+
+    private static void beginStreamingTransaction(JDBCStatementImpl<?> dbStat) throws DBCException {
+        final DBCExecutionContext context = dbStat.getSession().getExecutionContext();
+        final DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+        if (txnManager == null || !txnManager.isAutoCommit() || isSharedContext(context)) {
+            return;
+        }
+        txnManager.setAutoCommit(dbStat.getSession().getProgressMonitor(), false);
+        dbStat.addCloseHandler(() -> {
+            try {
+                // Ends streaming transaction. Isolated context is used by the reading task only so there is nothing else to commit.
+                txnManager.setAutoCommit(new VoidProgressMonitor(), true);
+            } catch (DBCException e) {
+                log.warn("Can't restore auto-commit mode after streaming query", e);
+            }
+        });
+    }
+
+    private static boolean isSharedContext(DBCExecutionContext context) {
+        DBSInstance instance = context.getOwnerInstance();
+        return context == instance.getDefaultContext(false) || context == instance.getDefaultContext(true);
+    }
+
+}
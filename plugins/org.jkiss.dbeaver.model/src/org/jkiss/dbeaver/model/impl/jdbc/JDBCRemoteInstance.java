@@ -23,6 +23,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBExecUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.model.struct.DBSObject;
@@ -45,6 +46,8 @@ public class JDBCRemoteInstance<DATASOURCE extends JDBCDataSource> implements DB
     protected JDBCExecutionContext metaContext;
     @NotNull
     private final List<JDBCExecutionContext> allContexts = new ArrayList<>();
+    @NotNull
+    private final JDBCExecutionContextPool contextPool = new JDBCExecutionContextPool(this);
 
     protected JDBCRemoteInstance(@NotNull DBRProgressMonitor monitor, @NotNull DATASOURCE dataSource, boolean initContext)
         throws DBException
@@ -84,6 +87,7 @@ public class JDBCRemoteInstance<DATASOURCE extends JDBCDataSource> implements DB
 
     protected void initializeMainContext(@NotNull DBRProgressMonitor monitor) throws DBCException {
         if (executionContext == null) {
+            contextPool.reopen();
             this.executionContext = new JDBCExecutionContext(this, JDBCExecutionContext.TYPE_MAIN);
             this.executionContext.connect(monitor, null, null, false, true);
         }
@@ -110,11 +114,22 @@ public class JDBCRemoteInstance<DATASOURCE extends JDBCDataSource> implements DB
     @Override
     public DBCExecutionContext openIsolatedContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose) throws DBException
     {
+        if (contextPool.isEnabled()) {
+            return contextPool.openContext(monitor, purpose);
+        }
         JDBCExecutionContext context = new JDBCExecutionContext(this, purpose);
         context.connect(monitor, null, null, true, true);
         return context;
     }
 
+    /**
+     * Pool of isolated contexts. Provides pool occupancy and wait time statistics.
+     */
+    @NotNull
+    public JDBCExecutionContextPool getContextPool() {
+        return contextPool;
+    }
+
     @NotNull
     @Override
     public JDBCExecutionContext[] getAllContexts() {
@@ -125,6 +140,13 @@ public class JDBCRemoteInstance<DATASOURCE extends JDBCDataSource> implements DB
 
     @Override
     public JDBCExecutionContext getDefaultContext(boolean meta) {
+        if (meta) {
+            // Parallel metadata readers use their own contexts
+            DBCExecutionContext boundContext = DBExecUtils.getBoundMetaContext(this);
+            if (boundContext instanceof JDBCExecutionContext) {
+                return (JDBCExecutionContext) boundContext;
+            }
+        }
         if (metaContext != null && meta) {
             return this.metaContext;
         }
@@ -134,6 +156,9 @@ public class JDBCRemoteInstance<DATASOURCE extends JDBCDataSource> implements DB
     @Override
     public void shutdown(DBRProgressMonitor monitor)
     {
+        // Close idle pooled contexts. Contexts which are in use will be closed below.
+        contextPool.close();
+
         // [JDBC] Need sync here because real connection close could take some time
         // while UI may invoke callbacks to operate with connection
         synchronized (allContexts) {
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.model.impl.jdbc.data;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPDataSource;
@@ -26,6 +27,7 @@ import org.jkiss.dbeaver.model.data.DBDContentCached;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.data.storage.BytesContentStorage;
+import org.jkiss.dbeaver.model.data.storage.SpoolContentStore;
 import org.jkiss.dbeaver.model.data.storage.TemporaryContentStorage;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
@@ -51,10 +53,31 @@ public class JDBCContentBLOB extends JDBCContentLOB {
 
     private Blob blob;
     private InputStream tmpStream;
+    @Nullable
+    private SpoolContentStore spool;
 
     public JDBCContentBLOB(DBPDataSource dataSource, Blob blob) {
+        this(dataSource, blob, null);
+    }
+
+    /**
+     * Creates BLOB which will copy its contents into the spool when read.
+     * Spool is kept until contents are read or BLOB is released.
+     */
+    public JDBCContentBLOB(DBPDataSource dataSource, Blob blob, @Nullable SpoolContentStore spool) {
         super(dataSource);
         this.blob = blob;
+        if (blob != null && spool != null && spool.addReference()) {
+            this.spool = spool;
+        }
+    }
+
+    /**
+     * Creates content with already read storage
+     */
+    public JDBCContentBLOB(DBPDataSource dataSource, @NotNull DBDContentStorage storage) {
+        super(dataSource);
+        this.storage = storage;
     }
 
     @Override
@@ -83,7 +106,19 @@ public class JDBCContentBLOB extends JDBCContentLOB {
         if (storage == null && blob != null) {
             long contentLength = getContentLength();
             DBPPlatform platform = dataSource.getContainer().getPlatform();
-            if (contentLength < platform.getPreferenceStore().getInt(ModelPreferences.MEMORY_CONTENT_MAX_SIZE)) {
+            final int maxMemorySize = platform.getPreferenceStore().getInt(ModelPreferences.MEMORY_CONTENT_MAX_SIZE);
+            if (spool != null && contentLength >= maxMemorySize) {
+                // Big contents are appended to the result set spool, small ones are kept in memory
+                try {
+                    try (InputStream bs = blob.getBinaryStream()) {
+                        storage = spool.storeContent(monitor, bs, contentLength, getDefaultEncoding());
+                    }
+                } catch (IOException e) {
+                    throw new DBCException("IO error while spooling content", e);
+                } catch (Throwable e) {
+                    throw new DBCException(e, dataSource);
+                }
+            } else if (contentLength < maxMemorySize) {
                 try {
                     try (InputStream bs = blob.getBinaryStream()) {
                         storage = BytesContentStorage.createFromStream(
@@ -120,6 +155,7 @@ public class JDBCContentBLOB extends JDBCContentLOB {
             }
             // Free blob - we don't need it anymore
             releaseBlob();
+            releaseSpool();
         }
         return storage;
     }
@@ -129,9 +165,17 @@ public class JDBCContentBLOB extends JDBCContentLOB {
     {
         releaseTempStream();
         releaseBlob();
+        releaseSpool();
         super.release();
     }
 
+    private void releaseSpool() {
+        if (spool != null) {
+            spool.releaseReference();
+            spool = null;
+        }
+    }
+
     private void releaseBlob() {
         if (blob != null) {
             try {
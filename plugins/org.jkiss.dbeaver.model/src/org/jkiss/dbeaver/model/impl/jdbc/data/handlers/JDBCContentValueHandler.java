@@ -17,18 +17,22 @@
 package org.jkiss.dbeaver.model.impl.jdbc.data.handlers;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.data.*;
+import org.jkiss.dbeaver.model.data.storage.SpoolContentStorage;
+import org.jkiss.dbeaver.model.data.storage.SpoolContentStore;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.impl.jdbc.data.*;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLDataSource;
@@ -105,9 +109,50 @@ public class JDBCContentValueHandler extends JDBCAbstractValueHandler implements
             // We need to convert only in case of some value transformations, not when getting it from DB
             return new JDBCContentChars(session.getDataSource(), (String) value);
         }
+        if (value instanceof Blob && resultSet instanceof JDBCResultSetImpl) {
+            // All BLOBs of the result set share the same spool file
+            return createBlobContent(session, (Blob) value, ((JDBCResultSetImpl) resultSet).getContentSpool());
+        }
+        if (value instanceof byte[] && resultSet instanceof JDBCResultSetImpl) {
+            // Big binaries (e.g. PostgreSQL bytea) are moved to the spool to free heap
+            DBDContent spooledContent = spoolBytes(session, (byte[]) value, (JDBCResultSetImpl) resultSet);
+            if (spooledContent != null) {
+                return spooledContent;
+            }
+        }
         return getValueFromObject(session, type, value, false);
     }
 
+    @Nullable
+    private DBDContent spoolBytes(DBCSession session, byte[] value, JDBCResultSetImpl resultSet) {
+        if (value.length < session.getDataSource().getContainer().getPlatform().getPreferenceStore().getInt(ModelPreferences.MEMORY_CONTENT_MAX_SIZE)) {
+            return null;
+        }
+        SpoolContentStore spool = resultSet.getContentSpool();
+        if (spool == null) {
+            return null;
+        }
+        try {
+            SpoolContentStorage storage = spool.storeContent(session.getProgressMonitor(), new ByteArrayInputStream(value), value.length, null);
+            return new JDBCContentBLOB(session.getDataSource(), storage);
+        } catch (IOException e) {
+            log.debug("Error spooling binary content", e);
+            return null;
+        }
+    }
+
+    private JDBCContentBLOB createBlobContent(DBCSession session, Blob value, @Nullable SpoolContentStore spool) throws DBCException {
+        final JDBCContentBLOB blob = new JDBCContentBLOB(session.getDataSource(), value, spool);
+        final DBPPreferenceStore preferenceStore = session.getDataSource().getContainer().getPreferenceStore();
+        if (preferenceStore.getBoolean(ModelPreferences.CONTENT_CACHE_BLOB) &&
+            blob.getLOBLength() < preferenceStore.getLong(ModelPreferences.CONTENT_CACHE_MAX_SIZE))
+        {
+            // Precache content
+            blob.getContents(session.getProgressMonitor());
+        }
+        return blob;
+    }
+
     @Override
     protected void bindParameter(
         JDBCSession session,
@@ -182,15 +227,7 @@ public class JDBCContentValueHandler extends JDBCAbstractValueHandler implements
                     return new JDBCContentChars(session.getDataSource(), (String) object);
             }
         } else if (object instanceof Blob) {
-            final JDBCContentBLOB blob = new JDBCContentBLOB(session.getDataSource(), (Blob) object);
-            final DBPPreferenceStore preferenceStore = session.getDataSource().getContainer().getPreferenceStore();
-            if (preferenceStore.getBoolean(ModelPreferences.CONTENT_CACHE_BLOB) &&
-                blob.getLOBLength() < preferenceStore.getLong(ModelPreferences.CONTENT_CACHE_MAX_SIZE))
-            {
-                // Precache content
-                blob.getContents(session.getProgressMonitor());
-            }
-            return blob;
+            return createBlobContent(session, (Blob) object, null);
         } else if (object instanceof Clob) {
             JDBCContentCLOB clob = new JDBCContentCLOB(session.getDataSource(), (Clob) object);
             final DBPPreferenceStore preferenceStore = session.getDataSource().getContainer().getPreferenceStore();
@@ -19,7 +19,10 @@ package org.jkiss.dbeaver.model.impl.jdbc.exec;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.data.DBDValueMeta;
+import org.jkiss.dbeaver.model.data.storage.SpoolContentStore;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSetMetaData;
@@ -50,6 +53,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     private long maxRows = -1;
     private boolean fake;
     private boolean disableLogging;
+    private SpoolContentStore contentSpool;
 
     public static JDBCResultSet makeResultSet(@NotNull JDBCSession session, @Nullable JDBCStatement statement, @NotNull ResultSet original, String description, boolean disableLogging)
         throws SQLException
@@ -134,6 +138,22 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         return getSourceStatement();
     }
 
+    /**
+     * Spool for LOB contents read from this result set.
+     * Returns null if spooling is disabled.
+     */
+    @Nullable
+    public SpoolContentStore getContentSpool()
+    {
+        if (contentSpool == null) {
+            DBPDataSourceContainer container = session.getDataSource().getContainer();
+            if (container.getPreferenceStore().getBoolean(ModelPreferences.CONTENT_SPOOL_ENABLED)) {
+                contentSpool = new SpoolContentStore(container.getPlatform());
+            }
+        }
+        return contentSpool;
+    }
+
     @Override
     public Object getAttributeValue(int index)
         throws DBCException
@@ -306,6 +326,10 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         if (fake && statement != null) {
             statement.close();
         }
+        if (contentSpool != null) {
+            // Release result set reference. BLOBs which weren't read yet keep spool open.
+            contentSpool.close();
+        }
     }
 
     @Override
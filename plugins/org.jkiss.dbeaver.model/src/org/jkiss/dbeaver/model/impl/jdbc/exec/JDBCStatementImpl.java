@@ -60,6 +60,7 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
     private DBCExecutionSource source;
     private int updateCount;
     private Throwable executeError;
+    private List<Runnable> closeHandlers;
 
     public JDBCStatementImpl(@NotNull JDBCSession connection, @NotNull STATEMENT original, boolean disableLogging)
     {
@@ -508,6 +509,28 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
         catch (Throwable e) {
             log.error("Can't close statement", e); //$NON-NLS-1$
         }
+
+        if (closeHandlers != null) {
+            for (Runnable handler : closeHandlers) {
+                try {
+                    handler.run();
+                } catch (Throwable e) {
+                    log.debug("Error in statement close handler", e); //$NON-NLS-1$
+                }
+            }
+            closeHandlers = null;
+        }
+    }
+
+    /**
+     * Adds handler which is called after statement close.
+     * Handlers may restore session state which was changed for this statement.
+     */
+    public void addCloseHandler(@NotNull Runnable handler) {
+        if (closeHandlers == null) {
+            closeHandlers = new ArrayList<>();
+        }
+        closeHandlers.add(handler);
     }
 
     ////////////////////////////////////
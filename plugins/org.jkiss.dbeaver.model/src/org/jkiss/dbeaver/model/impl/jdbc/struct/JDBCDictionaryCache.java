@@ -0,0 +1,410 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeValue;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDLabelValuePair;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCSavepoint;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNEvent;
+import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.navigator.INavigatorListener;
+import org.jkiss.dbeaver.model.qm.QMUtils;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.runtime.qm.DefaultExecutionHandler;
+
+import java.util.*;
+
+/**
+ * Dictionary values cache.
+ * Keeps labels of dictionary keys and recently read enumerations for each dictionary entity.
+ * Cache size is limited and entries expire after TTL.
+ * Entity cache is invalidated when entity (or its data source) is refreshed, changed or removed in navigator.
+ * Refreshed entities are usually replaced with new objects, so cache of entity with the same data source and
+ * full name is invalidated too.
+ * Entity data modifications invalidate cache after execution and again when transaction ends.
+ */
+public class JDBCDictionaryCache implements INavigatorListener {
+
+    private static final Log log = Log.getLog(JDBCDictionaryCache.class);
+
+    static final long ENTRY_TTL = 5 * 60 * 1000L;
+    static final int MAX_CACHED_VALUES = 10000;
+    static final int MAX_CACHED_ENUMERATIONS = 32;
+    // Max number of different key column/description columns/preceding keys combinations per entity
+    static final int MAX_CACHED_SCOPES = 32;
+    static final int MAX_CACHED_ENTITIES = 100;
+
+    private static JDBCDictionaryCache instance;
+
+    private final Map<DBSEntity, EntityCache> entityCaches = new LRUMap<>(MAX_CACHED_ENTITIES);
+    // Entities modified in not yet committed transactions
+    private final Map<DBCExecutionContext, Set<DBSEntity>> pendingEntities = new IdentityHashMap<>();
+    private DBNModel navigatorModel;
+    private TransactionHandler transactionHandler;
+
+    public static synchronized JDBCDictionaryCache getInstance() {
+        if (instance == null) {
+            instance = new JDBCDictionaryCache();
+            try {
+                DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
+                if (navigatorModel != null) {
+                    navigatorModel.addListener(instance);
+                    instance.navigatorModel = navigatorModel;
+                }
+            } catch (Throwable e) {
+                log.debug("Can't register dictionary cache in navigator model", e);
+            }
+            try {
+                TransactionHandler transactionHandler = instance.new TransactionHandler();
+                QMUtils.registerHandler(transactionHandler);
+                instance.transactionHandler = transactionHandler;
+            } catch (Throwable e) {
+                log.debug("Can't register dictionary cache transaction handler", e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Unregisters cache listeners and clears cache.
+     * Must be called before navigator model disposal.
+     */
+    public static synchronized void disposeInstance() {
+        if (instance == null) {
+            return;
+        }
+        if (instance.navigatorModel != null) {
+            instance.navigatorModel.removeListener(instance);
+            instance.navigatorModel = null;
+        }
+        if (instance.transactionHandler != null) {
+            QMUtils.unregisterHandler(instance.transactionHandler);
+            instance.transactionHandler = null;
+        }
+        synchronized (instance.entityCaches) {
+            instance.entityCaches.clear();
+        }
+        synchronized (instance.pendingEntities) {
+            instance.pendingEntities.clear();
+        }
+        instance = null;
+    }
+
+    private static class Entry<T> {
+        // Null value means that key is missing in dictionary
+        @Nullable
+        final T value;
+        final long time;
+
+        Entry(T value) {
+            this.value = value;
+            this.time = System.currentTimeMillis();
+        }
+
+        boolean isExpired(long currentTime) {
+            return currentTime - time > ENTRY_TTL;
+        }
+    }
+
+    private static class LRUMap<K, V> extends LinkedHashMap<K, V> {
+        private final int maxSize;
+
+        LRUMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private static class EntityCache {
+        final Map<List<Object>, DictionaryValues> values = new LRUMap<>(MAX_CACHED_SCOPES);
+        final Map<List<Object>, Entry<List<DBDLabelValuePair>>> enumerations = new LRUMap<>(MAX_CACHED_ENUMERATIONS);
+    }
+
+    /**
+     * Cached labels of dictionary keys.
+     * Keys are read with the same key column, description columns and preceding keys.
+     */
+    public static class DictionaryValues {
+        private final DBSEntityAttribute keyColumn;
+        private final DBDValueHandler valueHandler;
+        private final Map<Object, Entry<DBDLabelValuePair>> pairs = new LRUMap<>(MAX_CACHED_VALUES);
+
+        DictionaryValues(DBSEntityAttribute keyColumn, DBDValueHandler valueHandler) {
+            this.keyColumn = keyColumn;
+            this.valueHandler = valueHandler;
+        }
+
+        /**
+         * Adds cached values of the specified keys in result.
+         *
+         * @return keys which are not cached (or expired)
+         */
+        @NotNull
+        public synchronized List<Object> resolve(@NotNull List<Object> keyValues, @NotNull List<DBDLabelValuePair> result) {
+            List<Object> missingKeys = new ArrayList<>();
+            long currentTime = System.currentTimeMillis();
+            for (Object keyValue : keyValues) {
+                Object cacheKey = makeCacheKey(keyValue);
+                Entry<DBDLabelValuePair> entry = pairs.get(cacheKey);
+                if (entry == null || entry.isExpired(currentTime)) {
+                    missingKeys.add(keyValue);
+                } else if (entry.value != null) {
+                    result.add(entry.value);
+                }
+            }
+            return missingKeys;
+        }
+
+        /**
+         * Caches values read from database.
+         *
+         * @param keyValues requested keys. Keys missing in values are cached as missing in dictionary
+         * @param values    values read from dictionary
+         */
+        public synchronized void cacheValues(@Nullable List<Object> keyValues, @NotNull Collection<DBDLabelValuePair> values) {
+            Set<Object> readKeys = new HashSet<>();
+            for (DBDLabelValuePair pair : values) {
+                Object cacheKey = makeCacheKey(pair.getValue());
+                readKeys.add(cacheKey);
+                pairs.put(cacheKey, new Entry<>(pair));
+            }
+            if (keyValues != null) {
+                for (Object keyValue : keyValues) {
+                    Object cacheKey = makeCacheKey(keyValue);
+                    if (!readKeys.contains(cacheKey)) {
+                        pairs.put(cacheKey, new Entry<>(null));
+                    }
+                }
+            }
+        }
+
+        private Object makeCacheKey(Object keyValue) {
+            if (DBUtils.isNullValue(keyValue)) {
+                return null;
+            }
+            // Keys of different types (e.g. Integer and Long) must match.
+            // Dictionary date keys are converted into strings as well (see DBVUtils.readDictionaryRows).
+            return valueHandler.getValueDisplayString(keyColumn, keyValue, DBDDisplayFormat.EDIT);
+        }
+    }
+
+    @NotNull
+    public DictionaryValues getDictionaryValues(
+        @NotNull DBSEntity entity,
+        @NotNull DBSEntityAttribute keyColumn,
+        @NotNull DBDValueHandler valueHandler,
+        @Nullable String descColumns,
+        @Nullable List<DBDAttributeValue> preceedingKeys)
+    {
+        List<Object> scopeKey = makeScopeKey(keyColumn, descColumns, preceedingKeys);
+        synchronized (entityCaches) {
+            return getEntityCache(entity).values.computeIfAbsent(scopeKey, k -> new DictionaryValues(keyColumn, valueHandler));
+        }
+    }
+
+    @Nullable
+    public List<DBDLabelValuePair> getEnumeration(@NotNull DBSEntity entity, @NotNull List<Object> enumKey) {
+        synchronized (entityCaches) {
+            EntityCache entityCache = entityCaches.get(entity);
+            if (entityCache == null) {
+                return null;
+            }
+            Entry<List<DBDLabelValuePair>> entry = entityCache.enumerations.get(enumKey);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isExpired(System.currentTimeMillis())) {
+                entityCache.enumerations.remove(enumKey);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * Caches enumeration values.
+     *
+     * @return unmodifiable copy of values which is returned by getEnumeration later
+     */
+    @NotNull
+    public List<DBDLabelValuePair> cacheEnumeration(@NotNull DBSEntity entity, @NotNull List<Object> enumKey, @NotNull List<DBDLabelValuePair> values) {
+        List<DBDLabelValuePair> cachedValues = Collections.unmodifiableList(new ArrayList<>(values));
+        synchronized (entityCaches) {
+            getEntityCache(entity).enumerations.put(enumKey, new Entry<>(cachedValues));
+        }
+        return cachedValues;
+    }
+
+    /**
+     * Makes key of values read with the same key column, description columns and preceding keys
+     */
+    @NotNull
+    public static List<Object> makeScopeKey(
+        @NotNull DBSEntityAttribute keyColumn,
+        @Nullable String descColumns,
+        @Nullable List<DBDAttributeValue> preceedingKeys)
+    {
+        List<Object> key = new ArrayList<>();
+        key.add(keyColumn);
+        key.add(descColumns);
+        if (preceedingKeys != null) {
+            for (DBDAttributeValue pk : preceedingKeys) {
+                key.add(pk.getAttribute());
+                key.add(pk.getValue());
+            }
+        }
+        return key;
+    }
+
+    public void invalidate(@NotNull DBSEntity entity) {
+        synchronized (entityCaches) {
+            entityCaches.remove(entity);
+        }
+    }
+
+    /**
+     * Invalidates entity cache after entity data modification.
+     * If modification was made in manual commit mode then cache will be invalidated again on commit or rollback -
+     * values read in the meantime may be not committed or rolled back.
+     */
+    public void invalidate(@NotNull DBSEntity entity, @NotNull DBCExecutionContext context) {
+        invalidate(entity);
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+        try {
+            if (txnManager == null || txnManager.isAutoCommit()) {
+                return;
+            }
+        } catch (DBCException e) {
+            log.debug("Can't check auto-commit mode", e);
+            return;
+        }
+        synchronized (pendingEntities) {
+            pendingEntities.computeIfAbsent(context, c -> new HashSet<>()).add(entity);
+        }
+    }
+
+    private void endTransaction(@NotNull DBCExecutionContext context) {
+        Set<DBSEntity> entities;
+        synchronized (pendingEntities) {
+            entities = pendingEntities.remove(context);
+        }
+        if (entities != null) {
+            for (DBSEntity entity : entities) {
+                invalidate(entity);
+            }
+        }
+    }
+
+    public void invalidate(@NotNull DBPDataSourceContainer container) {
+        synchronized (entityCaches) {
+            entityCaches.keySet().removeIf(entity -> {
+                DBPDataSource dataSource = entity.getDataSource();
+                return dataSource == null || dataSource.getContainer() == container;
+            });
+        }
+    }
+
+    /**
+     * Invalidates cache of the specified entity and of entities it replaces (with the same data source and name)
+     */
+    private void invalidateReplaced(@NotNull DBSEntity entity) {
+        DBPDataSource dataSource = entity.getDataSource();
+        String fullName = DBUtils.getObjectFullName(entity, DBPEvaluationContext.UI);
+        synchronized (entityCaches) {
+            entityCaches.keySet().removeIf(cached -> cached == entity ||
+                (cached.getDataSource() == dataSource && fullName.equals(DBUtils.getObjectFullName(cached, DBPEvaluationContext.UI))));
+        }
+    }
+
+    @Override
+    public void nodeChanged(DBNEvent event) {
+        if (event.getAction() == DBNEvent.Action.ADD || !(event.getNode() instanceof DBNDatabaseNode)) {
+            return;
+        }
+        boolean refresh = event.getNodeChange() == DBNEvent.NodeChange.REFRESH || event.getNodeChange() == DBNEvent.NodeChange.STRUCT_REFRESH;
+        if (event.getAction() == DBNEvent.Action.UPDATE && !refresh) {
+            // Load/unload, lock or select - object wasn't changed
+            return;
+        }
+        DBSObject object = ((DBNDatabaseNode) event.getNode()).getObject();
+        if (object instanceof DBSEntity) {
+            invalidateReplaced((DBSEntity) object);
+        } else if (object instanceof DBPDataSourceContainer) {
+            invalidate((DBPDataSourceContainer) object);
+        } else if (object != null && object.getDataSource() != null && refresh) {
+            // Container refresh
+            invalidate(object.getDataSource().getContainer());
+        }
+    }
+
+    private EntityCache getEntityCache(DBSEntity entity) {
+        return entityCaches.computeIfAbsent(entity, e -> new EntityCache());
+    }
+
+    private class TransactionHandler extends DefaultExecutionHandler {
+        @NotNull
+        @Override
+        public String getHandlerName() {
+            return JDBCDictionaryCache.class.getName();
+        }
+
+        @Override
+        public void handleContextClose(@NotNull DBCExecutionContext context) {
+            endTransaction(context);
+        }
+
+        @Override
+        public void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit) {
+            if (autoCommit) {
+                // Switch to auto-commit mode commits current transaction
+                endTransaction(context);
+            }
+        }
+
+        @Override
+        public void handleTransactionCommit(@NotNull DBCExecutionContext context) {
+            endTransaction(context);
+        }
+
+        @Override
+        public void handleTransactionRollback(@NotNull DBCExecutionContext context, @Nullable DBCSavepoint savepoint) {
+            endTransaction(context);
+        }
+    }
+
+}
@@ -27,6 +27,7 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.DBObjectNameCaseTransformer;
 import org.jkiss.dbeaver.model.impl.data.ExecuteBatchImpl;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCFetchSizeController;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCStructCache;
 import org.jkiss.dbeaver.model.impl.struct.AbstractTable;
@@ -44,9 +45,7 @@ import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 /**
  * JDBC abstract table implementation
@@ -58,6 +57,8 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
     private static final Log log = Log.getLog(JDBCTable.class);
 
     private static final String DEFAULT_TABLE_ALIAS = "x";
+    // Maximum number of dictionary keys in one IN (...) list
+    private static final int MAX_DICTIONARY_KEYS_IN_QUERY = 100;
 
     private boolean persisted;
 
@@ -191,7 +192,8 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                         dataReceiver.fetchStart(session, dbResult, firstRow, maxRows);
 
                         DBFetchProgress fetchProgress = new DBFetchProgress(session.getProgressMonitor());
-                        while (dbResult.nextRow()) {
+                        JDBCFetchSizeController fetchSizeController = new JDBCFetchSizeController(dbResult, hasLimits ? maxRows : 0);
+                        while (fetchSizeController.nextRow()) {
                             if (fetchProgress.isCanceled() || (hasLimits && fetchProgress.isMaxRowsFetched(maxRows))) {
                                 // Fetch not more than max rows
                                 break;
@@ -297,7 +299,7 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
     {
         readRequiredMeta(session.getProgressMonitor());
 
-        return new ExecuteBatchImpl(attributes, keysReceiver, true) {
+        return new TableExecuteBatch(attributes, keysReceiver, true) {
 
             private boolean allNulls;
 
@@ -398,7 +400,7 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
         DBSAttributeBase[] attributes = ArrayUtils.concatArrays(updateAttributes, keyAttributes);
 
-        return new ExecuteBatchImpl(attributes, keysReceiver, false) {
+        return new TableExecuteBatch(attributes, keysReceiver, true) {
             @NotNull
             @Override
             protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues) throws DBCException {
@@ -474,7 +476,7 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
     {
         readRequiredMeta(session.getProgressMonitor());
 
-        return new ExecuteBatchImpl(keyAttributes, null, false) {
+        return new TableExecuteBatch(keyAttributes, null, true) {
             @NotNull
             @Override
             protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues) throws DBCException {
@@ -555,8 +557,16 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         int maxResults)
         throws DBException
     {
+        JDBCDictionaryCache cache = JDBCDictionaryCache.getInstance();
+        String descColumns = DBVUtils.getDictionaryDescriptionColumns(monitor, keyColumn);
+        List<Object> enumKey = JDBCDictionaryCache.makeScopeKey(keyColumn, descColumns, preceedingKeys);
+        Collections.addAll(enumKey, keyPattern, sortByValue, sortAsc, maxResults);
+        List<DBDLabelValuePair> values = cache.getEnumeration(this, enumKey);
+        if (values != null) {
+            return values;
+        }
         // Use default one
-        return readKeyEnumeration(
+        values = readKeyEnumeration(
             monitor,
             keyColumn,
             keyPattern,
@@ -564,6 +574,14 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
             sortByValue,
             sortAsc,
             maxResults);
+        if (monitor.isCanceled()) {
+            // Result is unmodifiable as well as cached enumerations
+            return Collections.unmodifiableList(values);
+        }
+        // Enumeration labels may be used for single values lookup later
+        DBDValueHandler keyValueHandler = DBUtils.findValueHandler(keyColumn.getDataSource(), keyColumn);
+        cache.getDictionaryValues(this, keyColumn, keyValueHandler, descColumns, preceedingKeys).cacheValues(null, values);
+        return cache.cacheEnumeration(this, enumKey, values);
     }
 
     @NotNull
@@ -577,11 +595,54 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         boolean sortAsc) throws DBException
     {
         DBDValueHandler keyValueHandler = DBUtils.findValueHandler(keyColumn.getDataSource(), keyColumn);
+        String descColumns = DBVUtils.getDictionaryDescriptionColumns(monitor, keyColumn);
 
+        // Read only keys which are not cached. Missing keys are read in batches.
+        JDBCDictionaryCache.DictionaryValues cachedValues = JDBCDictionaryCache.getInstance().getDictionaryValues(
+            this, keyColumn, keyValueHandler, descColumns, preceedingKeys);
+        List<DBDLabelValuePair> result = new ArrayList<>();
+        List<Object> missingKeys = cachedValues.resolve(keyValues, result);
+        if (missingKeys.isEmpty()) {
+            sortDictionaryValues(result, sortByValue, sortAsc);
+            return result;
+        }
+        boolean hasCachedValues = !result.isEmpty();
+        for (int i = 0; i < missingKeys.size(); i += MAX_DICTIONARY_KEYS_IN_QUERY) {
+            List<Object> batchKeys = missingKeys.subList(i, Math.min(i + MAX_DICTIONARY_KEYS_IN_QUERY, missingKeys.size()));
+            List<DBDLabelValuePair> batchValues = readDictionaryValues(
+                monitor, keyColumn, keyValueHandler, descColumns, batchKeys, preceedingKeys, sortByValue, sortAsc);
+            if (monitor.isCanceled()) {
+                break;
+            }
+            cachedValues.cacheValues(batchKeys, batchValues);
+            result.addAll(batchValues);
+        }
+        if (hasCachedValues || missingKeys.size() > MAX_DICTIONARY_KEYS_IN_QUERY) {
+            sortDictionaryValues(result, sortByValue, sortAsc);
+        }
+        return result;
+    }
+
+    private static void sortDictionaryValues(List<DBDLabelValuePair> values, boolean sortByValue, boolean sortAsc) {
+        Comparator<DBDLabelValuePair> comparator = sortByValue ?
+            DBDLabelValuePair::compareTo :
+            (o1, o2) -> CommonUtils.notEmpty(o1.getLabel()).compareTo(CommonUtils.notEmpty(o2.getLabel()));
+        values.sort(sortAsc ? comparator : comparator.reversed());
+    }
+
+    private List<DBDLabelValuePair> readDictionaryValues(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSEntityAttribute keyColumn,
+        @NotNull DBDValueHandler keyValueHandler,
+        @Nullable String descColumns,
+        @NotNull List<Object> keyValues,
+        @Nullable List<DBDAttributeValue> preceedingKeys,
+        boolean sortByValue,
+        boolean sortAsc) throws DBException
+    {
         StringBuilder query = new StringBuilder();
         query.append("SELECT ").append(DBUtils.getQuotedIdentifier(keyColumn));
 
-        String descColumns = DBVUtils.getDictionaryDescriptionColumns(monitor, keyColumn);
         if (descColumns != null) {
             query.append(", ").append(descColumns);
         }
@@ -842,6 +903,8 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                 false, false, false)) {
                 dbStat.setStatementSource(source);
                 dbStat.executeStatement();
+            } finally {
+                JDBCDictionaryCache.getInstance().invalidate(this, session.getExecutionContext());
             }
             statistics.addStatementsCount();
             statistics.addExecuteTime();
@@ -907,6 +970,26 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         }
     }
 
+    /**
+     * Data modification batch. Invalidates cached dictionary values after execution.
+     */
+    private abstract class TableExecuteBatch extends ExecuteBatchImpl {
+
+        TableExecuteBatch(@NotNull DBSAttributeBase[] attributes, @Nullable DBDDataReceiver keysReceiver, boolean reuseStatement) {
+            super(attributes, keysReceiver, reuseStatement);
+        }
+
+        @NotNull
+        @Override
+        public DBCStatistics execute(@NotNull DBCSession session) throws DBCException {
+            try {
+                return super.execute(session);
+            } finally {
+                JDBCDictionaryCache.getInstance().invalidate(JDBCTable.this, session.getExecutionContext());
+            }
+        }
+    }
+
     /**
      * Reads and caches metadata which is required for data requests
      * @param monitor progress monitor
@@ -0,0 +1,240 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.plan;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanNodeKind;
+
+import java.util.*;
+
+/**
+ * Difference between two execution plans of the same query.
+ *
+ * Nodes are matched by their position in the tree (chain of parent node types and names).
+ * Regressions are: total cost growth, index access replaced by full scan, node cost growth.
+ * Access methods are compared per accessed table: index scans are attributed to the table access node above them
+ * (e.g. PostgreSQL Bitmap Heap Scan or Oracle TABLE ACCESS BY INDEX ROWID).
+ */
+public class ExecutionPlanDiff {
+
+    // Cost must grow more than this ratio to be reported
+    private static final double COST_CHANGE_RATIO = 1.5;
+    // Rows estimation must change more than this ratio to be reported
+    private static final double ROWS_CHANGE_RATIO = 10;
+    // Node cost changes less than this fraction of total plan cost are ignored
+    private static final double MIN_NODE_COST_FRACTION = 0.05;
+
+    public enum Severity {
+        REGRESSION,
+        IMPROVEMENT,
+        CHANGE
+    }
+
+    public static class Change {
+        private final Severity severity;
+        private final String message;
+
+        Change(Severity severity, String message) {
+            this.severity = severity;
+            this.message = message;
+        }
+
+        public Severity getSeverity() {
+            return severity;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return severity + ": " + message;
+        }
+    }
+
+    private enum AccessMethod {
+        FULL_SCAN,
+        INDEX
+    }
+
+    private final ExecutionPlanSnapshot oldPlan;
+    private final ExecutionPlanSnapshot newPlan;
+    private final List<Change> changes = new ArrayList<>();
+
+    private ExecutionPlanDiff(ExecutionPlanSnapshot oldPlan, ExecutionPlanSnapshot newPlan) {
+        this.oldPlan = oldPlan;
+        this.newPlan = newPlan;
+    }
+
+    @NotNull
+    public ExecutionPlanSnapshot getOldPlan() {
+        return oldPlan;
+    }
+
+    @NotNull
+    public ExecutionPlanSnapshot getNewPlan() {
+        return newPlan;
+    }
+
+    @NotNull
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    public boolean hasChanges() {
+        return !changes.isEmpty();
+    }
+
+    public boolean hasRegressions() {
+        for (Change change : changes) {
+            if (change.severity == Severity.REGRESSION) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    public static ExecutionPlanDiff compare(@NotNull ExecutionPlanSnapshot oldPlan, @NotNull ExecutionPlanSnapshot newPlan) {
+        ExecutionPlanDiff diff = new ExecutionPlanDiff(oldPlan, newPlan);
+        diff.compareTotalCost();
+        diff.compareAccessMethods();
+        diff.compareNodes();
+        return diff;
+    }
+
+    private void compareTotalCost() {
+        Double oldCost = oldPlan.getTotalCost();
+        Double newCost = newPlan.getTotalCost();
+        if (oldCost == null || newCost == null) {
+            return;
+        }
+        if (newCost > oldCost * COST_CHANGE_RATIO && newCost > 0) {
+            addChange(Severity.REGRESSION, "Plan cost increased from " + formatNumber(oldCost) + " to " + formatNumber(newCost));
+        } else if (oldCost > newCost * COST_CHANGE_RATIO && oldCost > 0) {
+            addChange(Severity.IMPROVEMENT, "Plan cost decreased from " + formatNumber(oldCost) + " to " + formatNumber(newCost));
+        }
+    }
+
+    private void compareAccessMethods() {
+        Map<String, AccessMethod> oldAccess = new TreeMap<>();
+        Map<String, AccessMethod> newAccess = new TreeMap<>();
+        collectAccessMethods(oldPlan.getNodes(), null, oldAccess);
+        collectAccessMethods(newPlan.getNodes(), null, newAccess);
+        for (Map.Entry<String, AccessMethod> entry : newAccess.entrySet()) {
+            AccessMethod oldMethod = oldAccess.get(entry.getKey());
+            if (oldMethod == AccessMethod.INDEX && entry.getValue() == AccessMethod.FULL_SCAN) {
+                addChange(Severity.REGRESSION, "Index access to " + entry.getKey() + " replaced by full scan");
+            } else if (oldMethod == AccessMethod.FULL_SCAN && entry.getValue() == AccessMethod.INDEX) {
+                addChange(Severity.IMPROVEMENT, "Full scan of " + entry.getKey() + " replaced by index access");
+            }
+        }
+    }
+
+    private void compareNodes() {
+        Map<String, ExecutionPlanSnapshot.Node> oldNodes = new LinkedHashMap<>();
+        Map<String, ExecutionPlanSnapshot.Node> newNodes = new LinkedHashMap<>();
+        collectNodes("", oldPlan.getNodes(), oldNodes);
+        collectNodes("", newPlan.getNodes(), newNodes);
+
+        Double totalCost = newPlan.getTotalCost();
+        double minCostDelta = totalCost == null ? 0 : totalCost * MIN_NODE_COST_FRACTION;
+        for (Map.Entry<String, ExecutionPlanSnapshot.Node> entry : newNodes.entrySet()) {
+            ExecutionPlanSnapshot.Node newNode = entry.getValue();
+            ExecutionPlanSnapshot.Node oldNode = oldNodes.remove(entry.getKey());
+            if (oldNode == null) {
+                addChange(Severity.CHANGE, "New node: " + newNode);
+                continue;
+            }
+            Double oldCost = oldNode.getCost(), newCost = newNode.getCost();
+            if (oldCost != null && newCost != null && newCost > oldCost * COST_CHANGE_RATIO && newCost - oldCost > minCostDelta) {
+                addChange(Severity.REGRESSION, "Cost of " + newNode + " increased from " + formatNumber(oldCost) + " to " + formatNumber(newCost));
+            }
+            Double oldRows = oldNode.getRows(), newRows = newNode.getRows();
+            if (oldRows != null && newRows != null &&
+                (newRows > oldRows * ROWS_CHANGE_RATIO || oldRows > newRows * ROWS_CHANGE_RATIO))
+            {
+                addChange(Severity.CHANGE, "Rows estimation of " + newNode + " changed from " + formatNumber(oldRows) + " to " + formatNumber(newRows));
+            }
+        }
+        for (ExecutionPlanSnapshot.Node oldNode : oldNodes.values()) {
+            addChange(Severity.CHANGE, "Removed node: " + oldNode);
+        }
+    }
+
+    /**
+     * Node key is a path of node signatures. Sibling nodes with the same signature are numbered.
+     */
+    private static void collectNodes(String parentKey, List<ExecutionPlanSnapshot.Node> nodes, Map<String, ExecutionPlanSnapshot.Node> result) {
+        Map<String, Integer> counters = new HashMap<>();
+        for (ExecutionPlanSnapshot.Node node : nodes) {
+            String signature = node.getKind() + ':' + node.getType() + ':' + node.getName();
+            int index = counters.merge(signature, 1, Integer::sum);
+            String key = parentKey + '/' + signature + '#' + index;
+            result.put(key, node);
+            collectNodes(key, node.getChildren(), result);
+        }
+    }
+
+    /**
+     * Collects access methods by table name.
+     * @param tableName table accessed by the parent node. Index scans below it are attributed to this table.
+     */
+    private static void collectAccessMethods(List<ExecutionPlanSnapshot.Node> nodes, @Nullable String tableName, Map<String, AccessMethod> result) {
+        for (ExecutionPlanSnapshot.Node node : nodes) {
+            AccessMethod method = getAccessMethod(node);
+            String childTableName;
+            if (method != null) {
+                String key = method == AccessMethod.INDEX && tableName != null ? tableName : node.getName();
+                if (!key.isEmpty()) {
+                    // Index access wins if the same object is accessed in different ways
+                    result.merge(key, method, (m1, m2) -> m1 == AccessMethod.INDEX ? m1 : m2);
+                }
+                childTableName = key.isEmpty() ? tableName : key;
+            } else {
+                // Intermediate nodes (e.g. BitmapAnd or BITMAP CONVERSION) do not have a name
+                childTableName = node.getName().isEmpty() ? tableName : null;
+            }
+            collectAccessMethods(node.getChildren(), childTableName, result);
+        }
+    }
+
+    @Nullable
+    private static AccessMethod getAccessMethod(ExecutionPlanSnapshot.Node node) {
+        String type = node.getType().toLowerCase(Locale.ENGLISH);
+        if (DBCPlanNodeKind.INDEX_SCAN.name().equals(node.getKind()) || type.contains("index") || type.contains("bitmap heap")) {
+            return AccessMethod.INDEX;
+        }
+        if (DBCPlanNodeKind.TABLE_SCAN.name().equals(node.getKind()) ||
+            type.contains("seq scan") || type.contains("full") || type.contains("table scan") || type.equals("all"))
+        {
+            return AccessMethod.FULL_SCAN;
+        }
+        return null;
+    }
+
+    private void addChange(Severity severity, String message) {
+        changes.add(new Change(severity, message));
+    }
+
+    private static String formatNumber(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format(Locale.ENGLISH, "%.2f", value);
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.plan;
+
+import com.google.gson.*;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlan;
+import org.jkiss.dbeaver.model.qm.meta.QMMQueryFingerprint;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Execution plans history.
+ *
+ * Plans are saved per datasource and query fingerprint (so the same query with different literals shares history).
+ * Only the last {@link #MAX_PLANS_PER_QUERY} plans of each query and history of the last
+ * {@link #MAX_QUERIES_PER_DATASOURCE} queries of each datasource are kept.
+ */
+public class ExecutionPlanHistory {
+
+    private static final Log log = Log.getLog(ExecutionPlanHistory.class);
+
+    private static final String HISTORY_FOLDER = "plan-history"; //$NON-NLS-1$
+    private static final String HISTORY_FILE_EXT = ".json"; //$NON-NLS-1$
+    private static final String PROP_FINGERPRINT = "fingerprint"; //$NON-NLS-1$
+    private static final String PROP_PLANS = "plans"; //$NON-NLS-1$
+
+    private static final int MAX_PLANS_PER_QUERY = 10;
+    private static final int MAX_QUERIES_PER_DATASOURCE = 100;
+
+    private static final Gson gson = new GsonBuilder().create();
+
+    /**
+     * Saves plan in history.
+     *
+     * @return difference with the previous plan of the same query or null if there is no previous plan
+     */
+    @Nullable
+    public static synchronized ExecutionPlanDiff addPlan(@NotNull DBPDataSourceContainer container, @Nullable SQLDialect dialect, @NotNull String query, @NotNull DBCPlan plan)
+    {
+        ExecutionPlanSnapshot snapshot = ExecutionPlanSnapshot.fromPlan(plan);
+        if (snapshot.getNodes().isEmpty()) {
+            return null;
+        }
+        String fingerprint = QMMQueryFingerprint.getFingerprint(dialect, query);
+        File historyFile = getHistoryFile(container, fingerprint);
+        List<ExecutionPlanSnapshot> plans = readPlans(historyFile);
+        ExecutionPlanDiff diff = plans.isEmpty() ? null : ExecutionPlanDiff.compare(plans.get(plans.size() - 1), snapshot);
+
+        plans.add(snapshot);
+        while (plans.size() > MAX_PLANS_PER_QUERY) {
+            plans.remove(0);
+        }
+        writePlans(historyFile, fingerprint, plans);
+        pruneHistory(historyFile.getParentFile());
+        return diff;
+    }
+
+    /**
+     * Returns saved plans of the query (the most recent is the last)
+     */
+    @NotNull
+    public static synchronized List<ExecutionPlanSnapshot> getPlans(@NotNull DBPDataSourceContainer container, @Nullable SQLDialect dialect, @NotNull String query)
+    {
+        return readPlans(getHistoryFile(container, QMMQueryFingerprint.getFingerprint(dialect, query)));
+    }
+
+    public static synchronized void clearHistory(@NotNull DBPDataSourceContainer container)
+    {
+        File[] files = getHistoryFolder(container).listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    log.debug("Can't delete plan history file " + file.getAbsolutePath());
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes history of the least recently explained queries
+     */
+    private static void pruneHistory(File historyFolder)
+    {
+        File[] files = historyFolder.listFiles((dir, name) -> name.endsWith(HISTORY_FILE_EXT));
+        if (files == null || files.length <= MAX_QUERIES_PER_DATASOURCE) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - MAX_QUERIES_PER_DATASOURCE; i++) {
+            if (!files[i].delete()) {
+                log.debug("Can't delete plan history file " + files[i].getAbsolutePath());
+            }
+        }
+    }
+
+    private static List<ExecutionPlanSnapshot> readPlans(File historyFile)
+    {
+        List<ExecutionPlanSnapshot> plans = new ArrayList<>();
+        if (!historyFile.exists()) {
+            return plans;
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(historyFile), StandardCharsets.UTF_8)) {
+            JsonObject root = gson.fromJson(reader, JsonObject.class);
+            JsonArray plansJson = root == null ? null : root.getAsJsonArray(PROP_PLANS);
+            if (plansJson != null) {
+                for (JsonElement planJson : plansJson) {
+                    plans.add(ExecutionPlanSnapshot.fromJson(planJson.getAsJsonObject()));
+                }
+            }
+        } catch (Exception e) {
+            // Corrupted history is not a big problem - just start new one
+            log.debug("Error reading plan history from " + historyFile.getAbsolutePath(), e);
+            plans.clear();
+        }
+        return plans;
+    }
+
+    private static void writePlans(File historyFile, String fingerprint, List<ExecutionPlanSnapshot> plans)
+    {
+        File folder = historyFile.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            log.debug("Can't create plan history folder " + folder.getAbsolutePath());
+            return;
+        }
+        JsonObject root = new JsonObject();
+        root.add(PROP_FINGERPRINT, new JsonPrimitive(fingerprint));
+        JsonArray plansJson = new JsonArray();
+        for (ExecutionPlanSnapshot plan : plans) {
+            plansJson.add(plan.toJson());
+        }
+        root.add(PROP_PLANS, plansJson);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(historyFile), StandardCharsets.UTF_8)) {
+            gson.toJson(root, writer);
+        } catch (IOException e) {
+            log.debug("Error writing plan history to " + historyFile.getAbsolutePath(), e);
+        }
+    }
+
+    private static File getHistoryFolder(DBPDataSourceContainer container)
+    {
+        return new File(new File(GeneralUtils.getMetadataFolder(), HISTORY_FOLDER), CommonUtils.escapeFileName(container.getId()));
+    }
+
+    private static File getHistoryFile(DBPDataSourceContainer container, String fingerprint)
+    {
+        String fileName;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            fileName = CommonUtils.toHexString(digest.digest(fingerprint.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            fileName = Integer.toHexString(fingerprint.hashCode());
+        }
+        return new File(getHistoryFolder(container), fileName + HISTORY_FILE_EXT);
+    }
+
+}
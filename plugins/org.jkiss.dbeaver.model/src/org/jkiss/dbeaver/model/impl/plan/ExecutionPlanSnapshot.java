@@ -0,0 +1,252 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.plan;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlan;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanCostNode;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanNode;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Database independent copy of execution plan tree.
+ * Keeps only node kind, type, name and cost/rows estimations. Used for plan history and plans comparison.
+ */
+public class ExecutionPlanSnapshot {
+
+    private static final String PROP_DATE = "date";
+    private static final String PROP_SQL = "sql";
+    private static final String PROP_NODES = "nodes";
+    private static final String PROP_KIND = "kind";
+    private static final String PROP_TYPE = "type";
+    private static final String PROP_NAME = "name";
+    private static final String PROP_COST = "cost";
+    private static final String PROP_ROWS = "rows";
+    private static final String PROP_CHILD = "child";
+
+    public static class Node {
+        private final String kind;
+        private final String type;
+        private final String name;
+        private final Double cost;
+        private final Double rows;
+        private final List<Node> children = new ArrayList<>();
+
+        Node(String kind, String type, String name, Double cost, Double rows) {
+            this.kind = CommonUtils.notEmpty(kind);
+            this.type = CommonUtils.notEmpty(type);
+            this.name = CommonUtils.notEmpty(name);
+            this.cost = cost;
+            this.rows = rows;
+        }
+
+        /**
+         * Node kind (see {@link org.jkiss.dbeaver.model.exec.plan.DBCPlanNodeKind})
+         */
+        @NotNull
+        public String getKind() {
+            return kind;
+        }
+
+        @NotNull
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Name of object (table, index, etc) processed by this node
+         */
+        @NotNull
+        public String getName() {
+            return name;
+        }
+
+        @Nullable
+        public Double getCost() {
+            return cost;
+        }
+
+        @Nullable
+        public Double getRows() {
+            return rows;
+        }
+
+        @NotNull
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        @Override
+        public String toString() {
+            return name.isEmpty() ? type : type + " (" + name + ")";
+        }
+    }
+
+    private final long date;
+    private final String queryString;
+    private final List<Node> nodes;
+
+    private ExecutionPlanSnapshot(long date, String queryString, List<Node> nodes) {
+        this.date = date;
+        this.queryString = queryString;
+        this.nodes = nodes;
+    }
+
+    public long getDate() {
+        return date;
+    }
+
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @NotNull
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Total plan cost (sum of root nodes costs) or null if plan doesn't provide costs
+     */
+    @Nullable
+    public Double getTotalCost() {
+        Double total = null;
+        for (Node node : nodes) {
+            if (node.cost != null) {
+                total = (total == null ? 0 : total) + node.cost;
+            }
+        }
+        return total;
+    }
+
+    @NotNull
+    public static ExecutionPlanSnapshot fromPlan(@NotNull DBCPlan plan) {
+        List<Node> nodes = new ArrayList<>();
+        Collection<? extends DBCPlanNode> planNodes = plan.getPlanNodes(null);
+        if (planNodes != null) {
+            for (DBCPlanNode planNode : planNodes) {
+                nodes.add(copyNode(planNode));
+            }
+        }
+        return new ExecutionPlanSnapshot(System.currentTimeMillis(), plan.getQueryString(), nodes);
+    }
+
+    private static Node copyNode(DBCPlanNode planNode) {
+        Double cost = null, rows = null;
+        if (planNode instanceof DBCPlanCostNode) {
+            cost = toDouble(((DBCPlanCostNode) planNode).getNodeCost());
+            rows = toDouble(((DBCPlanCostNode) planNode).getNodeRowCount());
+        }
+        Node node = new Node(
+            planNode.getNodeKind() == null ? null : planNode.getNodeKind().name(),
+            planNode.getNodeType(),
+            planNode.getNodeName(),
+            cost,
+            rows);
+        Collection<? extends DBCPlanNode> nested = planNode.getNested();
+        if (nested != null) {
+            for (DBCPlanNode child : nested) {
+                node.children.add(copyNode(child));
+            }
+        }
+        return node;
+    }
+
+    private static Double toDouble(Number value) {
+        return value == null ? null : value.doubleValue();
+    }
+
+    ////////////////////////////////////////////////
+    // Serialization
+
+    @NotNull
+    JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.add(PROP_DATE, new JsonPrimitive(date));
+        json.add(PROP_SQL, new JsonPrimitive(CommonUtils.notEmpty(queryString)));
+        json.add(PROP_NODES, nodesToJson(nodes));
+        return json;
+    }
+
+    private static JsonArray nodesToJson(List<Node> nodes) {
+        JsonArray array = new JsonArray();
+        for (Node node : nodes) {
+            JsonObject nodeJson = new JsonObject();
+            nodeJson.add(PROP_KIND, new JsonPrimitive(node.kind));
+            nodeJson.add(PROP_TYPE, new JsonPrimitive(node.type));
+            nodeJson.add(PROP_NAME, new JsonPrimitive(node.name));
+            if (node.cost != null) {
+                nodeJson.add(PROP_COST, new JsonPrimitive(node.cost));
+            }
+            if (node.rows != null) {
+                nodeJson.add(PROP_ROWS, new JsonPrimitive(node.rows));
+            }
+            if (!node.children.isEmpty()) {
+                nodeJson.add(PROP_CHILD, nodesToJson(node.children));
+            }
+            array.add(nodeJson);
+        }
+        return array;
+    }
+
+    @NotNull
+    static ExecutionPlanSnapshot fromJson(@NotNull JsonObject json) {
+        JsonElement sql = json.get(PROP_SQL);
+        return new ExecutionPlanSnapshot(
+            json.get(PROP_DATE).getAsLong(),
+            sql == null ? null : sql.getAsString(),
+            nodesFromJson(json.getAsJsonArray(PROP_NODES)));
+    }
+
+    private static List<Node> nodesFromJson(JsonArray array) {
+        List<Node> nodes = new ArrayList<>();
+        if (array != null) {
+            for (JsonElement element : array) {
+                JsonObject nodeJson = element.getAsJsonObject();
+                Node node = new Node(
+                    getString(nodeJson, PROP_KIND),
+                    getString(nodeJson, PROP_TYPE),
+                    getString(nodeJson, PROP_NAME),
+                    getDouble(nodeJson, PROP_COST),
+                    getDouble(nodeJson, PROP_ROWS));
+                node.children.addAll(nodesFromJson(nodeJson.getAsJsonArray(PROP_CHILD)));
+                nodes.add(node);
+            }
+        }
+        return nodes;
+    }
+
+    private static String getString(JsonObject json, String name) {
+        JsonElement element = json.get(name);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+
+    private static Double getDouble(JsonObject json, String name) {
+        JsonElement element = json.get(name);
+        return element == null || element.isJsonNull() ? null : element.getAsDouble();
+    }
+
+}
@@ -0,0 +1,319 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.navigator;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBExecUtils;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContextPool;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCRemoteInstance;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.BaseProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.BlockCanceler;
+import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel prefetch of navigator node children.
+ *
+ * Reads children properties (tables, views, procedures, etc) of independent child metas concurrently.
+ * Calling thread reads properties with the default metadata context, additional workers borrow isolated contexts
+ * from the instance context pool and bind them to the worker thread. Number of workers of each datasource is limited.
+ * Prefetch is disabled if metadata is read with the main context (no separate metadata connection, embedded drivers)
+ * or if context pool is disabled (workers never open their own connections).
+ *
+ * Property getters usually return contents of object caches, so prefetch fills caches. Getters which are not
+ * cache-backed would be read twice, so prefetched values are returned to the caller which uses them instead
+ * of reading properties again. Child nodes are created later in meta order, so node order doesn't depend on prefetch.
+ * Prefetch errors are ignored, they will be reported by the regular read.
+ */
+class DBNChildrenPrefetcher {
+
+    private static final Log log = Log.getLog(DBNChildrenPrefetcher.class);
+
+    private static final String CONTEXT_PURPOSE = "Metadata prefetch"; //$NON-NLS-1$
+    private static final long WAIT_INTERVAL = 100;
+
+    private static final Map<DBPDataSourceContainer, AtomicInteger> activeWorkers = new WeakHashMap<>();
+    private static ExecutorService executor;
+
+    interface PropertyReader {
+        @Nullable
+        Object readProperty(@NotNull DBRProgressMonitor monitor, @NotNull String propertyName) throws DBException;
+    }
+
+    interface WorkerContext {
+        /**
+         * Unbinds context from the worker thread and closes it
+         */
+        void close();
+    }
+
+    interface WorkerContextProvider {
+        /**
+         * Opens isolated context and binds it to the current worker thread
+         */
+        @NotNull
+        WorkerContext openContext(@NotNull DBRProgressMonitor monitor) throws DBException;
+    }
+
+    private final DBRProgressMonitor monitor;
+    private final Queue<String> properties;
+    private final PropertyReader propertyReader;
+    private final WorkerContextProvider contextProvider;
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+    DBNChildrenPrefetcher(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull Collection<String> properties,
+        @NotNull PropertyReader propertyReader,
+        @NotNull WorkerContextProvider contextProvider)
+    {
+        this.monitor = monitor;
+        this.properties = new ConcurrentLinkedQueue<>(properties);
+        this.propertyReader = propertyReader;
+        this.contextProvider = contextProvider;
+    }
+
+    /**
+     * Reads properties of node value object in parallel (if enabled for node datasource).
+     * @return prefetched property values. Values of properties which weren't read (or were read with errors) are absent.
+     */
+    @NotNull
+    static Map<String, Object> prefetch(@NotNull DBRProgressMonitor monitor, @NotNull DBNDatabaseNode node, @NotNull Object valueObject, @NotNull Collection<String> properties) {
+        if (properties.size() < 2 || !(valueObject instanceof DBSObject)) {
+            return Collections.emptyMap();
+        }
+        DBPDataSourceContainer container = node.getDataSourceContainer();
+        DBPPreferenceStore prefStore = container.getPreferenceStore();
+        if (container.getDriver().isEmbedded() || !prefStore.getBoolean(ModelPreferences.META_SEPARATE_CONNECTION)) {
+            // Metadata is read with the main context. Isolated contexts of workers would be the only separate connections.
+            return Collections.emptyMap();
+        }
+        DBSInstance instance = DBUtils.getObjectOwnerInstance((DBSObject) valueObject);
+        if (!(instance instanceof JDBCRemoteInstance)) {
+            return Collections.emptyMap();
+        }
+        JDBCExecutionContextPool contextPool = ((JDBCRemoteInstance) instance).getContextPool();
+        if (!contextPool.isEnabled()) {
+            return Collections.emptyMap();
+        }
+        int maxThreads = prefStore.getInt(ModelPreferences.NAVIGATOR_PREFETCH_THREADS);
+        // Calling thread is a worker too. Do not exhaust the pool - other borrowers would open unpooled contexts.
+        int poolCapacity = prefStore.getInt(ModelPreferences.CONNECTION_POOL_MAX_SIZE) - contextPool.getActiveCount();
+        int workerCount = acquireWorkers(container, Math.min(Math.min(properties.size(), maxThreads) - 1, poolCapacity), maxThreads - 1);
+        if (workerCount <= 0) {
+            return Collections.emptyMap();
+        }
+        DBNChildrenPrefetcher prefetcher = new DBNChildrenPrefetcher(
+            monitor,
+            properties,
+            (readMonitor, propertyName) -> node.isDisposed() ? null : DBNDatabaseNode.extractPropertyValue(readMonitor, valueObject, propertyName),
+            workerMonitor -> openWorkerContext(workerMonitor, instance));
+        return prefetcher.run(workerCount, () -> releaseWorker(container));
+    }
+
+    /**
+     * Reads properties with the calling thread and specified number of workers.
+     * @param workerCount      number of additional workers
+     * @param onWorkerFinished called when worker finishes (or can't be started)
+     * @return property values read so far. Workers may still add values if monitor was canceled.
+     */
+    @NotNull
+    Map<String, Object> run(int workerCount, @NotNull Runnable onWorkerFinished) {
+        List<WorkerMonitor> workerMonitors = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        ExecutorService workerExecutor = getExecutor();
+        for (int i = 0; i < workerCount; i++) {
+            WorkerMonitor workerMonitor = new WorkerMonitor(monitor);
+            workerMonitors.add(workerMonitor);
+            try {
+                futures.add(workerExecutor.submit(() -> {
+                    try {
+                        runWorker(workerMonitor);
+                    } finally {
+                        onWorkerFinished.run();
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                onWorkerFinished.run();
+            }
+        }
+        // Read with the default context in this thread
+        readProperties(monitor);
+
+        for (Future<?> future : futures) {
+            while (!future.isDone()) {
+                if (monitor.isCanceled()) {
+                    // Cancel worker queries and do not wait for them
+                    for (WorkerMonitor workerMonitor : workerMonitors) {
+                        workerMonitor.cancelBlocks();
+                    }
+                    return values;
+                }
+                try {
+                    future.get(WAIT_INTERVAL, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // Check cancel and wait again
+                } catch (InterruptedException e) {
+                    return values;
+                } catch (ExecutionException e) {
+                    log.debug("Metadata prefetch error", e.getCause());
+                }
+            }
+        }
+        return values;
+    }
+
+    private void runWorker(WorkerMonitor workerMonitor) {
+        if (properties.isEmpty() || workerMonitor.isCanceled()) {
+            return;
+        }
+        WorkerContext context;
+        try {
+            context = contextProvider.openContext(workerMonitor);
+        } catch (Exception e) {
+            // Can't open one more connection. Remaining properties will be read by other workers.
+            log.debug("Can't open metadata prefetch context: " + e.getMessage());
+            return;
+        }
+        try {
+            readProperties(workerMonitor);
+        } finally {
+            context.close();
+        }
+    }
+
+    private void readProperties(DBRProgressMonitor readMonitor) {
+        for (String propertyName = properties.poll(); propertyName != null; propertyName = properties.poll()) {
+            if (readMonitor.isCanceled()) {
+                break;
+            }
+            try {
+                Object value = propertyReader.readProperty(readMonitor, propertyName);
+                if (value != null) {
+                    values.put(propertyName, value);
+                }
+            } catch (Throwable e) {
+                log.debug("Error prefetching '" + propertyName + "': " + e.getMessage());
+            }
+        }
+    }
+
+    private static WorkerContext openWorkerContext(DBRProgressMonitor monitor, DBSInstance instance) throws DBException {
+        // Pool is enabled so context is borrowed from the pool and returned to it on close
+        DBCExecutionContext context = instance.openIsolatedContext(monitor, CONTEXT_PURPOSE);
+        DBExecUtils.bindMetaContext(context);
+        return () -> {
+            DBExecUtils.bindMetaContext(null);
+            context.close();
+        };
+    }
+
+    private static int acquireWorkers(DBPDataSourceContainer container, int count, int maxCount) {
+        synchronized (activeWorkers) {
+            AtomicInteger active = activeWorkers.computeIfAbsent(container, c -> new AtomicInteger());
+            int acquired = Math.min(count, maxCount - active.get());
+            if (acquired <= 0) {
+                if (active.get() <= 0) {
+                    activeWorkers.remove(container);
+                }
+                return 0;
+            }
+            active.addAndGet(acquired);
+            return acquired;
+        }
+    }
+
+    private static void releaseWorker(DBPDataSourceContainer container) {
+        synchronized (activeWorkers) {
+            AtomicInteger active = activeWorkers.get(container);
+            if (active != null && active.decrementAndGet() <= 0) {
+                activeWorkers.remove(container);
+            }
+        }
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "Navigator metadata prefetch"); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Worker monitor. Follows cancel state of the original monitor and keeps its own blocks,
+     * so worker queries can be canceled.
+     */
+    private static class WorkerMonitor extends BaseProgressMonitor {
+        private final DBRProgressMonitor parent;
+        private final List<DBRBlockingObject> blocks = new ArrayList<>();
+
+        WorkerMonitor(DBRProgressMonitor parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return parent.isCanceled();
+        }
+
+        @Override
+        public synchronized void startBlock(DBRBlockingObject object, String taskName) {
+            blocks.add(object);
+        }
+
+        @Override
+        public synchronized void endBlock() {
+            if (!blocks.isEmpty()) {
+                blocks.remove(blocks.size() - 1);
+            }
+        }
+
+        @Override
+        public synchronized List<DBRBlockingObject> getActiveBlocks() {
+            return new ArrayList<>(blocks);
+        }
+
+        void cancelBlocks() {
+            for (DBRBlockingObject block : getActiveBlocks()) {
+                try {
+                    BlockCanceler.cancelBlock(this, block, null);
+                } catch (Exception e) {
+                    log.debug("Error canceling prefetch query: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+}
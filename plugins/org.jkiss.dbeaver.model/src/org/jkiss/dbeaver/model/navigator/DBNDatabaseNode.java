@@ -55,6 +55,8 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
     private volatile boolean locked;
     protected volatile DBNDatabaseNode[] childNodes;
     private boolean filtered;
+    // Children properties prefetched during children load. Each value is used once.
+    private volatile Map<String, Object> prefetchedValues;
 
     protected DBNDatabaseNode(DBNNode parentNode) {
         super(parentNode);
@@ -397,6 +399,29 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
             // disposed?
             return;
         }
+        boolean prefetched = false;
+        if (childMetas.size() > 1 && getPrefetchedValues(getValueObject()) == null) {
+            // Do not prefetch folder items again if they were prefetched by parent
+            prefetched = prefetchChildren(monitor, childMetas, oldList);
+        }
+        try {
+            loadChildMetas(monitor, childMetas, object, oldList, toList, source, reflect);
+        } finally {
+            if (prefetched) {
+                prefetchedValues = null;
+            }
+        }
+    }
+
+    private void loadChildMetas(
+        DBRProgressMonitor monitor,
+        List<DBXTreeNode> childMetas,
+        DBSObject object,
+        final DBNDatabaseNode[] oldList,
+        final List<DBNDatabaseNode> toList,
+        Object source,
+        boolean reflect)
+        throws DBException {
         monitor.beginTask(ModelMessages.model_navigator_load_items_, childMetas.size());
 
         for (DBXTreeNode child : childMetas) {
@@ -452,6 +477,68 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
         }
     }
 
+    /**
+     * Reads children of independent child metas in parallel.
+     * Items are read anyway. Folder items are read only on refresh and only if folder children were loaded before,
+     * so first expansion doesn't read contents of folders which user didn't open.
+     * Items with visibility expressions are skipped because they can't be evaluated before folder node creation.
+     * Note: schema-like nodes contain only folders, so their first expansion doesn't prefetch anything.
+     * @return true if values were prefetched
+     */
+    private boolean prefetchChildren(DBRProgressMonitor monitor, List<DBXTreeNode> childMetas, DBNDatabaseNode[] oldList) {
+        final Object valueObject = getValueObject();
+        if (valueObject == null) {
+            return false;
+        }
+        Set<String> properties = new LinkedHashSet<>();
+        for (DBXTreeNode child : childMetas) {
+            if (child instanceof DBXTreeItem) {
+                properties.add(((DBXTreeItem) child).getPropertyName());
+            } else if (child instanceof DBXTreeFolder && isFolderLoaded(child, oldList)) {
+                for (DBXTreeNode folderChild : child.getChildren(null)) {
+                    if (folderChild instanceof DBXTreeItem && folderChild.getVisibleIf() == null) {
+                        properties.add(((DBXTreeItem) folderChild).getPropertyName());
+                    }
+                }
+            }
+        }
+        Map<String, Object> values = DBNChildrenPrefetcher.prefetch(monitor, this, valueObject, properties);
+        if (values.isEmpty()) {
+            return false;
+        }
+        prefetchedValues = values;
+        return true;
+    }
+
+    /**
+     * Returns prefetched values of this node or of its parent with the same value object (for folders).
+     */
+    @Nullable
+    private Map<String, Object> getPrefetchedValues(Object valueObject) {
+        for (DBNNode node = this; node instanceof DBNDatabaseNode; node = node.getParentNode()) {
+            DBNDatabaseNode databaseNode = (DBNDatabaseNode) node;
+            if (valueObject == null || databaseNode.getValueObject() != valueObject) {
+                break;
+            }
+            Map<String, Object> values = databaseNode.prefetchedValues;
+            if (values != null) {
+                return values;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isFolderLoaded(DBXTreeNode folderMeta, DBNDatabaseNode[] oldList) {
+        if (oldList == null) {
+            return false;
+        }
+        for (DBNDatabaseNode oldFolder : oldList) {
+            if (oldFolder.getMeta() == folderMeta) {
+                return oldFolder.childNodes != null;
+            }
+        }
+        return false;
+    }
 
     /**
      * Extract items using reflect api
@@ -481,9 +568,13 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
             return false;
         }
         final String propertyName = meta.getPropertyName();
-        final PropertyValueReader valueReader = new PropertyValueReader(monitor, propertyName, valueObject);
-        DBExecUtils.tryExecuteRecover(monitor, getDataSource(), valueReader);
-        final Object propertyValue = valueReader.propertyValue;
+        final Map<String, Object> prefetched = getPrefetchedValues(valueObject);
+        Object propertyValue = prefetched == null ? null : prefetched.remove(propertyName);
+        if (propertyValue == null) {
+            final PropertyValueReader valueReader = new PropertyValueReader(monitor, propertyName, valueObject);
+            DBExecUtils.tryExecuteRecover(monitor, getDataSource(), valueReader);
+            propertyValue = valueReader.propertyValue;
+        }
         if (propertyValue == null) {
             return false;
         }
@@ -796,7 +887,7 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
     ////////////////////////////////////////////////////////////////////////////////////
     // Reflection utils
 
-    private static Object extractPropertyValue(DBRProgressMonitor monitor, Object object, String propertyName)
+    static Object extractPropertyValue(DBRProgressMonitor monitor, Object object, String propertyName)
         throws DBException {
         // Read property using reflection
         if (object == null) {
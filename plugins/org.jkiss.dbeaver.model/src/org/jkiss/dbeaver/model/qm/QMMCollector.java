@@ -18,6 +18,9 @@ package org.jkiss.dbeaver.model.qm;
 
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.qm.meta.QMMSessionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementStatistics;
+
+import java.util.List;
 
 /**
  * Query manager execution handler implementation
@@ -25,4 +28,11 @@ import org.jkiss.dbeaver.model.qm.meta.QMMSessionInfo;
 public interface QMMCollector extends QMExecutionHandler {
 
     QMMSessionInfo getSessionInfo(DBCExecutionContext context);
+
+    /**
+     * Returns statistics of executed statements grouped by datasource and query fingerprint
+     */
+    List<QMMStatementStatistics> getStatementStatistics();
+
+    void resetStatementStatistics();
 }
@@ -0,0 +1,120 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm.meta;
+
+import java.util.Arrays;
+
+/**
+ * Latency histogram with fixed memory footprint.
+ *
+ * Values (milliseconds) are counted in log-linear buckets: values below 16 have their own buckets,
+ * each following power of two range is split into 8 buckets. Thus percentile error is below 12.5%.
+ * Values larger than 2^32 ms are counted in the last bucket.
+ */
+public class QMMLatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT * 2;
+    private static final int MAX_EXPONENT = 32;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (MAX_EXPONENT - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long maxValue;
+
+    public synchronized void addValue(long value)
+    {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[getBucketIndex(value)]++;
+        totalCount++;
+        if (value > maxValue) {
+            maxValue = value;
+        }
+    }
+
+    public synchronized long getTotalCount()
+    {
+        return totalCount;
+    }
+
+    public synchronized long getMaxValue()
+    {
+        return maxValue;
+    }
+
+    /**
+     * Returns value at the given percentile (0..100).
+     * Result is the middle of the bucket which contains the percentile, but not larger than max value.
+     */
+    public synchronized long getPercentile(double percentile)
+    {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(totalCount * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+        if (threshold >= totalCount) {
+            return maxValue;
+        }
+        if (threshold < 1) {
+            threshold = 1;
+        }
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += counts[i];
+            if (count >= threshold) {
+                long lowValue = getBucketLowValue(i);
+                long highValue = i == BUCKET_COUNT - 1 ? maxValue : getBucketLowValue(i + 1) - 1;
+                return Math.min(maxValue, lowValue + (highValue - lowValue) / 2);
+            }
+        }
+        return maxValue;
+    }
+
+    public synchronized void reset()
+    {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        maxValue = 0;
+    }
+
+    static int getBucketIndex(long value)
+    {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long getBucketLowValue(int index)
+    {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS + 1;
+        int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKET_COUNT;
+        return (1L << exponent) + ((long) subBucket << (exponent - SUB_BUCKET_BITS));
+    }
+
+}
@@ -0,0 +1,310 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm.meta;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.Pair;
+
+import java.util.Locale;
+
+/**
+ * Query fingerprint.
+ *
+ * Normalized query text which is the same for all executions of the same statement with different literals.
+ * String (including PostgreSQL dollar-quoted) and numeric literals and parameters are replaced with '?',
+ * comments are removed, whitespaces are collapsed
+ * and unquoted identifiers/keywords are converted to upper case. Lists of literals (e.g. IN (1,2,3)) are
+ * collapsed into a single '?'.
+ */
+public class QMMQueryFingerprint {
+
+    public static final char PARAMETER_MARK = '?';
+
+    private static final String ROW_GROUP = "(" + PARAMETER_MARK + ")";
+    private static final String[][] DEFAULT_QUOTE_STRINGS = {{"\"", "\""}};
+    private static final Pair<String, String> DEFAULT_ML_COMMENTS = new Pair<>("/*", "*/");
+    private static final String[] DEFAULT_SL_COMMENTS = {"--"};
+
+    // Very long queries (e.g. generated inserts) are fingerprinted by their head
+    private static final int MAX_QUERY_LENGTH = 16 * 1024;
+
+    @NotNull
+    public static String getFingerprint(@Nullable SQLDialect dialect, @NotNull String query)
+    {
+        String[][] quoteStrings = dialect == null ? DEFAULT_QUOTE_STRINGS : dialect.getIdentifierQuoteStrings();
+        Pair<String, String> mlComments = dialect == null ? DEFAULT_ML_COMMENTS : dialect.getMultiLineComments();
+        String[] slComments = dialect == null ? DEFAULT_SL_COMMENTS : dialect.getSingleLineComments();
+        char escapeChar = dialect == null ? 0 : dialect.getStringEscapeCharacter();
+
+        int length = Math.min(query.length(), MAX_QUERY_LENGTH);
+        StringBuilder result = new StringBuilder(length);
+        int pos = 0;
+        while (pos < length) {
+            char c = query.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+                continue;
+            }
+            // Comments
+            if (mlComments != null && query.startsWith(mlComments.getFirst(), pos)) {
+                int end = query.indexOf(mlComments.getSecond(), pos + mlComments.getFirst().length());
+                pos = end < 0 ? length : end + mlComments.getSecond().length();
+                continue;
+            }
+            if (startsWithAny(query, pos, slComments)) {
+                while (pos < length && query.charAt(pos) != '\n' && query.charAt(pos) != '\r') {
+                    pos++;
+                }
+                continue;
+            }
+            // Quoted identifiers are kept as is
+            String[] quote = getQuote(query, pos, quoteStrings);
+            if (quote != null && !quote[0].equals("'")) {
+                int end = query.indexOf(quote[1], pos + quote[0].length());
+                end = end < 0 ? length : Math.min(length, end + quote[1].length());
+                appendToken(result, query.substring(pos, end));
+                pos = end;
+                continue;
+            }
+            if (c == '\'') {
+                pos = skipString(query, pos, length, escapeChar);
+                appendParameter(result);
+                continue;
+            }
+            if (Character.isDigit(c) || (c == '.' && pos + 1 < length && Character.isDigit(query.charAt(pos + 1)))) {
+                pos = skipNumber(query, pos, length);
+                appendParameter(result);
+                continue;
+            }
+            if (c == '$') {
+                int end = skipDollarQuotedString(query, pos, length);
+                if (end > 0) {
+                    pos = end;
+                    appendParameter(result);
+                    continue;
+                }
+            }
+            if ((c == ':' || c == '$') && pos + 1 < length && Character.isLetterOrDigit(query.charAt(pos + 1)) &&
+                (pos == 0 || query.charAt(pos - 1) != ':'))
+            {
+                // Named or positional parameter
+                pos++;
+                while (pos < length && isWordChar(query.charAt(pos))) {
+                    pos++;
+                }
+                appendParameter(result);
+                continue;
+            }
+            if (c == PARAMETER_MARK) {
+                pos++;
+                appendParameter(result);
+                continue;
+            }
+            if (isWordChar(c)) {
+                int start = pos;
+                while (pos < length && isWordChar(query.charAt(pos))) {
+                    pos++;
+                }
+                appendToken(result, query.substring(start, pos).toUpperCase(Locale.ENGLISH));
+                continue;
+            }
+            // Delimiters
+            pos++;
+            if (c == ';' && isEmptyTail(query, pos, length)) {
+                // Trailing delimiter
+                break;
+            }
+            if (c == ':' && pos < length && query.charAt(pos) == ':') {
+                // Cast operator
+                pos++;
+                appendToken(result, "::");
+                continue;
+            }
+            if (c == ')') {
+                collapseList(result);
+                appendToken(result, ")");
+                collapseRows(result);
+                continue;
+            }
+            appendToken(result, String.valueOf(c));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Tokens are separated with a single space except after '(' or '.' and before ')', ',', ';' or '.'
+     */
+    private static void appendToken(StringBuilder result, String token)
+    {
+        int length = result.length();
+        if (length > 0) {
+            char last = result.charAt(length - 1);
+            boolean noSpace = last == '(' || last == '.' ||
+                (token.length() == 1 && ").,;".indexOf(token.charAt(0)) != -1);
+            if (!noSpace) {
+                result.append(' ');
+            }
+        }
+        result.append(token);
+    }
+
+    private static void appendParameter(StringBuilder result)
+    {
+        appendToken(result, String.valueOf(PARAMETER_MARK));
+    }
+
+    private static boolean isEmptyTail(String query, int pos, int length)
+    {
+        for (; pos < length; pos++) {
+            if (!Character.isWhitespace(query.charAt(pos))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces trailing "(?, ?, ?" with "(?" so queries with different IN list sizes get the same fingerprint
+     */
+    private static void collapseList(StringBuilder result)
+    {
+        int pos = result.length() - 1;
+        int count = 0;
+        while (pos >= 0 && result.charAt(pos) == PARAMETER_MARK) {
+            count++;
+            pos--;
+            if (pos >= 0 && result.charAt(pos) == '(') {
+                if (count > 1) {
+                    result.setLength(pos + 1);
+                    result.append(PARAMETER_MARK);
+                }
+                return;
+            }
+            if (pos >= 1 && result.charAt(pos) == ' ' && result.charAt(pos - 1) == ',') {
+                pos -= 2;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Replaces trailing "(?), (?)" with "(?)" so multi-row inserts with different number of rows get the same fingerprint
+     */
+    private static void collapseRows(StringBuilder result)
+    {
+        int length = result.length();
+        if (length >= ROW_GROUP.length() * 2 + 2 && result.lastIndexOf(ROW_GROUP + ", " + ROW_GROUP) == length - ROW_GROUP.length() * 2 - 2) {
+            result.setLength(length - ROW_GROUP.length() - 2);
+        }
+    }
+
+    private static int skipString(String query, int pos, int length, char escapeChar)
+    {
+        pos++;
+        while (pos < length) {
+            char c = query.charAt(pos);
+            if (escapeChar != 0 && c == escapeChar) {
+                pos += 2;
+                continue;
+            }
+            if (c == '\'') {
+                if (pos + 1 < length && query.charAt(pos + 1) == '\'') {
+                    // Doubled quote
+                    pos += 2;
+                    continue;
+                }
+                return pos + 1;
+            }
+            pos++;
+        }
+        return length;
+    }
+
+    /**
+     * Skips dollar-quoted string ($$text$$ or $tag$text$tag$).
+     * Returns position after the string or -1 if there is no dollar quote at the specified position.
+     */
+    private static int skipDollarQuotedString(String query, int pos, int length)
+    {
+        int tagEnd = pos + 1;
+        while (tagEnd < length) {
+            char c = query.charAt(tagEnd);
+            if (Character.isLetter(c) || c == '_' || (tagEnd > pos + 1 && Character.isDigit(c))) {
+                tagEnd++;
+            } else {
+                break;
+            }
+        }
+        if (tagEnd >= length || query.charAt(tagEnd) != '$') {
+            return -1;
+        }
+        String tag = query.substring(pos, tagEnd + 1);
+        int end = query.indexOf(tag, tagEnd + 1);
+        return end < 0 ? length : Math.min(length, end + tag.length());
+    }
+
+    private static int skipNumber(String query, int pos, int length)
+    {
+        while (pos < length) {
+            char c = query.charAt(pos);
+            if (Character.isLetterOrDigit(c) || c == '.') {
+                pos++;
+            } else if ((c == '+' || c == '-') && (query.charAt(pos - 1) == 'e' || query.charAt(pos - 1) == 'E')) {
+                // Exponent sign
+                pos++;
+            } else {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    private static boolean isWordChar(char c)
+    {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#' || c == '@';
+    }
+
+    private static boolean startsWithAny(String query, int pos, String[] prefixes)
+    {
+        if (!ArrayUtils.isEmpty(prefixes)) {
+            for (String prefix : prefixes) {
+                if (query.startsWith(prefix, pos)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static String[] getQuote(String query, int pos, String[][] quoteStrings)
+    {
+        if (quoteStrings != null) {
+            for (String[] quote : quoteStrings) {
+                if (query.startsWith(quote[0], pos)) {
+                    return quote;
+                }
+            }
+        }
+        return null;
+    }
+
+}
@@ -29,6 +29,7 @@ public class QMMStatementExecuteInfo extends QMMObject {
     private QMMStatementInfo statement;
     private QMMTransactionSavepointInfo savepoint;
     private String queryString;
+    private String queryFingerprint;
 
     private long fetchRowCount;
     private long updateRowCount;
@@ -113,6 +114,17 @@ public class QMMStatementExecuteInfo extends QMMObject {
         return queryString;
     }
 
+    /**
+     * Normalized query text (see {@link QMMQueryFingerprint}). Evaluated on demand.
+     */
+    public String getQueryFingerprint()
+    {
+        if (queryFingerprint == null && queryString != null) {
+            queryFingerprint = QMMQueryFingerprint.getFingerprint(statement.getSession().getSQLDialect(), queryString);
+        }
+        return queryFingerprint;
+    }
+
     public long getFetchRowCount() {
         return fetchRowCount;
     }
@@ -0,0 +1,189 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm.meta;
+
+import org.jkiss.code.NotNull;
+
+/**
+ * Aggregated statistics of all executions of the same statement (query fingerprint) in the same datasource.
+ *
+ * Execute time is the time of statement execution (until the first result is available),
+ * fetch time is the time spent reading result sets. Latency histogram contains execute times.
+ */
+public class QMMStatementStatistics {
+
+    private static final int MAX_SAMPLE_LENGTH = 4000;
+
+    private final String containerId;
+    private final String containerName;
+    private final String fingerprint;
+    private String sampleQuery;
+
+    private long calls;
+    private long errors;
+    private long totalExecuteTime;
+    private long totalFetchTime;
+    private long minExecuteTime = Long.MAX_VALUE;
+    private long rowCount;
+    private long firstExecuteTime;
+    private long lastExecuteTime;
+    private final QMMLatencyHistogram histogram = new QMMLatencyHistogram();
+
+    public QMMStatementStatistics(@NotNull String containerId, @NotNull String containerName, @NotNull String fingerprint)
+    {
+        this.containerId = containerId;
+        this.containerName = containerName;
+        this.fingerprint = fingerprint;
+    }
+
+    @NotNull
+    public String getContainerId()
+    {
+        return containerId;
+    }
+
+    @NotNull
+    public String getContainerName()
+    {
+        return containerName;
+    }
+
+    @NotNull
+    public String getFingerprint()
+    {
+        return fingerprint;
+    }
+
+    /**
+     * Text of the last executed query with this fingerprint
+     */
+    public synchronized String getSampleQuery()
+    {
+        return sampleQuery;
+    }
+
+    public synchronized long getCalls()
+    {
+        return calls;
+    }
+
+    public synchronized long getErrors()
+    {
+        return errors;
+    }
+
+    public synchronized long getTotalExecuteTime()
+    {
+        return totalExecuteTime;
+    }
+
+    public synchronized long getTotalFetchTime()
+    {
+        return totalFetchTime;
+    }
+
+    /**
+     * Total execute and fetch time
+     */
+    public synchronized long getTotalTime()
+    {
+        return totalExecuteTime + totalFetchTime;
+    }
+
+    public synchronized long getMeanTime()
+    {
+        return calls == 0 ? 0 : getTotalTime() / calls;
+    }
+
+    public synchronized long getMinExecuteTime()
+    {
+        return calls == 0 ? 0 : minExecuteTime;
+    }
+
+    public long getMaxExecuteTime()
+    {
+        return histogram.getMaxValue();
+    }
+
+    /**
+     * Execute time percentile (0..100)
+     */
+    public long getExecuteTimePercentile(double percentile)
+    {
+        return histogram.getPercentile(percentile);
+    }
+
+    /**
+     * Total number of fetched and updated rows
+     */
+    public synchronized long getRowCount()
+    {
+        return rowCount;
+    }
+
+    public synchronized long getFirstExecuteTime()
+    {
+        return firstExecuteTime;
+    }
+
+    public synchronized long getLastExecuteTime()
+    {
+        return lastExecuteTime;
+    }
+
+    public synchronized void addExecution(@NotNull QMMStatementExecuteInfo exec)
+    {
+        long executeTime = Math.max(0, exec.getCloseTime() - exec.getOpenTime());
+        calls++;
+        if (exec.hasError()) {
+            errors++;
+        }
+        totalExecuteTime += executeTime;
+        if (executeTime < minExecuteTime) {
+            minExecuteTime = executeTime;
+        }
+        if (exec.getUpdateRowCount() > 0) {
+            rowCount += exec.getUpdateRowCount();
+        }
+        if (firstExecuteTime == 0) {
+            firstExecuteTime = exec.getOpenTime();
+        }
+        lastExecuteTime = exec.getOpenTime();
+        String queryString = exec.getQueryString();
+        if (queryString != null && queryString.length() > MAX_SAMPLE_LENGTH) {
+            queryString = queryString.substring(0, MAX_SAMPLE_LENGTH);
+        }
+        sampleQuery = queryString;
+        histogram.addValue(executeTime);
+    }
+
+    public synchronized void addFetch(@NotNull QMMStatementExecuteInfo exec)
+    {
+        if (exec.getFetchBeginTime() > 0 && exec.getFetchEndTime() >= exec.getFetchBeginTime()) {
+            totalFetchTime += exec.getFetchEndTime() - exec.getFetchBeginTime();
+        }
+        if (exec.getFetchRowCount() > 0) {
+            rowCount += exec.getFetchRowCount();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return containerName + ": " + fingerprint;
+    }
+}
@@ -26,6 +26,7 @@ import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.DBCStatistics;
 
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -47,6 +48,13 @@ public interface DBSDataManipulator extends DBSDataContainer {
 
         void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions) throws DBCException;
 
+        /**
+         * Rows (indexes in order of adding) which were successfully executed by the last execute call.
+         * If execution fails then rows executed before the error are reported as well.
+         */
+        @NotNull
+        BitSet getExecutedRows();
+
         void close();
     }
 
@@ -0,0 +1,119 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.virtual;
+
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlExpression;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Data expression compiled against result set attributes.
+ * Expression variables are bound to attribute bindings once, so evaluation doesn't scan attributes for each cell.
+ * Compiled expression is immutable and may be evaluated in several threads at once.
+ */
+public class DBVCompiledExpression {
+
+    // Minimal number of rows to evaluate in parallel
+    private static final int PARALLEL_ROWS_THRESHOLD = 1000;
+
+    @NotNull
+    private final JexlExpression expression;
+    @NotNull
+    private final DBDAttributeBinding[] allAttributes;
+    @NotNull
+    private final Map<String, Object> namespaces;
+    @NotNull
+    private final Map<String, DBDAttributeBinding> variables = new HashMap<>();
+
+    public DBVCompiledExpression(@NotNull JexlExpression expression, @Nullable String attributeName, @NotNull DBDAttributeBinding[] allAttributes) {
+        this.expression = expression;
+        this.allAttributes = allAttributes;
+        this.namespaces = DBVUtils.getExpressionNamespaces();
+        for (DBDAttributeBinding attr : allAttributes) {
+            String label = attr.getLabel();
+            // Attribute can't refer itself. The first attribute with the same label wins.
+            if (label != null && !label.equals(attributeName)) {
+                variables.putIfAbsent(label, attr);
+            }
+        }
+    }
+
+    @Nullable
+    public Object evaluate(@NotNull Object[] row) {
+        try {
+            return expression.evaluate(new RowContext(row));
+        } catch (Exception e) {
+            return GeneralUtils.getExpressionParseMessage(e);
+        }
+    }
+
+    /**
+     * Evaluates expression for all rows (column-wise).
+     * Big row lists are evaluated in parallel.
+     *
+     * @return expression values in the same order as rows
+     */
+    @NotNull
+    public Object[] evaluate(@NotNull List<Object[]> rows) {
+        Object[] result = new Object[rows.size()];
+        if (rows.size() < PARALLEL_ROWS_THRESHOLD) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = evaluate(rows.get(i));
+            }
+        } else {
+            IntStream.range(0, result.length).parallel().forEach(i -> result[i] = evaluate(rows.get(i)));
+        }
+        return result;
+    }
+
+    private class RowContext implements JexlContext {
+        private final Object[] row;
+
+        RowContext(Object[] row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(String name) {
+            Object ns = namespaces.get(name);
+            if (ns != null) {
+                return ns;
+            }
+            DBDAttributeBinding attr = variables.get(name);
+            return attr == null ? null : DBUtils.getAttributeValue(attr, allAttributes, row);
+        }
+
+        @Override
+        public void set(String name, Object value) {
+        }
+
+        @Override
+        public boolean has(String name) {
+            return get(name) != null;
+        }
+    }
+
+}
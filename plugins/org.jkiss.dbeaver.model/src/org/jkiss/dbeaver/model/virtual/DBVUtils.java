@@ -17,7 +17,6 @@
 package org.jkiss.dbeaver.model.virtual;
 
 import org.apache.commons.jexl3.JexlBuilder;
-import org.apache.commons.jexl3.JexlContext;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlExpression;
 import org.eclipse.core.runtime.IAdaptable;
@@ -40,7 +39,6 @@ import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.registry.expressions.ExpressionNamespaceDescriptor;
 import org.jkiss.dbeaver.registry.expressions.ExpressionRegistry;
-import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.*;
@@ -54,6 +52,8 @@ public abstract class DBVUtils {
 
     // Entities for unmapped attributes (custom queries, pseudo attributes, etc)
     private static final Map<String, DBVEntity> orphanVirtualEntities = new HashMap<>();
+    // Expression namespaces do not change after registry load
+    private static volatile Map<String, Object> expressionNamespaces;
 
     @Nullable
     public static DBVTransformSettings getTransformSettings(@NotNull DBDAttributeBinding binding, boolean create) {
@@ -387,53 +387,40 @@ public abstract class DBVUtils {
         return evaluateDataExpression(allAttributes, row, expression, attribute.getName());
     }
 
-    public static Object evaluateDataExpression(DBDAttributeBinding[] allAttributes, Object[] row, JexlExpression expression, String attributeName) {
-        Map<String, Object> nsList = getExpressionNamespaces();
-
-        JexlContext context = new JexlContext() {
-            @Override
-            public Object get(String s) {
-                Object ns = nsList.get(s);
-                if (ns != null) {
-                    return ns;
-                }
-                if (s.equals(attributeName)) {
-                    return null;
-                }
-                for (DBDAttributeBinding attr : allAttributes) {
-                    if (s.equals(attr.getLabel())) {
-                        return DBUtils.getAttributeValue(attr, allAttributes, row);
-                    }
-                }
-                return null;
-            }
-
-            @Override
-            public void set(String s, Object o) {
-
-            }
-
-            @Override
-            public boolean has(String s) {
-                return get(s) != null;
-            }
-        };
-        try {
-            return expression.evaluate(context);
-        } catch (Exception e) {
-            return GeneralUtils.getExpressionParseMessage(e);
+    /**
+     * Compiles virtual attribute expression. Compiled expression should be used to evaluate many rows.
+     *
+     * @return compiled expression or null if attribute has no expression
+     */
+    @Nullable
+    public static DBVCompiledExpression compileExpression(@NotNull DBVEntityAttribute attribute, @NotNull DBDAttributeBinding[] allAttributes) {
+        if (CommonUtils.isEmpty(attribute.getExpression())) {
+            return null;
+        }
+        JexlExpression expression = attribute.getParsedExpression();
+        if (expression == null) {
+            return null;
         }
+        return new DBVCompiledExpression(expression, attribute.getName(), allAttributes);
     }
 
-    @NotNull
-    private static Map<String, Object> getExpressionNamespaces() {
-        Map<String, Object> nsList = new HashMap<>();
+    public static Object evaluateDataExpression(DBDAttributeBinding[] allAttributes, Object[] row, JexlExpression expression, String attributeName) {
+        return new DBVCompiledExpression(expression, attributeName, allAttributes).evaluate(row);
+    }
 
-        for (ExpressionNamespaceDescriptor ns : ExpressionRegistry.getInstance().getExpressionNamespaces()) {
-            Class<?> implClass = ns.getImplClass();
-            if (implClass != null) {
-                nsList.put(ns.getId(), implClass);
+    @NotNull
+    static Map<String, Object> getExpressionNamespaces() {
+        Map<String, Object> nsList = expressionNamespaces;
+        if (nsList == null) {
+            nsList = new HashMap<>();
+            for (ExpressionNamespaceDescriptor ns : ExpressionRegistry.getInstance().getExpressionNamespaces()) {
+                Class<?> implClass = ns.getImplClass();
+                if (implClass != null) {
+                    nsList.put(ns.getId(), implClass);
+                }
             }
+            nsList = Collections.unmodifiableMap(nsList);
+            expressionNamespaces = nsList;
         }
         return nsList;
     }
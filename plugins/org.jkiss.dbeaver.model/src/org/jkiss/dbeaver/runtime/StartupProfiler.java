@@ -0,0 +1,142 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Startup profiler.
+ *
+ * Collects timings of application startup phases (phases may run in different threads).
+ * When startup is finished the report is written in the workspace metadata folder.
+ * Phases which finish after the report was written are ignored.
+ */
+public class StartupProfiler {
+
+    private static final Log log = Log.getLog(StartupProfiler.class);
+
+    public static final String REPORT_FILE_NAME = "dbeaver-startup.log"; //$NON-NLS-1$
+
+    private static final long startTime = getStartTime();
+    private static final List<Phase> phases = new ArrayList<>();
+    private static final ThreadLocal<Integer> phaseDepth = ThreadLocal.withInitial(() -> 0);
+    private static volatile boolean finished = false;
+
+    /**
+     * Startup phase. Phase ends when it is closed.
+     */
+    public static class Phase implements AutoCloseable {
+        private final String name;
+        private final String threadName;
+        private final int depth;
+        private final long start;
+        private long duration = -1;
+
+        private Phase(String name) {
+            this.name = name;
+            this.threadName = Thread.currentThread().getName();
+            this.depth = phaseDepth.get();
+            this.start = System.currentTimeMillis();
+            phaseDepth.set(depth + 1);
+        }
+
+        @Override
+        public void close() {
+            if (duration >= 0) {
+                return;
+            }
+            duration = System.currentTimeMillis() - start;
+            phaseDepth.set(depth);
+            synchronized (phases) {
+                if (!finished) {
+                    phases.add(this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts new startup phase. Use it in try-with-resources block.
+     */
+    @NotNull
+    public static Phase startPhase(@NotNull String name) {
+        return new Phase(name);
+    }
+
+    public static boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Finishes startup profiling and writes report file.
+     */
+    public static void finish() {
+        List<Phase> report;
+        synchronized (phases) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            report = new ArrayList<>(phases);
+            phases.clear();
+        }
+        long totalTime = System.currentTimeMillis() - startTime;
+        log.debug("Startup finished (" + totalTime + "ms)");
+
+        report.sort((o1, o2) -> o1.start != o2.start ? Long.compare(o1.start, o2.start) : Integer.compare(o1.depth, o2.depth));
+        File reportFile = new File(GeneralUtils.getMetadataFolder(), REPORT_FILE_NAME);
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(reportFile), StandardCharsets.UTF_8))) {
+            out.println(GeneralUtils.getProductTitle() + " startup report (" + new Date() + ")");
+            out.println("Total startup time: " + totalTime + "ms");
+            out.println();
+            out.println(String.format("%8s %8s  %-30s %s", "Start", "Time", "Thread", "Phase"));
+            for (Phase phase : report) {
+                StringBuilder name = new StringBuilder();
+                for (int i = 0; i < phase.depth; i++) {
+                    name.append("  ");
+                }
+                name.append(phase.name);
+                out.println(String.format("%8d %8d  %-30s %s", phase.start - startTime, phase.duration, phase.threadName, name));
+            }
+        } catch (IOException e) {
+            log.debug("Error writing startup report", e);
+        }
+    }
+
+    private static long getStartTime() {
+        try {
+            // Count from JVM start
+            return ManagementFactory.getRuntimeMXBean().getStartTime();
+        } catch (Throwable e) {
+            return System.currentTimeMillis();
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.jobs;
+
+/**
+ * Connection health statistics of a datasource container.
+ * Collected by keep-alive monitor. Each container owns its stats so they live exactly as long as the container.
+ */
+public class DataSourceHealthStats {
+
+    private long pingCount;
+    private long failedPingCount;
+    private int consecutiveFailures;
+    private long reconnectCount;
+    private long lastPingTime;
+    private long lastPingLatency;
+    private long maxPingLatency;
+    private long totalPingLatency;
+
+    // Scheduler state. Guarded by keep-alive monitor.
+    // Backoff deadline is kept when connection is closed, so reconnect loops do not reset it.
+    long nextCheckTime;
+    long connectTime;
+    boolean pingActive;
+
+    public DataSourceHealthStats() {
+    }
+
+    public synchronized long getPingCount() {
+        return pingCount;
+    }
+
+    public synchronized long getFailedPingCount() {
+        return failedPingCount;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public synchronized long getReconnectCount() {
+        return reconnectCount;
+    }
+
+    /**
+     * Time of the last ping (ms since epoch) or 0 if connection wasn't pinged yet
+     */
+    public synchronized long getLastPingTime() {
+        return lastPingTime;
+    }
+
+    public synchronized long getLastPingLatency() {
+        return lastPingLatency;
+    }
+
+    public synchronized long getMaxPingLatency() {
+        return maxPingLatency;
+    }
+
+    public synchronized long getAveragePingLatency() {
+        return pingCount == 0 ? 0 : totalPingLatency / pingCount;
+    }
+
+    synchronized void addPing(long latency, boolean success) {
+        pingCount++;
+        lastPingTime = System.currentTimeMillis();
+        lastPingLatency = latency;
+        totalPingLatency += latency;
+        if (latency > maxPingLatency) {
+            maxPingLatency = latency;
+        }
+        if (success) {
+            consecutiveFailures = 0;
+        } else {
+            failedPingCount++;
+            consecutiveFailures++;
+        }
+    }
+
+    synchronized void addReconnect() {
+        reconnectCount++;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "pings=" + pingCount +
+            ", failed=" + failedPingCount +
+            ", reconnects=" + reconnectCount +
+            ", latency avg=" + getAveragePingLatency() + "ms max=" + maxPingLatency + "ms";
+    }
+}
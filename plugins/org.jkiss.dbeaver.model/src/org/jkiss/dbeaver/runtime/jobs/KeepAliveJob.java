@@ -18,22 +18,27 @@ package org.jkiss.dbeaver.runtime.jobs;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.IJobChangeEvent;
-import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
 import org.jkiss.dbeaver.model.app.DBPPlatform;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.app.DBPWorkspace;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 
 import java.util.*;
 
 /**
- * KeepAliveJob
+ * KeepAliveJob.
+ * Single scheduler of connection pings for all datasources.
+ * Each connection has its own check deadline with random jitter, so pings of many connections
+ * with the same keep-alive interval do not come at once. Due connections are queued and pinged by
+ * a limited number of worker jobs, so a hanging connection doesn't delay pings of others.
+ * Failed connections are re-checked with exponential backoff.
  */
 public class KeepAliveJob extends AbstractJob
 {
@@ -41,9 +46,14 @@ public class KeepAliveJob extends AbstractJob
 
     private static final Log log = Log.getLog(KeepAliveJob.class);
 
+    // Jitter is up to 10% of keep-alive interval
+    private static final int JITTER_PERCENT = 10;
+
     private final DBPPlatform platform;
-    private Map<String, Long> checkCache = new HashMap<>();
-    private final Set<String> pingCache = new HashSet<>();
+    private final Random random = new Random();
+    // Connections waiting for ping. Guarded by this job.
+    private final Deque<DBPDataSourceContainer> pingQueue = new ArrayDeque<>();
+    private int activeWorkers;
 
     public KeepAliveJob(DBPPlatform platform)
     {
@@ -59,78 +69,134 @@ public class KeepAliveJob extends AbstractJob
         if (platform.isShuttingDown()) {
             return Status.OK_STATUS;
         }
+        final DBPPreferenceStore prefs = ModelPreferences.getPreferences();
+        final int maxActivePings = Math.max(1, prefs.getInt(ModelPreferences.CONNECTION_KEEP_ALIVE_MAX_CONCURRENT));
+        final long curTime = System.currentTimeMillis();
+
+        // Collect connections which must be checked now
+        final List<DBPDataSourceContainer> dueChecks = new ArrayList<>();
         final DBPWorkspace workspace = platform.getWorkspace();
         for (DBPProject project : workspace.getProjects()) {
             if (project.isOpen()) {
                 DBPDataSourceRegistry dataSourceRegistry = project.getDataSourceRegistry();
                 if (dataSourceRegistry != null) {
                     for (DBPDataSourceContainer ds : dataSourceRegistry.getDataSources()) {
-                        checkDataSourceAlive(ds);
+                        if (checkDataSourceDeadline(ds, curTime)) {
+                            dueChecks.add(ds);
+                        }
                     }
                 }
             }
         }
+
+        if (!dueChecks.isEmpty()) {
+            synchronized (this) {
+                // Most overdue connections first
+                dueChecks.sort(Comparator.comparingLong(o -> o.getHealthStats().nextCheckTime));
+                for (DBPDataSourceContainer container : dueChecks) {
+                    container.getHealthStats().pingActive = true;
+                    pingQueue.add(container);
+                }
+                while (activeWorkers < maxActivePings && activeWorkers < pingQueue.size()) {
+                    activeWorkers++;
+                    new PingWorker().schedule();
+                }
+            }
+        }
+
         if (!platform.isShuttingDown()) {
             scheduleMonitor();
         }
         return Status.OK_STATUS;
     }
 
-    private void checkDataSourceAlive(final DBPDataSourceContainer dataSourceDescriptor) {
-        if (!dataSourceDescriptor.isConnected()) {
-            return;
-        }
+    /**
+     * Returns true if datasource check deadline has come
+     */
+    private boolean checkDataSourceDeadline(DBPDataSourceContainer dataSourceDescriptor, long curTime) {
         final int keepAliveInterval = dataSourceDescriptor.getConnectionConfiguration().getKeepAliveInterval();
-        if (keepAliveInterval <= 0) {
-            return;
+        if (!dataSourceDescriptor.isConnected() || keepAliveInterval <= 0) {
+            return false;
         }
-        final String dsId = dataSourceDescriptor.getId();
+        final DataSourceHealthStats stats = dataSourceDescriptor.getHealthStats();
         synchronized (this) {
-            if (pingCache.contains(dsId)) {
-                // Ping is still in progress. Hanged?
+            if (stats.pingActive) {
+                // Ping is queued or still in progress. Hanged?
                 // Anyway - just skip it
-                return;
+                return false;
             }
-        }
-        final DBPDataSource dataSource = dataSourceDescriptor.getDataSource();
-        if (dataSource == null) {
-            return;
-        }
-        Long lastCheckTime;
-        synchronized (this) {
-            lastCheckTime = checkCache.get(dsId);
-        }
-        if (lastCheckTime == null) {
             final Date connectTime = dataSourceDescriptor.getConnectTime();
-            if (connectTime != null) {
-                lastCheckTime = connectTime.getTime();
+            if (connectTime == null) {
+                log.debug("Can't determine last check time for " + dataSourceDescriptor.getId());
+                return false;
             }
+            if (stats.connectTime != connectTime.getTime()) {
+                // New connection. Keep backoff deadline if it is later than the regular one.
+                stats.connectTime = connectTime.getTime();
+                stats.nextCheckTime = Math.max(stats.nextCheckTime, connectTime.getTime() + makeDelay(keepAliveInterval * 1000L));
+            }
+            return curTime >= stats.nextCheckTime;
         }
-        if (lastCheckTime == null) {
-            log.debug("Can't determine last check time for " + dsId);
-            return;
-        }
-        long curTime = System.currentTimeMillis();
-        if ((curTime - lastCheckTime) / 1000 > keepAliveInterval) {
-            final PingJob pingJob = new PingJob(dataSource);
-            pingJob.addJobChangeListener(new JobChangeAdapter() {
-                @Override
-                public void done(IJobChangeEvent event) {
-                    synchronized (KeepAliveJob.this) {
-                        checkCache.put(dsId, System.currentTimeMillis());
-                        pingCache.remove(dsId);
-                    }
-                }
-            });
+    }
+
+    private void pingDataSource(DBRProgressMonitor monitor, DBPDataSourceContainer container, long maxBackoff) {
+        final DataSourceHealthStats stats = container.getHealthStats();
+        long interval = container.getConnectionConfiguration().getKeepAliveInterval() * 1000L;
+        try {
+            final DBPDataSource dataSource = container.getDataSource();
+            if (dataSource != null && !new PingJob(dataSource, stats).pingContexts(monitor)) {
+                // Exponential backoff
+                int failures = Math.min(stats.getConsecutiveFailures(), 16);
+                interval = Math.min(interval << failures, Math.max(interval, maxBackoff));
+            }
+        } catch (Throwable e) {
+            log.debug("Error pinging " + container.getName(), e);
+        } finally {
             synchronized (this) {
-                pingCache.add(dsId);
+                stats.nextCheckTime = System.currentTimeMillis() + makeDelay(interval);
+                stats.pingActive = false;
             }
-            pingJob.schedule();
         }
     }
 
+    private synchronized long makeDelay(long interval) {
+        long maxJitter = interval * JITTER_PERCENT / 100;
+        if (maxJitter <= 0) {
+            return interval;
+        }
+        return interval - maxJitter + (long) (random.nextDouble() * maxJitter * 2);
+    }
+
     public void scheduleMonitor() {
         schedule(MONITOR_INTERVAL);
     }
 
-}
\ No newline at end of file
+    /**
+     * Pings queued connections one by one until queue is empty
+     */
+    private class PingWorker extends AbstractJob {
+
+        PingWorker() {
+            super("Connection ping");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            final long maxBackoff = ModelPreferences.getPreferences().getInt(ModelPreferences.CONNECTION_KEEP_ALIVE_MAX_BACKOFF) * 1000L;
+            for (;;) {
+                DBPDataSourceContainer container;
+                synchronized (KeepAliveJob.this) {
+                    container = pingQueue.poll();
+                    if (container == null || platform.isShuttingDown()) {
+                        activeWorkers--;
+                        return Status.OK_STATUS;
+                    }
+                }
+                pingDataSource(monitor, container, maxBackoff);
+            }
+        }
+    }
+
+}
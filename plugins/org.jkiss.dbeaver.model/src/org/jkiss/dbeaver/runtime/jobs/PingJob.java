@@ -37,34 +37,87 @@ public class PingJob extends AbstractJob
     private static final Log log = Log.getLog(PingJob.class);
 
     private final DBPDataSource dataSource;
+    private final DataSourceHealthStats healthStats;
+    private volatile boolean failed;
 
     public PingJob(DBPDataSource dataSource)
+    {
+        this(dataSource, null);
+    }
+
+    PingJob(DBPDataSource dataSource, DataSourceHealthStats healthStats)
     {
         super("Connection ping");
         setUser(false);
         setSystem(true);
         this.dataSource = dataSource;
+        this.healthStats = healthStats;
+    }
+
+    /**
+     * True if some context check failed during the last run and connection wasn't restored by reconnect
+     */
+    public boolean isFailed() {
+        return failed;
     }
 
     @Override
     protected IStatus run(DBRProgressMonitor monitor)
+    {
+        pingContexts(monitor);
+        return Status.OK_STATUS;
+    }
+
+    /**
+     * Checks all contexts and reconnects broken ones. Returns false if check failed.
+     * Latency includes only context checks, reconnect time is not counted.
+     */
+    boolean pingContexts(DBRProgressMonitor monitor)
     {
         //log.debug("Ping connection " + dataSource.getContainer().getId());
+        failed = false;
+        long pingTime = 0;
         for (final DBSInstance instance : dataSource.getAvailableInstances()) {
             for (final DBCExecutionContext context : instance.getAllContexts()) {
+                long checkStart = System.currentTimeMillis();
                 try {
                     context.checkContextAlive(monitor);
+                    pingTime += System.currentTimeMillis() - checkStart;
                 } catch (Exception e) {
+                    pingTime += System.currentTimeMillis() - checkStart;
                     log.debug("Context [" + dataSource.getName() + "::" + context.getContextName() + "] check failed: " + e.getMessage());
-                    if (e instanceof DBException) {
-                        final List<InvalidateJob.ContextInvalidateResult> results = InvalidateJob.invalidateDataSource(monitor, dataSource, false,
-                            () -> DBWorkbench.getPlatformUI().openConnectionEditor(dataSource.getContainer()));
-                        log.debug("Connection invalidated: " + results);
+                    if (!(e instanceof DBException) || !reconnect(monitor)) {
+                        failed = true;
                     }
                 }
             }
         }
-        return Status.OK_STATUS;
+        if (healthStats != null) {
+            healthStats.addPing(pingTime, !failed);
+        }
+        return !failed;
+    }
+
+    /**
+     * Invalidates datasource. Returns true if all contexts were successfully reconnected.
+     */
+    private boolean reconnect(DBRProgressMonitor monitor) {
+        final List<InvalidateJob.ContextInvalidateResult> results = InvalidateJob.invalidateDataSource(monitor, dataSource, false,
+            () -> DBWorkbench.getPlatformUI().openConnectionEditor(dataSource.getContainer()));
+        log.debug("Connection invalidated: " + results);
+        boolean reconnected = false;
+        for (InvalidateJob.ContextInvalidateResult result : results) {
+            if (result.result == DBCExecutionContext.InvalidateResult.ERROR || result.result == DBCExecutionContext.InvalidateResult.DISCONNECTED) {
+                return false;
+            }
+            if (result.result == DBCExecutionContext.InvalidateResult.RECONNECTED || result.result == DBCExecutionContext.InvalidateResult.CONNECTED) {
+                reconnected = true;
+            }
+        }
+        if (reconnected && healthStats != null) {
+            healthStats.addReconnect();
+        }
+        return !results.isEmpty();
     }
 
 
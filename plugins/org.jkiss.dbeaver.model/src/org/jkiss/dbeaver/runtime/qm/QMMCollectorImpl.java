@@ -30,11 +30,10 @@ import org.jkiss.dbeaver.model.qm.QMMetaListener;
 import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.LongKeyMap;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 /**
  * Query manager execution handler implementation
@@ -45,6 +44,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
     private static final long EVENT_DISPATCH_PERIOD = 250;
     private static final int MAX_HISTORY_EVENTS = 10000;
+    private static final int MAX_STATEMENT_STATISTICS = 5000;
 
     // Session map
     private LongKeyMap<QMMSessionInfo> sessionMap = new LongKeyMap<>();
@@ -60,6 +60,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     // History (may be purged when limit reached)
     private List<QMMetaEvent> pastEvents = new ArrayList<>();
     private boolean running = true;
+    // Statement statistics by datasource and query fingerprint. Least recently executed statements are evicted.
+    private final Map<String, QMMStatementStatistics> statementStatistics = new LinkedHashMap<String, QMMStatementStatistics>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, QMMStatementStatistics> eldest) {
+            return size() > MAX_STATEMENT_STATISTICS;
+        }
+    };
 
     public QMMCollectorImpl()
     {
@@ -273,6 +280,10 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         if (session != null) {
             QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
             if (exec != null) {
+                QMMStatementStatistics statistics = getStatementStatistics(session, exec, true);
+                if (statistics != null) {
+                    statistics.addExecution(exec);
+                }
                 fireMetaEvent(exec, QMMetaEvent.Action.END);
             }
         }
@@ -297,11 +308,48 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         if (session != null) {
             QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
             if (exec != null) {
+                QMMStatementStatistics statistics = getStatementStatistics(session, exec, false);
+                if (statistics != null) {
+                    statistics.addFetch(exec);
+                }
                 fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
             }
         }
     }
 
+    @Override
+    public List<QMMStatementStatistics> getStatementStatistics()
+    {
+        synchronized (statementStatistics) {
+            return new ArrayList<>(statementStatistics.values());
+        }
+    }
+
+    @Override
+    public void resetStatementStatistics()
+    {
+        synchronized (statementStatistics) {
+            statementStatistics.clear();
+        }
+    }
+
+    private QMMStatementStatistics getStatementStatistics(QMMSessionInfo session, QMMStatementExecuteInfo exec, boolean create)
+    {
+        String fingerprint = exec.getQueryFingerprint();
+        if (fingerprint == null || fingerprint.isEmpty() || session.getContainerId() == null) {
+            return null;
+        }
+        String key = session.getContainerId() + '\n' + fingerprint;
+        synchronized (statementStatistics) {
+            QMMStatementStatistics statistics = statementStatistics.get(key);
+            if (statistics == null && create) {
+                statistics = new QMMStatementStatistics(session.getContainerId(), CommonUtils.notEmpty(session.getContainerName()), fingerprint);
+                statementStatistics.put(key, statistics);
+            }
+            return statistics;
+        }
+    }
+
     private class EventDispatcher extends AbstractJob {
 
         protected EventDispatcher()
@@ -0,0 +1,98 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class JDBCFetchSizeControllerTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void shouldLimitMaxFetchSizeByRowWidth() {
+        //when
+        int maxFetchSize = JDBCFetchSizeController.getMaxFetchSize(1000, 16 * MB, 50000, 0);
+
+        //then
+        assertEquals(16777, maxFetchSize);
+    }
+
+    @Test
+    public void shouldLimitMaxFetchSizeByPreference() {
+        //when
+        int maxFetchSize = JDBCFetchSizeController.getMaxFetchSize(100, 16 * MB, 50000, 0);
+
+        //then
+        assertEquals(50000, maxFetchSize);
+    }
+
+    @Test
+    public void shouldNotGoBelowMinFetchSizeForWideRows() {
+        //when
+        int maxFetchSize = JDBCFetchSizeController.getMaxFetchSize(100 * MB, 16 * MB, 50000, 0);
+
+        //then
+        assertEquals(JDBCFetchSizeController.MIN_FETCH_SIZE, maxFetchSize);
+    }
+
+    @Test
+    public void shouldLimitMaxFetchSizeByMaxRows() {
+        //when
+        int maxFetchSize = JDBCFetchSizeController.getMaxFetchSize(100, 16 * MB, 50000, 200);
+        int minFetchSize = JDBCFetchSizeController.getMaxFetchSize(100, 16 * MB, 50000, 5);
+
+        //then
+        assertEquals(200, maxFetchSize);
+        assertEquals(JDBCFetchSizeController.MIN_FETCH_SIZE, minFetchSize);
+    }
+
+    @Test
+    public void shouldGrowFetchSizeWhenRoundTripDominates() {
+        //when
+        int nextFetchSize = JDBCFetchSizeController.getNextFetchSize(100, 1000, 60, 100);
+        int cappedFetchSize = JDBCFetchSizeController.getNextFetchSize(800, 1000, 60, 100);
+
+        //then
+        assertEquals(200, nextFetchSize);
+        assertEquals(1000, cappedFetchSize);
+    }
+
+    @Test
+    public void shouldShrinkFetchSizeWhenProcessingDominates() {
+        //when
+        int nextFetchSize = JDBCFetchSizeController.getNextFetchSize(100, 1000, 10, 100);
+        int minFetchSize = JDBCFetchSizeController.getNextFetchSize(JDBCFetchSizeController.MIN_FETCH_SIZE, 1000, 10, 100);
+
+        //then
+        assertEquals(50, nextFetchSize);
+        assertEquals(JDBCFetchSizeController.MIN_FETCH_SIZE, minFetchSize);
+    }
+
+    @Test
+    public void shouldKeepFetchSizeBetweenThresholds() {
+        //when
+        int nextFetchSize = JDBCFetchSizeController.getNextFetchSize(100, 1000, 30, 100);
+        int limitedFetchSize = JDBCFetchSizeController.getNextFetchSize(2000, 1000, 30, 100);
+
+        //then
+        assertEquals(100, nextFetchSize);
+        assertEquals(1000, limitedFetchSize);
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.plan;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExecutionPlanDiffTest {
+
+    private static final String PG_BITMAP_HEAP_SCAN =
+        "[{kind:'DEFAULT', type:'Bitmap Heap Scan', name:'orders', cost:120, rows:50, child:[" +
+        "  {kind:'DEFAULT', type:'BitmapAnd', name:'', child:[" +
+        "    {kind:'INDEX_SCAN', type:'Bitmap Index Scan', name:'orders_customer_idx', cost:5, rows:500}," +
+        "    {kind:'INDEX_SCAN', type:'Bitmap Index Scan', name:'orders_date_idx', cost:8, rows:900}]}]}]";
+    private static final String PG_SEQ_SCAN =
+        "[{kind:'DEFAULT', type:'Seq Scan', name:'orders', cost:2400, rows:50}]";
+    private static final String PG_NESTED_LOOP =
+        "[{kind:'JOIN', type:'Nested Loop', name:'', cost:300, rows:10, child:[" +
+        "  {kind:'DEFAULT', type:'Seq Scan', name:'customers', cost:20, rows:10}," +
+        "  {kind:'INDEX_SCAN', type:'Index Scan', name:'orders', cost:25, rows:1}]}]";
+    private static final String PG_HASH_JOIN =
+        "[{kind:'JOIN', type:'Hash Join', name:'', cost:2500, rows:10, child:[" +
+        "  {kind:'DEFAULT', type:'Seq Scan', name:'orders', cost:2400, rows:100000}," +
+        "  {kind:'HASH', type:'Hash', name:'', cost:20, rows:10, child:[" +
+        "    {kind:'DEFAULT', type:'Seq Scan', name:'customers', cost:20, rows:10}]}]}]";
+
+    private static final String ORACLE_INDEX_ROWID =
+        "[{kind:'DEFAULT', type:'SELECT STATEMENT', name:'', cost:4, rows:5, child:[" +
+        "  {kind:'DEFAULT', type:'TABLE ACCESS (BY INDEX ROWID)', name:'EMP', cost:4, rows:5, child:[" +
+        "    {kind:'INDEX_SCAN', type:'INDEX (RANGE SCAN)', name:'EMP_DEPT_IDX', cost:1, rows:5}]}]}]";
+    private static final String ORACLE_FULL_SCAN =
+        "[{kind:'DEFAULT', type:'SELECT STATEMENT', name:'', cost:35, rows:5, child:[" +
+        "  {kind:'DEFAULT', type:'TABLE ACCESS (FULL)', name:'EMP', cost:35, rows:5}]}]";
+
+    @Test
+    public void shouldReportBitmapHeapScanReplacedBySeqScan() {
+        //when
+        ExecutionPlanDiff diff = compare(PG_BITMAP_HEAP_SCAN, PG_SEQ_SCAN);
+
+        //then
+        assertEquals(
+            Arrays.asList("Plan cost increased from 120 to 2400", "Index access to orders replaced by full scan"),
+            getMessages(diff, ExecutionPlanDiff.Severity.REGRESSION));
+    }
+
+    @Test
+    public void shouldReportImprovementForReversedPlans() {
+        //when
+        ExecutionPlanDiff diff = compare(PG_SEQ_SCAN, PG_BITMAP_HEAP_SCAN);
+
+        //then
+        assertEquals(Collections.emptyList(), getMessages(diff, ExecutionPlanDiff.Severity.REGRESSION));
+        assertEquals(
+            Arrays.asList("Plan cost decreased from 2400 to 120", "Full scan of orders replaced by index access"),
+            getMessages(diff, ExecutionPlanDiff.Severity.IMPROVEMENT));
+    }
+
+    @Test
+    public void shouldReportOnlyTableWhichLostIndexAccess() {
+        //when
+        ExecutionPlanDiff diff = compare(PG_NESTED_LOOP, PG_HASH_JOIN);
+
+        //then
+        assertEquals(
+            Arrays.asList("Plan cost increased from 300 to 2500", "Index access to orders replaced by full scan"),
+            getMessages(diff, ExecutionPlanDiff.Severity.REGRESSION));
+    }
+
+    @Test
+    public void shouldReportOracleIndexAccessReplacedByFullScan() {
+        //when
+        ExecutionPlanDiff diff = compare(ORACLE_INDEX_ROWID, ORACLE_FULL_SCAN);
+
+        //then
+        assertEquals(
+            Arrays.asList(
+                "Plan cost increased from 4 to 35",
+                "Index access to EMP replaced by full scan",
+                "Cost of SELECT STATEMENT increased from 4 to 35"),
+            getMessages(diff, ExecutionPlanDiff.Severity.REGRESSION));
+    }
+
+    @Test
+    public void shouldNotReportSamePlan() {
+        //when
+        ExecutionPlanDiff diff = compare(PG_BITMAP_HEAP_SCAN, PG_BITMAP_HEAP_SCAN);
+
+        //then
+        assertEquals(Collections.emptyList(), diff.getChanges());
+    }
+
+    private static ExecutionPlanDiff compare(String oldNodes, String newNodes) {
+        return ExecutionPlanDiff.compare(makeSnapshot(oldNodes), makeSnapshot(newNodes));
+    }
+
+    private static ExecutionPlanSnapshot makeSnapshot(String nodes) {
+        JsonObject json = new Gson().fromJson("{date:0, sql:'select', nodes:" + nodes + "}", JsonObject.class);
+        return ExecutionPlanSnapshot.fromJson(json);
+    }
+
+    private static List<String> getMessages(ExecutionPlanDiff diff, ExecutionPlanDiff.Severity severity) {
+        List<String> messages = new ArrayList<>();
+        for (ExecutionPlanDiff.Change change : diff.getChanges()) {
+            if (change.getSeverity() == severity) {
+                messages.add(change.getMessage());
+            }
+        }
+        return messages;
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.navigator;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Parallel read of navigator children properties
+ */
+public class DBNChildrenPrefetcherTest {
+
+    private static final List<String> PROPERTIES = Arrays.asList("tables", "views", "procedures", "sequences", "triggers", "packages");
+
+    private final Map<String, AtomicInteger> readCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger openedContexts = new AtomicInteger();
+    private final AtomicInteger closedContexts = new AtomicInteger();
+    private final AtomicInteger finishedWorkers = new AtomicInteger();
+
+    @Test
+    public void shouldReadEachPropertyOnce() {
+        //given
+        DBNChildrenPrefetcher prefetcher = new DBNChildrenPrefetcher(new VoidProgressMonitor(), PROPERTIES, this::readProperty, this::openContext);
+
+        //when
+        Map<String, Object> values = prefetcher.run(3, finishedWorkers::incrementAndGet);
+
+        //then
+        assertEquals(PROPERTIES.size(), values.size());
+        for (String property : PROPERTIES) {
+            assertEquals(property + "-value", values.get(property));
+            assertEquals(1, readCounts.get(property).get());
+        }
+        assertEquals(3, finishedWorkers.get());
+        assertEquals(openedContexts.get(), closedContexts.get());
+    }
+
+    @Test
+    public void shouldSkipPropertiesWithErrors() {
+        //given
+        DBNChildrenPrefetcher prefetcher = new DBNChildrenPrefetcher(
+            new VoidProgressMonitor(),
+            PROPERTIES,
+            (monitor, propertyName) -> {
+                if (propertyName.equals("views")) {
+                    throw new DBException("Views read error");
+                }
+                return propertyName.equals("triggers") ? null : readProperty(monitor, propertyName);
+            },
+            this::openContext);
+
+        //when
+        Map<String, Object> values = prefetcher.run(2, finishedWorkers::incrementAndGet);
+
+        //then
+        assertEquals(PROPERTIES.size() - 2, values.size());
+        assertFalse(values.containsKey("views"));
+        assertFalse(values.containsKey("triggers"));
+        assertEquals(2, finishedWorkers.get());
+    }
+
+    @Test
+    public void shouldReadInCallingThreadIfContextCantBeOpened() {
+        //given
+        DBNChildrenPrefetcher prefetcher = new DBNChildrenPrefetcher(
+            new VoidProgressMonitor(),
+            PROPERTIES,
+            this::readProperty,
+            monitor -> {
+                throw new DBException("Too many connections");
+            });
+
+        //when
+        Map<String, Object> values = prefetcher.run(3, finishedWorkers::incrementAndGet);
+
+        //then
+        assertEquals(PROPERTIES.size(), values.size());
+        assertEquals(3, finishedWorkers.get());
+    }
+
+    @Test
+    public void shouldNotReadIfCanceled() {
+        //given
+        DBRProgressMonitor canceledMonitor = new VoidProgressMonitor() {
+            @Override
+            public boolean isCanceled() {
+                return true;
+            }
+        };
+        DBNChildrenPrefetcher prefetcher = new DBNChildrenPrefetcher(canceledMonitor, PROPERTIES, this::readProperty, this::openContext);
+
+        //when
+        Map<String, Object> values = prefetcher.run(3, finishedWorkers::incrementAndGet);
+
+        //then
+        assertTrue(values.isEmpty());
+        assertTrue(readCounts.isEmpty());
+        assertEquals(0, openedContexts.get());
+    }
+
+    private Object readProperty(DBRProgressMonitor monitor, String propertyName) {
+        readCounts.computeIfAbsent(propertyName, p -> new AtomicInteger()).incrementAndGet();
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            // ignore
+        }
+        return propertyName + "-value";
+    }
+
+    private DBNChildrenPrefetcher.WorkerContext openContext(DBRProgressMonitor monitor) {
+        openedContexts.incrementAndGet();
+        return closedContexts::incrementAndGet;
+    }
+
+}
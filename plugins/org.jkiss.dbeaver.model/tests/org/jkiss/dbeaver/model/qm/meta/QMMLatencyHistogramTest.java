@@ -0,0 +1,85 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm.meta;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QMMLatencyHistogramTest {
+
+    @Test
+    public void shouldPutValuesInsideBucketBounds() {
+        int lastIndex = 0;
+        for (long value = 0; value < 1L << 34; value = value < 100000 ? value + 1 : value + value / 1000) {
+            //when
+            int index = QMMLatencyHistogram.getBucketIndex(value);
+
+            //then
+            assertTrue("Bucket index must not decrease at " + value, index >= lastIndex);
+            lastIndex = index;
+            if (value < 1L << 32) {
+                assertTrue("Low bound of " + value, QMMLatencyHistogram.getBucketLowValue(index) <= value);
+                assertTrue("High bound of " + value, value < QMMLatencyHistogram.getBucketLowValue(index + 1));
+            }
+        }
+        assertEquals(QMMLatencyHistogram.getBucketIndex(1L << 32), QMMLatencyHistogram.getBucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldReturnPercentilesWithinBucketError() {
+        //given
+        QMMLatencyHistogram histogram = new QMMLatencyHistogram();
+        for (int value = 1; value <= 10000; value++) {
+            histogram.addValue(value);
+        }
+
+        //then
+        assertEquals(10000, histogram.getTotalCount());
+        assertEquals(10000, histogram.getMaxValue());
+        for (double percentile : new double[] {1, 10, 50, 90, 95, 99, 99.9}) {
+            long expected = (long) Math.ceil(percentile * 100);
+            long actual = histogram.getPercentile(percentile);
+            assertTrue("Percentile " + percentile + ": " + actual, Math.abs(actual - expected) <= expected / 8);
+        }
+        assertEquals(10000, histogram.getPercentile(100));
+        assertEquals(1, histogram.getPercentile(0));
+    }
+
+    @Test
+    public void shouldNotExceedMaxValue() {
+        //given
+        QMMLatencyHistogram histogram = new QMMLatencyHistogram();
+        histogram.addValue(-5);
+        histogram.addValue(1000);
+        histogram.addValue(1L << 40);
+
+        //then
+        assertEquals(0, histogram.getPercentile(10));
+        assertEquals(1L << 40, histogram.getPercentile(99));
+        assertTrue(histogram.getPercentile(50) <= 1000);
+
+        //when
+        histogram.reset();
+
+        //then
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm.meta;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class QMMQueryFingerprintTest {
+
+    @Test
+    public void shouldReplaceLiteralsWithParameters() {
+        //when
+        String fingerprint = QMMQueryFingerprint.getFingerprint(null,
+            "select name, 'x' from users where id = 10 and ratio > 1.5e-3 and code = 'it''s' and flag = :flag and n = $1");
+
+        //then
+        assertEquals("SELECT NAME, ? FROM USERS WHERE ID = ? AND RATIO > ? AND CODE = ? AND FLAG = ? AND N = ?", fingerprint);
+    }
+
+    @Test
+    public void shouldIgnoreCommentsWhitespacesAndTrailingDelimiter() {
+        //when
+        String fingerprint = QMMQueryFingerprint.getFingerprint(null,
+            "/* report */ SELECT *\n  FROM   t -- filter\n WHERE a=1;  ");
+
+        //then
+        assertEquals("SELECT * FROM T WHERE A = ?", fingerprint);
+    }
+
+    @Test
+    public void shouldKeepQuotedIdentifiersAndCasts() {
+        //when
+        String fingerprint = QMMQueryFingerprint.getFingerprint(null, "select \"Mixed Case\".id::text from \"Mixed Case\"");
+
+        //then
+        assertEquals("SELECT \"Mixed Case\".ID :: TEXT FROM \"Mixed Case\"", fingerprint);
+    }
+
+    @Test
+    public void shouldCollapseInListsAndRows() {
+        //when
+        String shortList = QMMQueryFingerprint.getFingerprint(null, "select * from t where id in (1)");
+        String longList = QMMQueryFingerprint.getFingerprint(null, "select * from t where id in (1, 2, 3, ?)");
+        String oneRow = QMMQueryFingerprint.getFingerprint(null, "insert into t values (1)");
+        String manyRows = QMMQueryFingerprint.getFingerprint(null, "insert into t values (1), (2), ('3')");
+
+        //then
+        assertEquals("SELECT * FROM T WHERE ID IN (?)", shortList);
+        assertEquals(shortList, longList);
+        assertEquals("INSERT INTO T VALUES (?)", oneRow);
+        assertEquals(oneRow, manyRows);
+    }
+
+    @Test
+    public void shouldReplaceDollarQuotedStrings() {
+        //when
+        String plain = QMMQueryFingerprint.getFingerprint(null, "select $$it's 'quoted'$$, 1");
+        String tagged = QMMQueryFingerprint.getFingerprint(null, "select $body$ select $$x$$; $body$, 2");
+        String positional = QMMQueryFingerprint.getFingerprint(null, "select $1, $2");
+
+        //then
+        assertEquals("SELECT ?, ?", plain);
+        assertEquals(plain, tagged);
+        assertEquals(plain, positional);
+    }
+
+    @Test
+    public void shouldKeepDollarInIdentifiers() {
+        //when
+        String fingerprint = QMMQueryFingerprint.getFingerprint(null, "select sid from v$session where sid = 5");
+
+        //then
+        assertEquals("SELECT SID FROM V$SESSION WHERE SID = ?", fingerprint);
+    }
+
+}
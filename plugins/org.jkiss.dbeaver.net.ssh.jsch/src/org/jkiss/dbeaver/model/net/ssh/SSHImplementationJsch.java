@@ -28,6 +28,8 @@ import org.jkiss.utils.CommonUtils;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
 
 /**
  * SSH tunnel
@@ -37,15 +39,57 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
     private static final Log log = Log.getLog(SSHImplementationJsch.class);
 
     private static transient JSch jsch;
+    private static final SSHSessionPool<Session> sessionPool = new SSHSessionPool<Session>() {
+        @Override
+        protected boolean isSessionAlive(Session session) {
+            return session.isConnected();
+        }
+
+        @Override
+        protected void closeSession(Session session) {
+            disconnectSession(session);
+        }
+    };
+
     private transient volatile Session session;
+    private transient boolean sessionShared;
+    private transient int forwardedPort;
 
     @Override
     protected void setupTunnel(DBRProgressMonitor monitor, DBWHandlerConfiguration configuration, String dbHost, String sshHost, int aliveInterval, int sshPortNum, File privKeyFile, int connectTimeout, int dbPort, int localPort) throws DBException, IOException {
+        sessionShared = isSessionShared(configuration);
+        if (sessionShared) {
+            session = sessionPool.acquire(
+                makeSessionKey(configuration, sshHost, sshPortNum, privKeyFile, aliveInterval),
+                () -> openSession(configuration, sshHost, aliveInterval, sshPortNum, privKeyFile, connectTimeout));
+        } else {
+            session = openSession(configuration, sshHost, aliveInterval, sshPortNum, privKeyFile, connectTimeout);
+        }
         try {
-            if (jsch == null) {
-                jsch = new JSch();
-                JSch.setLogger(new LoggerProxy());
-            }
+            // Channel window sizes are fixed in JSch, so tune local sockets only
+            session.setPortForwardingL(SSHConstants.LOCALHOST_NAME, localPort, dbHost, dbPort, (port, backlog, bindAddr) -> {
+                ServerSocket serverSocket = createServerSocket(configuration);
+                serverSocket.bind(new InetSocketAddress(bindAddr, port), backlog);
+                return serverSocket;
+            });
+            forwardedPort = localPort;
+        } catch (JSchException e) {
+            closeTunnel(monitor);
+            throw new DBException("Cannot establish tunnel", e);
+        }
+    }
+
+    private static synchronized JSch getJSch() {
+        if (jsch == null) {
+            jsch = new JSch();
+            JSch.setLogger(new LoggerProxy());
+        }
+        return jsch;
+    }
+
+    private Session openSession(DBWHandlerConfiguration configuration, String sshHost, int aliveInterval, int sshPortNum, File privKeyFile, int connectTimeout) throws DBException {
+        try {
+            JSch jsch = getJSch();
             if (privKeyFile != null) {
                 if (!CommonUtils.isEmpty(configuration.getPassword())) {
                     jsch.addIdentity(privKeyFile.getAbsolutePath(), configuration.getPassword());
@@ -55,28 +99,27 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
             }
 
             log.debug("Instantiate SSH tunnel");
-            session = jsch.getSession(configuration.getUserName(), sshHost, sshPortNum);
-            session.setConfig("StrictHostKeyChecking", "no");
+            Session newSession = jsch.getSession(configuration.getUserName(), sshHost, sshPortNum);
+            newSession.setConfig("StrictHostKeyChecking", "no");
             //session.setConfig("PreferredAuthentications", "password,publickey,keyboard-interactive");
-            session.setConfig("PreferredAuthentications",
+            newSession.setConfig("PreferredAuthentications",
                     privKeyFile != null ? "publickey,keyboard-interactive" : "password,keyboard-interactive");
-            session.setConfig("ConnectTimeout", String.valueOf(connectTimeout));
+            newSession.setConfig("ConnectTimeout", String.valueOf(connectTimeout));
 
             // Use Eclipse standard prompter
-            UserInfoCustom ui = new UserInfoCustom(configuration);
+            UserInfoCustom ui = new UserInfoCustom(newSession, configuration);
 
-            session.setUserInfo(ui);
+            newSession.setUserInfo(ui);
             if (aliveInterval != 0) {
-                session.setServerAliveInterval(aliveInterval);
+                newSession.setServerAliveInterval(aliveInterval);
+                int aliveCount = configuration.getIntProperty(SSHConstants.PROP_ALIVE_COUNT);
+                if (aliveCount > 0) {
+                    newSession.setServerAliveCountMax(aliveCount);
+                }
             }
             log.debug("Connect to tunnel host");
-            session.connect(connectTimeout);
-            try {
-                session.setPortForwardingL(localPort, dbHost, dbPort);
-            } catch (JSchException e) {
-                closeTunnel(monitor);
-                throw e;
-            }
+            newSession.connect(connectTimeout);
+            return newSession;
         } catch (JSchException e) {
             throw new DBException("Cannot establish tunnel", e);
         }
@@ -84,17 +127,38 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
 
     @Override
     public void closeTunnel(DBRProgressMonitor monitor) throws DBException, IOException {
-        if (session != null) {
+        final Session closingSession = session;
+        if (closingSession != null) {
+            session = null;
+            final int closingPort = forwardedPort;
+            forwardedPort = 0;
             RuntimeUtils.runTask(monitor1 -> {
-                if (session != null) {
+                if (closingPort != 0) {
+                    try {
+                        closingSession.delPortForwardingL(SSHConstants.LOCALHOST_NAME, closingPort);
+                    } catch (Exception e) {
+                        log.debug("Error removing port forward: " + e.getMessage());
+                    }
+                }
+                if (sessionShared) {
+                    sessionPool.release(closingSession);
+                } else {
                     try {
-                        session.disconnect();
+                        closingSession.disconnect();
                     } catch (Exception e) {
                         throw new InvocationTargetException(e);
                     }
                 }
             }, "Close SSH session", 1000);
-            session = null;
+            log.debug("SSH tunnel closed: " + statistics);
+        }
+    }
+
+    private static void disconnectSession(Session session) {
+        try {
+            session.disconnect();
+        } catch (Exception e) {
+            log.debug("Error closing SSH session", e);
         }
     }
 
@@ -111,18 +175,13 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
     @Override
     public void invalidateTunnel(DBRProgressMonitor monitor) throws DBException, IOException {
         // Do not test - just reopen the tunnel. Otherwise it may take too much time.
-        boolean isAlive = false;//session != null && session.isConnected();
-        if (isAlive) {
-            try {
-                session.sendKeepAliveMsg();
-            } catch (Exception e) {
-                isAlive = false;
-            }
-        }
-        if (!isAlive) {
-            closeTunnel(monitor);
-            initTunnel(monitor, null, savedConfiguration, savedConnectionInfo);
+        Session brokenSession = session;
+        if (sessionShared && brokenSession != null) {
+            // Shared session may be half-open. Detach it from pool so initTunnel will open a new one.
+            sessionPool.markBroken(brokenSession);
         }
+        closeTunnel(monitor);
+        initTunnel(monitor, null, savedConfiguration, savedConnectionInfo);
     }
 
     private class UIUserInfo implements UserInfo, UIKeyboardInteractive {
@@ -169,7 +228,7 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
         }
     }
 
-    private class LoggerProxy implements Logger {
+    private static class LoggerProxy implements Logger {
         @Override
         public boolean isEnabled(int level) {
             return true;
@@ -203,8 +262,8 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
 
     private class UserInfoCustom extends UserInfoPrompter {
         private final DBWHandlerConfiguration configuration;
-        UserInfoCustom(DBWHandlerConfiguration configuration) {
-            super(SSHImplementationJsch.this.session);
+        UserInfoCustom(Session session, DBWHandlerConfiguration configuration) {
+            super(session);
             this.configuration = configuration;
         }
 
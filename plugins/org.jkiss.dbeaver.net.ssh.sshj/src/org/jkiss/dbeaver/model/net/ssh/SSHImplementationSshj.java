@@ -16,10 +16,13 @@
  */
 package org.jkiss.dbeaver.model.net.ssh;
 
-import net.schmizz.sshj.Config;
+import net.schmizz.keepalive.KeepAlive;
+import net.schmizz.keepalive.KeepAliveProvider;
+import net.schmizz.keepalive.KeepAliveRunner;
 import net.schmizz.sshj.DefaultConfig;
 import net.schmizz.sshj.SSHClient;
 import net.schmizz.sshj.common.LoggerFactory;
+import net.schmizz.sshj.connection.Connection;
 import net.schmizz.sshj.connection.channel.direct.LocalPortForwarder;
 import net.schmizz.sshj.transport.verification.PromiscuousVerifier;
 import net.schmizz.sshj.userauth.keyprovider.KeyProvider;
@@ -43,15 +46,59 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
 
     private static final Log log = Log.getLog(SSHImplementationSshj.class);
 
-    private transient SSHClient sshClient;
+    private static final SSHSessionPool<SSHClient> sessionPool = new SSHSessionPool<SSHClient>() {
+        @Override
+        protected boolean isSessionAlive(SSHClient client) {
+            return client.isConnected() && client.isAuthenticated();
+        }
+
+        @Override
+        protected void closeSession(SSHClient client) {
+            disconnectClient(client);
+        }
+    };
+
+    private transient volatile SSHClient sshClient;
+    private transient boolean sessionShared;
     private transient LocalPortListener portListener;
 
     @Override
     protected void setupTunnel(DBRProgressMonitor monitor, DBWHandlerConfiguration configuration, String dbHost, String sshHost, int aliveInterval, int sshPortNum, File privKeyFile, int connectTimeout, int dbPort, int localPort) throws DBException, IOException {
+        sessionShared = isSessionShared(configuration);
+        if (sessionShared) {
+            sshClient = sessionPool.acquire(
+                makeSessionKey(configuration, sshHost, sshPortNum, privKeyFile, aliveInterval),
+                () -> openClient(configuration, sshHost, aliveInterval, sshPortNum, privKeyFile, connectTimeout));
+        } else {
+            sshClient = openClient(configuration, sshHost, aliveInterval, sshPortNum, privKeyFile, connectTimeout);
+        }
         try {
-            Config clientConfig = new DefaultConfig();
+            log.debug("Instantiate SSH tunnel");
+
+            final LocalPortForwarder.Parameters params
+                = new LocalPortForwarder.Parameters(SSHConstants.LOCALHOST_NAME, localPort, dbHost, dbPort);
+            ServerSocket serverSocket = createServerSocket(configuration);
+            serverSocket.bind(new InetSocketAddress(params.getLocalHost(), params.getLocalPort()));
+            portListener = new LocalPortListener(sshClient, params, serverSocket);
+            portListener.start();
+            RuntimeUtils.pause(100);
+        } catch (Exception e) {
+            closeTunnel(monitor);
+            throw new DBException("Cannot establish tunnel", e);
+        }
+    }
+
+    private static SSHClient openClient(DBWHandlerConfiguration configuration, String sshHost, int aliveInterval, int sshPortNum, File privKeyFile, int connectTimeout) throws DBException {
+        SSHClient sshClient = null;
+        try {
+            DefaultConfig clientConfig = new DefaultConfig();
             clientConfig.setLoggerFactory(LoggerFactory.DEFAULT);
+            if (aliveInterval > 0) {
+                // Keep-alive with replies so dead connections are detected
+                clientConfig.setKeepAliveProvider(KeepAliveProvider.KEEP_ALIVE);
+            }
             sshClient = new SSHClient(clientConfig);
+            sshClient.setConnectTimeout(connectTimeout);
             // TODO: make real host verifier
             sshClient.addHostKeyVerifier(new PromiscuousVerifier());
 
@@ -66,6 +113,25 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
 
             sshClient.connect(sshHost, sshPortNum);
 
+            Connection connection = sshClient.getConnection();
+            int windowSize = configuration.getIntProperty(SSHConstants.PROP_WINDOW_SIZE);
+            if (windowSize > 0) {
+                connection.setWindowSize(windowSize);
+            }
+            int packetSize = configuration.getIntProperty(SSHConstants.PROP_PACKET_SIZE);
+            if (packetSize > 0) {
+                connection.setMaxPacketSize(packetSize);
+            }
+            if (aliveInterval > 0) {
+                KeepAlive keepAlive = connection.getKeepAlive();
+                // Interval is configured in milliseconds
+                keepAlive.setKeepAliveInterval(Math.max(1, aliveInterval / 1000));
+                int aliveCount = configuration.getIntProperty(SSHConstants.PROP_ALIVE_COUNT);
+                if (aliveCount > 0 && keepAlive instanceof KeepAliveRunner) {
+                    ((KeepAliveRunner) keepAlive).setMaxAliveCount(aliveCount);
+                }
+            }
+
             if (privKeyFile != null) {
                 if (!CommonUtils.isEmpty(sshPassword)) {
                     KeyProvider keyProvider = sshClient.loadKeys(privKeyFile.getAbsolutePath(), sshPassword.toCharArray());
@@ -76,15 +142,11 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
             } else {
                 sshClient.authPassword(sshUser, sshPassword);
             }
-
-            log.debug("Instantiate SSH tunnel");
-
-            final LocalPortForwarder.Parameters params
-                = new LocalPortForwarder.Parameters(SSHConstants.LOCALHOST_NAME, localPort, dbHost, dbPort);
-            portListener = new LocalPortListener(params);
-            portListener.start();
-            RuntimeUtils.pause(100);
+            return sshClient;
         } catch (Exception e) {
+            if (sshClient != null) {
+                disconnectClient(sshClient);
+            }
             throw new DBException("Cannot establish tunnel", e);
         }
     }
@@ -93,16 +155,31 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
     public void closeTunnel(DBRProgressMonitor monitor) throws DBException, IOException {
         if (portListener != null) {
             portListener.stopServer();
+            portListener = null;
         }
-        if (sshClient != null) {
+        final SSHClient closingClient = sshClient;
+        if (closingClient != null) {
+            sshClient = null;
             RuntimeUtils.runTask(monitor1 -> {
-                try {
-                    sshClient.disconnect();
-                } catch (Exception e) {
-                    throw new InvocationTargetException(e);
+                if (sessionShared) {
+                    sessionPool.release(closingClient);
+                } else {
+                    try {
+                        closingClient.disconnect();
+                    } catch (Exception e) {
+                        throw new InvocationTargetException(e);
+                    }
                 }
             }, "Close SSH client", 1000);
-            sshClient = null;
+            log.debug("SSH tunnel closed: " + statistics);
+        }
+    }
+
+    private static void disconnectClient(SSHClient client) {
+        try {
+            client.disconnect();
+        } catch (Exception e) {
+            log.debug("Error closing SSH client", e);
         }
     }
 
@@ -128,30 +205,32 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
             }
         }
         if (!isAlive) {
+            SSHClient brokenClient = sshClient;
+            if (sessionShared && brokenClient != null) {
+                // Shared session may be half-open. Detach it from pool so initTunnel will open a new one.
+                sessionPool.markBroken(brokenClient);
+            }
             closeTunnel(monitor);
             initTunnel(monitor, null, savedConfiguration, savedConnectionInfo);
         }
     }
 
-    private class LocalPortListener extends Thread {
-        private LocalPortForwarder.Parameters params;
-        private LocalPortForwarder portForwarder;
+    private static class LocalPortListener extends Thread {
+        private final SSHClient client;
+        private final LocalPortForwarder.Parameters params;
+        private final ServerSocket serverSocket;
+        private volatile LocalPortForwarder portForwarder;
 
-        LocalPortListener(LocalPortForwarder.Parameters params) {
+        LocalPortListener(SSHClient client, LocalPortForwarder.Parameters params, ServerSocket serverSocket) {
+            this.client = client;
             this.params = params;
+            this.serverSocket = serverSocket;
         }
 
         public void run() {
             setName("Local port forwarder " + params.getRemoteHost() + ":" + params.getRemotePort() + " socket listener");
-            final LocalPortForwarder.Parameters params
-                = new LocalPortForwarder.Parameters(
-                    this.params.getLocalHost(), this.params.getLocalPort(), this.params.getRemoteHost(), this.params.getRemotePort());
-
             try {
-                ServerSocket serverSocket = new ServerSocket();
-                serverSocket.setReuseAddress(true);
-                serverSocket.bind(new InetSocketAddress(params.getLocalHost(), params.getLocalPort()));
-                portForwarder = sshClient.newLocalPortForwarder(params, serverSocket);
+                portForwarder = client.newLocalPortForwarder(params, serverSocket);
                 portForwarder.listen();
             } catch (IOException e) {
                 log.error(e);
@@ -160,13 +239,16 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
         }
 
         void stopServer() {
-            if (portForwarder != null) {
-                try {
+            // Forwarder closes the server socket. Close it directly if forwarder wasn't started yet.
+            try {
+                if (portForwarder != null) {
                     portForwarder.close();
-                } catch (IOException e) {
-                    log.error("Error closing port forwarder", e);
+                    portForwarder = null;
+                } else {
+                    serverSocket.close();
                 }
-                portForwarder = null;
+            } catch (IOException e) {
+                log.error("Error closing port forwarder", e);
             }
         }
     }
@@ -63,6 +63,10 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<DBWH
     private Spinner localPortSpinner;
     private Spinner keepAliveText;
     private Spinner tunnelTimeout;
+    private Button shareSessionCheckbox;
+    private Spinner windowSizeSpinner;
+    private Spinner packetSizeSpinner;
+    private Spinner socketBufferSpinner;
 
     @Override
     public void createControl(Composite parent)
@@ -115,6 +119,13 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<DBWH
             localPortSpinner.setToolTipText(SSHUIMessages.model_ssh_configurator_label_local_port_description);
             keepAliveText = UIUtils.createLabelSpinner(advancedGroup, SSHUIMessages.model_ssh_configurator_label_keep_alive, 0, 0, Integer.MAX_VALUE);
             tunnelTimeout = UIUtils.createLabelSpinner(advancedGroup, SSHUIMessages.model_ssh_configurator_label_tunnel_timeout, SSHConstants.DEFAULT_CONNECT_TIMEOUT, 0, 300000);
+            shareSessionCheckbox = UIUtils.createLabelCheckbox(advancedGroup, SSHUIMessages.model_ssh_configurator_checkbox_share_session, SSHUIMessages.model_ssh_configurator_checkbox_share_session_description, true);
+            windowSizeSpinner = UIUtils.createLabelSpinner(advancedGroup, SSHUIMessages.model_ssh_configurator_label_window_size, 0, 0, Integer.MAX_VALUE);
+            windowSizeSpinner.setToolTipText(SSHUIMessages.model_ssh_configurator_label_tuning_description);
+            packetSizeSpinner = UIUtils.createLabelSpinner(advancedGroup, SSHUIMessages.model_ssh_configurator_label_packet_size, 0, 0, Integer.MAX_VALUE);
+            packetSizeSpinner.setToolTipText(SSHUIMessages.model_ssh_configurator_label_tuning_description);
+            socketBufferSpinner = UIUtils.createLabelSpinner(advancedGroup, SSHUIMessages.model_ssh_configurator_label_socket_buffer_size, 0, 0, Integer.MAX_VALUE);
+            socketBufferSpinner.setToolTipText(SSHUIMessages.model_ssh_configurator_label_tuning_description);
         }
 
         Composite controlGroup = UIUtils.createPlaceholder(composite, 1);
@@ -228,6 +239,10 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<DBWH
         if (timeoutValue != 0) {
             tunnelTimeout.setSelection(timeoutValue);
         }
+        shareSessionCheckbox.setSelection(CommonUtils.getBoolean(configuration.getProperty(SSHConstants.PROP_SHARE_SESSION), true));
+        windowSizeSpinner.setSelection(configuration.getIntProperty(SSHConstants.PROP_WINDOW_SIZE));
+        packetSizeSpinner.setSelection(configuration.getIntProperty(SSHConstants.PROP_PACKET_SIZE));
+        socketBufferSpinner.setSelection(configuration.getIntProperty(SSHConstants.PROP_SOCKET_BUFFER_SIZE));
         updatePrivateKeyVisibility();
 
         savedConfiguration = new DBWHandlerConfiguration(configuration);
@@ -271,6 +286,15 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<DBWH
         if (conTimeout != 0 && conTimeout != SSHConstants.DEFAULT_CONNECT_TIMEOUT) {
             configuration.setProperty(SSHConstants.PROP_CONNECT_TIMEOUT, conTimeout);
         }
+        configuration.setProperty(SSHConstants.PROP_SHARE_SESSION, shareSessionCheckbox.getSelection() ? null : false);
+        saveSizeProperty(configuration, SSHConstants.PROP_WINDOW_SIZE, windowSizeSpinner);
+        saveSizeProperty(configuration, SSHConstants.PROP_PACKET_SIZE, packetSizeSpinner);
+        saveSizeProperty(configuration, SSHConstants.PROP_SOCKET_BUFFER_SIZE, socketBufferSpinner);
+    }
+
+    private static void saveSizeProperty(DBWHandlerConfiguration configuration, String name, Spinner spinner) {
+        int value = spinner.getSelection();
+        configuration.setProperty(name, value <= 0 ? null : value);
     }
 
     @Override
@@ -39,6 +39,12 @@ public class SSHUIMessages extends NLS {
 	public static String model_ssh_configurator_label_local_port_description;
     public static String model_ssh_configurator_label_keep_alive;
 	public static String model_ssh_configurator_label_tunnel_timeout;
+	public static String model_ssh_configurator_checkbox_share_session;
+	public static String model_ssh_configurator_checkbox_share_session_description;
+	public static String model_ssh_configurator_label_window_size;
+	public static String model_ssh_configurator_label_packet_size;
+	public static String model_ssh_configurator_label_socket_buffer_size;
+	public static String model_ssh_configurator_label_tuning_description;
 	public static String model_ssh_configurator_button_test_tunnel;
 
 	static {
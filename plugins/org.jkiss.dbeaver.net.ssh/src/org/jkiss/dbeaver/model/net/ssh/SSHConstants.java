@@ -35,6 +35,14 @@ public class SSHConstants {
     public static final String PROP_CONNECT_TIMEOUT = "sshConnectTimeout";
 
     public static final String PROP_LOCAL_PORT = "localPort";
+
+    // Share one SSH session between all tunnels to the same host (true by default)
+    public static final String PROP_SHARE_SESSION = "shareSession";
+    // Channel window and max packet size (bytes). Zero means implementation default.
+    public static final String PROP_WINDOW_SIZE = "windowSize";
+    public static final String PROP_PACKET_SIZE = "packetSize";
+    // Send/receive buffer size of local tunnel sockets (bytes). Zero means system default.
+    public static final String PROP_SOCKET_BUFFER_SIZE = "socketBufferSize";
     //private static final int CONNECT_TIMEOUT = 10000;
 
     public enum AuthType {
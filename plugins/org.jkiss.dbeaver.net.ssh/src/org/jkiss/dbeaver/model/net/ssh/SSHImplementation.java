@@ -42,4 +42,9 @@ public interface SSHImplementation {
     void closeTunnel(DBRProgressMonitor monitor)
         throws DBException, IOException;
 
+    /**
+     * Traffic counters of this tunnel
+     */
+    SSHTunnelStatistics getStatistics();
+
 }
@@ -38,6 +38,7 @@ public abstract class SSHImplementationAbstract implements SSHImplementation {
     private transient int savedLocalPort = 0;
     protected transient DBWHandlerConfiguration savedConfiguration;
     protected transient DBPConnectionConfiguration savedConnectionInfo;
+    protected final SSHTunnelStatistics statistics = new SSHTunnelStatistics();
 
     @Override
     public DBPConnectionConfiguration initTunnel(DBRProgressMonitor monitor, DBPPlatform platform, DBWHandlerConfiguration configuration, DBPConnectionConfiguration connectionInfo)
@@ -58,7 +59,6 @@ public abstract class SSHImplementationAbstract implements SSHImplementation {
         int sshLocalPort = configuration.getIntProperty(SSHConstants.PROP_LOCAL_PORT);
         int aliveInterval = configuration.getIntProperty(SSHConstants.PROP_ALIVE_INTERVAL);
         int connectTimeout = configuration.getIntProperty(SSHConstants.PROP_CONNECT_TIMEOUT);
-        //String aliveCount = properties.get(SSHConstants.PROP_ALIVE_COUNT);
         if (CommonUtils.isEmpty(sshHost)) {
             throw new DBException("SSH host not specified");
         }
@@ -124,6 +124,37 @@ public abstract class SSHImplementationAbstract implements SSHImplementation {
         return connectionInfo;
     }
 
+    @Override
+    public SSHTunnelStatistics getStatistics() {
+        return statistics;
+    }
+
+    protected boolean isSessionShared(DBWHandlerConfiguration configuration) {
+        return CommonUtils.getBoolean(configuration.getProperty(SSHConstants.PROP_SHARE_SESSION), true);
+    }
+
+    protected SSHSessionKey makeSessionKey(DBWHandlerConfiguration configuration, String sshHost, int sshPortNum, File privKeyFile, int aliveInterval) {
+        return new SSHSessionKey(
+            sshHost,
+            sshPortNum,
+            configuration.getUserName(),
+            configuration.getPassword(),
+            privKeyFile,
+            aliveInterval,
+            configuration.getIntProperty(SSHConstants.PROP_ALIVE_COUNT),
+            configuration.getIntProperty(SSHConstants.PROP_WINDOW_SIZE),
+            configuration.getIntProperty(SSHConstants.PROP_PACKET_SIZE));
+    }
+
+    /**
+     * Creates unbound local socket of the tunnel
+     */
+    protected SSHTunnelServerSocket createServerSocket(DBWHandlerConfiguration configuration) throws IOException {
+        return new SSHTunnelServerSocket(
+            statistics,
+            configuration.getIntProperty(SSHConstants.PROP_SOCKET_BUFFER_SIZE));
+    }
+
     protected abstract void setupTunnel(
         DBRProgressMonitor monitor,
         DBWHandlerConfiguration configuration,
@@ -0,0 +1,93 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.jkiss.utils.CommonUtils;
+
+import java.io.File;
+import java.util.Objects;
+
+/**
+ * Identity of SSH session.
+ * Tunnels with equal keys may share the same authenticated session.
+ */
+public class SSHSessionKey {
+
+    private final String host;
+    private final int port;
+    private final String userName;
+    private final String password;
+    private final String keyPath;
+    private final int aliveInterval;
+    private final int aliveCount;
+    private final int windowSize;
+    private final int packetSize;
+
+    public SSHSessionKey(String host, int port, String userName, String password, File privKeyFile, int aliveInterval, int aliveCount, int windowSize, int packetSize) {
+        this.host = host;
+        this.port = port;
+        this.userName = userName;
+        this.password = CommonUtils.notEmpty(password);
+        this.keyPath = privKeyFile == null ? null : privKeyFile.getAbsolutePath();
+        this.aliveInterval = aliveInterval;
+        this.aliveCount = aliveCount;
+        this.windowSize = windowSize;
+        this.packetSize = packetSize;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SSHSessionKey)) {
+            return false;
+        }
+        SSHSessionKey key = (SSHSessionKey) obj;
+        return port == key.port &&
+            aliveInterval == key.aliveInterval &&
+            aliveCount == key.aliveCount &&
+            windowSize == key.windowSize &&
+            packetSize == key.packetSize &&
+            CommonUtils.equalObjects(host, key.host) &&
+            CommonUtils.equalObjects(userName, key.userName) &&
+            CommonUtils.equalObjects(password, key.password) &&
+            CommonUtils.equalObjects(keyPath, key.keyPath);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(host, port, userName, keyPath);
+    }
+
+    @Override
+    public String toString() {
+        return userName + "@" + host + ":" + port;
+    }
+}
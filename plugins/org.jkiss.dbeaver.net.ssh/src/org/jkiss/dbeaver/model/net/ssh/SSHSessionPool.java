@@ -0,0 +1,144 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Pool of shared SSH sessions.
+ * Port forwards of all tunnels with the same session key are multiplexed over one authenticated session.
+ * Session is closed when the last tunnel releases it.
+ *
+ * If pooled session is dead (or was marked as broken by some tunnel) then new session is opened for new tunnels.
+ * Dead session is closed when all tunnels which use it are released (usually on tunnel invalidate).
+ */
+public abstract class SSHSessionPool<SESSION> {
+
+    private static final Log log = Log.getLog(SSHSessionPool.class);
+
+    public interface SessionOpener<SESSION> {
+        SESSION openSession() throws DBException, IOException;
+    }
+
+    private static class Entry<SESSION> {
+        final SSHSessionKey key;
+        final SESSION session;
+        int refCount;
+        boolean broken;
+
+        Entry(SSHSessionKey key, SESSION session) {
+            this.key = key;
+            this.session = session;
+        }
+    }
+
+    private final Map<SSHSessionKey, Entry<SESSION>> activeEntries = new HashMap<>();
+    private final Map<SESSION, Entry<SESSION>> sessionEntries = new IdentityHashMap<>();
+    // Sessions are opened under per-key lock so different hosts do not wait for each other
+    private final Map<SSHSessionKey, Object> openLocks = new HashMap<>();
+
+    /**
+     * Returns live session for the key or opens a new one.
+     * Each acquired session must be released with {@link #release(Object)}.
+     */
+    public SESSION acquire(SSHSessionKey key, SessionOpener<SESSION> opener) throws DBException, IOException {
+        Object openLock;
+        synchronized (this) {
+            openLock = openLocks.computeIfAbsent(key, k -> new Object());
+        }
+        synchronized (openLock) {
+            synchronized (this) {
+                Entry<SESSION> entry = activeEntries.get(key);
+                if (entry != null) {
+                    if (!entry.broken && isSessionAlive(entry.session)) {
+                        entry.refCount++;
+                        log.debug("Reuse SSH session " + key + " (" + entry.refCount + " tunnels)");
+                        return entry.session;
+                    }
+                    // Detach dead session. It will be closed by its last tunnel.
+                    activeEntries.remove(key);
+                }
+            }
+            SESSION session = opener.openSession();
+            synchronized (this) {
+                Entry<SESSION> entry = new Entry<>(key, session);
+                entry.refCount = 1;
+                activeEntries.put(key, entry);
+                sessionEntries.put(session, entry);
+            }
+            return session;
+        }
+    }
+
+    /**
+     * Releases session. Closes it if no other tunnels use it.
+     */
+    public void release(SESSION session) {
+        synchronized (this) {
+            Entry<SESSION> entry = sessionEntries.get(session);
+            if (entry == null) {
+                log.debug("Release of unknown SSH session");
+                return;
+            }
+            entry.refCount--;
+            if (entry.refCount > 0) {
+                return;
+            }
+            sessionEntries.remove(session);
+            if (activeEntries.get(entry.key) == entry) {
+                activeEntries.remove(entry.key);
+            }
+        }
+        closeSession(session);
+    }
+
+    /**
+     * Detaches session from the pool. New tunnels will open a new session.
+     * Tunnels which still use this session keep it until release, it is closed by the last release.
+     * Use it when session is half-open and connection test may hang.
+     */
+    public synchronized void markBroken(SESSION session) {
+        Entry<SESSION> entry = sessionEntries.get(session);
+        if (entry == null || entry.broken) {
+            return;
+        }
+        entry.broken = true;
+        if (activeEntries.get(entry.key) == entry) {
+            activeEntries.remove(entry.key);
+        }
+        log.debug("SSH session " + entry.key + " marked as broken (" + entry.refCount + " tunnels)");
+    }
+
+    /**
+     * Returns number of tunnels which use the session
+     */
+    public synchronized int getReferenceCount(SESSION session) {
+        Entry<SESSION> entry = sessionEntries.get(session);
+        return entry == null ? 0 : entry.refCount;
+    }
+
+    protected abstract boolean isSessionAlive(SESSION session);
+
+    protected abstract void closeSession(SESSION session);
+
+}
@@ -0,0 +1,167 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.jkiss.dbeaver.Log;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Local server socket of SSH tunnel.
+ * Applies socket tuning to accepted connections and counts tunnel traffic.
+ */
+public class SSHTunnelServerSocket extends ServerSocket {
+
+    private static final Log log = Log.getLog(SSHTunnelServerSocket.class);
+
+    private final SSHTunnelStatistics statistics;
+    private final int bufferSize;
+
+    /**
+     * Creates unbound server socket.
+     *
+     * @param bufferSize socket send/receive buffer size. Zero means system default.
+     */
+    public SSHTunnelServerSocket(SSHTunnelStatistics statistics, int bufferSize) throws IOException {
+        this.statistics = statistics;
+        this.bufferSize = bufferSize;
+        setReuseAddress(true);
+        if (bufferSize > 0) {
+            // Must be set before bind to affect TCP window of accepted sockets
+            setReceiveBufferSize(bufferSize);
+        }
+    }
+
+    @Override
+    public Socket accept() throws IOException {
+        if (isClosed()) {
+            throw new IOException("Socket is closed");
+        }
+        TunnelSocket socket = new TunnelSocket();
+        implAccept(socket);
+        try {
+            // Database protocols are request/response - do not delay small packets
+            socket.setTcpNoDelay(true);
+            if (bufferSize > 0) {
+                socket.setSendBufferSize(bufferSize);
+                socket.setReceiveBufferSize(bufferSize);
+            }
+        } catch (IOException e) {
+            log.debug("Error setting tunnel socket options: " + e.getMessage());
+        }
+        statistics.connectionOpened();
+        return socket;
+    }
+
+    private class TunnelSocket extends Socket {
+
+        // Time of the first unanswered client request byte (or 0)
+        private volatile long requestTime;
+        private InputStream inputStream;
+        private OutputStream outputStream;
+        private boolean closed;
+
+        @Override
+        public synchronized InputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new CountingInputStream(super.getInputStream());
+            }
+            return inputStream;
+        }
+
+        @Override
+        public synchronized OutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (this) {
+                if (!closed) {
+                    closed = true;
+                    statistics.connectionClosed();
+                }
+            }
+            super.close();
+        }
+
+        private void onRequest(int count) {
+            if (count > 0) {
+                statistics.addBytesSent(count);
+                if (requestTime == 0) {
+                    requestTime = System.nanoTime();
+                }
+            }
+        }
+
+        private void onResponse(int count) {
+            statistics.addBytesReceived(count);
+            long start = requestTime;
+            if (start != 0) {
+                requestTime = 0;
+                statistics.addRoundTrip(System.nanoTime() - start);
+            }
+        }
+
+        private class CountingInputStream extends FilterInputStream {
+            CountingInputStream(InputStream in) {
+                super(in);
+            }
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b != -1) {
+                    onRequest(1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int count = super.read(b, off, len);
+                onRequest(count);
+                return count;
+            }
+        }
+
+        private class CountingOutputStream extends FilterOutputStream {
+            CountingOutputStream(OutputStream out) {
+                super(out);
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                onResponse(1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                // FilterOutputStream writes arrays byte by byte
+                out.write(b, off, len);
+                onResponse(len);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SSH tunnel traffic counters.
+ * Bytes are counted on the local side of the tunnel (sent - from database client to the server).
+ * Round trip is time between client request and the first byte of server response.
+ */
+public class SSHTunnelStatistics {
+
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicLong roundTripCount = new AtomicLong();
+    private final AtomicLong roundTripTotal = new AtomicLong();
+    private volatile long lastRoundTrip;
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    public int getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    public long getRoundTripCount() {
+        return roundTripCount.get();
+    }
+
+    /**
+     * Average round trip time in microseconds
+     */
+    public long getAverageRoundTrip() {
+        long count = roundTripCount.get();
+        return count == 0 ? 0 : roundTripTotal.get() / count;
+    }
+
+    /**
+     * Last round trip time in microseconds
+     */
+    public long getLastRoundTrip() {
+        return lastRoundTrip;
+    }
+
+    void addBytesSent(long count) {
+        bytesSent.addAndGet(count);
+    }
+
+    void addBytesReceived(long count) {
+        bytesReceived.addAndGet(count);
+    }
+
+    void connectionOpened() {
+        connectionCount.incrementAndGet();
+        activeConnections.incrementAndGet();
+    }
+
+    void connectionClosed() {
+        activeConnections.decrementAndGet();
+    }
+
+    void addRoundTrip(long nanos) {
+        long micros = nanos / 1000;
+        roundTripCount.incrementAndGet();
+        roundTripTotal.addAndGet(micros);
+        lastRoundTrip = micros;
+    }
+
+    @Override
+    public String toString() {
+        return "sent=" + getBytesSent() +
+            ", received=" + getBytesReceived() +
+            ", connections=" + getConnectionCount() + " (" + getActiveConnections() + " active)" +
+            ", round trips=" + getRoundTripCount() +
+            ", avg round trip=" + getAverageRoundTrip() + "us";
+    }
+}
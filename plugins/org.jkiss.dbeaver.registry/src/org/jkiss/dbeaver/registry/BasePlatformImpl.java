@@ -17,7 +17,9 @@
 package org.jkiss.dbeaver.registry;
 
 import org.eclipse.core.net.proxy.IProxyService;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
@@ -29,6 +31,7 @@ import org.jkiss.dbeaver.model.app.DBPPlatformLanguage;
 import org.jkiss.dbeaver.model.connection.DBPDataSourceProviderRegistry;
 import org.jkiss.dbeaver.model.data.DBDRegistry;
 import org.jkiss.dbeaver.model.edit.DBERegistry;
+import org.jkiss.dbeaver.model.impl.jdbc.struct.JDBCDictionaryCache;
 import org.jkiss.dbeaver.model.navigator.DBNModel;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.OSDescriptor;
@@ -36,7 +39,10 @@ import org.jkiss.dbeaver.registry.datatype.DataTypeProviderRegistry;
 import org.jkiss.dbeaver.registry.driver.DriverDescriptor;
 import org.jkiss.dbeaver.registry.formatter.DataFormatterRegistry;
 import org.jkiss.dbeaver.registry.language.PlatformLanguageRegistry;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.IPluginService;
+import org.jkiss.dbeaver.runtime.StartupProfiler;
 import org.jkiss.dbeaver.runtime.jobs.KeepAliveJob;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
@@ -68,6 +74,8 @@ public abstract class BasePlatformImpl implements DBPPlatform {
     private DBNModel navigatorModel;
 
     private final List<IPluginService> activatedServices = new ArrayList<>();
+    private boolean lazyServicesActivated;
+    private boolean disposed;
 
     protected void initialize() {
         log.debug("Initialize base platform...");
@@ -82,7 +90,7 @@ public abstract class BasePlatformImpl implements DBPPlatform {
         });
 
         this.localSystem = new OSDescriptor(Platform.getOS(), Platform.getOSArch());
-        {
+        try (StartupProfiler.Phase ignored = StartupProfiler.startPhase("Platform language")) {
             this.language = PlatformLanguageRegistry.getInstance().getLanguage(Locale.getDefault());
             if (this.language == null) {
                 log.debug("Language for locale '" + Locale.getDefault() + "' not found. Use default.");
@@ -91,36 +99,105 @@ public abstract class BasePlatformImpl implements DBPPlatform {
         }
 
         // Navigator model
-        this.navigatorModel = new DBNModel(this, true);
-        this.navigatorModel.initialize();
+        try (StartupProfiler.Phase ignored = StartupProfiler.startPhase("Navigator model")) {
+            this.navigatorModel = new DBNModel(this, true);
+            this.navigatorModel.initialize();
+        }
 
         // Activate proxy service
-        activateProxyService();
+        try (StartupProfiler.Phase ignored = StartupProfiler.startPhase("Proxy service")) {
+            activateProxyService();
+        }
+
+        // Activate plugin services. Lazy services are activated after workbench startup.
+        try (StartupProfiler.Phase ignored = StartupProfiler.startPhase("Plugin services")) {
+            activatePluginServices(PluginServiceRegistry.getInstance().getServices());
+        }
+
+        // Keep-alive job
+        new KeepAliveJob(this).scheduleMonitor();
+
+        if (!isLazyServicesActivationDeferred()) {
+            // Nobody will tell us that startup is finished (e.g. headless mode)
+            activateLazyServices();
+        }
+    }
+
+    /**
+     * Returns true if application calls {@link #activateLazyServices()} itself once its UI is started.
+     * Otherwise lazy services are activated at the end of platform initialization.
+     */
+    protected boolean isLazyServicesActivationDeferred() {
+        return false;
+    }
+
+    /**
+     * Activates non-critical plugin services in background.
+     * Should be called once application startup is finished (e.g. when workbench is shown).
+     */
+    public void activateLazyServices() {
+        synchronized (activatedServices) {
+            if (lazyServicesActivated || disposed) {
+                return;
+            }
+            lazyServicesActivated = true;
+        }
+        AbstractJob activateJob = new AbstractJob("Activate plugin services") {
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                activatePluginServices(PluginServiceRegistry.getInstance().getLazyServices());
+                return Status.OK_STATUS;
+            }
+        };
+        activateJob.setSystem(true);
+        activateJob.schedule();
+    }
 
-        // Activate plugin services
-        for (IPluginService pluginService : PluginServiceRegistry.getInstance().getServices()) {
+    private void activatePluginServices(List<IPluginService> services) {
+        for (IPluginService pluginService : services) {
+            synchronized (activatedServices) {
+                if (disposed) {
+                    return;
+                }
+            }
             try {
                 pluginService.activateService();
-                activatedServices.add(pluginService);
             } catch (Throwable e) {
                 log.error("Error activating plugin service", e);
+                continue;
             }
+            synchronized (activatedServices) {
+                if (!disposed) {
+                    activatedServices.add(pluginService);
+                    continue;
+                }
+            }
+            // Platform was disposed while service was activated
+            deactivatePluginService(pluginService);
+            return;
         }
+    }
 
-        // Keep-alive job
-        new KeepAliveJob(this).scheduleMonitor();
+    private void deactivatePluginService(IPluginService pluginService) {
+        try {
+            pluginService.deactivateService();
+        } catch (Exception e) {
+            log.error("Error deactivating plugin service", e);
+        }
     }
 
     public synchronized void dispose() {
         // Deactivate plugin services
-        for (IPluginService pluginService : activatedServices) {
-            try {
-                pluginService.deactivateService();
-            } catch (Exception e) {
-                log.error("Error deactivating plugin service", e);
+        synchronized (activatedServices) {
+            disposed = true;
+            for (IPluginService pluginService : activatedServices) {
+                deactivatePluginService(pluginService);
             }
+            activatedServices.clear();
         }
-        activatedServices.clear();
+
+        // Unregister model listeners before navigator model disposal
+        JDBCDictionaryCache.disposeInstance();
 
         // Dispose navigator model first
         // It is a part of UI
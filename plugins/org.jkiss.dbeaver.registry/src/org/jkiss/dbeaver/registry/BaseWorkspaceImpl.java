@@ -24,11 +24,13 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPExternalFileManager;
 import org.jkiss.dbeaver.model.app.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.LoggingProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.virtual.DBVModel;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.runtime.StartupProfiler;
 import org.jkiss.dbeaver.runtime.resource.DBeaverNature;
 import org.jkiss.dbeaver.utils.ContentUtils;
 import org.jkiss.dbeaver.utils.GeneralUtils;
@@ -114,6 +116,37 @@ public abstract class BaseWorkspaceImpl implements DBPWorkspace, DBPExternalFile
             activeProject = projects.values().iterator().next();
             platform.getPreferenceStore().setValue(PROP_PROJECT_ACTIVE, activeProject.getName());
         }
+        loadProjectRegistries();
+    }
+
+    /**
+     * Loads data source registries of open projects in parallel.
+     * Active project is usually loaded right away by UI so it is skipped here.
+     */
+    private void loadProjectRegistries() {
+        List<ProjectMetadata> projectsToLoad = new ArrayList<>();
+        synchronized (projects) {
+            for (ProjectMetadata project : projects.values()) {
+                if (project != activeProject && project.isOpen()) {
+                    projectsToLoad.add(project);
+                }
+            }
+        }
+        for (ProjectMetadata project : projectsToLoad) {
+            AbstractJob loadJob = new AbstractJob("Load project '" + project.getName() + "' configuration") {
+                @Override
+                protected IStatus run(DBRProgressMonitor monitor) {
+                    try (StartupProfiler.Phase ignored = StartupProfiler.startPhase("Project '" + project.getName() + "' configuration")) {
+                        project.getDataSourceRegistry();
+                    } catch (Exception e) {
+                        log.error("Error loading project '" + project.getName() + "' configuration", e);
+                    }
+                    return Status.OK_STATUS;
+                }
+            };
+            loadJob.setSystem(true);
+            loadJob.schedule();
+        }
     }
 
     public static Properties readWorkspaceInfo(File metadataFolder) {
@@ -54,6 +54,7 @@ import org.jkiss.dbeaver.registry.formatter.DataFormatterProfile;
 import org.jkiss.dbeaver.registry.internal.RegistryMessages;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.TasksJob;
+import org.jkiss.dbeaver.runtime.jobs.DataSourceHealthStats;
 import org.jkiss.dbeaver.runtime.properties.PropertyCollector;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.dbeaver.utils.SystemVariablesResolver;
@@ -150,6 +151,7 @@ public class DataSourceDescriptor
 
     private volatile boolean connectFailed = false;
     private volatile Date connectTime = null;
+    private final DataSourceHealthStats healthStats = new DataSourceHealthStats();
     private volatile boolean disposed = false;
     private volatile boolean connecting = false;
     private boolean temporary;
@@ -662,6 +664,12 @@ public class DataSourceDescriptor
         return connectTime;
     }
 
+    @NotNull
+    @Override
+    public DataSourceHealthStats getHealthStats() {
+        return healthStats;
+    }
+
     public boolean isLocked() {
         return !CommonUtils.isEmpty(lockPasswordHash);
     }
@@ -852,6 +860,7 @@ public class DataSourceDescriptor
 
             this.dataSource = getDriver().getDataSourceProvider().openDataSource(monitor, this);
             this.connectTime = new Date();
+            getDriver().preloadDriverClasses();
             monitor.worked(1);
 
             if (initialize) {
@@ -27,6 +27,7 @@ class DataSourceOrigin
     private final IFile sourceFile;
     private final boolean isDefault;
     private final String configSuffix;
+    private byte[] credentialsDigest;
 
     public DataSourceOrigin(IFile sourceFile, boolean isDefault) {
         this.sourceFile = sourceFile;
@@ -59,6 +60,17 @@ class DataSourceOrigin
         return sourceFile;
     }
 
+    /**
+     * Digest of credentials saved in (or loaded from) the credentials file of this origin
+     */
+    byte[] getCredentialsDigest() {
+        return credentialsDigest;
+    }
+
+    void setCredentialsDigest(byte[] credentialsDigest) {
+        this.credentialsDigest = credentialsDigest;
+    }
+
     @Override
     public String toString() {
         return sourceFile.getFullPath().toString();
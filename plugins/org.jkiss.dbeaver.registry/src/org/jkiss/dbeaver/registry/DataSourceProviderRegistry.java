@@ -31,6 +31,7 @@ import org.jkiss.dbeaver.model.connection.DBPEditorContribution;
 import org.jkiss.dbeaver.registry.driver.DriverDescriptor;
 import org.jkiss.dbeaver.registry.driver.DriverDescriptorSerializerLegacy;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.runtime.StartupProfiler;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.xml.SAXListener;
@@ -56,7 +57,9 @@ public class DataSourceProviderRegistry implements DBPDataSourceProviderRegistry
     {
         if (instance == null) {
             instance = new DataSourceProviderRegistry();
-            instance.loadExtensions(Platform.getExtensionRegistry());
+            try (StartupProfiler.Phase ignored = StartupProfiler.startPhase("Data source providers")) {
+                instance.loadExtensions(Platform.getExtensionRegistry());
+            }
         }
         return instance;
     }
@@ -87,14 +90,7 @@ public class DataSourceProviderRegistry implements DBPDataSourceProviderRegistry
                 if (p2 == null) return 1;
                 return 0;
             });
-            for (IConfigurationElement ext : extElements) {
-                switch (ext.getName()) {
-                    case RegistryConstants.TAG_DATASOURCE:
-                        DataSourceProviderDescriptor provider = new DataSourceProviderDescriptor(this, ext);
-                        dataSourceProviders.add(provider);
-                        break;
-                }
-            }
+            loadDataSourceProviders(extElements);
 
             for (IConfigurationElement ext : extElements) {
                 switch (ext.getName()) {
@@ -190,6 +186,60 @@ public class DataSourceProviderRegistry implements DBPDataSourceProviderRegistry
 
     }
 
+    /**
+     * Parses provider descriptors in parallel.
+     * Providers are parsed in waves: provider is parsed after its parent.
+     * Parsed providers are registered in declaration order.
+     */
+    private void loadDataSourceProviders(IConfigurationElement[] extElements) {
+        DataSourceProviderDescriptor[] parsed = new DataSourceProviderDescriptor[extElements.length];
+        List<Integer> pending = new ArrayList<>();
+        Set<String> pendingIds = new HashSet<>();
+        for (int i = 0; i < extElements.length; i++) {
+            if (RegistryConstants.TAG_DATASOURCE.equals(extElements[i].getName())) {
+                pending.add(i);
+                pendingIds.add(extElements[i].getAttribute(RegistryConstants.ATTR_ID));
+            }
+        }
+        int firstProvider = dataSourceProviders.size();
+        while (!pending.isEmpty()) {
+            List<Integer> wave = new ArrayList<>();
+            for (Integer index : pending) {
+                String parentId = extElements[index].getAttribute(RegistryConstants.ATTR_PARENT);
+                if (CommonUtils.isEmpty(parentId) || !pendingIds.contains(parentId)) {
+                    wave.add(index);
+                }
+            }
+            if (wave.isEmpty()) {
+                // Cyclic parents. Parse all the rest at once
+                wave.addAll(pending);
+            }
+            wave.parallelStream().forEach(index -> {
+                IConfigurationElement ext = extElements[index];
+                try {
+                    parsed[index] = new DataSourceProviderDescriptor(this, ext);
+                } catch (Throwable e) {
+                    log.error("Error loading datasource provider '" + ext.getAttribute(RegistryConstants.ATTR_ID) + "'", e);
+                }
+            });
+            for (Integer index : wave) {
+                if (parsed[index] != null) {
+                    // Make parents visible to the next wave
+                    dataSourceProviders.add(parsed[index]);
+                }
+                pendingIds.remove(extElements[index].getAttribute(RegistryConstants.ATTR_ID));
+            }
+            pending.removeAll(wave);
+        }
+        // Restore declaration order
+        dataSourceProviders.subList(firstProvider, dataSourceProviders.size()).clear();
+        for (DataSourceProviderDescriptor provider : parsed) {
+            if (provider != null) {
+                dataSourceProviders.add(provider);
+            }
+        }
+    }
+
     public void dispose()
     {
         synchronized (registryListeners) {
@@ -29,6 +29,7 @@ import org.jkiss.dbeaver.model.app.*;
 import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
 import org.jkiss.dbeaver.model.connection.DBPDriver;
 import org.jkiss.dbeaver.model.net.DBWNetworkProfile;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
@@ -56,6 +57,8 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
     public static final String DEFAULT_ACTIVE_OBJECT = "default.activeObject"; //$NON-NLS-1$
 
     private static final long DISCONNECT_ALL_TIMEOUT = 5000;
+    // Config changes made within this period are saved together
+    private static final long CONFIG_SAVE_DELAY = 500;
 
     private static final Log log = Log.getLog(DataSourceRegistry.class);
 
@@ -71,6 +74,9 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
     private final List<DBSObjectFilter> savedFilters = new ArrayList<>();
     private final List<DBWNetworkProfile> networkProfiles = new ArrayList<>();
     private volatile boolean saveInProgress = false;
+    private volatile boolean savePending = false;
+    private final Object saveLock = new Object();
+    private final ConfigSaveJob configSaveJob = new ConfigSaveJob();
 
     public DataSourceRegistry(DBPPlatform platform, ProjectMetadata project) {
         this.platform = platform;
@@ -110,6 +116,11 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
 //        if (getProjectNode().isOpen()) {
 //            flushConfig();
 //        }
+        // But write changes which were made before shutdown and are still waiting for save
+        configSaveJob.cancel();
+        if (savePending) {
+            saveDataSources();
+        }
         // Dispose and clear all descriptors
         synchronized (dataSources) {
             for (DataSourceDescriptor dataSourceDescriptor : this.dataSources) {
@@ -430,7 +441,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
         final DataSourceDescriptor descriptor = (DataSourceDescriptor) dataSource;
         addDataSourceToList(descriptor);
         if (!dataSource.isTemporary()) {
-            this.saveDataSources();
+            this.scheduleFlush();
         }
         notifyDataSourceListeners(new DBPEvent(DBPEvent.Action.OBJECT_ADD, descriptor, true));
     }
@@ -447,7 +458,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
             this.dataSources.remove(descriptor);
         }
         if (!dataSource.isTemporary()) {
-            this.saveDataSources();
+            this.scheduleFlush();
         }
         try {
             this.fireDataSourceEvent(DBPEvent.Action.OBJECT_REMOVE, dataSource);
@@ -458,19 +469,35 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
 
     public void updateDataSource(DBPDataSourceContainer dataSource) {
         if (!dataSource.isTemporary()) {
-            this.saveDataSources();
+            this.scheduleFlush();
         }
         this.fireDataSourceEvent(DBPEvent.Action.OBJECT_UPDATE, dataSource);
     }
 
+    /**
+     * Saves configuration immediately. Scheduled save (if any) is cancelled.
+     */
     @Override
     public void flushConfig() {
+        configSaveJob.cancel();
         this.saveDataSources();
     }
 
+    /**
+     * Schedules configuration save. All changes made within short period of time are saved at once.
+     */
+    public void scheduleFlush() {
+        savePending = true;
+        int jobState = configSaveJob.getState();
+        if (jobState == Job.NONE || jobState == Job.RUNNING) {
+            // Running job will be rescheduled after it finishes
+            configSaveJob.schedule(CONFIG_SAVE_DELAY);
+        }
+    }
+
     @Override
     public void refreshConfig() {
-        if (!saveInProgress) {
+        if (!saveInProgress && !savePending) {
             this.loadDataSources(true);
         }
     }
@@ -580,7 +607,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
                 }
                 if (!origins.isEmpty()) {
                     // Save config immediately in the new format
-                    flushConfig();
+                    saveDataSources();
                 }
             }
         } catch (CoreException e) {
@@ -633,59 +660,65 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
     }
 
     private void saveDataSources() {
+        synchronized (saveLock) {
+            savePending = false;
+            saveInProgress = true;
+            try {
+                saveDataSources(new VoidProgressMonitor());
+            } finally {
+                saveInProgress = false;
+            }
+        }
+    }
+
+    private void saveDataSources(DBRProgressMonitor monitor) {
         updateProjectNature();
-        final DBRProgressMonitor monitor = new VoidProgressMonitor();
-        saveInProgress = true;
-        try {
-            for (DataSourceOrigin origin : origins.values()) {
-                List<DataSourceDescriptor> localDataSources = getDataSources(origin);
+        for (DataSourceOrigin origin : origins.values()) {
+            List<DataSourceDescriptor> localDataSources = getDataSources(origin);
 
-                IFile configFile = origin.getSourceFile();
-                if (origin.isDefault()) {
-                    if (project.getFormat() == ProjectMetadata.ProjectFormat.MODERN) {
-                        configFile = getModernConfigFile();
-                    } else {
-                        configFile = getLegacyConfigFile();
-                    }
+            IFile configFile = origin.getSourceFile();
+            if (origin.isDefault()) {
+                if (project.getFormat() == ProjectMetadata.ProjectFormat.MODERN) {
+                    configFile = getModernConfigFile();
                 } else {
-                    if (configFile.getName().startsWith(LEGACY_CONFIG_FILE_PREFIX) && "xml".equals(configFile.getFileExtension())) {
-                        // Legacy configuration - move to metadata folder as json
-                        String newFileName = MODERN_CONFIG_FILE_PREFIX + configFile.getName().substring(LEGACY_CONFIG_FILE_PREFIX.length());
-                        int divPos = newFileName.lastIndexOf(".");
-                        newFileName = newFileName.substring(0, divPos) + ".json";
-                        configFile = project.getMetadataFolder(false).getFile(newFileName);
-                    }
+                    configFile = getLegacyConfigFile();
+                }
+            } else {
+                if (configFile.getName().startsWith(LEGACY_CONFIG_FILE_PREFIX) && "xml".equals(configFile.getFileExtension())) {
+                    // Legacy configuration - move to metadata folder as json
+                    String newFileName = MODERN_CONFIG_FILE_PREFIX + configFile.getName().substring(LEGACY_CONFIG_FILE_PREFIX.length());
+                    int divPos = newFileName.lastIndexOf(".");
+                    newFileName = newFileName.substring(0, divPos) + ".json";
+                    configFile = project.getMetadataFolder(false).getFile(newFileName);
                 }
-                try {
-                    File plainConfigFile = configFile.getLocation().toFile();
-                    IOUtils.makeFileBackup(plainConfigFile);
+            }
+            try {
+                File plainConfigFile = configFile.getLocation().toFile();
+                IOUtils.makeFileBackup(plainConfigFile);
 
-                    if (localDataSources.isEmpty()) {
-                        configFile.delete(true, false, monitor.getNestedMonitor());
+                if (localDataSources.isEmpty()) {
+                    configFile.delete(true, false, monitor.getNestedMonitor());
+                } else {
+                    DataSourceSerializer serializer;
+                    if (project.getFormat() == ProjectMetadata.ProjectFormat.LEGACY) {
+                        serializer = new DataSourceSerializerLegacy(this);
                     } else {
-                        DataSourceSerializer serializer;
-                        if (project.getFormat() == ProjectMetadata.ProjectFormat.LEGACY) {
-                            serializer = new DataSourceSerializerLegacy(this);
-                        } else {
-                            serializer = new DataSourceSerializerModern(this);
-                        }
-                        serializer.saveDataSources(
-                            monitor,
-                            origin,
-                            localDataSources,
-                            configFile);
-                    }
-                    try {
-                        getSecurePreferences().flush();
-                    } catch (Throwable e) {
-                        log.error("Error saving secured preferences", e);
+                        serializer = new DataSourceSerializerModern(this);
                     }
-                } catch (Exception ex) {
-                    log.error("Error saving datasources configuration", ex);
+                    serializer.saveDataSources(
+                        monitor,
+                        origin,
+                        localDataSources,
+                        configFile);
                 }
+            } catch (Exception ex) {
+                log.error("Error saving datasources configuration", ex);
             }
-        } finally {
-            saveInProgress = false;
+        }
+        try {
+            getSecurePreferences().flush();
+        } catch (Throwable e) {
+            log.error("Error saving secured preferences", e);
         }
     }
 
@@ -838,4 +871,20 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
         }
     }
 
+    private class ConfigSaveJob extends AbstractJob {
+        ConfigSaveJob() {
+            super("Save data sources configuration");
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            if (savePending) {
+                saveDataSources();
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
 }
@@ -56,6 +56,11 @@ import org.jkiss.utils.IOUtils;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 
 class DataSourceSerializerModern implements DataSourceSerializer
@@ -229,14 +234,8 @@ class DataSourceSerializerModern implements DataSourceSerializer
             log.error("IO error while saving datasources json", e);
         }
 
-        InputStream ifs = new ByteArrayInputStream(dsConfigBuffer.toByteArray());
         try {
-            if (!configFile.exists()) {
-                configFile.create(ifs, true, monitor.getNestedMonitor());
-                configFile.setHidden(true);
-            } else {
-                configFile.setContents(ifs, true, false, monitor.getNestedMonitor());
-            }
+            saveConfigFile(configFile, dsConfigBuffer.toByteArray(), IResource.HIDDEN, monitor.getNestedMonitor());
         } catch (CoreException e) {
             throw new IOException("Error saving configuration to a file " + configFile.getFullPath(), e);
         }
@@ -253,27 +252,24 @@ class DataSourceSerializerModern implements DataSourceSerializer
 
         IFile credFile = parent.getFile(DBPDataSourceRegistry.CREDENTIALS_CONFIG_FILE_PREFIX + origin.getConfigSuffix() + DBPDataSourceRegistry.CREDENTIALS_CONFIG_FILE_EXT);
         try {
-            // Serialize and encrypt
             String jsonString = SECURE_GSON.toJson(secureProperties, Map.class);
-            ContentEncrypter encrypter = new ContentEncrypter(registry.getPlatform().getApplication().getSecureStorage().getLocalSecretKey());
-            byte[] credData = encrypter.encrypt(jsonString);
-
-            // Save to file
+            byte[] credDigest = getCredentialsDigest(jsonString);
+            if (Arrays.equals(credDigest, origin.getCredentialsDigest()) && credFile.exists() != secureProperties.isEmpty()) {
+                // Credentials weren't changed since last load/save. Skip encryption.
+                return;
+            }
 
             if (secureProperties.isEmpty()) {
                 credFile.delete(true, false, monitor);
             } else {
                 // Encrypt whole file
+                ContentEncrypter encrypter = new ContentEncrypter(registry.getPlatform().getApplication().getSecureStorage().getLocalSecretKey());
+                byte[] credData = encrypter.encrypt(jsonString);
 
                 // Save result to file
-                InputStream ifs = new ByteArrayInputStream(credData);
-
-                if (!credFile.exists()) {
-                    credFile.create(ifs, IResource.FORCE | IResource.HIDDEN | IResource.TEAM_PRIVATE, monitor);
-                } else {
-                    credFile.setContents(ifs, true, false, monitor);
-                }
+                saveConfigFile(credFile, credData, IResource.HIDDEN | IResource.TEAM_PRIVATE, monitor);
             }
+            origin.setCredentialsDigest(credDigest);
         } catch (Exception e) {
             log.error("Error saving secure credentials", e);
         }
@@ -300,6 +296,7 @@ class DataSourceSerializerModern implements DataSourceSerializer
                             credJson,
                             new TypeToken<Map<String, Map<String, Map<String, String>>>>(){}.getType());
                     secureProperties.putAll(res);
+                    origin.setCredentialsDigest(getCredentialsDigest(SECURE_GSON.toJson(secureProperties, Map.class)));
                 } catch (Exception e) {
                     log.error("Error decrypting secure credentials", e);
                 }
@@ -383,22 +380,26 @@ class DataSourceSerializerModern implements DataSourceSerializer
                     log.warn("Empty datasource provider for datasource '" + id + "'");
                     continue;
                 }
-                DataSourceProviderDescriptor provider = DataSourceProviderRegistry.getInstance().getDataSourceProvider(
-                    dsProviderID);
-                if (provider == null) {
-                    log.warn("Can't find datasource provider " + dsProviderID + " for datasource '" + id + "'");
-                    provider = (DataSourceProviderDescriptor) DataSourceProviderRegistry.getInstance().makeFakeProvider(dsProviderID);
-                }
+                DataSourceProviderDescriptor provider;
                 String driverId = CommonUtils.toString(conObject.get(RegistryConstants.ATTR_DRIVER));
-                DriverDescriptor driver = provider.getDriver(driverId);
-                if (driver == null) {
-                    log.warn("Can't find driver " + driverId + " in datasource provider " + provider.getId() + " for datasource '" + id + "'. Create new driver");
-                    driver = provider.createDriver(driverId);
-                    driver.setName(driverId);
-                    driver.setDescription("Missing driver " + driverId);
-                    driver.setDriverClassName("java.sql.Driver");
-                    driver.setTemporary(true);
-                    provider.addDriver(driver);
+                DriverDescriptor driver;
+                // Projects may be loaded in parallel. Missing providers and drivers must be created only once
+                synchronized (DataSourceProviderRegistry.getInstance()) {
+                    provider = DataSourceProviderRegistry.getInstance().getDataSourceProvider(dsProviderID);
+                    if (provider == null) {
+                        log.warn("Can't find datasource provider " + dsProviderID + " for datasource '" + id + "'");
+                        provider = (DataSourceProviderDescriptor) DataSourceProviderRegistry.getInstance().makeFakeProvider(dsProviderID);
+                    }
+                    driver = provider.getDriver(driverId);
+                    if (driver == null) {
+                        log.warn("Can't find driver " + driverId + " in datasource provider " + provider.getId() + " for datasource '" + id + "'. Create new driver");
+                        driver = provider.createDriver(driverId);
+                        driver.setName(driverId);
+                        driver.setDescription("Missing driver " + driverId);
+                        driver.setDriverClassName("java.sql.Driver");
+                        driver.setTemporary(true);
+                        provider.addDriver(driver);
+                    }
                 }
 
                 DataSourceDescriptor dataSource = registry.getDataSource(id);
@@ -927,6 +928,53 @@ class DataSourceSerializerModern implements DataSourceSerializer
         return creds;
     }
 
+    /**
+     * Writes config file contents. File is not touched if its contents didn't change.
+     * Existing files are replaced atomically (contents are written in temp file which is then renamed).
+     */
+    private static void saveConfigFile(IFile file, byte[] contents, int newFileFlags, IProgressMonitor monitor) throws CoreException, IOException {
+        File localFile = file.getLocation() == null ? null : file.getLocation().toFile();
+        if (localFile == null || !localFile.getParentFile().exists()) {
+            // Resource is not local or folder doesn't exist yet. Use workspace API
+            InputStream ifs = new ByteArrayInputStream(contents);
+            if (!file.exists()) {
+                file.create(ifs, IResource.FORCE | newFileFlags, monitor);
+            } else {
+                file.setContents(ifs, true, false, monitor);
+            }
+            return;
+        }
+        boolean isNewFile = !localFile.exists();
+        if (!isNewFile && localFile.length() == contents.length && Arrays.equals(Files.readAllBytes(localFile.toPath()), contents)) {
+            // Nothing changed
+            return;
+        }
+        File tempFile = new File(localFile.getParentFile(), localFile.getName() + ".tmp");
+        Files.write(tempFile.toPath(), contents);
+        try {
+            Files.move(tempFile.toPath(), localFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), localFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        file.refreshLocal(IResource.DEPTH_ZERO, monitor);
+        if (isNewFile) {
+            if ((newFileFlags & IResource.HIDDEN) != 0) {
+                file.setHidden(true);
+            }
+            if ((newFileFlags & IResource.TEAM_PRIVATE) != 0) {
+                file.setTeamPrivateMember(true);
+            }
+        }
+    }
+
+    private static byte[] getCredentialsDigest(String credentials) throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(credentials.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
     @Nullable
     private static String decryptPassword(String encPassword) {
         if (!CommonUtils.isEmpty(encPassword)) {
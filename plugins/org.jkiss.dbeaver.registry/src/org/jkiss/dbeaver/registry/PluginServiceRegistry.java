@@ -23,6 +23,7 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.impl.AbstractDescriptor;
 import org.jkiss.dbeaver.runtime.IPluginService;
+import org.jkiss.utils.CommonUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -32,16 +33,19 @@ public class PluginServiceRegistry
     private static final Log log = Log.getLog(PluginServiceRegistry.class);
 
     public static final String EXTENSION_ID = "org.jkiss.dbeaver.pluginService"; //$NON-NLS-1$
+    private static final String ATTR_LAZY = "lazy"; //$NON-NLS-1$
 
     private static PluginServiceRegistry instance = null;
 
     private class ServiceDescriptor extends AbstractDescriptor {
 
         private final ObjectType type;
+        private final boolean lazy;
 
         protected ServiceDescriptor(IConfigurationElement config) {
             super(config);
             type = new ObjectType(config.getAttribute(RegistryConstants.ATTR_CLASS));
+            lazy = CommonUtils.getBoolean(config.getAttribute(ATTR_LAZY), false);
         }
     }
 
@@ -54,6 +58,7 @@ public class PluginServiceRegistry
     }
 
     private final List<IPluginService> services = new ArrayList<>();
+    private final List<IPluginService> lazyServices = new ArrayList<>();
 
     private PluginServiceRegistry(IExtensionRegistry registry)
     {
@@ -62,7 +67,11 @@ public class PluginServiceRegistry
             ServiceDescriptor serviceDescriptor = new ServiceDescriptor(ext);
             try {
                 IPluginService pluginService = serviceDescriptor.type.createInstance(IPluginService.class);
-                services.add(pluginService);
+                if (serviceDescriptor.lazy) {
+                    lazyServices.add(pluginService);
+                } else {
+                    services.add(pluginService);
+                }
             } catch (DBException e) {
                 log.error("Can't create plugin service", e);
             }
@@ -73,5 +82,13 @@ public class PluginServiceRegistry
     {
         return services;
     }
+
+    /**
+     * Services which are not needed during startup. They are activated after workbench startup.
+     */
+    public List<IPluginService> getLazyServices()
+    {
+        return lazyServices;
+    }
     
 }
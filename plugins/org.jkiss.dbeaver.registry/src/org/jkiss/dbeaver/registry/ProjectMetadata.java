@@ -66,7 +66,7 @@ public class ProjectMetadata implements DBPProject {
     private final DBPWorkspace workspace;
     private final IProject project;
 
-    private ProjectFormat format = ProjectFormat.UNKNOWN;
+    private volatile ProjectFormat format = ProjectFormat.UNKNOWN;
     private volatile DataSourceRegistry dataSourceRegistry;
     private volatile TaskManagerImpl taskManager;
     private Map<String, Map<String, Object>> resourceProperties;
@@ -131,30 +131,40 @@ public class ProjectMetadata implements DBPProject {
         if (format != ProjectFormat.UNKNOWN) {
             return;
         }
-        if (!project.isOpen()) {
-            try {
-                NullProgressMonitor monitor = new NullProgressMonitor();
-                project.open(monitor);
-                project.refreshLocal(IFile.DEPTH_ONE, monitor);
-            } catch (CoreException e) {
-                log.error("Error opening project", e);
+        // Projects may be opened in parallel (see BaseWorkspaceImpl.initializeProjects)
+        synchronized (metadataSync) {
+            if (format != ProjectFormat.UNKNOWN) {
                 return;
             }
-        }
+            if (!project.isOpen()) {
+                try {
+                    NullProgressMonitor monitor = new NullProgressMonitor();
+                    project.open(monitor);
+                    project.refreshLocal(IFile.DEPTH_ONE, monitor);
+                } catch (CoreException e) {
+                    log.error("Error opening project", e);
+                    return;
+                }
+            }
 
-        IFolder mdFolder = getMetadataFolder(false);
+            IFolder mdFolder = getMetadataFolder(false);
 
-        File dsConfig = new File(getAbsolutePath(), DataSourceRegistry.LEGACY_CONFIG_FILE_NAME);
-        if (!mdFolder.exists() && dsConfig.exists()) {
-            format = ProjectFormat.LEGACY;
-        } else {
-            format = ProjectFormat.MODERN;
-        }
+            File dsConfig = new File(getAbsolutePath(), DataSourceRegistry.LEGACY_CONFIG_FILE_NAME);
+            ProjectFormat projectFormat;
+            if (!mdFolder.exists() && dsConfig.exists()) {
+                projectFormat = ProjectFormat.LEGACY;
+            } else {
+                projectFormat = ProjectFormat.MODERN;
+            }
 
-        getMetadataFolder(true);
+            getMetadataFolder(true);
 
-        // Check project structure and migrate
-        checkAndUpdateProjectStructure();
+            // Check project structure and migrate
+            projectFormat = checkAndUpdateProjectStructure(projectFormat);
+
+            // Publish format last: other threads skip the lock once it is known
+            format = projectFormat;
+        }
     }
 
     @NotNull
@@ -300,10 +310,11 @@ public class ProjectMetadata implements DBPProject {
     /**
      * Validates project files structure.
      * If project was created in older DBeaver version then converts it to newer format
+     * @return resulting project format
      */
-    private void checkAndUpdateProjectStructure() {
-        if (format == ProjectFormat.UNKNOWN || format == ProjectFormat.MODERN) {
-            return;
+    private ProjectFormat checkAndUpdateProjectStructure(ProjectFormat projectFormat) {
+        if (projectFormat == ProjectFormat.UNKNOWN || projectFormat == ProjectFormat.MODERN) {
+            return projectFormat;
         }
 
         File mdConfig = new File(getMetadataPath(), METADATA_STORAGE_FILE);
@@ -318,7 +329,7 @@ public class ProjectMetadata implements DBPProject {
         }
 
         // Now project is in modern format
-        format = ProjectFormat.MODERN;
+        return ProjectFormat.MODERN;
     }
 
     private Map<String, Map<String, Object>> extractProjectResourceProperties() {
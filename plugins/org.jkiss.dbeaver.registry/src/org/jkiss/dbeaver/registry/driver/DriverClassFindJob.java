@@ -13,13 +13,11 @@ import org.objectweb.asm.Opcodes;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -52,16 +50,10 @@ public class DriverClassFindJob implements DBRRunnableWithProgress {
 
     private void findDriverClasses(DBRProgressMonitor monitor) {
         java.util.List<File> libFiles = new ArrayList<>();
-        java.util.List<URL> libURLs = new ArrayList<>();
         for (DBPDriverLibrary lib : driver.getDriverLibraries()) {
             File libFile = lib.getLocalFile();
             if (libFile != null && libFile.exists() && !libFile.isDirectory() && lib.getType() == DBPDriverLibrary.FileType.jar) {
                 libFiles.add(libFile);
-                try {
-                    libURLs.add(libFile.toURI().toURL());
-                } catch (MalformedURLException e) {
-                    log.debug(e);
-                }
             } else {
                 final Collection<DriverDescriptor.DriverFileInfo> files = driver.getLibraryFiles(lib);
                 if (files != null) {
@@ -73,21 +65,26 @@ public class DriverClassFindJob implements DBRRunnableWithProgress {
                 }
             }
         }
-        ClassLoader findCL = new URLClassLoader(libURLs.toArray(new URL[libURLs.size()]));
-
+        // Scan jars in parallel. Results are added in class path order.
+        List<Callable<List<String>>> tasks = new ArrayList<>();
         for (File libFile : libFiles) {
-            if (monitor.isCanceled()) {
-                break;
+            tasks.add(() -> findDriverClasses(monitor, libFile));
+        }
+        monitor.beginTask("Find driver classes", libFiles.size());
+        try {
+            for (List<String> libClasses : DriverClassIndex.runParallel(monitor, tasks)) {
+                if (libClasses != null) {
+                    driverClassNames.addAll(libClasses);
+                }
             }
-            findDriverClasses(monitor, findCL, libFile);
+        } finally {
+            monitor.done();
         }
     }
 
-    private void findDriverClasses(DBRProgressMonitor monitor, ClassLoader findCL, File libFile) {
-        try {
-            JarFile currentFile = new JarFile(libFile, false);
-            monitor.beginTask(libFile.getName(), currentFile.size());
-
+    private List<String> findDriverClasses(DBRProgressMonitor monitor, File libFile) {
+        List<String> classNames = new ArrayList<>();
+        try (JarFile currentFile = new JarFile(libFile, false)) {
             for (Enumeration<?> e = currentFile.entries(); e.hasMoreElements(); ) {
                 {
                     if (monitor.isCanceled()) {
@@ -97,22 +94,20 @@ public class DriverClassFindJob implements DBRRunnableWithProgress {
                     String fileName = current.getName();
                     if (fileName.endsWith(CLASS_FILE_EXT) && !fileName.contains("$")) { //$NON-NLS-1$ //$NON-NLS-2$
                         String className = fileName.replaceAll("/", ".").replace(CLASS_FILE_EXT, ""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-                        monitor.subTask(className);
                         try {
                             if (implementsInterface(currentFile, current, 0)) {
-                                driverClassNames.add(className);
+                                classNames.add(className);
                             }
                         } catch (Throwable e1) {
                             // do nothing
                         }
-                        monitor.worked(1);
                     }
                 }
             }
-            monitor.done();
         } catch (IOException e) {
             log.debug(e);
         }
+        return classNames;
     }
 
     private boolean implementsInterface(JarFile currentFile, JarEntry current, int depth) throws IOException {
@@ -0,0 +1,322 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.driver;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * Index of driver libraries contents.
+ * Maps class and resource names to the library (jar) which contains them (the first one in class path order).
+ * Only jar entries are indexed. Directories (both class path entries and jar folder entries) are not.
+ *
+ * Index is saved in the drivers folder. Saved index is used only if driver libraries list, their sizes and
+ * modification times are the same as when index was built. Otherwise index is rebuilt (jars are scanned in parallel).
+ */
+public class DriverClassIndex {
+
+    private static final Log log = Log.getLog(DriverClassIndex.class);
+
+    private static final int INDEX_VERSION = 1;
+    private static final String INDEX_FOLDER = ".index";
+    private static final String INDEX_FILE_EXT = ".idx";
+    private static final String MULTI_RELEASE_ATTR = "Multi-Release";
+
+    public static class Library {
+        private final File file;
+        private final long length;
+        private final long lastModified;
+        private final boolean multiRelease;
+        private final List<String> entries;
+        // There is a non-indexed class path entry (e.g. a folder) before this library
+        private boolean shadowed;
+
+        Library(File file, long length, long lastModified, boolean multiRelease, List<String> entries) {
+            this.file = file;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.multiRelease = multiRelease;
+            this.entries = entries;
+        }
+
+        @NotNull
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Multi-release jars may contain different class versions for different Java versions.
+         * Such libraries must be handled by the standard class loader.
+         */
+        public boolean isMultiRelease() {
+            return multiRelease;
+        }
+
+        /**
+         * Returns true if library entries may be read directly (bypassing URLClassLoader).
+         * Multi-release jars and libraries which follow non-indexed class path entries (which may contain the same
+         * resources) must be handled by the standard class loader.
+         */
+        public boolean isDirectAccess() {
+            return !multiRelease && !shadowed;
+        }
+
+        boolean isSameFile(File libFile) {
+            return file.equals(libFile) && length == libFile.length() && lastModified == libFile.lastModified();
+        }
+    }
+
+    private final List<Library> libraries;
+    private final Map<String, Library> entryMap = new HashMap<>();
+
+    private DriverClassIndex(List<Library> libraries) {
+        this.libraries = libraries;
+        for (Library library : libraries) {
+            for (String entry : library.entries) {
+                entryMap.putIfAbsent(entry, library);
+            }
+        }
+    }
+
+    /**
+     * Returns the first indexed library which contains the specified resource.
+     * Resources which are not found may still exist in non-indexed class path entries.
+     */
+    @Nullable
+    public Library findLibrary(@NotNull String resourceName) {
+        return entryMap.get(resourceName);
+    }
+
+    /**
+     * Returns names of all classes (top-level only) from the specified package and its sub-packages
+     */
+    @NotNull
+    public List<String> getClassNames(@NotNull String packageName, int maxClasses) {
+        String prefix = packageName.replace('.', '/') + "/";
+        List<String> result = new ArrayList<>();
+        for (Library library : libraries) {
+            for (String entry : library.entries) {
+                if (entry.startsWith(prefix) && entry.endsWith(DriverClassFindJob.CLASS_FILE_EXT) && entry.indexOf('$') == -1 &&
+                    entryMap.get(entry) == library)
+                {
+                    result.add(entry.substring(0, entry.length() - DriverClassFindJob.CLASS_FILE_EXT.length()).replace('/', '.'));
+                    if (result.size() >= maxClasses) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads saved driver index or builds a new one if libraries were changed.
+     */
+    @NotNull
+    public static DriverClassIndex getIndex(@NotNull DriverDescriptor driver, @NotNull List<File> libraryFiles) {
+        return getIndex(getIndexFile(driver), libraryFiles);
+    }
+
+    @NotNull
+    static DriverClassIndex getIndex(@NotNull File indexFile, @NotNull List<File> libraryFiles) {
+        List<File> jarFiles = new ArrayList<>();
+        Set<File> shadowedFiles = new HashSet<>();
+        boolean hasOtherEntries = false;
+        for (File file : libraryFiles) {
+            if (isJarFile(file)) {
+                jarFiles.add(file);
+                if (hasOtherEntries) {
+                    shadowedFiles.add(file);
+                }
+            } else {
+                hasOtherEntries = true;
+            }
+        }
+        List<Library> libraries = null;
+        if (indexFile.exists()) {
+            try {
+                libraries = readIndex(indexFile, jarFiles);
+            } catch (IOException e) {
+                log.debug("Error reading driver index " + indexFile.getAbsolutePath(), e);
+            }
+        }
+        if (libraries == null) {
+            // Index is missing or libraries were changed
+            libraries = scanLibraries(jarFiles);
+            try {
+                writeIndex(indexFile, libraries);
+            } catch (IOException e) {
+                log.debug("Error writing driver index " + indexFile.getAbsolutePath(), e);
+            }
+        }
+        for (Library library : libraries) {
+            library.shadowed = shadowedFiles.contains(library.file);
+        }
+        return new DriverClassIndex(libraries);
+    }
+
+    public static void deleteIndex(@NotNull DriverDescriptor driver) {
+        File indexFile = getIndexFile(driver);
+        if (indexFile.exists() && !indexFile.delete()) {
+            log.debug("Can't delete driver index " + indexFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Runs tasks in a thread pool. Results are returned in the same order as tasks.
+     */
+    static <T> List<T> runParallel(@Nullable DBRProgressMonitor monitor, @NotNull List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (tasks.isEmpty()) {
+            return results;
+        }
+        int threadCount = Math.min(tasks.size(), Math.max(1, Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, r -> {
+            Thread thread = new Thread(r, "Driver libraries scanner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<T> future : futures) {
+                if (monitor != null && monitor.isCanceled()) {
+                    break;
+                }
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    log.debug(e.getCause());
+                    results.add(null);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (monitor != null) {
+                    monitor.worked(1);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    private static List<Library> scanLibraries(List<File> jarFiles) {
+        List<Callable<Library>> tasks = new ArrayList<>();
+        for (File file : jarFiles) {
+            tasks.add(() -> scanLibrary(file));
+        }
+        List<Library> libraries = new ArrayList<>();
+        for (Library library : runParallel(null, tasks)) {
+            if (library != null) {
+                libraries.add(library);
+            }
+        }
+        return libraries;
+    }
+
+    private static Library scanLibrary(File file) throws IOException {
+        long length = file.length();
+        long lastModified = file.lastModified();
+        try (JarFile jarFile = new JarFile(file, false)) {
+            Manifest manifest = jarFile.getManifest();
+            boolean multiRelease = manifest != null &&
+                CommonUtils.getBoolean(manifest.getMainAttributes().getValue(MULTI_RELEASE_ATTR), false);
+            List<String> entries = new ArrayList<>(jarFile.size());
+            for (Enumeration<JarEntry> e = jarFile.entries(); e.hasMoreElements(); ) {
+                JarEntry entry = e.nextElement();
+                if (!entry.isDirectory()) {
+                    entries.add(entry.getName());
+                }
+            }
+            return new Library(file, length, lastModified, multiRelease, entries);
+        }
+    }
+
+    private static List<Library> readIndex(File indexFile, List<File> jarFiles) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_VERSION) {
+                return null;
+            }
+            int libCount = in.readInt();
+            if (libCount != jarFiles.size()) {
+                return null;
+            }
+            List<Library> libraries = new ArrayList<>(libCount);
+            for (int i = 0; i < libCount; i++) {
+                Library library = new Library(new File(in.readUTF()), in.readLong(), in.readLong(), in.readBoolean(), new ArrayList<>());
+                if (!library.isSameFile(jarFiles.get(i))) {
+                    return null;
+                }
+                int entryCount = in.readInt();
+                for (int k = 0; k < entryCount; k++) {
+                    library.entries.add(in.readUTF());
+                }
+                libraries.add(library);
+            }
+            return libraries;
+        }
+    }
+
+    private static void writeIndex(File indexFile, List<Library> libraries) throws IOException {
+        File indexFolder = indexFile.getParentFile();
+        if (!indexFolder.exists() && !indexFolder.mkdirs()) {
+            throw new IOException("Can't create index folder " + indexFolder.getAbsolutePath());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+            out.writeInt(INDEX_VERSION);
+            out.writeInt(libraries.size());
+            for (Library library : libraries) {
+                out.writeUTF(library.file.getAbsolutePath());
+                out.writeLong(library.length);
+                out.writeLong(library.lastModified);
+                out.writeBoolean(library.multiRelease);
+                out.writeInt(library.entries.size());
+                for (String entry : library.entries) {
+                    out.writeUTF(entry);
+                }
+            }
+        }
+    }
+
+    private static File getIndexFile(DriverDescriptor driver) {
+        return new File(
+            new File(DriverDescriptor.getCustomDriversHome(), INDEX_FOLDER),
+            CommonUtils.escapeFileName(driver.getProviderId() + "-" + driver.getId()) + INDEX_FILE_EXT);
+    }
+
+    private static boolean isJarFile(File file) {
+        if (!file.isFile()) {
+            return false;
+        }
+        String name = file.getName().toLowerCase(Locale.ENGLISH);
+        return name.endsWith(".jar") || name.endsWith(".zip");
+    }
+
+}
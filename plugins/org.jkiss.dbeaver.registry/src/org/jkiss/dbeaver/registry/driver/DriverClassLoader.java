@@ -17,23 +17,144 @@
 
 package org.jkiss.dbeaver.registry.driver;
 
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.connection.DBPDriverLibrary;
+import org.jkiss.utils.IOUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 /**
- * DriverClassLoader
+ * DriverClassLoader.
+ * If driver libraries index is available then classes and resources are looked up directly in the library
+ * which contains them (instead of checking all class path entries one by one).
+ * Everything which is not found in index is looked up by URLClassLoader.
  */
 public class DriverClassLoader extends URLClassLoader
 {
+    private static final Log log = Log.getLog(DriverClassLoader.class);
+
     private final DriverDescriptor driver;
+    @Nullable
+    private final DriverClassIndex index;
+    private final Map<File, JarFile> openJars = new HashMap<>();
 
     public DriverClassLoader(DriverDescriptor driver, URL[] urls, ClassLoader parent)
+    {
+        this(driver, urls, parent, null);
+    }
+
+    public DriverClassLoader(DriverDescriptor driver, URL[] urls, ClassLoader parent, @Nullable DriverClassIndex index)
     {
         super(urls, parent);
         this.driver = driver;
+        this.index = index;
+    }
+
+    @Nullable
+    public DriverClassIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException
+    {
+        if (index != null) {
+            String resourceName = name.replace('.', '/') + DriverClassFindJob.CLASS_FILE_EXT;
+            DriverClassIndex.Library library = index.findLibrary(resourceName);
+            if (library != null && library.isDirectAccess()) {
+                try {
+                    return defineIndexedClass(name, resourceName, library.getFile());
+                } catch (IOException e) {
+                    log.debug("Error reading class '" + name + "' from " + library.getFile().getAbsolutePath(), e);
+                }
+            }
+        }
+        return super.findClass(name);
+    }
+
+    @Override
+    public URL findResource(String name)
+    {
+        if (index != null) {
+            DriverClassIndex.Library library = index.findLibrary(name);
+            if (library != null && library.isDirectAccess()) {
+                try {
+                    return new URL("jar:" + library.getFile().toURI().toURL() + "!/" + name);
+                } catch (MalformedURLException e) {
+                    log.debug(e);
+                }
+            }
+        }
+        return super.findResource(name);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        synchronized (openJars) {
+            for (JarFile jarFile : openJars.values()) {
+                try {
+                    jarFile.close();
+                } catch (IOException e) {
+                    log.debug(e);
+                }
+            }
+            openJars.clear();
+        }
+        super.close();
+    }
+
+    private Class<?> defineIndexedClass(String name, String resourceName, File libFile) throws IOException
+    {
+        JarFile jarFile;
+        synchronized (openJars) {
+            jarFile = openJars.get(libFile);
+            if (jarFile == null) {
+                jarFile = new JarFile(libFile);
+                openJars.put(libFile, jarFile);
+            }
+        }
+        JarEntry entry = jarFile.getJarEntry(resourceName);
+        if (entry == null) {
+            throw new IOException("Entry '" + resourceName + "' not found");
+        }
+        byte[] classBytes;
+        try (InputStream is = jarFile.getInputStream(entry)) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(entry.getSize() > 0 ? (int) entry.getSize() : 8192);
+            IOUtils.copyStream(is, buffer);
+            classBytes = buffer.toByteArray();
+        }
+        URL libURL = libFile.toURI().toURL();
+        int lastDot = name.lastIndexOf('.');
+        if (lastDot != -1) {
+            String packageName = name.substring(0, lastDot);
+            if (getPackage(packageName) == null) {
+                try {
+                    if (jarFile.getManifest() != null) {
+                        definePackage(packageName, jarFile.getManifest(), libURL);
+                    } else {
+                        definePackage(packageName, null, null, null, null, null, null, null);
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Package was defined concurrently
+                }
+            }
+        }
+        // Code signers are available only after the entry was read fully
+        CodeSource codeSource = new CodeSource(libURL, entry.getCodeSigners());
+        return defineClass(name, classBytes, 0, classBytes.length, codeSource);
     }
 
     @Override
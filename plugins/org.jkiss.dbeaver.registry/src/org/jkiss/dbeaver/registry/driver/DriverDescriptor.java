@@ -18,7 +18,9 @@ package org.jkiss.dbeaver.registry.driver;
 
 import com.google.gson.stream.JsonWriter;
 import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
@@ -32,6 +34,7 @@ import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.OSDescriptor;
 import org.jkiss.dbeaver.registry.DataSourceProviderDescriptor;
@@ -62,6 +65,8 @@ public class DriverDescriptor extends AbstractDescriptor implements DBPDriver {
     private static final String PROP_DRIVERS_LOCATION = "DRIVERS_LOCATION";
 
     private static final String LICENSE_ACCEPT_KEY = "driver.license.accept.";
+    // Maximum number of driver classes loaded in background after connect
+    private static final int MAX_PRELOAD_CLASSES = 5000;
 
     public static class DriverFileInfo {
         private final String id;
@@ -154,6 +159,7 @@ public class DriverDescriptor extends AbstractDescriptor implements DBPDriver {
     private boolean isLoaded;
     private Object driverInstance;
     private DriverClassLoader classLoader;
+    private volatile boolean classesPreloaded;
 
     private transient boolean isFailed = false;
 
@@ -783,6 +789,7 @@ public class DriverDescriptor extends AbstractDescriptor implements DBPDriver {
         if (!libraries.contains(descriptor)) {
             if (resetCache) {
                 resetDriverInstance();
+                DriverClassIndex.deleteIndex(this);
             }
             this.libraries.add(descriptor);
             return true;
@@ -792,6 +799,7 @@ public class DriverDescriptor extends AbstractDescriptor implements DBPDriver {
 
     public boolean removeDriverLibrary(DBPDriverLibrary lib) {
         resetDriverInstance();
+        DriverClassIndex.deleteIndex(this);
         if (!lib.isCustom()) {
             lib.setDisabled(true);
             return true;
@@ -965,11 +973,57 @@ public class DriverDescriptor extends AbstractDescriptor implements DBPDriver {
             }
             libraryURLs.add(url);
         }
+        // Libraries index (to find classes without scanning of all jars)
+        DriverClassIndex classIndex = null;
+        try {
+            classIndex = DriverClassIndex.getIndex(this, allLibraryFiles);
+        } catch (Exception e) {
+            log.debug("Error indexing driver '" + getFullName() + "' libraries", e);
+        }
         // Make class loader
         this.classLoader = new DriverClassLoader(
                 this,
                 libraryURLs.toArray(new URL[libraryURLs.size()]),
-                getDataSourceProvider().getClass().getClassLoader());
+                getDataSourceProvider().getClass().getClassLoader(),
+                classIndex);
+        this.classesPreloaded = false;
+    }
+
+    /**
+     * Loads driver implementation classes in background.
+     * Most of them are needed during connection initialization and first queries execution.
+     * Classes are loaded only once per driver class loader.
+     */
+    public void preloadDriverClasses() {
+        final DriverClassLoader loader = this.classLoader;
+        if (classesPreloaded || loader == null || loader.getIndex() == null || CommonUtils.isEmpty(driverClassName)) {
+            return;
+        }
+        classesPreloaded = true;
+        // Driver root package: up to three first segments of driver class package (e.g. org.postgresql, com.mysql.cj)
+        List<String> packageSegments = CommonUtils.splitString(driverClassName, '.');
+        if (packageSegments.size() < 3) {
+            return;
+        }
+        final String rootPackage = String.join(".", packageSegments.subList(0, Math.min(3, packageSegments.size() - 1)));
+        AbstractJob preloadJob = new AbstractJob("Preload driver '" + getName() + "' classes") {
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                for (String className : loader.getIndex().getClassNames(rootPackage, MAX_PRELOAD_CLASSES)) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    try {
+                        Class.forName(className, false, loader);
+                    } catch (Throwable e) {
+                        // Some classes may depend on optional libraries. Ignore them.
+                    }
+                }
+                return Status.OK_STATUS;
+            }
+        };
+        preloadJob.setSystem(true);
+        preloadJob.schedule();
     }
 
     public void updateFiles() {
@@ -23,6 +23,7 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.task.*;
+import org.jkiss.dbeaver.runtime.StartupProfiler;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -40,7 +41,9 @@ public class TaskRegistry implements DBTTaskRegistry
     public synchronized static TaskRegistry getInstance()
     {
         if (instance == null) {
-            instance = new TaskRegistry(Platform.getExtensionRegistry());
+            try (StartupProfiler.Phase ignored = StartupProfiler.startPhase("Task registry")) {
+                instance = new TaskRegistry(Platform.getExtensionRegistry());
+            }
         }
         return instance;
     }
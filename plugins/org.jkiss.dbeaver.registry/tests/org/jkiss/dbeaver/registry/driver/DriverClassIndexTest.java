@@ -0,0 +1,152 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.driver;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.*;
+
+public class DriverClassIndexTest {
+
+    private File tempFolder;
+    private File indexFile;
+    private File firstJar;
+    private File secondJar;
+
+    @Before
+    public void init() throws Exception {
+        tempFolder = Files.createTempDirectory("driver-index").toFile();
+        indexFile = new File(new File(tempFolder, "index"), "driver.idx");
+        firstJar = createJar("first.jar", "org/test/Driver.class", "org/test/Common.class", "META-INF/services/java.sql.Driver");
+        secondJar = createJar("second.jar", "org/test/Common.class", "org/test/util/Helper.class");
+    }
+
+    @After
+    public void cleanup() {
+        deleteAll(tempFolder);
+    }
+
+    @Test
+    public void shouldFindFirstLibraryInClassPathOrder() {
+        //when
+        DriverClassIndex index = DriverClassIndex.getIndex(indexFile, Arrays.asList(firstJar, secondJar));
+
+        //then
+        assertEquals(firstJar, index.findLibrary("org/test/Driver.class").getFile());
+        assertEquals(firstJar, index.findLibrary("org/test/Common.class").getFile());
+        assertEquals(secondJar, index.findLibrary("org/test/util/Helper.class").getFile());
+        assertNull(index.findLibrary("org/test/Missing.class"));
+        assertNull(index.findLibrary("org/test/"));
+
+        //when
+        index = DriverClassIndex.getIndex(indexFile, Arrays.asList(secondJar, firstJar));
+
+        //then
+        assertEquals(secondJar, index.findLibrary("org/test/Common.class").getFile());
+    }
+
+    @Test
+    public void shouldReadSavedIndex() throws Exception {
+        //given
+        DriverClassIndex.getIndex(indexFile, Arrays.asList(firstJar, secondJar));
+        assertTrue(indexFile.exists());
+        // Saved index is used while jars are the same: entries which are not in jars prove it
+        byte[] savedIndex = Files.readAllBytes(indexFile.toPath());
+        String patched = new String(savedIndex, StandardCharsets.ISO_8859_1).replace("org/test/util/Helper.class", "org/test/util/Patch1.class");
+        Files.write(indexFile.toPath(), patched.getBytes(StandardCharsets.ISO_8859_1));
+
+        //when
+        DriverClassIndex index = DriverClassIndex.getIndex(indexFile, Arrays.asList(firstJar, secondJar));
+
+        //then
+        assertEquals(secondJar, index.findLibrary("org/test/util/Patch1.class").getFile());
+        assertEquals(firstJar, index.findLibrary("org/test/Common.class").getFile());
+        assertEquals(
+            Arrays.asList("org.test.Driver", "org.test.Common", "org.test.util.Patch1"),
+            index.getClassNames("org.test", 100));
+    }
+
+    @Test
+    public void shouldRebuildIndexWhenLibrariesChange() throws Exception {
+        //given
+        DriverClassIndex.getIndex(indexFile, Arrays.asList(firstJar, secondJar));
+
+        //when
+        assertTrue(secondJar.delete());
+        secondJar = createJar("second.jar", "org/test/util/Other.class");
+        assertTrue(secondJar.setLastModified(secondJar.lastModified() + 10000));
+        DriverClassIndex index = DriverClassIndex.getIndex(indexFile, Arrays.asList(firstJar, secondJar));
+
+        //then
+        assertNull(index.findLibrary("org/test/util/Helper.class"));
+        assertEquals(secondJar, index.findLibrary("org/test/util/Other.class").getFile());
+
+        //when
+        index = DriverClassIndex.getIndex(indexFile, Arrays.asList(firstJar));
+
+        //then
+        assertNull(index.findLibrary("org/test/util/Other.class"));
+    }
+
+    @Test
+    public void shouldNotAccessLibrariesAfterFolderDirectly() throws Exception {
+        //given
+        File classesFolder = new File(tempFolder, "classes");
+        assertTrue(classesFolder.mkdirs());
+
+        //when
+        DriverClassIndex index = DriverClassIndex.getIndex(indexFile, Arrays.asList(firstJar, classesFolder, secondJar));
+
+        //then
+        assertTrue(index.findLibrary("org/test/Driver.class").isDirectAccess());
+        assertFalse(index.findLibrary("org/test/util/Helper.class").isDirectAccess());
+    }
+
+    private File createJar(String name, String... entries) throws IOException {
+        File file = new File(tempFolder, name);
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+            for (String entry : entries) {
+                out.putNextEntry(new JarEntry(entry));
+                out.write(entry.getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    private static void deleteAll(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteAll(child);
+            }
+        }
+        file.delete();
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Result set presentation which can copy selection in background.
+ */
+public interface IResultSetCopier {
+
+    /**
+     * Captured selection. Selected values may be written in any thread.
+     */
+    interface SelectionWriter {
+
+        int getCellCount();
+
+        void writeSelection(@NotNull DBRProgressMonitor monitor, @NotNull Writer writer) throws IOException;
+
+    }
+
+    /**
+     * Captures current selection. Called in UI thread.
+     * Cut is not supported (selected values must be changed in UI thread).
+     */
+    @NotNull
+    SelectionWriter captureSelection(@NotNull ResultSetCopySettings settings);
+
+}
@@ -164,6 +164,10 @@ public class ResultSetHandlerCopyAs extends AbstractHandler implements IElementU
                     producer.transferData(monitor, consumer, null, producerSettings);
 
                     consumer.finishTransfer(monitor, false);
+                    if (monitor.isCanceled()) {
+                        // Do not put partial results in clipboard
+                        return Status.CANCEL_STATUS;
+                    }
                     consumer.finishTransfer(monitor, true);
                 } catch (Exception e) {
                     DBWorkbench.getPlatformUI().showError("Error opening in " + processor.getAppName(), null, e);
@@ -59,8 +59,7 @@ public class ResultSetHandlerCopySpecial extends ResultSetHandlerMain implements
     public static void showAdvancedCopyDialog(IResultSetController resultSet, Shell shell) {
         AdvancedCopyConfigDialog configDialog = new AdvancedCopyConfigDialog(shell);
         if (configDialog.open() == IDialogConstants.OK_ID) {
-            ResultSetUtils.copyToClipboard(resultSet.getActivePresentation().copySelectionToString(
-                configDialog.copySettings));
+            ResultSetUtils.copySelectionToClipboard(resultSet, configDialog.copySettings);
         }
     }
 
@@ -373,9 +373,9 @@ public class ResultSetHandlerMain extends AbstractHandler {
                 break;
             }
             case IWorkbenchCommandConstants.EDIT_COPY:
-                ResultSetUtils.copyToClipboard(
-                    presentation.copySelectionToString(
-                        new ResultSetCopySettings(false, false, false, true, false, null, null, null, DBDDisplayFormat.EDIT)));
+                ResultSetUtils.copySelectionToClipboard(
+                    rsv,
+                    new ResultSetCopySettings(false, false, false, true, false, null, null, null, DBDDisplayFormat.EDIT));
                 break;
             case IWorkbenchCommandConstants.EDIT_PASTE:
             case IActionConstants.CMD_PASTE_SPECIAL:
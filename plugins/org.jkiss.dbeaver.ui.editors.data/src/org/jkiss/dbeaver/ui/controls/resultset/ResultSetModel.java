@@ -35,6 +35,7 @@ import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.virtual.DBVColorOverride;
+import org.jkiss.dbeaver.model.virtual.DBVCompiledExpression;
 import org.jkiss.dbeaver.model.virtual.DBVEntity;
 import org.jkiss.dbeaver.model.virtual.DBVEntityAttribute;
 import org.jkiss.dbeaver.model.virtual.DBVUtils;
@@ -43,6 +44,8 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 /**
  * Result set model
@@ -51,6 +54,9 @@ public class ResultSetModel {
 
     private static final Log log = Log.getLog(ResultSetModel.class);
 
+    // Minimal number of rows to evaluate virtual columns and colors in parallel
+    private static final int PARALLEL_ROWS_THRESHOLD = 1000;
+
     // Attributes
     private DBDAttributeBinding[] attributes = new DBDAttributeBinding[0];
     private List<DBDAttributeBinding> visibleAttributes = new ArrayList<>();
@@ -69,6 +75,8 @@ public class ResultSetModel {
 
     // Coloring
     private Map<DBDAttributeBinding, List<AttributeColorSettings>> colorMapping = new HashMap<>();
+    // Virtual columns
+    private volatile CustomColumns customColumns;
 
     private DBCStatistics statistics;
     private DBCTrace trace;
@@ -82,6 +90,10 @@ public class ResultSetModel {
         private Object[] attributeValues;
         private Color colorForeground, colorForeground2;
         private Color colorBackground, colorBackground2;
+        // Range bounds and colors are resolved once (range is checked in worker threads)
+        private boolean rangeValid;
+        private double minValue, maxValue;
+        private RGB rgbBackground, rgbBackground2;
 
         AttributeColorSettings(DBVColorOverride co) {
             this.operator = co.getOperator();
@@ -92,6 +104,13 @@ public class ResultSetModel {
             this.colorBackground = getColor(co.getColorBackground());
             this.colorBackground2 = getColor(co.getColorBackground2());
             this.attributeValues = co.getAttributeValues();
+            if (rangeCheck && attributeValues != null && attributeValues.length > 1 && colorBackground != null && colorBackground2 != null) {
+                this.rangeValid = true;
+                this.minValue = ResultSetUtils.makeNumericValue(attributeValues[0]);
+                this.maxValue = ResultSetUtils.makeNumericValue(attributeValues[1]);
+                this.rgbBackground = colorBackground.getRGB();
+                this.rgbBackground2 = colorBackground2.getRGB();
+            }
         }
 
         private static Color getColor(String color) {
@@ -106,6 +125,36 @@ public class ResultSetModel {
         }
     }
 
+    /**
+     * Virtual column expressions compiled against the current attributes
+     */
+    private static class CustomColumns {
+        private final DBDAttributeBinding[] attributes;
+        private final Map<DBDAttributeBinding, Integer> indexes = new IdentityHashMap<>();
+        private final List<DBVCompiledExpression> expressions = new ArrayList<>();
+
+        CustomColumns(DBDAttributeBinding[] attributes) {
+            this.attributes = attributes;
+            for (DBDAttributeBinding attr : attributes) {
+                if (attr instanceof DBDAttributeBindingCustom) {
+                    indexes.put(attr, expressions.size());
+                    expressions.add(DBVUtils.compileExpression(((DBDAttributeBindingCustom) attr).getEntityAttribute(), attributes));
+                }
+            }
+        }
+
+        Object[] evaluate(Object[] rowValues) {
+            Object[] values = new Object[expressions.size()];
+            for (int i = 0; i < values.length; i++) {
+                DBVCompiledExpression expression = expressions.get(i);
+                if (expression != null) {
+                    values[i] = expression.evaluate(rowValues);
+                }
+            }
+            return values;
+        }
+    }
+
     private final Comparator<DBDAttributeBinding> POSITION_SORTER = new Comparator<DBDAttributeBinding>() {
         @Override
         public int compare(DBDAttributeBinding o1, DBDAttributeBinding o2) {
@@ -334,9 +383,60 @@ public class ResultSetModel {
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
+        if (attribute.isCustom()) {
+            CustomColumns columns = getCustomColumns();
+            Integer index = columns.indexes.get(attribute);
+            if (index != null) {
+                Object[] customValues = row.customValues;
+                if (customValues == null) {
+                    customValues = columns.evaluate(row.values);
+                    row.customValues = customValues;
+                }
+                return customValues[index];
+            }
+        }
         return DBUtils.getAttributeValue(attribute, attributes, row.values);
     }
 
+    @NotNull
+    private CustomColumns getCustomColumns() {
+        CustomColumns columns = customColumns;
+        if (columns == null || columns.attributes != attributes) {
+            // Attributes were changed. Rows are recreated in this case so there is no need to reset their values.
+            columns = new CustomColumns(attributes);
+            customColumns = columns;
+        }
+        return columns;
+    }
+
+    /**
+     * Evaluates virtual columns column by column.
+     */
+    private void updateCustomValues(@NotNull List<ResultSetRow> rows) {
+        CustomColumns columns = getCustomColumns();
+        if (columns.expressions.isEmpty() || rows.isEmpty()) {
+            return;
+        }
+        List<Object[]> rowValues = new ArrayList<>(rows.size());
+        for (ResultSetRow row : rows) {
+            rowValues.add(row.values);
+        }
+        Object[][] customValues = new Object[rows.size()][columns.expressions.size()];
+        for (int i = 0; i < columns.expressions.size(); i++) {
+            DBVCompiledExpression expression = columns.expressions.get(i);
+            if (expression == null) {
+                continue;
+            }
+            Object[] columnValues = expression.evaluate(rowValues);
+            for (int k = 0; k < columnValues.length; k++) {
+                customValues[k][i] = columnValues[k];
+            }
+        }
+        for (int i = 0; i < customValues.length; i++) {
+            rows.get(i).customValues = customValues[i];
+        }
+    }
+
     /**
      * Updates cell value. Saves previous value.
      *
@@ -461,6 +561,8 @@ public class ResultSetModel {
             } else {
                 row.values[rootIndex] = value;
             }
+            // Virtual columns may depend on this value
+            row.customValues = null;
             return true;
         }
         return false;
@@ -684,75 +786,75 @@ public class ResultSetModel {
                 row.colorInfo = null;
             }
         }
-        if (!colorMapping.isEmpty()) {
-            for (Map.Entry<DBDAttributeBinding, List<AttributeColorSettings>> entry : colorMapping.entrySet()) {
-                if (!ArrayUtils.contains(attributes, entry.getKey())) {
-                    // This may happen during FK navigation - attributes are already updated while colors mapping are still old
+        if (colorMapping.isEmpty() || rows.isEmpty()) {
+            return;
+        }
+        final int rowCount = rows.size();
+        for (Map.Entry<DBDAttributeBinding, List<AttributeColorSettings>> entry : colorMapping.entrySet()) {
+            final DBDAttributeBinding binding = entry.getKey();
+            if (!ArrayUtils.contains(attributes, binding)) {
+                // This may happen during FK navigation - attributes are already updated while colors mapping are still old
+                continue;
+            }
+            // Read attribute values once for all rules of this attribute
+            final Object[] cellValues = new Object[rowCount];
+            forEachRow(rowCount, i -> cellValues[i] = getCellValue(binding, rows.get(i)));
+
+            for (AttributeColorSettings acs : entry.getValue()) {
+                if (acs.rangeCheck && !acs.rangeValid) {
                     continue;
                 }
+                // Evaluate rule for all rows. Colors are resolved later because shared colors are not thread-safe.
+                final boolean[] matches = new boolean[rowCount];
+                final RGB[] gradients = acs.rangeCheck ? new RGB[rowCount] : null;
+                forEachRow(rowCount, i -> {
+                    if (gradients != null) {
+                        double value = ResultSetUtils.makeNumericValue(cellValues[i]);
+                        if (value >= acs.minValue && value <= acs.maxValue) {
+                            matches[i] = true;
+                            gradients[i] = ResultSetUtils.makeGradientValue(acs.rgbBackground, acs.rgbBackground2, acs.minValue, acs.maxValue, value);
+                        }
+                        // FIXME: coloring value before and after range. Maybe we need an option for this.
+                    } else {
+                        matches[i] = acs.evaluate(cellValues[i]);
+                    }
+                });
 
-                for (ResultSetRow row : rows) {
-                    for (AttributeColorSettings acs : entry.getValue()) {
-                        Color background = null, foreground = null;
-                        if (acs.rangeCheck) {
-                            if (acs.attributeValues != null && acs.attributeValues.length > 1) {
-                                double minValue = ResultSetUtils.makeNumericValue(acs.attributeValues[0]);
-                                double maxValue = ResultSetUtils.makeNumericValue(acs.attributeValues[1]);
-                                if (acs.colorBackground != null && acs.colorBackground2 != null) {
-                                    final DBDAttributeBinding binding = entry.getKey();
-                                    final Object cellValue = getCellValue(binding, row);
-                                    double value = ResultSetUtils.makeNumericValue(cellValue);
-                                    if (value >= minValue && value <= maxValue) {
-                                        foreground = acs.colorForeground;
-                                        RGB rowRGB = ResultSetUtils.makeGradientValue(acs.colorBackground.getRGB(), acs.colorBackground2.getRGB(), minValue, maxValue, value);
-                                        background = UIUtils.getSharedColor(rowRGB);
-                                    }
-                                    // FIXME: coloring value before and after range. Maybe we need an option for this.
-                                    /* else if (value < minValue) {
-                                        foreground = acs.colorForeground;
-                                        background = acs.colorBackground;
-                                    } else if (value > maxValue) {
-                                        foreground = acs.colorForeground2;
-                                        background = acs.colorBackground2;
-                                    }*/
-                                }
-                            }
-                        } else {
-                            final DBDAttributeBinding binding = entry.getKey();
-                            final Object cellValue = getCellValue(binding, row);
-                            if (acs.evaluate(cellValue)) {
-                                foreground = acs.colorForeground;
-                                background = acs.colorBackground;
+                for (int i = 0; i < rowCount; i++) {
+                    if (!matches[i]) {
+                        continue;
+                    }
+                    Color foreground = acs.colorForeground;
+                    Color background = gradients != null ? UIUtils.getSharedColor(gradients[i]) : acs.colorBackground;
+                    if (foreground == null && background == null) {
+                        continue;
+                    }
+                    ResultSetRow row = rows.get(i);
+                    ResultSetRow.ColorInfo colorInfo = row.colorInfo;
+                    if (colorInfo == null) {
+                        colorInfo = new ResultSetRow.ColorInfo();
+                        row.colorInfo = colorInfo;
+                    }
+                    if (!acs.singleColumn) {
+                        colorInfo.rowForeground = foreground;
+                        colorInfo.rowBackground = background;
+                    } else {
+                        // Single column color
+                        if (foreground != null) {
+                            Color[] cellFgColors = colorInfo.cellFgColors;
+                            if (cellFgColors == null) {
+                                cellFgColors = new Color[attributes.length];
+                                colorInfo.cellFgColors = cellFgColors;
                             }
+                            cellFgColors[binding.getOrdinalPosition()] = foreground;
                         }
-                        if (foreground != null || background != null) {
-                            ResultSetRow.ColorInfo colorInfo = row.colorInfo;
-                            if (colorInfo == null) {
-                                colorInfo = new ResultSetRow.ColorInfo();
-                                row.colorInfo = colorInfo;
-                            }
-                            if (!acs.singleColumn) {
-                                colorInfo.rowForeground = foreground;
-                                colorInfo.rowBackground = background;
-                            } else {
-                                // Single column color
-                                if (foreground != null) {
-                                    Color[] cellFgColors = colorInfo.cellFgColors;
-                                    if (cellFgColors == null) {
-                                        cellFgColors = new Color[attributes.length];
-                                        colorInfo.cellFgColors = cellFgColors;
-                                    }
-                                    cellFgColors[entry.getKey().getOrdinalPosition()] = foreground;
-                                }
-                                if (background != null) {
-                                    Color[] cellBgColors = colorInfo.cellBgColors;
-                                    if (cellBgColors == null) {
-                                        cellBgColors = new Color[attributes.length];
-                                        colorInfo.cellBgColors = cellBgColors;
-                                    }
-                                    cellBgColors[entry.getKey().getOrdinalPosition()] = background;
-                                }
+                        if (background != null) {
+                            Color[] cellBgColors = colorInfo.cellBgColors;
+                            if (cellBgColors == null) {
+                                cellBgColors = new Color[attributes.length];
+                                colorInfo.cellBgColors = cellBgColors;
                             }
+                            cellBgColors[binding.getOrdinalPosition()] = background;
                         }
                     }
                 }
@@ -760,6 +862,19 @@ public class ResultSetModel {
         }
     }
 
+    /**
+     * Runs action for each row index. Big row sets are processed in parallel.
+     */
+    private static void forEachRow(int rowCount, IntConsumer action) {
+        if (rowCount < PARALLEL_ROWS_THRESHOLD) {
+            for (int i = 0; i < rowCount; i++) {
+                action.accept(i);
+            }
+        } else {
+            IntStream.range(0, rowCount).parallel().forEach(action);
+        }
+    }
+
     public void appendData(@NotNull List<Object[]> rows, boolean resetOldRows) {
         if (resetOldRows) {
             curRows.clear();
@@ -772,6 +887,7 @@ public class ResultSetModel {
                 new ResultSetRow(firstRowNum + i, rows.get(i)));
         }
         curRows.addAll(newRows);
+        updateCustomValues(newRows);
         updateRowColors(false, newRows);
     }
 
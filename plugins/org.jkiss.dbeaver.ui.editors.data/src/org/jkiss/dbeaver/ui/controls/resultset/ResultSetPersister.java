@@ -54,6 +54,9 @@ class ResultSetPersister {
 
     private static final Log log = Log.getLog(ResultSetPersister.class);
 
+    // Max number of rows saved in a single batch
+    private static final int MAX_BATCH_SIZE = 1000;
+
     /**
      * Data update listener
      */
@@ -490,6 +493,7 @@ class ResultSetPersister {
                 DBUtils.releaseValue(row.values[entry.getKey()]);
                 row.values[entry.getKey()] = entry.getValue();
             }
+            stat.row.customValues = null;
         }
     }
 
@@ -621,83 +625,77 @@ class ResultSetPersister {
                 }
             }
             try {
-                for (DataStatementInfo statement : ResultSetPersister.this.deleteStatements) {
+                for (List<DataStatementInfo> group : groupStatements(ResultSetPersister.this.deleteStatements)) {
                     if (monitor.isCanceled()) break;
+                    DataStatementInfo first = group.get(0);
                     try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
+                        DBSDataManipulator dataContainer = getDataManipulator(first.entity);
                         try (DBSDataManipulator.ExecuteBatch batch = dataContainer.deleteData(
                             session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
+                            DBDAttributeValue.getAttributes(first.keyAttributes),
                             new ExecutionSource(dataContainer))) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script);
-                            } else {
-                                deleteStats.accumulate(batch.execute(session));
+                            for (DataStatementInfo statement : group) {
+                                batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
                             }
+                            executeBatch(session, batch, group, deleteStats);
                         }
-                        processStatementChanges(statement);
                     } catch (DBException e) {
-                        processStatementError(statement, session);
+                        processStatementError(session);
                         return e;
                     }
-                    monitor.worked(1);
+                    monitor.worked(group.size());
                 }
-                for (DataStatementInfo statement : ResultSetPersister.this.insertStatements) {
+                for (List<DataStatementInfo> group : groupStatements(ResultSetPersister.this.insertStatements)) {
                     if (monitor.isCanceled()) break;
+                    DataStatementInfo first = group.get(0);
                     try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
+                        DBSDataManipulator dataContainer = getDataManipulator(first.entity);
                         try (DBSDataManipulator.ExecuteBatch batch = dataContainer.insertData(
                             session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            statement.needKeys() ? new KeyDataReceiver(statement) : null,
+                            DBDAttributeValue.getAttributes(first.keyAttributes),
+                            first.needKeys() ? new KeyDataReceiver(first) : null,
                             new ExecutionSource(dataContainer))) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script);
-                            } else {
-                                insertStats.accumulate(batch.execute(session));
+                            for (DataStatementInfo statement : group) {
+                                batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
                             }
+                            executeBatch(session, batch, group, insertStats);
                         }
-                        processStatementChanges(statement);
                     } catch (DBException e) {
-                        processStatementError(statement, session);
+                        processStatementError(session);
                         return e;
                     }
-                    monitor.worked(1);
+                    monitor.worked(group.size());
                 }
-                for (DataStatementInfo statement : ResultSetPersister.this.updateStatements) {
+                for (List<DataStatementInfo> group : groupStatements(ResultSetPersister.this.updateStatements)) {
                     if (monitor.isCanceled()) break;
+                    DataStatementInfo first = group.get(0);
                     try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
+                        DBSDataManipulator dataContainer = getDataManipulator(first.entity);
                         try (DBSDataManipulator.ExecuteBatch batch = dataContainer.updateData(
                             session,
-                            DBDAttributeValue.getAttributes(statement.updateAttributes),
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
+                            DBDAttributeValue.getAttributes(first.updateAttributes),
+                            DBDAttributeValue.getAttributes(first.keyAttributes),
                             null,
                             new ExecutionSource(dataContainer))) {
-                            // Make single array of values
-                            Object[] attributes = new Object[statement.updateAttributes.size() + statement.keyAttributes.size()];
-                            for (int i = 0; i < statement.updateAttributes.size(); i++) {
-                                attributes[i] = statement.updateAttributes.get(i).getValue();
-                            }
-                            for (int i = 0; i < statement.keyAttributes.size(); i++) {
-                                attributes[statement.updateAttributes.size() + i] = statement.keyAttributes.get(i).getValue();
+                            for (DataStatementInfo statement : group) {
+                                // Make single array of values
+                                Object[] attributes = new Object[statement.updateAttributes.size() + statement.keyAttributes.size()];
+                                for (int i = 0; i < statement.updateAttributes.size(); i++) {
+                                    attributes[i] = statement.updateAttributes.get(i).getValue();
+                                }
+                                for (int i = 0; i < statement.keyAttributes.size(); i++) {
+                                    attributes[statement.updateAttributes.size() + i] = statement.keyAttributes.get(i).getValue();
+                                }
+                                batch.add(attributes);
                             }
                             // Execute
-                            batch.add(attributes);
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script);
-                            } else {
-                                updateStats.accumulate(batch.execute(session));
-                            }
+                            executeBatch(session, batch, group, updateStats);
                         }
-                        processStatementChanges(statement);
                     } catch (DBException e) {
-                        processStatementError(statement, session);
+                        processStatementError(session);
                         return e;
                     }
-                    monitor.worked(1);
+                    monitor.worked(group.size());
                 }
 
                 return null;
@@ -713,12 +711,49 @@ class ResultSetPersister {
             }
         }
 
-        private void processStatementChanges(DataStatementInfo statement) {
-            statement.executed = true;
+        /**
+         * Splits statements into groups which can be executed in a single batch.
+         * Group contains subsequent statements of the same entity with the same attributes (so statements order is kept).
+         * Inserts which read generated keys are executed separately.
+         */
+        private List<List<DataStatementInfo>> groupStatements(List<DataStatementInfo> statements) {
+            List<List<DataStatementInfo>> groups = new ArrayList<>();
+            List<DataStatementInfo> group = null;
+            for (DataStatementInfo statement : statements) {
+                if (group == null ||
+                    group.size() >= MAX_BATCH_SIZE ||
+                    statement.needKeys() ||
+                    group.get(0).needKeys() ||
+                    !statement.hasSameAttributes(group.get(0)))
+                {
+                    group = new ArrayList<>();
+                    groups.add(group);
+                }
+                group.add(statement);
+            }
+            return groups;
+        }
+
+        private void executeBatch(DBCSession session, DBSDataManipulator.ExecuteBatch batch, List<DataStatementInfo> group, DBCStatistics statistics) throws DBCException {
+            if (generateScript) {
+                batch.generatePersistActions(session, script);
+                for (DataStatementInfo statement : group) {
+                    statement.executed = true;
+                }
+                return;
+            }
+            try {
+                statistics.accumulate(batch.execute(session));
+            } finally {
+                // Track each row state (some rows may be executed before the error or cancel)
+                BitSet executedRows = batch.getExecutedRows();
+                for (int i = 0; i < group.size(); i++) {
+                    group.get(i).executed = executedRows.get(i);
+                }
+            }
         }
 
-        private void processStatementError(DataStatementInfo statement, DBCSession session) {
-            statement.executed = false;
+        private void processStatementError(DBCSession session) {
             if (!generateScript) {
                 DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
                 if (txnManager != null) {
@@ -837,6 +872,28 @@ class ResultSetPersister {
             }
             return false;
         }
+
+        /**
+         * Checks whether statements can be executed in the same batch
+         */
+        boolean hasSameAttributes(DataStatementInfo statement) {
+            return type == statement.type &&
+                entity == statement.entity &&
+                isSameAttributes(keyAttributes, statement.keyAttributes) &&
+                isSameAttributes(updateAttributes, statement.updateAttributes);
+        }
+
+        private static boolean isSameAttributes(List<DBDAttributeValue> attrs1, List<DBDAttributeValue> attrs2) {
+            if (attrs1.size() != attrs2.size()) {
+                return false;
+            }
+            for (int i = 0; i < attrs1.size(); i++) {
+                if (attrs1.get(i).getAttribute() != attrs2.get(i).getAttribute()) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 
     class RowDataReceiver implements DBDDataReceiver {
@@ -948,6 +1005,7 @@ class ResultSetPersister {
                         for (int i = 0; i < rows.size(); i++) {
                             if (refreshValues[i] != null) {
                                 rows.get(i).values = refreshValues[i];
+                                rows.get(i).customValues = null;
                             }
                         }
                         viewer.redrawData(false, true);
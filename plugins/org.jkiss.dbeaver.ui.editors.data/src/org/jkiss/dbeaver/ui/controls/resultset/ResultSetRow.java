@@ -63,6 +63,9 @@ public class ResultSetRow {
     public Map<DBDValue, CollectionElementData> collections;
     @Nullable
     public ColorInfo colorInfo;
+    // Virtual columns values (evaluated once). Must be reset when row values change.
+    @Nullable
+    Object[] customValues;
 
     ResultSetRow(int rowNumber, @NotNull Object[] values) {
         this.rowNumber = rowNumber;
@@ -17,6 +17,8 @@
 
 package org.jkiss.dbeaver.ui.controls.resultset;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.swt.dnd.Clipboard;
 import org.eclipse.swt.dnd.TextTransfer;
@@ -31,6 +33,7 @@ import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.*;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLQuery;
@@ -43,8 +46,11 @@ import org.jkiss.dbeaver.model.virtual.DBVEntityConstraint;
 import org.jkiss.dbeaver.model.virtual.DBVUtils;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.data.editors.ReferenceValueEditor;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.ChunkedStringWriter;
 import org.jkiss.utils.CommonUtils;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 
@@ -55,6 +61,9 @@ public class ResultSetUtils
 {
     private static final Log log = Log.getLog(ResultSetUtils.class);
 
+    // Selections with less cells are copied in UI thread
+    private static final int BACKGROUND_COPY_MIN_CELLS = 10000;
+
     private static volatile IDialogSettings viewerSettings;
 
     @NotNull
@@ -428,6 +437,56 @@ public class ResultSetUtils
         }
     }
 
+    /**
+     * Copies selection of the active presentation to the clipboard.
+     * Large selections are formatted in a background job (with progress and cancellation).
+     */
+    public static void copySelectionToClipboard(@NotNull IResultSetController controller, @NotNull ResultSetCopySettings settings) {
+        IResultSetPresentation presentation = controller.getActivePresentation();
+        if (settings.isCut() || !(presentation instanceof IResultSetCopier)) {
+            copyToClipboard(presentation.copySelectionToString(settings));
+            return;
+        }
+        IResultSetCopier.SelectionWriter selectionWriter = ((IResultSetCopier) presentation).captureSelection(settings);
+        int cellCount = selectionWriter.getCellCount();
+        if (cellCount < BACKGROUND_COPY_MIN_CELLS) {
+            ChunkedStringWriter buffer = new ChunkedStringWriter();
+            try {
+                selectionWriter.writeSelection(new VoidProgressMonitor(), buffer);
+            } catch (IOException e) {
+                log.error("Error copying selection", e);
+                return;
+            }
+            copyToClipboard(buffer.toString());
+            return;
+        }
+        new AbstractJob("Copy " + cellCount + " cells") {
+            {
+                setUser(true);
+                setSystem(false);
+            }
+
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                ChunkedStringWriter buffer = new ChunkedStringWriter();
+                monitor.beginTask("Copy selected values", cellCount);
+                try {
+                    selectionWriter.writeSelection(monitor, buffer);
+                } catch (IOException e) {
+                    return GeneralUtils.makeExceptionStatus(e);
+                } finally {
+                    monitor.done();
+                }
+                if (monitor.isCanceled()) {
+                    return Status.CANCEL_STATUS;
+                }
+                String text = buffer.toString();
+                UIUtils.syncExec(() -> copyToClipboard(text));
+                return Status.OK_STATUS;
+            }
+        }.schedule();
+    }
+
     public static boolean isServerSideFiltering(IResultSetController controller)
     {
         return
@@ -0,0 +1,292 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.ui.controls.resultset.plaintext;
+
+import org.eclipse.swt.custom.StyledTextContent;
+import org.eclipse.swt.custom.TextChangeListener;
+import org.eclipse.swt.custom.TextChangedEvent;
+import org.eclipse.swt.custom.TextChangingEvent;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only text content of plain text presentation.
+ *
+ * Contains either plain text or a virtual grid. Grid lines are rendered on demand (only visible lines are
+ * rendered by StyledText). All grid lines have the same width so line offsets are calculated without rendering.
+ */
+class PlainTextContent implements StyledTextContent {
+
+    private static final String LINE_DELIMITER = "\n"; //$NON-NLS-1$
+    private static final int LINE_CACHE_SIZE = 512;
+
+    interface LineRenderer {
+        /**
+         * Appends line text (without line delimiter) to the buffer
+         */
+        void renderLine(int lineIndex, @NotNull StringBuilder buffer);
+    }
+
+    private final List<TextChangeListener> listeners = new ArrayList<>();
+
+    // Plain text
+    private String text = "";
+    private int[] lineOffsets = new int[] { 0 };
+
+    // Virtual grid
+    private LineRenderer renderer;
+    private int lineWidth;
+    private int lineCount;
+    private final int[] cachedLineIndexes = new int[LINE_CACHE_SIZE];
+    private final String[] cachedLines = new String[LINE_CACHE_SIZE];
+    private final StringBuilder lineBuffer = new StringBuilder();
+
+    boolean isGrid() {
+        return renderer != null;
+    }
+
+    /**
+     * Sets virtual grid content. Lines are rendered on demand.
+     */
+    void setGrid(@NotNull LineRenderer renderer, int lineWidth, int lineCount) {
+        this.renderer = renderer;
+        this.lineWidth = lineWidth;
+        this.lineCount = lineCount;
+        this.text = "";
+        this.lineOffsets = new int[] { 0 };
+        resetLineCache();
+        fireTextSet();
+    }
+
+    /**
+     * Appends lines to the virtual grid
+     */
+    void appendGridLines(int newLines) {
+        if (renderer == null || newLines <= 0) {
+            return;
+        }
+        TextChangingEvent event = new TextChangingEvent(this);
+        event.start = getCharCount();
+        event.replaceCharCount = 0;
+        event.replaceLineCount = 0;
+        event.newCharCount = newLines * (lineWidth + LINE_DELIMITER.length());
+        event.newLineCount = newLines;
+        for (TextChangeListener listener : listeners.toArray(new TextChangeListener[0])) {
+            listener.textChanging(event);
+        }
+        lineCount += newLines;
+        fireTextChanged();
+    }
+
+    /**
+     * Clears rendered lines cache. Must be called if grid values were changed.
+     */
+    void resetLineCache() {
+        Arrays.fill(cachedLineIndexes, -1);
+        Arrays.fill(cachedLines, null);
+    }
+
+    @Override
+    public void addTextChangeListener(TextChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeTextChangeListener(TextChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public int getCharCount() {
+        if (renderer != null) {
+            return lineCount == 0 ? 0 : lineCount * (lineWidth + LINE_DELIMITER.length()) - LINE_DELIMITER.length();
+        }
+        return text.length();
+    }
+
+    @Override
+    public String getLine(int lineIndex) {
+        if (renderer == null) {
+            int end = lineIndex + 1 < lineOffsets.length ? lineOffsets[lineIndex + 1] - LINE_DELIMITER.length() : text.length();
+            return text.substring(lineOffsets[lineIndex], end);
+        }
+        if (lineIndex < 0 || lineIndex >= lineCount) {
+            return "";
+        }
+        int cacheIndex = lineIndex % LINE_CACHE_SIZE;
+        if (cachedLineIndexes[cacheIndex] == lineIndex) {
+            return cachedLines[cacheIndex];
+        }
+        lineBuffer.setLength(0);
+        renderGridLine(renderer, lineWidth, lineIndex, lineBuffer);
+        String line = lineBuffer.toString();
+        cachedLineIndexes[cacheIndex] = lineIndex;
+        cachedLines[cacheIndex] = line;
+        return line;
+    }
+
+    @Override
+    public int getLineAtOffset(int offset) {
+        if (renderer != null) {
+            if (lineCount == 0) {
+                return 0;
+            }
+            return Math.max(0, Math.min(offset / (lineWidth + LINE_DELIMITER.length()), lineCount - 1));
+        }
+        int index = Arrays.binarySearch(lineOffsets, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    @Override
+    public int getLineCount() {
+        if (renderer != null) {
+            return Math.max(1, lineCount);
+        }
+        return lineOffsets.length;
+    }
+
+    @Override
+    public String getLineDelimiter() {
+        return LINE_DELIMITER;
+    }
+
+    @Override
+    public int getOffsetAtLine(int lineIndex) {
+        if (renderer != null) {
+            return lineIndex * (lineWidth + LINE_DELIMITER.length());
+        }
+        return lineOffsets[lineIndex];
+    }
+
+    @Override
+    public String getTextRange(int start, int length) {
+        if (renderer == null) {
+            return text.substring(start, start + length);
+        }
+        StringBuilder buffer = new StringBuilder(length);
+        try {
+            writeGridText(renderer, lineWidth, lineCount, buffer, start, length, false, new VoidProgressMonitor());
+        } catch (IOException e) {
+            // Not possible for string builder
+            throw new IllegalStateException(e);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Writes grid text range line by line (without caching of rendered lines).
+     * Lines may be rendered by any renderer with the same layout (e.g. by renderer of captured rows in background job).
+     * In block mode only columns between range start and end are written for each line.
+     */
+    static void writeGridText(
+        @NotNull LineRenderer renderer,
+        int lineWidth,
+        int lineCount,
+        @NotNull Appendable buffer,
+        int start,
+        int length,
+        boolean block,
+        @NotNull DBRProgressMonitor monitor) throws IOException
+    {
+        int lineStep = lineWidth + LINE_DELIMITER.length();
+        int end = Math.min(start + length, lineCount * lineStep - LINE_DELIMITER.length());
+        if (end <= start) {
+            return;
+        }
+        int firstLine = start / lineStep;
+        int lastLine = Math.min(end / lineStep, lineCount - 1);
+        int blockBegin = Math.min(start % lineStep, end % lineStep);
+        int blockEnd = Math.min(Math.max(start % lineStep, end % lineStep), lineWidth);
+        StringBuilder line = new StringBuilder(lineStep);
+        for (int lineIndex = firstLine; lineIndex <= lastLine && !monitor.isCanceled(); lineIndex++) {
+            line.setLength(0);
+            renderGridLine(renderer, lineWidth, lineIndex, line);
+            if (block) {
+                if (lineIndex > firstLine) {
+                    buffer.append(LINE_DELIMITER);
+                }
+                buffer.append(line, blockBegin, blockEnd);
+            } else {
+                int lineOffset = lineIndex * lineStep;
+                line.append(LINE_DELIMITER);
+                buffer.append(line, Math.max(0, start - lineOffset), Math.min(line.length(), end - lineOffset));
+            }
+        }
+    }
+
+    @Override
+    public void replaceTextRange(int start, int replaceLength, String newText) {
+        // Content is read-only. Replace converts it to plain text.
+        String oldText = getTextRange(0, getCharCount());
+        setText(oldText.substring(0, start) + newText + oldText.substring(start + replaceLength));
+    }
+
+    @Override
+    public void setText(String text) {
+        this.renderer = null;
+        this.lineCount = 0;
+        this.text = text == null ? "" : text;
+        resetLineCache();
+
+        int count = 1;
+        for (int i = this.text.indexOf(LINE_DELIMITER); i >= 0; i = this.text.indexOf(LINE_DELIMITER, i + 1)) {
+            count++;
+        }
+        lineOffsets = new int[count];
+        int line = 1;
+        for (int i = this.text.indexOf(LINE_DELIMITER); i >= 0; i = this.text.indexOf(LINE_DELIMITER, i + 1)) {
+            lineOffsets[line++] = i + LINE_DELIMITER.length();
+        }
+        fireTextSet();
+    }
+
+    private static void renderGridLine(LineRenderer renderer, int lineWidth, int lineIndex, StringBuilder buffer) {
+        int lineStart = buffer.length();
+        renderer.renderLine(lineIndex, buffer);
+        // All lines must have the same width
+        int renderedWidth = buffer.length() - lineStart;
+        if (renderedWidth > lineWidth) {
+            buffer.setLength(lineStart + lineWidth);
+        } else {
+            for (int i = renderedWidth; i < lineWidth; i++) {
+                buffer.append(' ');
+            }
+        }
+    }
+
+    private void fireTextSet() {
+        TextChangedEvent event = new TextChangedEvent(this);
+        for (TextChangeListener listener : listeners.toArray(new TextChangeListener[0])) {
+            listener.textSet(event);
+        }
+    }
+
+    private void fireTextChanged() {
+        TextChangedEvent event = new TextChangedEvent(this);
+        for (TextChangeListener listener : listeners.toArray(new TextChangeListener[0])) {
+            listener.textChanged(event);
+        }
+    }
+
+}
@@ -31,6 +31,7 @@ import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.printing.PrintDialog;
 import org.eclipse.swt.printing.Printer;
@@ -43,6 +44,7 @@ import org.eclipse.ui.themes.ITheme;
 import org.eclipse.ui.themes.IThemeManager;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataKind;
 import org.jkiss.dbeaver.model.DBUtils;
@@ -50,13 +52,18 @@ import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.impl.data.DBDValueError;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.ui.UIStyles;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.StyledTextFindReplaceTarget;
 import org.jkiss.dbeaver.ui.controls.resultset.*;
 import org.jkiss.dbeaver.ui.editors.TextEditorUtils;
+import org.jkiss.utils.ChunkedStringWriter;
 import org.jkiss.utils.CommonUtils;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -65,11 +72,16 @@ import java.util.List;
  * Empty presentation.
  * Used when RSV has no results (initially).
  */
-public class PlainTextPresentation extends AbstractPresentation implements IAdaptable {
+public class PlainTextPresentation extends AbstractPresentation implements IResultSetCopier, IAdaptable {
+
+    private static final Log log = Log.getLog(PlainTextPresentation.class);
 
     public static final int FIRST_ROW_LINE = 2;
+    // Max number of rows used to calculate column widths
+    private static final int MAX_SAMPLE_ROWS = 1000;
 
     private StyledText text;
+    private PlainTextContent content;
     private DBDAttributeBinding curAttribute;
     private StyledTextFindReplaceTarget findReplaceTarget;
     public boolean activated;
@@ -78,11 +90,12 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
     private int[] colWidths;
     private StyleRange curLineRange;
     private int totalRows = 0;
-    private String curSelection;
     private Font monoFont;
     private boolean showNulls;
     private boolean rightJustifyNumbers;
     private boolean rightJustifyDateTime;
+    private GridFormat gridFormat;
+    private final StringBuilder fixBuffer = new StringBuilder();
 
     @Override
     public void createPresentation(@NotNull final IResultSetController controller, @NotNull Composite parent) {
@@ -90,6 +103,8 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
 
         UIUtils.createHorizontalLine(parent);
         text = new StyledText(parent, SWT.READ_ONLY | SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL);
+        content = new PlainTextContent();
+        text.setContent(content);
         text.setBlockSelection(true);
         text.setCursor(parent.getDisplay().getSystemCursor(SWT.CURSOR_IBEAM));
         text.setMargins(4, 4, 4, 4);
@@ -103,7 +118,7 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
         text.addSelectionListener(new SelectionAdapter() {
             @Override
             public void widgetSelected(SelectionEvent e) {
-                curSelection = text.getSelectionText();
+                // Selected text is not read here - it may be huge (e.g. after select all)
                 fireSelectionChanged(new PlainTextSelectionImpl());
             }
         });
@@ -236,7 +251,9 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
 
     @Override
     public void refreshData(boolean refreshMetadata, boolean append, boolean keepState) {
-        colWidths = null;
+        if (!append) {
+            colWidths = null;
+        }
 
         DBPPreferenceStore prefs = getController().getPreferenceStore();
         rightJustifyNumbers = prefs.getBoolean(ResultSetPreferences.RESULT_SET_RIGHT_JUSTIFY_NUMBERS);
@@ -250,130 +267,81 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
     }
 
     private void printGrid(boolean append) {
+        ResultSetModel model = controller.getModel();
+        List<ResultSetRow> allRows = model.getAllRows();
+        if (append && colWidths != null && gridFormat != null && content.isGrid()) {
+            // Column widths are the same, just add lines for new rows
+            int newRows = allRows.size() - totalRows;
+            totalRows = allRows.size();
+            content.appendGridLines(newRows);
+            return;
+        }
+
         DBPPreferenceStore prefs = getController().getPreferenceStore();
         int maxColumnSize = prefs.getInt(ResultSetPreferences.RESULT_TEXT_MAX_COLUMN_SIZE);
         boolean delimLeading = prefs.getBoolean(ResultSetPreferences.RESULT_TEXT_DELIMITER_LEADING);
         boolean delimTrailing = prefs.getBoolean(ResultSetPreferences.RESULT_TEXT_DELIMITER_TRAILING);
         boolean extraSpaces = prefs.getBoolean(ResultSetPreferences.RESULT_TEXT_EXTRA_SPACES);
         this.showNulls = getController().getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_TEXT_SHOW_NULLS);
-
         DBDDisplayFormat displayFormat = DBDDisplayFormat.safeValueOf(prefs.getString(ResultSetPreferences.RESULT_TEXT_VALUE_FORMAT));
 
-        StringBuilder grid = new StringBuilder(512);
-        ResultSetModel model = controller.getModel();
-        List<DBDAttributeBinding> attrs = model.getVisibleAttributes();
+        int tabSize = prefs.getInt(ResultSetPreferences.RESULT_TEXT_TAB_SIZE);
 
-        List<ResultSetRow> allRows = model.getAllRows();
+        List<DBDAttributeBinding> attrs = model.getVisibleAttributes();
         int extraSpacesNum = extraSpaces ? 2 : 0;
         if (colWidths == null) {
-            // Calculate column widths
+            // Calculate column widths. Use sample of rows - values of other rows are truncated if they are too long.
             colWidths = new int[attrs.size()];
+            int sampleStep = Math.max(1, allRows.size() / MAX_SAMPLE_ROWS);
 
             for (int i = 0; i < attrs.size(); i++) {
                 DBDAttributeBinding attr = attrs.get(i);
-                colWidths[i] = getAttributeName(attr).length() + extraSpacesNum;
+                colWidths[i] = getStringWidth(getAttributeName(attr), tabSize) + extraSpacesNum;
                 if (showNulls && !attr.isRequired()) {
                     colWidths[i] = Math.max(colWidths[i], DBConstants.NULL_VALUE_LABEL.length());
                 }
-                for (ResultSetRow row : allRows) {
-                    String displayString = getCellString(model, attr, row, displayFormat);
-                    colWidths[i] = Math.max(colWidths[i], getStringWidth(displayString) + extraSpacesNum);
+                for (int k = 0; k < allRows.size(); k += sampleStep) {
+                    String displayString = getCellString(attr, model.getCellValue(attr, allRows.get(k)), displayFormat, showNulls, fixBuffer);
+                    colWidths[i] = Math.max(colWidths[i], getStringWidth(displayString, tabSize) + extraSpacesNum);
                 }
             }
             for (int i = 0; i < colWidths.length; i++) {
                 if (colWidths[i] > maxColumnSize) {
-                    colWidths[i] = maxColumnSize;
-                }
-            }
-        }
-
-        if (!append) {
-            // Print header
-            if (delimLeading) grid.append("|");
-            for (int i = 0; i < attrs.size(); i++) {
-                if (i > 0) grid.append("|");
-                if (extraSpaces) grid.append(" ");
-                DBDAttributeBinding attr = attrs.get(i);
-                String attrName = getAttributeName(attr);
-                grid.append(attrName);
-                for (int k = colWidths[i] - attrName.length() - extraSpacesNum; k > 0; k--) {
-                    grid.append(" ");
-                }
-                if (extraSpaces) grid.append(" ");
-            }
-            if (delimTrailing) grid.append("|");
-            grid.append("\n");
-
-            // Print divider
-            // Print header
-            if (delimLeading) grid.append("|");
-            for (int i = 0; i < attrs.size(); i++) {
-                if (i > 0) grid.append("|");
-                for (int k = colWidths[i]; k > 0; k--) {
-                    grid.append("-");
+                    colWidths[i] = Math.max(maxColumnSize, extraSpacesNum);
                 }
             }
-            if (delimTrailing) grid.append("|");
-            grid.append("\n");
-        }
-
-        // Print rows
-        int firstRow = append ? totalRows : 0;
-        if (append) {
-            grid.append("\n");
         }
-        for (int i = firstRow; i < allRows.size(); i++) {
-            ResultSetRow row = allRows.get(i);
-            if (delimLeading) grid.append("|");
-            for (int k = 0; k < attrs.size(); k++) {
-                if (k > 0) grid.append("|");
-                DBDAttributeBinding attr = attrs.get(k);
-                String displayString = getCellString(model, attr, row, displayFormat);
-                if (displayString.length() >= colWidths[k]) {
-                    displayString = CommonUtils.truncateString(displayString, colWidths[k]);
-                }
 
-                int stringWidth = getStringWidth(displayString);
+        gridFormat = new GridFormat(
+            attrs, colWidths.clone(), delimLeading, delimTrailing, extraSpaces, showNulls, rightJustifyNumbers, rightJustifyDateTime, displayFormat, tabSize);
+        totalRows = allRows.size();
+        content.setGrid(this::printGridLine, gridFormat.lineWidth, FIRST_ROW_LINE + totalRows);
+    }
 
-                if (extraSpaces) grid.append(" ");
-                DBPDataKind dataKind = attr.getDataKind();
-                if ((dataKind == DBPDataKind.NUMERIC && rightJustifyNumbers) ||
-                    (dataKind == DBPDataKind.DATETIME && rightJustifyDateTime))
-                {
-                    // Right justify value
-                    for (int j = colWidths[k] - stringWidth - extraSpacesNum; j > 0; j--) {
-                        grid.append(" ");
-                    }
-                    grid.append(displayString);
-                } else {
-                    grid.append(displayString);
-                    for (int j = colWidths[k] - stringWidth - extraSpacesNum; j > 0; j--) {
-                        grid.append(" ");
-                    }
-                }
-                if (extraSpaces) grid.append(" ");
+    /**
+     * Prints grid line of current model.
+     * Called by text content for visible lines only.
+     */
+    private void printGridLine(int lineIndex, StringBuilder grid) {
+        ResultSetModel model = controller.getModel();
+        Object[] rowValues = null;
+        if (lineIndex >= FIRST_ROW_LINE) {
+            int rowIndex = lineIndex - FIRST_ROW_LINE;
+            if (rowIndex >= model.getRowCount()) {
+                return;
             }
-            if (delimTrailing) grid.append("|");
-            grid.append("\n");
+            rowValues = gridFormat.getRowValues(model, model.getRow(rowIndex));
         }
-        grid.setLength(grid.length() - 1); // cut last line feed
-
-        if (append) {
-            text.append(grid.toString());
-        } else {
-            text.setText(grid.toString());
-        }
-
-        totalRows = allRows.size();
+        gridFormat.printLine(lineIndex, rowValues, grid, fixBuffer);
     }
 
-    private int getStringWidth(String str) {
+    private static int getStringWidth(String str, int tabSize) {
         int width = 0;
         if (str != null && str.length() > 0) {
             for (int i = 0; i < str.length(); i++) {
                 char c = str.charAt(i);
                 if (c == '\t') {
-                    width += controller.getPreferenceStore().getInt(ResultSetPreferences.RESULT_TEXT_TAB_SIZE);
+                    width += tabSize;
                 } else {
                     width++;
                 }
@@ -390,10 +358,7 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
         }
     }
 
-    StringBuilder fixBuffer = new StringBuilder();
-
-    private String getCellString(ResultSetModel model, DBDAttributeBinding attr, ResultSetRow row, DBDDisplayFormat displayFormat) {
-        Object cellValue = model.getCellValue(attr, row);
+    private static String getCellString(DBDAttributeBinding attr, Object cellValue, DBDDisplayFormat displayFormat, boolean showNulls, StringBuilder fixBuffer) {
         if (cellValue instanceof DBDValueError) {
             return ((DBDValueError) cellValue).getErrorTitle();
         }
@@ -448,7 +413,7 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
             DBDAttributeBinding attr = attrs.get(i);
             nameWidth = Math.max(nameWidth, getAttributeName(attr).length());
             if (currentRow != null) {
-                String displayString = getCellString(model, attr, currentRow, displayFormat);
+                String displayString = getCellString(attr, model.getCellValue(attr, currentRow), displayFormat, showNulls, fixBuffer);
                 values[i] = displayString;
                 valueWidth = Math.max(valueWidth, values[i].length());
             }
@@ -506,6 +471,7 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
     @Override
     public void clearMetaData() {
         colWidths = null;
+        gridFormat = null;
         curLineRange = null;
         totalRows = 0;
     }
@@ -576,7 +542,190 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
     @Nullable
     @Override
     public String copySelectionToString(ResultSetCopySettings settings) {
-        return text.getSelectionText();
+        return getSelectionText();
+    }
+
+    @NotNull
+    @Override
+    public SelectionWriter captureSelection(@NotNull ResultSetCopySettings settings) {
+        return captureSelection();
+    }
+
+    /**
+     * Returns selected text. Unlike StyledText.getSelectionText it doesn't render selected lines in the line cache.
+     */
+    private String getSelectionText() {
+        ChunkedStringWriter buffer = new ChunkedStringWriter();
+        try {
+            captureSelection().writeSelection(new VoidProgressMonitor(), buffer);
+        } catch (IOException e) {
+            log.error("Error copying selection", e);
+            return null;
+        }
+        return buffer.toString();
+    }
+
+    private SelectionWriter captureSelection() {
+        if (gridFormat == null || !content.isGrid()) {
+            // Record mode text is small
+            String selectedText = text.getSelectionText();
+            return new SelectionWriter() {
+                @Override
+                public int getCellCount() {
+                    return 1;
+                }
+
+                @Override
+                public void writeSelection(@NotNull DBRProgressMonitor monitor, @NotNull Writer writer) throws IOException {
+                    writer.write(selectedText);
+                }
+            };
+        }
+        return new GridSelectionWriter(text.getSelectionRange(), text.getBlockSelection());
+    }
+
+    /**
+     * Grid layout and format settings. Immutable, so captured rows may be printed in any thread.
+     */
+    private static class GridFormat {
+        final List<DBDAttributeBinding> attributes;
+        final int[] colWidths;
+        final boolean delimLeading;
+        final boolean delimTrailing;
+        final boolean extraSpaces;
+        final boolean showNulls;
+        final boolean rightJustifyNumbers;
+        final boolean rightJustifyDateTime;
+        final DBDDisplayFormat displayFormat;
+        final int tabSize;
+        final int lineWidth;
+
+        GridFormat(List<DBDAttributeBinding> attributes, int[] colWidths, boolean delimLeading, boolean delimTrailing, boolean extraSpaces,
+                   boolean showNulls, boolean rightJustifyNumbers, boolean rightJustifyDateTime, DBDDisplayFormat displayFormat, int tabSize) {
+            this.attributes = attributes;
+            this.colWidths = colWidths;
+            this.delimLeading = delimLeading;
+            this.delimTrailing = delimTrailing;
+            this.extraSpaces = extraSpaces;
+            this.showNulls = showNulls;
+            this.rightJustifyNumbers = rightJustifyNumbers;
+            this.rightJustifyDateTime = rightJustifyDateTime;
+            this.displayFormat = displayFormat;
+            this.tabSize = tabSize;
+            int width = (delimLeading ? 1 : 0) + (delimTrailing ? 1 : 0) + Math.max(0, colWidths.length - 1);
+            for (int colWidth : colWidths) {
+                width += colWidth;
+            }
+            this.lineWidth = width;
+        }
+
+        Object[] getRowValues(ResultSetModel model, ResultSetRow row) {
+            Object[] values = new Object[attributes.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = model.getCellValue(attributes.get(i), row);
+            }
+            return values;
+        }
+
+        /**
+         * Prints grid line: header, divider (if row values are null) or row.
+         */
+        void printLine(int lineIndex, @Nullable Object[] rowValues, StringBuilder grid, StringBuilder fixBuffer) {
+            if (delimLeading) grid.append("|");
+            for (int i = 0; i < attributes.size(); i++) {
+                if (i > 0) grid.append("|");
+                DBDAttributeBinding attr = attributes.get(i);
+                if (lineIndex == 0) {
+                    // Header
+                    printCell(grid, getAttributeName(attr), colWidths[i], false);
+                } else if (rowValues == null) {
+                    // Divider
+                    for (int k = colWidths[i]; k > 0; k--) {
+                        grid.append("-");
+                    }
+                } else {
+                    DBPDataKind dataKind = attr.getDataKind();
+                    printCell(
+                        grid,
+                        getCellString(attr, rowValues[i], displayFormat, showNulls, fixBuffer),
+                        colWidths[i],
+                        (dataKind == DBPDataKind.NUMERIC && rightJustifyNumbers) || (dataKind == DBPDataKind.DATETIME && rightJustifyDateTime));
+                }
+            }
+            if (delimTrailing) grid.append("|");
+        }
+
+        private void printCell(StringBuilder grid, String displayString, int colWidth, boolean rightJustify) {
+            int valueWidth = colWidth - (extraSpaces ? 2 : 0);
+            displayString = CommonUtils.truncateString(displayString, valueWidth);
+            int stringWidth = getStringWidth(displayString, tabSize);
+
+            if (extraSpaces) grid.append(" ");
+            if (rightJustify) {
+                // Right justify value
+                for (int j = valueWidth - stringWidth; j > 0; j--) {
+                    grid.append(" ");
+                }
+                grid.append(displayString);
+            } else {
+                grid.append(displayString);
+                for (int j = valueWidth - stringWidth; j > 0; j--) {
+                    grid.append(" ");
+                }
+            }
+            if (extraSpaces) grid.append(" ");
+        }
+    }
+
+    /**
+     * Copies selected grid text.
+     * Values of selected rows are captured in constructor (UI thread), lines are rendered in writeSelection (any thread).
+     */
+    private class GridSelectionWriter implements SelectionWriter {
+        private final GridFormat format;
+        private final int start;
+        private final int length;
+        private final boolean block;
+        private final int lineCount;
+        private final int firstRowLine;
+        private final Object[][] rowValues;
+
+        GridSelectionWriter(Point selectionRange, boolean block) {
+            this.format = gridFormat;
+            this.start = selectionRange.x;
+            this.length = selectionRange.y;
+            this.block = block;
+            this.lineCount = FIRST_ROW_LINE + totalRows;
+
+            ResultSetModel model = controller.getModel();
+            int lineStep = format.lineWidth + content.getLineDelimiter().length();
+            int firstLine = Math.max(FIRST_ROW_LINE, start / lineStep);
+            int lastLine = Math.min((start + length) / lineStep, FIRST_ROW_LINE + model.getRowCount() - 1);
+            this.firstRowLine = firstLine;
+            this.rowValues = new Object[Math.max(0, lastLine - firstLine + 1)][];
+            for (int i = 0; i < rowValues.length; i++) {
+                rowValues[i] = format.getRowValues(model, model.getRow(firstLine + i - FIRST_ROW_LINE));
+            }
+        }
+
+        @Override
+        public int getCellCount() {
+            return rowValues.length * format.attributes.size();
+        }
+
+        @Override
+        public void writeSelection(@NotNull DBRProgressMonitor monitor, @NotNull Writer writer) throws IOException {
+            StringBuilder lineFixBuffer = new StringBuilder();
+            PlainTextContent.LineRenderer renderer = (lineIndex, buffer) -> {
+                if (lineIndex < FIRST_ROW_LINE) {
+                    format.printLine(lineIndex, null, buffer, lineFixBuffer);
+                } else if (lineIndex - firstRowLine < rowValues.length) {
+                    format.printLine(lineIndex, rowValues[lineIndex - firstRowLine], buffer, lineFixBuffer);
+                    monitor.worked(format.attributes.size());
+                }
+            };
+            PlainTextContent.writeGridText(renderer, format.lineWidth, lineCount, writer, start, length, block, monitor);
+        }
     }
 
     private static PrinterData fgPrinterData= null;
@@ -654,11 +803,19 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
 
     private class PlainTextSelectionImpl implements IResultSetSelection {
 
+        // Selection range is read when selection is created. Text itself is read on demand.
+        private final boolean empty;
+        private String selectedText;
+
+        PlainTextSelectionImpl() {
+            this.empty = text.isDisposed() || text.getSelectionRange().y == 0;
+        }
+
         @Nullable
         @Override
         public Object getFirstElement()
         {
-            return curSelection;
+            return empty ? null : getSelectedText();
         }
 
         @Override
@@ -670,29 +827,36 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
         @Override
         public int size()
         {
-            return curSelection == null ? 0 : 1;
+            return empty ? 0 : 1;
         }
 
         @Override
         public Object[] toArray()
         {
-            return curSelection == null ?
-                new Object[0] :
-                new Object[] { curSelection };
+            return empty ? new Object[0] : new Object[] { getSelectedText() };
         }
 
         @Override
         public List<String> toList()
         {
-            return curSelection == null ?
-                Collections.emptyList() :
-                Collections.singletonList(curSelection);
+            return empty ? Collections.emptyList() : Collections.singletonList(getSelectedText());
+        }
+
+        /**
+         * Selected text is read on demand: most of selection listeners don't need it
+         */
+        @NotNull
+        private String getSelectedText() {
+            if (selectedText == null) {
+                selectedText = text.isDisposed() ? "" : CommonUtils.notEmpty(getSelectionText());
+            }
+            return selectedText;
         }
 
         @Override
         public boolean isEmpty()
         {
-            return false;
+            return empty;
         }
 
         @NotNull
@@ -97,8 +97,11 @@ import org.jkiss.dbeaver.ui.editors.TextEditorUtils;
 import org.jkiss.dbeaver.ui.properties.PropertySourceDelegate;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.ChunkedStringWriter;
 import org.jkiss.utils.CommonUtils;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
@@ -107,7 +110,7 @@ import java.util.*;
  * Spreadsheet presentation.
  * Visualizes results as grid.
  */
-public class SpreadsheetPresentation extends AbstractPresentation implements IResultSetEditor, ISelectionProvider, IStatefulControl, IAdaptable, IGridController {
+public class SpreadsheetPresentation extends AbstractPresentation implements IResultSetEditor, IResultSetCopier, ISelectionProvider, IStatefulControl, IAdaptable, IGridController {
 
     private static final Log log = Log.getLog(SpreadsheetPresentation.class);
 
@@ -404,96 +407,178 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
     @Nullable
     public String copySelectionToString(ResultSetCopySettings settings)
     {
-        String columnDelimiter = settings.getColumnDelimiter();
-        if (columnDelimiter == null) {
-            columnDelimiter = "\t";
+        SelectionCopier copier = new SelectionCopier(settings);
+        ChunkedStringWriter buffer = new ChunkedStringWriter();
+        try {
+            copier.writeSelection(new VoidProgressMonitor(), buffer);
+        } catch (IOException e) {
+            log.error("Error copying selection", e);
+            return null;
         }
 
-        String rowDelimiter = settings.getRowDelimiter();
-        if (rowDelimiter == null) {
-            rowDelimiter = GeneralUtils.getDefaultLineSeparator();
-        }
-        String quoteString = settings.getQuoteString();
-        if ((CommonUtils.isEmpty(quoteString))) {
-            quoteString = "\"";
+        if (settings.isCut()) {
+            boolean recordMode = controller.isRecordMode();
+            for (GridCell cell : copier.selectedCells) {
+                DBDAttributeBinding column = (DBDAttributeBinding)(!recordMode ?  cell.col : cell.row);
+                ResultSetRow row = (ResultSetRow) (!recordMode ?  cell.row : cell.col);
+                IValueController valueController = new SpreadsheetValueController(
+                    controller, column, row, IValueController.EditType.NONE, null);
+                if (!valueController.isReadOnly()) {
+                    valueController.updateValue(BaseValueManager.makeNullValue(valueController), false);
+                }
+            }
+            controller.redrawData(false, false);
+            controller.updatePanelsContent(false);
         }
-        List<Object> selectedColumns = spreadsheet.getColumnSelection();
-        IGridLabelProvider labelProvider = spreadsheet.getLabelProvider();
-        StringBuilder tdt = new StringBuilder();
-        if (settings.isCopyHeader()) {
-            if (settings.isCopyRowNumbers()) {
-                tdt.append("#");
+
+        return buffer.toString();
+    }
+
+    @NotNull
+    @Override
+    public IResultSetCopier.SelectionWriter captureSelection(@NotNull ResultSetCopySettings settings) {
+        return new SelectionCopier(settings);
+    }
+
+    /**
+     * Copies selected cells.
+     * Selection, cell values and labels are captured in constructor (UI thread), values may be formatted in any thread.
+     */
+    private class SelectionCopier implements IResultSetCopier.SelectionWriter {
+        private static final int PROGRESS_STEP = 1000;
+
+        private final ResultSetCopySettings settings;
+        private final List<Object> selectedColumns;
+        private final Map<Object, Integer> columnIndexes = new IdentityHashMap<>();
+        private final List<GridCell> selectedCells;
+        private final DBDAttributeBinding[] cellAttributes;
+        private final Object[] cellValues;
+        private final List<String> columnLabels = new ArrayList<>();
+        private final Map<Object, String> rowLabels = new IdentityHashMap<>();
+
+        SelectionCopier(ResultSetCopySettings settings) {
+            this.settings = settings;
+            this.selectedColumns = spreadsheet.getColumnSelection();
+            for (int i = 0; i < selectedColumns.size(); i++) {
+                columnIndexes.put(selectedColumns.get(i), i);
+            }
+            this.selectedCells = spreadsheet.getCellSelection();
+
+            IGridLabelProvider labelProvider = spreadsheet.getLabelProvider();
+            if (settings.isCopyHeader()) {
+                for (Object column : selectedColumns) {
+                    columnLabels.add(labelProvider.getText(column));
+                }
             }
-            for (Object column : selectedColumns) {
-                if (tdt.length() > 0) {
-                    tdt.append(columnDelimiter);
+            boolean recordMode = controller.isRecordMode();
+            ResultSetModel model = controller.getModel();
+            this.cellAttributes = new DBDAttributeBinding[selectedCells.size()];
+            this.cellValues = new Object[selectedCells.size()];
+            for (int i = 0; i < selectedCells.size(); i++) {
+                GridCell cell = selectedCells.get(i);
+                DBDAttributeBinding column = (DBDAttributeBinding)(!recordMode ?  cell.col : cell.row);
+                ResultSetRow row = (ResultSetRow) (!recordMode ?  cell.row : cell.col);
+                cellAttributes[i] = column;
+                cellValues[i] = model.getCellValue(column, row);
+                if (settings.isCopyRowNumbers() && !rowLabels.containsKey(cell.row)) {
+                    rowLabels.put(cell.row, labelProvider.getText(cell.row));
                 }
-                tdt.append(labelProvider.getText(column));
             }
-            tdt.append(rowDelimiter);
         }
 
-        List<GridCell> selectedCells = spreadsheet.getCellSelection();
-        boolean quoteCells = settings.isQuoteCells() && selectedCells.size() > 1;
-        boolean forceQuotes = settings.isForceQuotes();
+        @Override
+        public int getCellCount() {
+            return selectedCells.size();
+        }
 
-        GridCell prevCell = null;
-        for (GridCell cell : selectedCells) {
-            if (prevCell == null || cell.row != prevCell.row) {
-                // Next row
-                if (prevCell != null && prevCell.col != cell.col) {
-                    // Fill empty row tail
-                    int prevColIndex = selectedColumns.indexOf(prevCell.col);
-                    for (int i = prevColIndex; i < selectedColumns.size() - 1; i++) {
+        @Override
+        public void writeSelection(@NotNull DBRProgressMonitor monitor, @NotNull Writer tdt) throws IOException {
+            String columnDelimiter = settings.getColumnDelimiter();
+            if (columnDelimiter == null) {
+                columnDelimiter = "\t";
+            }
+
+            String rowDelimiter = settings.getRowDelimiter();
+            if (rowDelimiter == null) {
+                rowDelimiter = GeneralUtils.getDefaultLineSeparator();
+            }
+            String quoteString = settings.getQuoteString();
+            if ((CommonUtils.isEmpty(quoteString))) {
+                quoteString = "\"";
+            }
+            if (settings.isCopyHeader()) {
+                boolean firstColumn = true;
+                if (settings.isCopyRowNumbers()) {
+                    tdt.append("#");
+                    firstColumn = false;
+                }
+                for (String columnLabel : columnLabels) {
+                    if (!firstColumn) {
                         tdt.append(columnDelimiter);
                     }
+                    tdt.append(columnLabel);
+                    firstColumn = false;
                 }
-                if (prevCell != null) {
-                    tdt.append(rowDelimiter);
+                tdt.append(rowDelimiter);
+            }
+
+            boolean quoteCells = settings.isQuoteCells() && selectedCells.size() > 1;
+            boolean forceQuotes = settings.isForceQuotes();
+
+            GridCell prevCell = null;
+            for (int cellNum = 0; cellNum < selectedCells.size(); cellNum++) {
+                GridCell cell = selectedCells.get(cellNum);
+                if (cellNum > 0 && cellNum % PROGRESS_STEP == 0) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    monitor.worked(PROGRESS_STEP);
                 }
-                if (settings.isCopyRowNumbers()) {
-                    tdt.append(labelProvider.getText(cell.row)).append(columnDelimiter);
+                if (prevCell == null || cell.row != prevCell.row) {
+                    // Next row
+                    if (prevCell != null && prevCell.col != cell.col) {
+                        // Fill empty row tail
+                        int prevColIndex = getColumnIndex(prevCell.col);
+                        for (int i = prevColIndex; i < selectedColumns.size() - 1; i++) {
+                            tdt.append(columnDelimiter);
+                        }
+                    }
+                    if (prevCell != null) {
+                        tdt.append(rowDelimiter);
+                    }
+                    if (settings.isCopyRowNumbers()) {
+                        tdt.append(rowLabels.get(cell.row)).append(columnDelimiter);
+                    }
                 }
-            }
-            if (prevCell != null && prevCell.col != cell.col) {
-                int prevColIndex = selectedColumns.indexOf(prevCell.col);
-                int curColIndex = selectedColumns.indexOf(cell.col);
-                for (int i = prevColIndex; i < curColIndex; i++) {
-                    tdt.append(columnDelimiter);
+                if (prevCell != null && prevCell.col != cell.col) {
+                    int prevColIndex = getColumnIndex(prevCell.col);
+                    int curColIndex = getColumnIndex(cell.col);
+                    for (int i = prevColIndex; i < curColIndex; i++) {
+                        tdt.append(columnDelimiter);
+                    }
                 }
-            }
 
-            boolean recordMode = controller.isRecordMode();
-            DBDAttributeBinding column = (DBDAttributeBinding)(!recordMode ?  cell.col : cell.row);
-            ResultSetRow row = (ResultSetRow) (!recordMode ?  cell.row : cell.col);
-            Object value = controller.getModel().getCellValue(column, row);
-            String cellText = column.getValueRenderer().getValueDisplayString(
-                column.getAttribute(),
-                value,
-                settings.getFormat());
-            if (forceQuotes || (quoteCells && !CommonUtils.isEmpty(cellText))) {
-                if (forceQuotes || cellText.contains(columnDelimiter) || cellText.contains(rowDelimiter)) {
-                    cellText = quoteString + cellText + quoteString;
+                DBDAttributeBinding column = cellAttributes[cellNum];
+                Object value = cellValues[cellNum];
+                String cellText = column.getValueRenderer().getValueDisplayString(
+                    column.getAttribute(),
+                    value,
+                    settings.getFormat());
+                if (forceQuotes || (quoteCells && !CommonUtils.isEmpty(cellText))) {
+                    if (forceQuotes || cellText.contains(columnDelimiter) || cellText.contains(rowDelimiter)) {
+                        cellText = quoteString + cellText + quoteString;
+                    }
                 }
-            }
-            tdt.append(cellText);
+                tdt.append(cellText);
 
-            if (settings.isCut()) {
-                IValueController valueController = new SpreadsheetValueController(
-                    controller, column, row, IValueController.EditType.NONE, null);
-                if (!valueController.isReadOnly()) {
-                    valueController.updateValue(BaseValueManager.makeNullValue(valueController), false);
-                }
+                prevCell = cell;
             }
-
-            prevCell = cell;
-        }
-        if (settings.isCut()) {
-            controller.redrawData(false, false);
-            controller.updatePanelsContent(false);
         }
 
-        return tdt.toString();
+        private int getColumnIndex(Object column) {
+            Integer index = columnIndexes.get(column);
+            return index == null ? -1 : index;
+        }
     }
 
     @Override
@@ -0,0 +1,121 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.plaintext;
+
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Grid text rendering of plain text content
+ */
+public class PlainTextContentTest {
+
+    private static final int LINE_WIDTH = 5;
+    private static final int LINE_COUNT = 3;
+
+    // Line 0 is "0:abc", line 1 is "1:abc", etc
+    private static final PlainTextContent.LineRenderer RENDERER = (lineIndex, buffer) -> buffer.append(lineIndex).append(":abcdefgh");
+
+    @Test
+    public void shouldWriteWholeGrid() throws IOException {
+        //when
+        String text = writeGridText(RENDERER, 0, 100, false);
+
+        //then
+        assertEquals("0:abc\n1:abc\n2:abc", text);
+    }
+
+    @Test
+    public void shouldWriteRangeAcrossLines() throws IOException {
+        //when
+        String text = writeGridText(RENDERER, 3, 6, false);
+
+        //then
+        assertEquals("bc\n1:a", text);
+    }
+
+    @Test
+    public void shouldWriteRangeInsideLine() throws IOException {
+        //when
+        String text = writeGridText(RENDERER, 7, 2, false);
+
+        //then
+        assertEquals(":a", text);
+    }
+
+    @Test
+    public void shouldWriteBlockColumns() throws IOException {
+        //given
+        int start = 1;
+        int end = 2 * (LINE_WIDTH + 1) + 3;
+
+        //when
+        String text = writeGridText(RENDERER, start, end - start, true);
+
+        //then
+        assertEquals(":a\n:a\n:a", text);
+    }
+
+    @Test
+    public void shouldWriteBlockWithEndColumnBeforeStartColumn() throws IOException {
+        //given
+        int start = 3;
+        int end = (LINE_WIDTH + 1) + 1;
+
+        //when
+        String text = writeGridText(RENDERER, start, end - start, true);
+
+        //then
+        assertEquals(":a\n:a", text);
+    }
+
+    @Test
+    public void shouldPadShortLines() throws IOException {
+        //given
+        PlainTextContent.LineRenderer renderer = (lineIndex, buffer) -> buffer.append(lineIndex);
+
+        //when
+        String text = writeGridText(renderer, 0, 100, false);
+
+        //then
+        assertEquals("0    \n1    \n2    ", text);
+    }
+
+    @Test
+    public void shouldMatchContentTextRange() {
+        //given
+        PlainTextContent content = new PlainTextContent();
+        content.setGrid(RENDERER, LINE_WIDTH, LINE_COUNT);
+
+        //then
+        assertEquals(17, content.getCharCount());
+        assertEquals("0:abc\n1:abc\n2:abc", content.getTextRange(0, content.getCharCount()));
+        assertEquals("abc\n2:", content.getTextRange(8, 6));
+        assertEquals("2:abc", content.getLine(content.getLineAtOffset(14)));
+    }
+
+    private static String writeGridText(PlainTextContent.LineRenderer renderer, int start, int length, boolean block) throws IOException {
+        StringBuilder buffer = new StringBuilder();
+        PlainTextContent.writeGridText(renderer, LINE_WIDTH, LINE_COUNT, buffer, start, length, block, new VoidProgressMonitor());
+        return buffer.toString();
+    }
+
+}
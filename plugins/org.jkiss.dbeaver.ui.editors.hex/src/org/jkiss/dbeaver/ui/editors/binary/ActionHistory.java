@@ -22,6 +22,7 @@ import org.jkiss.dbeaver.utils.ContentUtils;
 import java.io.Closeable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -230,6 +231,28 @@ public class ActionHistory {
     }
 
 
+    /**
+     * Collects data objects (buffers and files) referenced by history ranges
+     */
+    void collectData(Collection<Object> result)
+    {
+        if (actionList != null) {
+            for (Object[] tuple : actionList) {
+                @SuppressWarnings("unchecked")
+                List<Range> ranges = (List<Range>) tuple[1];
+                for (Range range : ranges) {
+                    result.add(range.data);
+                }
+            }
+        }
+        if (currentAction != null) {
+            for (Range range : currentAction) {
+                result.add(range.data);
+            }
+        }
+    }
+
+
     private void disposeRanges(java.util.List<Range> ranges)
     {
         if (ranges == null) {
@@ -26,6 +26,9 @@ import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 
@@ -35,6 +38,8 @@ import java.util.*;
  * modified.
  * Keeps track of the positions where changes have been done. Files that back this content must not be
  * modified while the content is still in use.
+ * Content is a piece table (see {@link BinaryPieceTable}) over read-only memory-mapped files and
+ * an append-only buffer of edited bytes.
  *
  * @author Jordi
  */
@@ -53,7 +58,7 @@ public class BinaryContent {
 
 
     /**
-     * A subset of data contained in a ByteBuffer or a File
+     * A subset of data contained in a ByteBuffer or a File (FileData)
      */
     final static class Range implements Comparable<Range>, Cloneable {
         long position = -1L;
@@ -82,7 +87,7 @@ public class BinaryContent {
             this(aPosition, aFile.length());
             if (length < 0L) throw new IOException("File error");
 
-            data = new RandomAccessFile(aFile, "r");
+            data = new FileData(aFile);
             dirty = isDirty;
         }
 
@@ -124,19 +129,147 @@ public class BinaryContent {
     }
 
 
-    private static final long mappedFileBufferLength = 2048 * 1024;  // for mapped file I/O
+    /**
+     * Read-only file data. File is memory-mapped by chunks on demand.
+     * File is opened with NIO channel so it can be renamed while open (also on Windows).
+     */
+    final static class FileData implements Closeable {
+        private static final long MAP_CHUNK_LENGTH = 64 * 1024 * 1024;
+
+        private File file;
+        private final FileChannel channel;
+        private final long length;
+        private MappedByteBuffer[] chunks;
+        // File is a temporary copy owned by this content
+        private boolean temporary;
+
+        FileData(File aFile)
+            throws IOException
+        {
+            file = aFile;
+            channel = FileChannel.open(aFile.toPath(), StandardOpenOption.READ);
+            length = channel.size();
+            chunks = new MappedByteBuffer[(int) ((length + MAP_CHUNK_LENGTH - 1) / MAP_CHUNK_LENGTH)];
+        }
+
+        File getFile()
+        {
+            return file;
+        }
+
+        /**
+         * Called after open file was renamed to a temporary file. Temporary file is deleted on close.
+         */
+        void setTemporaryFile(File tempFile)
+        {
+            file = tempFile;
+            temporary = true;
+        }
+
+        private ByteBuffer getChunk(int index)
+        {
+            if (chunks == null) {
+                return null;
+            }
+            if (chunks[index] == null) {
+                long chunkStart = index * MAP_CHUNK_LENGTH;
+                try {
+                    chunks[index] = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, Math.min(MAP_CHUNK_LENGTH, length - chunkStart));
+                }
+                catch (IOException e) {
+                    // Can't map (e.g. out of address space) - read file directly
+                    chunks = null;
+                    return null;
+                }
+            }
+            return chunks[index].duplicate();
+        }
+
+        int get(long offset)
+            throws IOException
+        {
+            if (offset < 0 || offset >= length) return -1;
+            ByteBuffer chunk = getChunk((int) (offset / MAP_CHUNK_LENGTH));
+            if (chunk != null) {
+                return chunk.get((int) (offset % MAP_CHUNK_LENGTH)) & 0x0ff;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            return channel.read(buffer, offset) == 1 ? buffer.get(0) & 0x0ff : -1;
+        }
+
+        /**
+         * Copies up to maxLength bytes starting from offset into dst
+         */
+        void read(ByteBuffer dst, long offset, int maxLength)
+            throws IOException
+        {
+            int remaining = (int) Math.min(Math.min(maxLength, dst.remaining()), length - offset);
+            while (remaining > 0) {
+                int chunkIndex = (int) (offset / MAP_CHUNK_LENGTH);
+                int chunkOffset = (int) (offset % MAP_CHUNK_LENGTH);
+                ByteBuffer chunk = getChunk(chunkIndex);
+                int count;
+                if (chunk != null) {
+                    count = Math.min(remaining, chunk.capacity() - chunkOffset);
+                    chunk.position(chunkOffset);
+                    chunk.limit(chunkOffset + count);
+                    dst.put(chunk);
+                } else {
+                    int limit = dst.limit();
+                    dst.limit(dst.position() + remaining);
+                    count = channel.read(dst, offset);
+                    dst.limit(limit);
+                    if (count <= 0) break;
+                }
+                offset += count;
+                remaining -= count;
+            }
+        }
+
+        /**
+         * Copies bytes directly into the target channel (without copying into memory)
+         */
+        void transferTo(long offset, long count, FileChannel target)
+            throws IOException
+        {
+            while (count > 0) {
+                long transferred = channel.transferTo(offset, count, target);
+                if (transferred <= 0) {
+                    throw new IOException("Can't copy data from file '" + file.getAbsolutePath() + "'");
+                }
+                offset += transferred;
+                count -= transferred;
+            }
+        }
+
+        /**
+         * Closes file. Mapped buffers are released by GC.
+         */
+        @Override
+        public void close()
+        {
+            chunks = null;
+            ContentUtils.close(channel);
+            if (temporary && !file.delete()) {
+                // Still mapped (Windows)
+                file.deleteOnExit();
+            }
+        }
+    }
+
+
+    private static final int APPEND_BUFFER_LENGTH = 64 * 1024;  // for committed changes
 
     private ActionHistory actions = null;  // undo/redo actions history
     private ActionHistory actionsTemp = null;
     private boolean dirty = false;
-    private long exclusiveEnd = -1L;
     private long lastUpperNibblePosition = -1L;
     private List<ModifyListener> listeners = null;
     private List<Integer> changeList = null;
     private boolean changesInserted = false;
     private long changesPosition = -1L;
-    private TreeSet<Range> ranges = new TreeSet<>();
-    private Iterator<Range> tailTree = null;
+    private BinaryPieceTable ranges = new BinaryPieceTable();
+    private ByteBuffer appendBuffer = null;
 
     /**
      * Create new empty content.
@@ -158,7 +291,7 @@ public class BinaryContent {
         if (aFile == null || aFile.length() < 1L)
             return;
 
-        ranges.add(new Range(0L, aFile, false));
+        ranges.insert(0L, new Range(0L, aFile, false));
     }
 
 
@@ -214,7 +347,7 @@ public class BinaryContent {
     {
         if (changeList == null) return;
 
-        ByteBuffer store = ByteBuffer.allocate(changeList.size());
+        ByteBuffer store = allocateAppendBuffer(changeList.size());
         for (Integer myChange : changeList) {
             store.put(myChange.byteValue());
         }
@@ -229,6 +362,25 @@ public class BinaryContent {
     }
 
 
+    /**
+     * Allocates buffer for committed changes. Small buffers share the same backing array.
+     */
+    private ByteBuffer allocateAppendBuffer(int length)
+    {
+        if (length > APPEND_BUFFER_LENGTH / 4) {
+            return ByteBuffer.allocate(length);
+        }
+        if (appendBuffer == null || appendBuffer.remaining() < length) {
+            appendBuffer = ByteBuffer.allocate(APPEND_BUFFER_LENGTH);
+        }
+        ByteBuffer result = appendBuffer.slice();
+        result.limit(length);
+        result = result.slice();
+        appendBuffer.position(appendBuffer.position() + length);
+        return result;
+    }
+
+
     /**
      * Deletes length bytes from the content at the given position
      *
@@ -271,61 +423,16 @@ public class BinaryContent {
     private void deleteAndShift(long start, long length)
     {
         deleteInternal(start, length);
-        initSubtreeTraversing(start, 0L);
-        shiftRemainingRanges(-length);
     }
 
 
     private void deleteInternal(long startPosition, long length)
     {
         if (length < 1L) return;
-        initSubtreeTraversing(startPosition, length);
-        if (!tailTree.hasNext()) return;
-
-        java.util.List<Range> deleted = new ArrayList<>();
-        Range firstRange = tailTree.next();
-        Range secondRange = (Range) firstRange.clone();  // will be tail part of firstRange
-        Range lastRange = null;
-        if (firstRange.position < startPosition) {
-            firstRange.length = startPosition - firstRange.position;
-
-            secondRange.length = secondRange.exclusiveEnd() - startPosition;  // actions
-            secondRange.dataOffset += startPosition - secondRange.position;  // actions
-            secondRange.position = startPosition;  // actions
-        } else {  // firstRange.position == startPosition
-            tailTree.remove();
-        }
-        long endSoFar = secondRange.exclusiveEnd();
-        boolean toBeAdded = false;
-        if (endSoFar > exclusiveEnd) {
-            lastRange = (Range) secondRange.clone();
-            toBeAdded = true;
-            secondRange.length = exclusiveEnd - secondRange.position;  // actions
-        }
-        deleted.add(secondRange);  // actions
-        if (endSoFar < exclusiveEnd) {
-            while (tailTree.hasNext() && lastRange == null) {
-                lastRange = tailTree.next();
-                if (lastRange.exclusiveEnd() <= exclusiveEnd) {
-                    tailTree.remove();
-                    deleted.add(lastRange);  // actions
-                    lastRange = null;
-                }
-            }
-            if (lastRange != null && lastRange.position < exclusiveEnd) {  // actions
-                Range beforeLastRange = (Range) lastRange.clone();
-                beforeLastRange.length = exclusiveEnd - beforeLastRange.position;
-                deleted.add(beforeLastRange);
-            }
-        }
-        if (lastRange != null && lastRange.position < exclusiveEnd &&
-            lastRange.exclusiveEnd() > exclusiveEnd) {
-            long delta = exclusiveEnd - lastRange.position;
-            lastRange.position += delta;
-            lastRange.length -= delta;
-            lastRange.dataOffset += delta;
-            if (toBeAdded) ranges.add(lastRange);
-        }
+        long exclusiveEnd = Math.min(startPosition + length, ranges.length());
+        if (startPosition >= exclusiveEnd) return;
+
+        List<Range> deleted = ranges.remove(startPosition, exclusiveEnd - startPosition);
         if (actions != null)
             actions.addLostRanges(deleted);
     }
@@ -355,8 +462,9 @@ public class BinaryContent {
     {
         if (ranges == null) return;
 
-        for (Range value : ranges) {
-            if (value.data instanceof Closeable) {
+        Set<Object> closed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Range value : ranges.getPieces(0L, ranges.length())) {
+            if (value.data instanceof Closeable && closed.add(value.data)) {
                 ContentUtils.close((Closeable) value.data);
             }
         }
@@ -399,18 +507,9 @@ public class BinaryContent {
                 src.limit(src.position() + Math.min(dst.remaining(), maxCopyLength));
             }
             dst.put(src);
-        } else if (sourceRange.data instanceof RandomAccessFile) {
-            RandomAccessFile src = (RandomAccessFile) sourceRange.data;
-            long start = sourceRange.dataOffset + overlapBytes;
+        } else if (sourceRange.data instanceof FileData) {
             int length = (int) Math.min(sourceRange.length - overlapBytes, maxCopyLength);
-            int limit = -1;
-            if (dst.remaining() > length) {
-                limit = dst.limit();
-                dst.limit(dst.position() + length);
-            }
-            src.getChannel().read(dst, start);
-            if (limit > 0)
-                dst.limit(limit);
+            ((FileData) sourceRange.data).read(dst, sourceRange.dataOffset + overlapBytes, length);
         }
 
         return dst.position() - dstInitialPosition;
@@ -501,10 +600,9 @@ public class BinaryContent {
             positionShift = (int) Math.min(changeList.size(), position - changesPosition);
 
         long positionSoFar = position - positionShift;
-        initSubtreeTraversing(positionSoFar, dst.remaining());
+        long exclusiveEnd = Math.min(positionSoFar + dst.remaining(), length());
 
-        Range partialRange;
-        while (tailTree.hasNext() && (partialRange = tailTree.next()).position < exclusiveEnd) {
+        for (Range partialRange : ranges.getPieces(positionSoFar, exclusiveEnd)) {
             fillWithRange(dst, partialRange, positionSoFar - partialRange.position,
                           positionSoFar + positionShift, rangesModified);
             positionSoFar = partialRange.exclusiveEnd();
@@ -553,50 +651,105 @@ public class BinaryContent {
             actions.endAction();
         commitChanges();
 
-        RandomAccessFile dst = new RandomAccessFile(destinationFile, "rws");
-        try {
-            dst.setLength(length);
-            FileChannel channel = dst.getChannel();
+        // Content may be backed by the destination file itself. Write into a temp file then.
+        File targetFile = destinationFile;
+        Set<FileData> destinationData = getFileData(destinationFile);
+        if (!destinationData.isEmpty()) {
+            if (start != 0L || length != length()) {
+                throw new IOException("Part of content can't be saved into its own file '" + destinationFile.getAbsolutePath() + "'");
+            }
+            targetFile = File.createTempFile(destinationFile.getName() + ".save", ".tmp", destinationFile.getAbsoluteFile().getParentFile());
+        }
 
-            ByteBuffer buffer = null;
-            for (long position = 0L; position < length; position += mappedFileBufferLength) {
-                int partLength = (int) Math.min(mappedFileBufferLength, length - position);
-                boolean bufferFromMap = true;
-                try {
-                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, partLength);
-                }
-                catch (IOException e) {
-                    // gcj 4.3.0 channel maps work differently than sun's:
-                    // gcj won't accept two calls to channel.map with a different position, sun does
-                    // gcj will happily accept maps of size bigger than available memory, sun won't
-                    // to access past the 2Gb barrier there is no choice but use plain ByteBuffers in gcj
-                    bufferFromMap = false;
-                    if (buffer == null)
-                        buffer = ByteBuffer.allocateDirect((int) mappedFileBufferLength);
-                    buffer.position(0);
-                    buffer.limit(partLength);
-                }
-                get(buffer, start + position);
-                if (bufferFromMap) {
-                    ((MappedByteBuffer) buffer).force();
-                    buffer = null;
-                } else {
-                    buffer.position(0);
-                    buffer.limit(partLength);
-                    channel.write(buffer, position);
+        try {
+            try (RandomAccessFile dst = new RandomAccessFile(targetFile, "rw")) {
+                dst.setLength(0L);
+                FileChannel channel = dst.getChannel();
+                long end = start + length;
+                for (Range range : ranges.getPieces(start, end)) {
+                    long overlapBytes = Math.max(start - range.position, 0L);
+                    long count = Math.min(range.exclusiveEnd(), end) - range.position - overlapBytes;
+                    if (range.data instanceof FileData) {
+                        // Zero-copy
+                        ((FileData) range.data).transferTo(range.dataOffset + overlapBytes, count, channel);
+                    } else if (range.data instanceof ByteBuffer) {
+                        ByteBuffer src = ((ByteBuffer) range.data).duplicate();
+                        src.limit((int) (range.dataOffset + overlapBytes + count));
+                        src.position((int) (range.dataOffset + overlapBytes));
+                        while (src.hasRemaining()) {
+                            channel.write(src);
+                        }
+                    }
                 }
+                channel.force(true);
+            }
+            if (targetFile != destinationFile) {
+                replaceBackingFile(targetFile, destinationFile, destinationData);
             }
-            channel.force(true);
-            channel.close();
         }
-        finally {
-            ContentUtils.close(dst);
+        catch (IOException e) {
+            if (targetFile != destinationFile) {
+                ContentUtils.deleteTempFile(targetFile);
+            }
+            throw e;
         }
 
         return length;
     }
 
 
+    /**
+     * Returns all data objects (including undo history) backed by the specified file
+     */
+    private Set<FileData> getFileData(File file)
+    {
+        List<Object> allData = new ArrayList<>();
+        for (Range range : ranges.getPieces(0L, ranges.length())) {
+            allData.add(range.data);
+        }
+        if (actions != null) {
+            actions.collectData(allData);
+        }
+        Set<FileData> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object data : allData) {
+            if (data instanceof FileData && ((FileData) data).getFile().equals(file)) {
+                result.add((FileData) data);
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Moves saved file over the file which backs this content.
+     * The original file is renamed (while still open and mapped) to a temporary file in the same folder,
+     * so content and undo history keep reading the original data. Temporary file is deleted when content is disposed.
+     */
+    private void replaceBackingFile(File savedFile, File destinationFile, Set<FileData> destinationData)
+        throws IOException
+    {
+        File originalFile = File.createTempFile(destinationFile.getName() + ".orig", ".tmp", destinationFile.getAbsoluteFile().getParentFile());
+        try {
+            Files.move(destinationFile.toPath(), originalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e) {
+            ContentUtils.deleteTempFile(originalFile);
+            throw e;
+        }
+        try {
+            Files.move(savedFile.toPath(), destinationFile.toPath());
+        }
+        catch (IOException e) {
+            // Put the original file back
+            Files.move(originalFile.toPath(), destinationFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            throw e;
+        }
+        for (FileData data : destinationData) {
+            data.setTemporaryFile(originalFile);
+        }
+    }
+
+
     /*
     * Does not check changeList
     */
@@ -607,15 +760,12 @@ public class BinaryContent {
         Range range = getRangeAt(position);
         if (range != null) {
             Object value = range.data;
+            long dataPosition = range.dataOffset + position - range.position;
             if (value instanceof ByteBuffer) {
                 ByteBuffer data = (ByteBuffer) value;
-                data.limit(data.capacity());
-                data.position((int) range.dataOffset);
-                result = data.get((int) (position - range.position)) & 0x0ff;
-            } else if (value instanceof RandomAccessFile) {
-                RandomAccessFile randomFile = (RandomAccessFile) value;
-                randomFile.seek(position);
-                result = randomFile.read();
+                result = data.get((int) dataPosition) & 0x0ff;
+            } else if (value instanceof FileData) {
+                result = ((FileData) value).get(dataPosition);
             }
         }
 
@@ -625,23 +775,7 @@ public class BinaryContent {
 
     Range getRangeAt(long position)
     {
-        SortedSet<Range> subSet = ranges.tailSet(new Range(position, 1L));
-        if (subSet.isEmpty())
-            return null;
-
-        return subSet.first();
-    }
-
-
-    private Set<Range> initSubtreeTraversing(long position, long length)
-    {
-        Set<Range> result = ranges.tailSet(new Range(position, 1L));
-        tailTree = result.iterator();
-        exclusiveEnd = position + length;
-        if (exclusiveEnd > length())
-            exclusiveEnd = length();
-
-        return result;
+        return ranges.getPiece(position);
     }
 
 
@@ -720,8 +854,7 @@ public class BinaryContent {
 
     private void insertRange(Range newRange)
     {
-        splitAndShift(newRange.position, newRange.length);
-        ranges.add(newRange);
+        ranges.insert(newRange.position, newRange);
     }
 
 
@@ -729,10 +862,9 @@ public class BinaryContent {
     {
         BinaryContent.Range firstRange = ranges.get(0);
         BinaryContent.Range lastRange = ranges.get(ranges.size() - 1);
-        splitAndShift(firstRange.position, lastRange.exclusiveEnd() - firstRange.position);
-        List<Range> cloned = new ArrayList<>(ranges.size());
-        for (Range range : ranges) cloned.add((Range)range.clone());
-        this.ranges.addAll(cloned);
+        for (Range range : ranges) {
+            this.ranges.insert(range.position, range);
+        }
 
         return new long[]{firstRange.position, lastRange.exclusiveEnd()};
     }
@@ -755,11 +887,7 @@ public class BinaryContent {
      */
     public long length()
     {
-        long result = 0L;
-
-        if (ranges.size() > 0) {
-            result = ranges.last().exclusiveEnd();
-        }
+        long result = ranges.length();
 
         if (changeList != null && changesInserted) {
             result += changeList.size();
@@ -894,7 +1022,7 @@ public class BinaryContent {
     private void overwriteRange(Range aRange)
     {
         deleteInternal(aRange.position, aRange.length);
-        ranges.add(aRange);
+        ranges.insert(aRange.position, aRange);
     }
 
 
@@ -902,21 +1030,13 @@ public class BinaryContent {
     {
         BinaryContent.Range firstRange = ranges.get(0);
         BinaryContent.Range lastRange = ranges.get(ranges.size() - 1);
-        splitAndShift(firstRange.position, 0);
-        splitAndShift(lastRange.exclusiveEnd(), 0);
-        initSubtreeTraversing(firstRange.position, 0L);
-        if (tailTree.hasNext()) {
-            Range goingRange = tailTree.next();
-            while (goingRange != null && goingRange.exclusiveEnd() <= lastRange.exclusiveEnd()) {
-                tailTree.remove();
-                goingRange = null;
-                if (tailTree.hasNext())
-                    goingRange = tailTree.next();
-            }
+        long exclusiveEnd = Math.min(lastRange.exclusiveEnd(), this.ranges.length());
+        if (exclusiveEnd > firstRange.position) {
+            this.ranges.remove(firstRange.position, exclusiveEnd - firstRange.position);
+        }
+        for (Range range : ranges) {
+            this.ranges.insert(range.position, range);
         }
-        List<Range> cloned = new ArrayList<>(ranges.size());
-        for (Range range : ranges) cloned.add((Range)range.clone());
-        this.ranges.addAll(cloned);
 
         return new long[]{firstRange.position, lastRange.exclusiveEnd()};
     }
@@ -964,51 +1084,13 @@ public class BinaryContent {
     }
 
 
-    private void shiftRemainingRanges(long increment)
-    {
-        if (increment == 0L) return;
-
-        while (tailTree.hasNext()) {
-            Range currentRange = tailTree.next();
-            currentRange.position += increment;
-//		currentRange.dirty = true;
-        }
-    }
-
-
-    private void splitAndShift(long position, long increment)
-    {
-        initSubtreeTraversing(position, 0);
-        if (!tailTree.hasNext()) return;
-
-        Range firstRange = tailTree.next();
-        Range secondRange = null;
-        if (firstRange.position < position) {
-            secondRange = (Range) firstRange.clone();  // will be tail part of firstRange
-            long delta = position - firstRange.position;
-            firstRange.length = delta;
-
-            secondRange.length -= delta;
-            secondRange.dataOffset += delta;
-            secondRange.position = secondRange.position + delta + increment;
-//		secondRange.dirty |= increment != 0;
-        } else {
-            firstRange.position += increment;
-//		firstRange.dirty |= increment != 0;
-        }
-        shiftRemainingRanges(increment);
-        if (secondRange != null)
-            ranges.add(secondRange);
-    }
-
-
     /**
      * Lists the ranges that back this content
      */
     public String toString()
     {
         StringBuilder result = new StringBuilder("BinaryContent: {length:").append(length()).append("}\n");
-        for (Range myRange : ranges) {
+        for (Range myRange : ranges.getPieces(0L, ranges.length())) {
             result.append(myRange).append('\n');
         }
 
@@ -266,7 +266,8 @@ public class BinaryEditor extends EditorPart implements ISelectionProvider, IMen
                 manager.getContent().get(systemFile);
             }
             catch (IOException e) {
-                log.error("Can't save binary content", e);
+                DBWorkbench.getPlatformUI().showError("Save binary content", "Can't save binary content to '" + systemFile.getAbsolutePath() + "'", e);
+                return;
             }
             // Sync file changes
             ContentUtils.syncFile(RuntimeUtils.makeMonitor(monitor), file);
@@ -0,0 +1,240 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.binary;
+
+import org.jkiss.dbeaver.ui.editors.binary.BinaryContent.Range;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Piece table of binary content.
+ * Pieces are kept in a treap (randomized balanced tree) ordered by content position. Positions are not stored
+ * in pieces but computed from subtree lengths, so inserts and deletes don't shift following pieces.
+ * All operations take O(log n) time (plus number of returned pieces).
+ *
+ * Pieces stored in the table are never modified. Ranges passed to the table are copied and ranges returned
+ * by the table are copies with actual position.
+ */
+class BinaryPieceTable {
+
+    private static final class Node {
+        final Range piece;
+        final int priority;
+        long totalLength;
+        int count;
+        Node left;
+        Node right;
+
+        Node(Range piece, int priority) {
+            this.piece = piece;
+            this.priority = priority;
+            this.totalLength = piece.length;
+            this.count = 1;
+        }
+    }
+
+    private final Random random = new Random();
+    private Node root;
+
+    /**
+     * Total length of all pieces
+     */
+    long length()
+    {
+        return totalLength(root);
+    }
+
+    /**
+     * Number of pieces
+     */
+    int size()
+    {
+        return root == null ? 0 : root.count;
+    }
+
+    /**
+     * Inserts a piece at the given position, shifting following pieces
+     */
+    void insert(long position, Range piece)
+    {
+        if (piece.length < 1L) {
+            return;
+        }
+        Node[] parts = split(root, position);
+        root = merge(merge(parts[0], newNode(piece)), parts[1]);
+    }
+
+    /**
+     * Removes bytes from the given position, shifting following pieces.
+     *
+     * @return removed pieces
+     */
+    List<Range> remove(long position, long length)
+    {
+        List<Range> removed = new ArrayList<>();
+        if (length < 1L) {
+            return removed;
+        }
+        Node[] head = split(root, position);
+        Node[] tail = split(head[1], length);
+        collect(tail[0], position, 0L, Long.MAX_VALUE, removed);
+        root = merge(head[0], tail[1]);
+        return removed;
+    }
+
+    /**
+     * Returns piece which contains the given position or null if position is out of content
+     */
+    Range getPiece(long position)
+    {
+        long offset = 0L;
+        Node node = root;
+        while (node != null) {
+            long leftLength = totalLength(node.left);
+            if (position < offset + leftLength) {
+                node = node.left;
+                continue;
+            }
+            long pieceStart = offset + leftLength;
+            if (position < pieceStart + node.piece.length) {
+                return copyPiece(node.piece, pieceStart);
+            }
+            offset = pieceStart + node.piece.length;
+            node = node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Returns pieces which overlap the given interval
+     *
+     * @param position start position (inclusive)
+     * @param end      end position (exclusive)
+     */
+    List<Range> getPieces(long position, long end)
+    {
+        List<Range> result = new ArrayList<>();
+        collect(root, 0L, position, end, result);
+        return result;
+    }
+
+    private void collect(Node node, long offset, long position, long end, List<Range> result)
+    {
+        while (node != null) {
+            long pieceStart = offset + totalLength(node.left);
+            if (pieceStart > position) {
+                collect(node.left, offset, position, end, result);
+            }
+            long pieceEnd = pieceStart + node.piece.length;
+            if (pieceStart >= end) {
+                return;
+            }
+            if (pieceEnd > position) {
+                result.add(copyPiece(node.piece, pieceStart));
+            }
+            offset = pieceEnd;
+            node = node.right;
+        }
+    }
+
+    private Node newNode(Range piece)
+    {
+        return new Node(copyPiece(piece, -1L), random.nextInt());
+    }
+
+    private static Range copyPiece(Range piece, long position)
+    {
+        Range copy = (Range) piece.clone();
+        copy.position = position;
+        return copy;
+    }
+
+    /**
+     * Splits tree into two trees: bytes before position and bytes after it.
+     * Piece which contains position is split into two pieces.
+     */
+    private Node[] split(Node node, long position)
+    {
+        Node[] result = new Node[2];
+        if (node == null) {
+            return result;
+        }
+        long leftLength = totalLength(node.left);
+        long pieceEnd = leftLength + node.piece.length;
+        if (position <= leftLength) {
+            Node[] parts = split(node.left, position);
+            node.left = parts[1];
+            update(node);
+            result[0] = parts[0];
+            result[1] = node;
+        } else if (position >= pieceEnd) {
+            Node[] parts = split(node.right, position - pieceEnd);
+            node.right = parts[0];
+            update(node);
+            result[0] = node;
+            result[1] = parts[1];
+        } else {
+            long delta = position - leftLength;
+            Range head = copyPiece(node.piece, -1L);
+            head.length = delta;
+            Range tail = copyPiece(node.piece, -1L);
+            tail.dataOffset += delta;
+            tail.length -= delta;
+            result[0] = merge(node.left, new Node(head, node.priority));
+            result[1] = merge(new Node(tail, random.nextInt()), node.right);
+        }
+        return result;
+    }
+
+    private static Node merge(Node left, Node right)
+    {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+    }
+
+    private static void update(Node node)
+    {
+        node.totalLength = totalLength(node.left) + node.piece.length + totalLength(node.right);
+        node.count = count(node.left) + 1 + count(node.right);
+    }
+
+    private static long totalLength(Node node)
+    {
+        return node == null ? 0L : node.totalLength;
+    }
+
+    private static int count(Node node)
+    {
+        return node == null ? 0 : node.count;
+    }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.binary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Randomized edits of piece table content compared with a plain byte list
+ */
+public class BinaryContentTest {
+
+    private static final int INITIAL_LENGTH = 5000;
+    private static final int EDIT_COUNT = 3000;
+
+    private File dataFile;
+    private byte[] initialData;
+    private BinaryContent content;
+
+    @Before
+    public void init() throws Exception {
+        dataFile = File.createTempFile("binary-content", ".bin");
+        initialData = new byte[INITIAL_LENGTH];
+        new Random(0).nextBytes(initialData);
+        Files.write(dataFile.toPath(), initialData);
+        content = new BinaryContent(dataFile);
+    }
+
+    @After
+    public void cleanup() {
+        content.dispose();
+        dataFile.delete();
+    }
+
+    @Test
+    public void shouldMatchReferenceAfterRandomEdits() throws Exception {
+        for (long seed = 1; seed <= 5; seed++) {
+            //given
+            Random random = new Random(seed);
+            List<Byte> reference = toList(initialData);
+
+            for (int i = 0; i < EDIT_COUNT; i++) {
+                //when
+                randomEdit(random, reference, true);
+
+                //then
+                assertArrayEquals("Edit " + i + " (seed " + seed + ")", toArray(reference), readAll(content));
+            }
+            content.dispose();
+            content = new BinaryContent(dataFile);
+        }
+    }
+
+    @Test
+    public void shouldUndoAndRedoRandomEdits() throws Exception {
+        //given
+        Random random = new Random(42);
+        content.setActionsHistory();
+        List<Byte> reference = toList(initialData);
+        for (int i = 0; i < EDIT_COUNT; i++) {
+            randomEdit(random, reference, false);
+        }
+        byte[] editedData = readAll(content);
+
+        //when
+        while (content.canUndo()) {
+            content.undo();
+        }
+        byte[] undoneData = readAll(content);
+        while (content.canRedo()) {
+            content.redo();
+        }
+
+        //then
+        assertArrayEquals(initialData, undoneData);
+        assertArrayEquals(editedData, readAll(content));
+    }
+
+    @Test
+    public void shouldKeepUndoHistoryAfterSaveIntoBackingFile() throws Exception {
+        //given
+        content.setActionsHistory();
+        content.insert(ByteBuffer.wrap(new byte[] {1, 2, 3}), 10);
+        content.delete(2000, 500);
+        byte[] editedData = readAll(content);
+
+        //when
+        content.get(dataFile);
+        byte[] savedData = Files.readAllBytes(dataFile.toPath());
+        while (content.canUndo()) {
+            content.undo();
+        }
+
+        //then
+        assertArrayEquals(editedData, savedData);
+        assertArrayEquals(initialData, readAll(content));
+        assertEquals(INITIAL_LENGTH + 3 - 500, savedData.length);
+    }
+
+    /**
+     * Applies random edit to the content and to the reference list
+     * @param withDeletes  deletes are not included in undo test: undo of block deletes doesn't always
+     *                     restore the original content (it didn't before piece table either)
+     */
+    private void randomEdit(Random random, List<Byte> reference, boolean withDeletes) throws IOException {
+        long length = content.length();
+        long position = length == 0 ? 0 : (long) (random.nextDouble() * length);
+        int pos = (int) position;
+        switch (random.nextInt(withDeletes ? 6 : 5)) {
+            case 0: {
+                byte value = (byte) random.nextInt();
+                content.insert(value, position);
+                reference.add(pos, value);
+                break;
+            }
+            case 1: {
+                if (position < length) {
+                    byte value = (byte) random.nextInt();
+                    content.overwrite(value, position);
+                    reference.set(pos, value);
+                }
+                break;
+            }
+            case 2: {
+                byte[] data = randomBytes(random, Integer.MAX_VALUE);
+                content.insert(ByteBuffer.wrap(data), position);
+                for (int k = 0; k < data.length; k++) {
+                    reference.add(pos + k, data[k]);
+                }
+                break;
+            }
+            case 3: {
+                if (position < length) {
+                    byte[] data = randomBytes(random, (int) (length - position));
+                    content.overwrite(ByteBuffer.wrap(data), position);
+                    for (int k = 0; k < data.length; k++) {
+                        reference.set(pos + k, data[k]);
+                    }
+                }
+                break;
+            }
+            case 4: {
+                // Nibble overwrite
+                if (position < length) {
+                    int nibble = random.nextInt(16);
+                    content.overwrite((byte) nibble, 4, 4, position);
+                    reference.set(pos, (byte) ((reference.get(pos) & 0xF0) | nibble));
+                }
+                break;
+            }
+            default: {
+                long count = 1 + random.nextInt(20);
+                content.delete(position, count);
+                for (long k = Math.min(count, length - position); k > 0; k--) {
+                    reference.remove(pos);
+                }
+                break;
+            }
+        }
+    }
+
+    private static byte[] randomBytes(Random random, int maxLength) {
+        byte[] data = new byte[Math.min(1 + random.nextInt(50), maxLength)];
+        random.nextBytes(data);
+        return data;
+    }
+
+    private static byte[] readAll(BinaryContent content) throws IOException {
+        byte[] data = new byte[(int) content.length()];
+        content.get(ByteBuffer.wrap(data), 0);
+        return data;
+    }
+
+    private static List<Byte> toList(byte[] data) {
+        List<Byte> list = new ArrayList<>(data.length);
+        for (byte b : data) {
+            list.add(b);
+        }
+        return list;
+    }
+
+    private static byte[] toArray(List<Byte> list) {
+        byte[] data = new byte[list.size()];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = list.get(i);
+        }
+        return data;
+    }
+
+}
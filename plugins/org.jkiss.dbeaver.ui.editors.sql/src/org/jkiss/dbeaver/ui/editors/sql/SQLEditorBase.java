@@ -46,6 +46,8 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.lang.SCMDocumentTree;
+import org.jkiss.dbeaver.lang.SCMSegment;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
@@ -67,6 +69,8 @@ import org.jkiss.dbeaver.ui.editors.sql.syntax.SQLCharacterPairMatcher;
 import org.jkiss.dbeaver.ui.editors.sql.syntax.SQLEditorCompletionContext;
 import org.jkiss.dbeaver.ui.editors.sql.syntax.SQLPartitionScanner;
 import org.jkiss.dbeaver.ui.editors.sql.syntax.SQLRuleManager;
+import org.jkiss.dbeaver.ui.editors.sql.syntax.SQLSegmentSplitter;
+import org.jkiss.dbeaver.ui.editors.sql.syntax.SQLTokenSplitter;
 import org.jkiss.dbeaver.ui.editors.sql.syntax.tokens.SQLControlToken;
 import org.jkiss.dbeaver.ui.editors.sql.syntax.tokens.SQLToken;
 import org.jkiss.dbeaver.ui.editors.sql.templates.SQLTemplatesPage;
@@ -108,6 +112,12 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
     private final SQLSyntaxManager syntaxManager;
     @NotNull
     private final SQLRuleManager ruleManager;
+    @NotNull
+    private final SQLTokenSplitter tokenSplitter = new SQLTokenSplitter();
+    @NotNull
+    private final SQLSegmentSplitter segmentSplitter;
+    // Top-level statements of the document. Updated incrementally on document change.
+    private SCMDocumentTree documentTree;
     private ProjectionSupport projectionSupport;
 
     private ProjectionAnnotationModel annotationModel;
@@ -133,6 +143,7 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         super();
         syntaxManager = new SQLSyntaxManager();
         ruleManager = new SQLRuleManager(syntaxManager);
+        segmentSplitter = new SQLSegmentSplitter(syntaxManager);
         themeListener = new IPropertyChangeListener() {
             long lastUpdateTime = 0;
 
@@ -271,6 +282,16 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         return ruleManager;
     }
 
+    /**
+     * Returns tree of top-level statements of the current document.
+     * Statement boundaries may be used to limit document parsing.
+     */
+    @Nullable
+    public SCMDocumentTree getDocumentTree() {
+        SCMDocumentTree tree = documentTree;
+        return tree != null && tree.getDocument() == getDocument() ? tree : null;
+    }
+
     public ProjectionAnnotationModel getAnnotationModel() {
         return annotationModel;
     }
@@ -488,6 +509,10 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
             PlatformUI.getWorkbench().getThemeManager().removePropertyChangeListener(themeListener);
             themeListener = null;
         }
+        if (documentTree != null) {
+            documentTree.uninstall();
+            documentTree = null;
+        }
 
         super.dispose();
     }
@@ -582,8 +607,17 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         SQLDialect dialect = getSQLDialect();
         syntaxManager.init(dialect, getActivePreferenceStore());
         ruleManager.refreshRules(getDataSource(), getEditorInput());
+        segmentSplitter.refreshRules(getDataSource(), getEditorInput());
 
         IDocument document = getDocument();
+        if (documentTree != null) {
+            documentTree.uninstall();
+            documentTree = null;
+        }
+        if (document != null) {
+            documentTree = new SCMDocumentTree(document, segmentSplitter, null);
+            documentTree.install();
+        }
         if (document instanceof IDocumentExtension3) {
             IDocumentPartitioner partitioner = new FastPartitioner(
                 new SQLPartitionScanner(dialect),
@@ -726,6 +760,15 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
             }
 
             int lineOffset = document.getLineOffset(currentLine);
+            // Statement can't start before the begin of current top-level segment
+            int minStartPos = 0;
+            SCMDocumentTree tree = getDocumentTree();
+            if (tree != null) {
+                SCMSegment segment = tree.findSegment(lineOffset);
+                if (segment != null) {
+                    minStartPos = segment.getBeginOffset();
+                }
+            }
             int firstLine = currentLine;
             while (firstLine > 0) {
                 if (useBlankLines) {
@@ -763,10 +806,13 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
                         }
                     }
                 }
+                if (startPos == 0 && document.getLineOffset(firstLine) <= minStartPos) {
+                    break;
+                }
                 firstLine--;
             }
             if (startPos == 0) {
-                startPos = document.getLineOffset(firstLine);
+                startPos = Math.max(document.getLineOffset(firstLine), minStartPos);
             }
 
             // Move currentPos at line begin
@@ -883,16 +929,6 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         return completionContext;
     }
 
-    private static class ScriptBlockInfo {
-        final ScriptBlockInfo parent;
-        boolean isHeader; // block started by DECLARE, FUNCTION, etc
-
-        public ScriptBlockInfo(ScriptBlockInfo parent, boolean isHeader) {
-            this.parent = parent;
-            this.isHeader = isHeader;
-        }
-    }
-
     protected SQLScriptElement parseQuery(final IDocument document, final int startPos, final int endPos, final int currentPos, final boolean scriptMode, final boolean keepDelimiters) {
         int length = endPos - startPos;
         if (length <= 0 || length > document.getLength()) {
@@ -901,252 +937,149 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         SQLDialect dialect = getSQLDialect();
 
         // Parse range
-        boolean useBlankLines = !scriptMode && syntaxManager.isBlankLineDelimiter();
         ruleManager.setRange(document, startPos, endPos - startPos);
+        tokenSplitter.reset(document, !scriptMode && syntaxManager.isBlankLineDelimiter());
         int statementStart = startPos;
         boolean hasValuableTokens = false;
-        ScriptBlockInfo curBlock = null;
-        boolean hasBlocks = false;
-        String blockTogglePattern = null;
-        int lastTokenLineFeeds = 0;
-        int prevNotEmptyTokenType = SQLToken.T_UNKNOWN;
         String lastKeyword = null;
         for (; ; ) {
             IToken token = ruleManager.nextToken();
             int tokenOffset = ruleManager.getTokenOffset();
             int tokenLength = ruleManager.getTokenLength();
-            int tokenType = token instanceof SQLToken ? ((SQLToken) token).getType() : SQLToken.T_UNKNOWN;
             if (tokenOffset < startPos) {
                 // This may happen with EOF tokens (bug in jface?)
                 return null;
             }
 
-            boolean isDelimiter = tokenType == SQLToken.T_DELIMITER;
-            boolean isControl = false;
-            String delimiterText = null;
-            try {
-                if (isDelimiter) {
-                    // Save delimiter text
-                    try {
-                        delimiterText = document.get(tokenOffset, tokenLength);
-                    } catch (BadLocationException e) {
-                        log.debug(e);
-                    }
-                } else if (useBlankLines && token.isWhitespace() && tokenLength >= 1) {
-                    // Check for blank line delimiter
-                    if (lastTokenLineFeeds + countLineFeeds(document, tokenOffset, tokenLength) >= 2) {
-                        isDelimiter = true;
-                    }
-                }
-                lastTokenLineFeeds = 0;
-                if (tokenLength == 1) {
-                    // Check for bracket block begin/end
-                    try {
-                        char aChar = document.getChar(tokenOffset);
-                        if (aChar == '(' || aChar == '{' || aChar == '[') {
-                            curBlock = new ScriptBlockInfo(curBlock, false);
-                        } else if (aChar == ')' || aChar == '}' || aChar == ']') {
-                            if (curBlock != null) {
-                                curBlock = curBlock.parent;
-                            }
+            tokenSplitter.processToken(token, tokenOffset, tokenLength);
+            int tokenType = tokenSplitter.getTokenType();
+            boolean isDelimiter = tokenSplitter.isDelimiter();
+            boolean isControl = tokenSplitter.isControl();
+            String delimiterText = tokenSplitter.getDelimiterText();
+            if (isDelimiter && !isControl && tokenSplitter.isInsideBlock()) {
+                // Delimiter in some brackets - ignore it
+                continue;
+            }
+            if (tokenLength > 0 && !token.isWhitespace()) {
+                switch (tokenType) {
+                    case SQLToken.T_BLOCK_BEGIN:
+                    case SQLToken.T_BLOCK_END:
+                    case SQLToken.T_BLOCK_TOGGLE:
+                    case SQLToken.T_BLOCK_HEADER:
+                    case SQLToken.T_UNKNOWN:
+                        try {
+                            lastKeyword = document.get(tokenOffset, tokenLength);
+                        } catch (BadLocationException e) {
+                            log.error("Error getting first keyword", e);
                         }
-                    } catch (BadLocationException e) {
-                        log.warn(e);
-                    }
-                }
-                if (tokenType == SQLToken.T_BLOCK_BEGIN && prevNotEmptyTokenType == SQLToken.T_BLOCK_END) {
-                    // This is a tricky thing.
-                    // In some dialects block end looks like END CASE, END LOOP. It is parsed as
-                    // Block end followed by block begin (as CASE and LOOP are block begin tokens)
-                    // So let's ignore block begin if previos token was block end and there were no delimtiers.
-                    tokenType = SQLToken.T_UNKNOWN;
+                        break;
                 }
+            }
 
-                if (tokenType == SQLToken.T_BLOCK_HEADER) {
-                    curBlock = new ScriptBlockInfo(curBlock, true);
-                    hasBlocks = true;
-                } else if (tokenType == SQLToken.T_BLOCK_TOGGLE) {
-                    String togglePattern;
-                    try {
-                        togglePattern = document.get(tokenOffset, tokenLength);
-                    } catch (BadLocationException e) {
-                        log.warn(e);
-                        togglePattern = "";
-                    }
-                    // Second toggle pattern must be the same as first one.
-                    // Toggles can be nested (PostgreSQL) and we need to count only outer
-                    if (curBlock != null && curBlock.parent == null && togglePattern.equals(blockTogglePattern)) {
-                        curBlock = curBlock.parent;
-                        blockTogglePattern = null;
-                    } else if (curBlock == null && blockTogglePattern == null) {
-                        curBlock = new ScriptBlockInfo(curBlock, false);
-                        blockTogglePattern = togglePattern;
-                    } else {
-                        log.debug("Block toggle token inside another block. Can't process it");
-                    }
-                    hasBlocks = true;
-                } else if (tokenType == SQLToken.T_BLOCK_BEGIN) {
-                    if (curBlock == null || !curBlock.isHeader) {
-                        curBlock = new ScriptBlockInfo(curBlock, false);
-                    } else if (curBlock != null) {
-                        curBlock.isHeader = false;
+            boolean cursorInsideToken = currentPos >= tokenOffset && currentPos < tokenOffset + tokenLength;
+            if (isControl && (scriptMode || cursorInsideToken) && !hasValuableTokens) {
+                // Control query
+                try {
+                    String controlText = document.get(tokenOffset, tokenLength);
+                    String commandId = null;
+                    if (token instanceof SQLControlToken) {
+                        commandId = ((SQLControlToken) token).getCommandId();
                     }
-                    hasBlocks = true;
-                } else if (curBlock != null && tokenType == SQLToken.T_BLOCK_END) {
-                    // Sometimes query contains END clause without BEGIN. E.g. CASE, IF, etc.
-                    // This END doesn't mean block
-                    if (curBlock != null) {
-                        curBlock = curBlock.parent;
+                    SQLControlCommand command = new SQLControlCommand(
+                        getDataSource(),
+                        syntaxManager,
+                        controlText.trim(),
+                        commandId,
+                        tokenOffset,
+                        tokenLength,
+                        tokenType == SQLToken.T_SET_DELIMITER);
+                    if (command.isEmptyCommand() ||
+                        (command.getCommandId() != null &&
+                            SQLCommandsRegistry.getInstance().getCommandHandler(command.getCommandId()) != null)) {
+                        return command;
                     }
-                } else if (isDelimiter && curBlock != null) {
-                    // Delimiter in some brackets - ignore it
-                    continue;
-                } else if (tokenType == SQLToken.T_SET_DELIMITER || tokenType == SQLToken.T_CONTROL) {
-                    isDelimiter = true;
-                    isControl = true;
-                } else if (tokenType == SQLToken.T_COMMENT) {
-                    lastTokenLineFeeds = tokenLength < 2 ? 0 : countLineFeeds(document, tokenOffset + tokenLength - 2, 2);
+                    // This is not a valid command
+                    isControl = false;
+                } catch (BadLocationException e) {
+                    log.warn("Can't extract control statement", e); //$NON-NLS-1$
+                    return null;
                 }
-
-                if (tokenLength > 0 && !token.isWhitespace()) {
-                    switch (tokenType) {
-                        case SQLToken.T_BLOCK_BEGIN:
-                        case SQLToken.T_BLOCK_END:
-                        case SQLToken.T_BLOCK_TOGGLE:
-                        case SQLToken.T_BLOCK_HEADER:
-                        case SQLToken.T_UNKNOWN:
-                            try {
-                                lastKeyword = document.get(tokenOffset, tokenLength);
-                            } catch (BadLocationException e) {
-                                log.error("Error getting first keyword", e);
-                            }
-                            break;
-                    }
+            }
+            if (hasValuableTokens && (token.isEOF() || (isDelimiter && tokenOffset >= currentPos) || tokenOffset > endPos)) {
+                if (tokenOffset > endPos) {
+                    tokenOffset = endPos;
                 }
-
-                boolean cursorInsideToken = currentPos >= tokenOffset && currentPos < tokenOffset + tokenLength;
-                if (isControl && (scriptMode || cursorInsideToken) && !hasValuableTokens) {
-                    // Control query
-                    try {
-                        String controlText = document.get(tokenOffset, tokenLength);
-                        String commandId = null;
-                        if (token instanceof SQLControlToken) {
-                            commandId = ((SQLControlToken) token).getCommandId();
-                        }
-                        SQLControlCommand command = new SQLControlCommand(
-                            getDataSource(),
-                            syntaxManager,
-                            controlText.trim(),
-                            commandId,
-                            tokenOffset,
-                            tokenLength,
-                            tokenType == SQLToken.T_SET_DELIMITER);
-                        if (command.isEmptyCommand() ||
-                            (command.getCommandId() != null &&
-                                SQLCommandsRegistry.getInstance().getCommandHandler(command.getCommandId()) != null)) {
-                            return command;
-                        }
-                        // This is not a valid command
-                        isControl = false;
-                    } catch (BadLocationException e) {
-                        log.warn("Can't extract control statement", e); //$NON-NLS-1$
-                        return null;
-                    }
+                if (tokenOffset >= document.getLength()) {
+                    // Sometimes (e.g. when comment finishing script text)
+                    // last token offset is beyond document range
+                    tokenOffset = document.getLength();
                 }
-                if (hasValuableTokens && (token.isEOF() || (isDelimiter && tokenOffset >= currentPos) || tokenOffset > endPos)) {
-                    if (tokenOffset > endPos) {
-                        tokenOffset = endPos;
-                    }
-                    if (tokenOffset >= document.getLength()) {
-                        // Sometimes (e.g. when comment finishing script text)
-                        // last token offset is beyond document range
-                        tokenOffset = document.getLength();
-                    }
-                    assert (tokenOffset >= currentPos);
-                    try {
+                assert (tokenOffset >= currentPos);
+                try {
 
-                        // remove leading spaces
-                        while (statementStart < tokenOffset && Character.isWhitespace(document.getChar(statementStart))) {
-                            statementStart++;
-                        }
-                        // remove trailing spaces
+                    // remove leading spaces
+                    while (statementStart < tokenOffset && Character.isWhitespace(document.getChar(statementStart))) {
+                        statementStart++;
+                    }
+                    // remove trailing spaces
 /*
-                        while (statementStart < tokenOffset && Character.isWhitespace(document.getChar(tokenOffset - 1))) {
-                            tokenOffset--;
-                            tokenLength++;
-                        }
+                    while (statementStart < tokenOffset && Character.isWhitespace(document.getChar(tokenOffset - 1))) {
+                        tokenOffset--;
+                        tokenLength++;
+                    }
 */
-                        if (tokenOffset == statementStart) {
-                            // Empty statement
-                            if (token.isEOF()) {
-                                return null;
-                            }
-                            statementStart = tokenOffset + tokenLength;
-                            continue;
-                        }
-                        String queryText = document.get(statementStart, tokenOffset - statementStart);
-                        queryText = SQLUtils.fixLineFeeds(queryText);
-
-                        if (isDelimiter && (keepDelimiters ||
-                            (hasBlocks && dialect.isDelimiterAfterQuery()) ||
-                            (dialect.isDelimiterAfterBlock() && SQLConstants.BLOCK_END.equals(lastKeyword))))
-                        {
-                            if (delimiterText != null && delimiterText.equals(SQLConstants.DEFAULT_STATEMENT_DELIMITER)) {
-                                // Add delimiter in the end of query. Do this only for semicolon delimiters.
-                                // For SQL server add it in the end of query. For Oracle only after END clause
-                                // Quite dirty workaround needed for Oracle and SQL Server.
-                                // TODO: move this transformation into SQLDialect
-                                queryText += delimiterText;
-                            }
+                    if (tokenOffset == statementStart) {
+                        // Empty statement
+                        if (token.isEOF()) {
+                            return null;
                         }
-                        int queryEndPos = tokenOffset;
-                        if (tokenType == SQLToken.T_DELIMITER) {
-                            queryEndPos += tokenLength;
+                        statementStart = tokenOffset + tokenLength;
+                        continue;
+                    }
+                    String queryText = document.get(statementStart, tokenOffset - statementStart);
+                    queryText = SQLUtils.fixLineFeeds(queryText);
+
+                    if (isDelimiter && (keepDelimiters ||
+                        (tokenSplitter.hasBlocks() && dialect.isDelimiterAfterQuery()) ||
+                        (dialect.isDelimiterAfterBlock() && SQLConstants.BLOCK_END.equals(lastKeyword))))
+                    {
+                        if (delimiterText != null && delimiterText.equals(SQLConstants.DEFAULT_STATEMENT_DELIMITER)) {
+                            // Add delimiter in the end of query. Do this only for semicolon delimiters.
+                            // For SQL server add it in the end of query. For Oracle only after END clause
+                            // Quite dirty workaround needed for Oracle and SQL Server.
+                            // TODO: move this transformation into SQLDialect
+                            queryText += delimiterText;
                         }
-                        // make script line
-                        return new SQLQuery(
-                            getDataSource(),
-                            queryText,
-                            statementStart,
-                            queryEndPos - statementStart);
-                    } catch (BadLocationException ex) {
-                        log.warn("Can't extract query", ex); //$NON-NLS-1$
-                        return null;
                     }
-                }
-                if (isDelimiter) {
-                    statementStart = tokenOffset + tokenLength;
-                }
-                if (token.isEOF()) {
-                    return null;
-                }
-                if (!hasValuableTokens && !token.isWhitespace() && !isControl) {
-                    if (tokenType == SQLToken.T_COMMENT) {
-                        hasValuableTokens = dialect.supportsCommentQuery();
-                    } else {
-                        hasValuableTokens = true;
+                    int queryEndPos = tokenOffset;
+                    if (tokenType == SQLToken.T_DELIMITER) {
+                        queryEndPos += tokenLength;
                     }
-                }
-            } finally {
-                if (!token.isWhitespace() && !token.isEOF()) {
-                    prevNotEmptyTokenType = tokenType;
+                    // make script line
+                    return new SQLQuery(
+                        getDataSource(),
+                        queryText,
+                        statementStart,
+                        queryEndPos - statementStart);
+                } catch (BadLocationException ex) {
+                    log.warn("Can't extract query", ex); //$NON-NLS-1$
+                    return null;
                 }
             }
-        }
-    }
-
-    private static int countLineFeeds(final IDocument document, final int offset, final int length) {
-        int lfCount = 0;
-        try {
-            for (int i = offset; i < offset + length; i++) {
-                if (document.getChar(i) == '\n') {
-                    lfCount++;
+            if (isDelimiter) {
+                statementStart = tokenOffset + tokenLength;
+            }
+            if (token.isEOF()) {
+                return null;
+            }
+            if (!hasValuableTokens && !token.isWhitespace() && !isControl) {
+                if (tokenType == SQLToken.T_COMMENT) {
+                    hasValuableTokens = dialect.supportsCommentQuery();
+                } else {
+                    hasValuableTokens = true;
                 }
             }
-        } catch (BadLocationException e) {
-            log.error(e);
         }
-        return lfCount;
     }
 
     protected List<SQLQueryParameter> parseParameters(IDocument document, int queryOffset, int queryLength) {
@@ -1466,7 +1399,7 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
                     if (CommonUtils.isEmpty(wordSelected) || wordSelected.length() < 2) {
                         this.removeOccurrenceAnnotations();
                     } else {
-                        OccurrencesFinder finder = new OccurrencesFinder(document, wordUnderCursor, wordSelected);
+                        OccurrencesFinder finder = new OccurrencesFinder(document, getDocumentTree(), wordUnderCursor, wordSelected);
                         List<OccurrencePosition> positions = finder.perform();
                         if (!CommonUtils.isEmpty(positions)) {
                             this.occurrencesFinderJob = new OccurrencesFinderJob(positions);
@@ -1726,11 +1659,13 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
 
     private static class OccurrencesFinder {
         private IDocument fDocument;
+        private SCMDocumentTree fDocumentTree;
         private String wordUnderCursor;
         private String wordSelected;
 
-        OccurrencesFinder(IDocument document, String wordUnderCursor, String wordSelected) {
+        OccurrencesFinder(IDocument document, SCMDocumentTree documentTree, String wordUnderCursor, String wordSelected) {
             this.fDocument = document;
+            this.fDocumentTree = documentTree;
             this.wordUnderCursor = wordUnderCursor;
             this.wordSelected = wordSelected;
         }
@@ -1762,6 +1697,26 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
 
         private void findPositions(String searchFor, List<OccurrencePosition> positions, boolean forSelection) throws BadLocationException {
             FindReplaceDocumentAdapter findReplaceDocumentAdapter = new FindReplaceDocumentAdapter(fDocument);
+            if (!forSelection && fDocumentTree != null && isWord(searchFor)) {
+                // Search only in statements which contain this word
+                for (SCMSegment segment : fDocumentTree.getSegments()) {
+                    if (!segment.containsWord(searchFor)) {
+                        continue;
+                    }
+                    int segmentEnd = segment.getEndOffset();
+                    for (int offset = segment.getBeginOffset(); offset < segmentEnd; ) {
+                        IRegion region = findReplaceDocumentAdapter.find(offset, searchFor, true, false, true, false);
+                        if (region == null || region.getOffset() >= segmentEnd) {
+                            break;
+                        }
+                        positions.add(
+                            new OccurrencePosition(region.getOffset(), region.getLength(), false)
+                        );
+                        offset = region.getOffset() + region.getLength();
+                    }
+                }
+                return;
+            }
             for (int offset = 0; ; ) {
                 IRegion region = findReplaceDocumentAdapter.find(offset, searchFor, true, false, !forSelection, false);
                 if (region == null) {
@@ -1774,6 +1729,15 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
             }
         }
 
+        private static boolean isWord(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                if (!SCMSegment.isWordPart(text.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
     }
 
     ////////////////////////////////////////////////////////
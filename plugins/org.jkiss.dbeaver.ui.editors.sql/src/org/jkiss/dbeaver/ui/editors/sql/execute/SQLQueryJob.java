@@ -40,6 +40,7 @@ import org.jkiss.dbeaver.model.data.DBDDataFilter;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCFetchSizeController;
 import org.jkiss.dbeaver.model.impl.local.StatResultSet;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.qm.QMUtils;
@@ -663,9 +664,10 @@ public class SQLQueryJob extends DataSourceJob
                 executeResult.setResultSetName(sourceName);
             }
             long fetchStartTime = System.currentTimeMillis();
+            JDBCFetchSizeController fetchSizeController = new JDBCFetchSizeController(resultSet, hasLimits() ? rsMaxRows : 0);
 
             // Fetch all rows
-            while ((!hasLimits() || !fetchProgress.isMaxRowsFetched(rsMaxRows)) && !fetchProgress.isCanceled() && resultSet.nextRow()) {
+            while ((!hasLimits() || !fetchProgress.isMaxRowsFetched(rsMaxRows)) && !fetchProgress.isCanceled() && fetchSizeController.nextRow()) {
                 dataReceiver.fetchRow(session, resultSet);
                 fetchProgress.monitorRowFetch();
             }
@@ -19,10 +19,12 @@ package org.jkiss.dbeaver.ui.editors.sql.plan;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.IContributionManager;
+import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CLabel;
 import org.eclipse.swt.custom.StackLayout;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
@@ -42,9 +44,12 @@ import org.jkiss.dbeaver.model.exec.plan.DBCPlan;
 import org.jkiss.dbeaver.model.exec.plan.DBCQueryPlanner;
 import org.jkiss.dbeaver.model.exec.plan.DBCQueryPlannerSerializable;
 import org.jkiss.dbeaver.model.exec.plan.DBCSavedQueryPlanner;
+import org.jkiss.dbeaver.model.impl.plan.ExecutionPlanDiff;
+import org.jkiss.dbeaver.model.impl.plan.ExecutionPlanHistory;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.load.DatabaseLoadService;
 import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
 import org.jkiss.dbeaver.ui.LoadingJob;
@@ -91,6 +96,7 @@ public class ExplainPlanViewer extends Viewer implements IAdaptable
     private final ProgressControl planPresentationContainer;
     private final VerticalFolder tabViewFolder;
     private final Composite planViewComposite;
+    private final CLabel planDiffLabel;
 
     private PlanViewInfo activeViewInfo;
     private SQLQuery lastQuery;
@@ -115,6 +121,15 @@ public class ExplainPlanViewer extends Viewer implements IAdaptable
         this.planPresentationContainer.getLayout().numColumns = 2;
         this.planPresentationContainer.setLayoutData(new GridData(GridData.FILL_BOTH));
 
+        {
+            // Plan changes (comparing to the previous plan of the same query)
+            planDiffLabel = new CLabel(planPresentationContainer, SWT.NONE);
+            GridData gd = new GridData(GridData.FILL_HORIZONTAL);
+            gd.horizontalSpan = 2;
+            gd.exclude = true;
+            planDiffLabel.setLayoutData(gd);
+            planDiffLabel.setVisible(false);
+        }
         {
             tabViewFolder = new VerticalFolder(planPresentationContainer, SWT.LEFT);
             ((GridLayout)tabViewFolder.getLayout()).marginTop = 20;
@@ -282,9 +297,12 @@ public class ExplainPlanViewer extends Viewer implements IAdaptable
         if (planner == null) {
             DBWorkbench.getPlatformUI().showError("No SQL Plan","This datasource doesn't support execution plans");
         } else {
+            // Diff of the previous plan is not relevant anymore
+            showPlanDiff(null);
+            ExplainPlanService planService = new ExplainPlanService(planner, executionContext, lastQuery.getText(), lastQueryId);
             LoadingJob<DBCPlan> service = LoadingJob.createService(
-                new ExplainPlanService(planner, executionContext, lastQuery.getText(), lastQueryId),
-                planPresentationContainer.createVisualizer());
+                planService,
+                planPresentationContainer.createVisualizer(planService));
             service.schedule();
         }
     }
@@ -301,6 +319,39 @@ public class ExplainPlanViewer extends Viewer implements IAdaptable
         planPresentationContainer.refreshActions();
     }
 
+    private void showPlanDiff(ExecutionPlanDiff planDiff) {
+        boolean visible = planDiff != null && planDiff.hasChanges();
+        if (visible) {
+            StringBuilder details = new StringBuilder();
+            for (ExecutionPlanDiff.Change change : planDiff.getChanges()) {
+                if (details.length() > 0) {
+                    details.append("\n");
+                }
+                details.append(change.getMessage());
+            }
+            if (planDiff.hasRegressions()) {
+                planDiffLabel.setImage(Dialog.getImage(Dialog.DLG_IMG_MESSAGE_WARNING));
+                planDiffLabel.setText("Plan regression comparing to the previous plan of this query: " + getFirstChange(planDiff, ExecutionPlanDiff.Severity.REGRESSION));
+            } else {
+                planDiffLabel.setImage(Dialog.getImage(Dialog.DLG_IMG_MESSAGE_INFO));
+                planDiffLabel.setText("Plan differs from the previous plan of this query: " + planDiff.getChanges().get(0).getMessage());
+            }
+            planDiffLabel.setToolTipText(details.toString());
+        }
+        planDiffLabel.setVisible(visible);
+        ((GridData) planDiffLabel.getLayoutData()).exclude = !visible;
+        planPresentationContainer.layout(true, true);
+    }
+
+    private static String getFirstChange(ExecutionPlanDiff planDiff, ExecutionPlanDiff.Severity severity) {
+        for (ExecutionPlanDiff.Change change : planDiff.getChanges()) {
+            if (change.getSeverity() == severity) {
+                return change.getMessage();
+            }
+        }
+        return "";
+    }
+
     @Override
     public void setInput(Object input) {
         if (activeViewInfo != null) {
@@ -337,17 +388,24 @@ public class ExplainPlanViewer extends Viewer implements IAdaptable
             contributionManager.add(refreshPlanAction);
         }
 
-        PlanLoadVisualizer createVisualizer() {
-            return new PlanLoadVisualizer();
+        PlanLoadVisualizer createVisualizer(ExplainPlanService planService) {
+            return new PlanLoadVisualizer(planService);
         }
 
         class PlanLoadVisualizer extends ProgressVisualizer<DBCPlan> {
+            private final ExplainPlanService planService;
+
+            PlanLoadVisualizer(ExplainPlanService planService) {
+                this.planService = planService;
+            }
+
             @Override
             public void completeLoading(DBCPlan plan) {
                 super.completeLoading(plan);
                 if (plan != null) {
                     visualizePlan(plan);
                 }
+                showPlanDiff(plan == null ? null : planService.getPlanDiff());
             }
         }
     }
@@ -359,6 +417,7 @@ public class ExplainPlanViewer extends Viewer implements IAdaptable
         private final String query;
         private final Object savedQueryId;
         private DBCPlan plan;
+        private volatile ExecutionPlanDiff planDiff;
 
         ExplainPlanService(DBCQueryPlanner planner, DBCExecutionContext executionContext, String query, Object savedQueryId)
         {
@@ -369,14 +428,22 @@ public class ExplainPlanViewer extends Viewer implements IAdaptable
             this.savedQueryId = savedQueryId;
         }
 
+        /**
+         * Difference with the previous plan of the same query (if any)
+         */
+        public ExecutionPlanDiff getPlanDiff() {
+            return planDiff;
+        }
+
         @Override
         public DBCPlan evaluate(DBRProgressMonitor monitor)
             throws InvocationTargetException {
+            boolean savedPlan = savedQueryId != null && planner instanceof DBCSavedQueryPlanner;
             try {
                 DBExecUtils.tryExecuteRecover(monitor, executionContext.getDataSource(), param -> {
                     try (DBCSession session = executionContext.openSession(monitor, DBCExecutionPurpose.UTIL, "Explain '" + query + "'")) {
                         try {
-                            if (savedQueryId != null && planner instanceof DBCSavedQueryPlanner) {
+                            if (savedPlan) {
                                 plan = ((DBCSavedQueryPlanner) planner).readSavedQueryExecutionPlan(session, savedQueryId);
                             } else {
                                 plan = planner.planQueryExecution(session, query);
@@ -389,6 +456,15 @@ public class ExplainPlanViewer extends Viewer implements IAdaptable
             } catch (Throwable ex) {
                 throw new InvocationTargetException(ex);
             }
+            if (plan != null && !savedPlan) {
+                // Save plan in history and compare with the previous one
+                try {
+                    DBPDataSource dataSource = executionContext.getDataSource();
+                    planDiff = ExecutionPlanHistory.addPlan(dataSource.getContainer(), SQLUtils.getDialectFromDataSource(dataSource), query, plan);
+                } catch (Exception e) {
+                    log.debug("Error saving plan history", e);
+                }
+            }
             return plan;
         }
     }
@@ -0,0 +1,101 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.sql.syntax;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.ui.IEditorInput;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.lang.SCMSegmentSplitter;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.ui.editors.sql.syntax.tokens.SQLToken;
+
+/**
+ * Splits SQL script into top-level statements for document tree.
+ *
+ * Uses the same rules as SQL editor query parser (see {@link SQLTokenSplitter}). Control commands are separate segments.
+ * Uses its own rule manager because editor rule manager may be used by query parser at the same time.
+ */
+public class SQLSegmentSplitter implements SCMSegmentSplitter {
+
+    @NotNull
+    private final SQLSyntaxManager syntaxManager;
+    @NotNull
+    private final SQLRuleManager ruleManager;
+    @NotNull
+    private final SQLTokenSplitter tokenSplitter = new SQLTokenSplitter();
+
+    private IDocument document;
+    private int rangeEnd;
+    // Control command end. Returned after segment which ends at control command begin.
+    private int pendingEnd = -1;
+
+    public SQLSegmentSplitter(@NotNull SQLSyntaxManager syntaxManager) {
+        this.syntaxManager = syntaxManager;
+        this.ruleManager = new SQLRuleManager(syntaxManager);
+    }
+
+    public void refreshRules(@Nullable DBPDataSource dataSource, @Nullable IEditorInput editorInput) {
+        ruleManager.refreshRules(dataSource, editorInput);
+    }
+
+    @Override
+    public void setRange(@NotNull IDocument document, int offset, int length) {
+        this.document = document;
+        this.rangeEnd = offset + length;
+        this.pendingEnd = -1;
+        ruleManager.setRange(document, offset, length);
+    }
+
+    @Override
+    public int nextSegmentEnd() {
+        if (pendingEnd >= 0) {
+            int end = pendingEnd;
+            pendingEnd = -1;
+            return end;
+        }
+        tokenSplitter.reset(document, syntaxManager.isBlankLineDelimiter());
+        boolean hasValuableTokens = false;
+        for (; ; ) {
+            IToken token = ruleManager.nextToken();
+            if (token.isEOF()) {
+                return -1;
+            }
+            int tokenOffset = ruleManager.getTokenOffset();
+            int tokenLength = ruleManager.getTokenLength();
+            int tokenEnd = Math.min(tokenOffset + tokenLength, rangeEnd);
+
+            tokenSplitter.processToken(token, tokenOffset, tokenLength);
+            if (tokenSplitter.isControl()) {
+                // Control command is a separate segment
+                if (hasValuableTokens) {
+                    pendingEnd = tokenEnd;
+                    return tokenOffset;
+                }
+                return tokenEnd;
+            } else if (tokenSplitter.isDelimiter() && !tokenSplitter.isInsideBlock()) {
+                return tokenEnd;
+            }
+            if (!token.isWhitespace() && tokenSplitter.getTokenType() != SQLToken.T_COMMENT) {
+                hasValuableTokens = true;
+            }
+        }
+    }
+
+}
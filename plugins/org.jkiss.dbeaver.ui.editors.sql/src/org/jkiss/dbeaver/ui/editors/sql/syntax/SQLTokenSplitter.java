@@ -0,0 +1,220 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2019 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.sql.syntax;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.rules.IToken;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ui.editors.sql.syntax.tokens.SQLToken;
+
+/**
+ * Tracks blocks and statement delimiters in SQL token stream.
+ *
+ * Statement ends with delimiter (or blank line) outside of any block (brackets, BEGIN ... END, block toggles).
+ * Control commands are statement delimiters too.
+ * Used by SQL editor query parser and by segment splitter, so both split script in the same way.
+ */
+public class SQLTokenSplitter {
+
+    private static final Log log = Log.getLog(SQLTokenSplitter.class);
+
+    private static class ScriptBlockInfo {
+        final ScriptBlockInfo parent;
+        boolean isHeader; // block started by DECLARE, FUNCTION, etc
+
+        ScriptBlockInfo(ScriptBlockInfo parent, boolean isHeader) {
+            this.parent = parent;
+            this.isHeader = isHeader;
+        }
+    }
+
+    private IDocument document;
+    private boolean useBlankLines;
+
+    private ScriptBlockInfo curBlock;
+    private boolean hasBlocks;
+    private String blockTogglePattern;
+    private int lastTokenLineFeeds;
+    private int prevNotEmptyTokenType;
+
+    private int tokenType;
+    private boolean isDelimiter;
+    private boolean isControl;
+    private String delimiterText;
+
+    /**
+     * Resets splitter state. Must be called at the beginning of each statement.
+     */
+    public void reset(@NotNull IDocument document, boolean useBlankLines) {
+        this.document = document;
+        this.useBlankLines = useBlankLines;
+        this.curBlock = null;
+        this.hasBlocks = false;
+        this.blockTogglePattern = null;
+        this.lastTokenLineFeeds = 0;
+        this.prevNotEmptyTokenType = SQLToken.T_UNKNOWN;
+        this.tokenType = SQLToken.T_UNKNOWN;
+        this.isDelimiter = false;
+        this.isControl = false;
+        this.delimiterText = null;
+    }
+
+    /**
+     * Processes next token of the statement.
+     */
+    public void processToken(@NotNull IToken token, int tokenOffset, int tokenLength) {
+        tokenType = token instanceof SQLToken ? ((SQLToken) token).getType() : SQLToken.T_UNKNOWN;
+        isDelimiter = tokenType == SQLToken.T_DELIMITER;
+        isControl = false;
+        delimiterText = null;
+        try {
+            if (isDelimiter) {
+                // Save delimiter text
+                delimiterText = getText(tokenOffset, tokenLength);
+            } else if (useBlankLines && token.isWhitespace() && tokenLength >= 1) {
+                // Check for blank line delimiter
+                if (lastTokenLineFeeds + countLineFeeds(tokenOffset, tokenLength) >= 2) {
+                    isDelimiter = true;
+                }
+            }
+            lastTokenLineFeeds = 0;
+            if (tokenLength == 1) {
+                // Check for bracket block begin/end
+                try {
+                    char aChar = document.getChar(tokenOffset);
+                    if (aChar == '(' || aChar == '{' || aChar == '[') {
+                        curBlock = new ScriptBlockInfo(curBlock, false);
+                    } else if (aChar == ')' || aChar == '}' || aChar == ']') {
+                        if (curBlock != null) {
+                            curBlock = curBlock.parent;
+                        }
+                    }
+                } catch (BadLocationException e) {
+                    log.warn(e);
+                }
+            }
+            if (tokenType == SQLToken.T_BLOCK_BEGIN && prevNotEmptyTokenType == SQLToken.T_BLOCK_END) {
+                // This is a tricky thing.
+                // In some dialects block end looks like END CASE, END LOOP. It is parsed as
+                // Block end followed by block begin (as CASE and LOOP are block begin tokens)
+                // So let's ignore block begin if previos token was block end and there were no delimtiers.
+                tokenType = SQLToken.T_UNKNOWN;
+            }
+
+            if (tokenType == SQLToken.T_BLOCK_HEADER) {
+                curBlock = new ScriptBlockInfo(curBlock, true);
+                hasBlocks = true;
+            } else if (tokenType == SQLToken.T_BLOCK_TOGGLE) {
+                String togglePattern = getText(tokenOffset, tokenLength);
+                // Second toggle pattern must be the same as first one.
+                // Toggles can be nested (PostgreSQL) and we need to count only outer
+                if (curBlock != null && curBlock.parent == null && togglePattern.equals(blockTogglePattern)) {
+                    curBlock = curBlock.parent;
+                    blockTogglePattern = null;
+                } else if (curBlock == null && blockTogglePattern == null) {
+                    curBlock = new ScriptBlockInfo(curBlock, false);
+                    blockTogglePattern = togglePattern;
+                } else {
+                    log.debug("Block toggle token inside another block. Can't process it");
+                }
+                hasBlocks = true;
+            } else if (tokenType == SQLToken.T_BLOCK_BEGIN) {
+                if (curBlock == null || !curBlock.isHeader) {
+                    curBlock = new ScriptBlockInfo(curBlock, false);
+                } else {
+                    curBlock.isHeader = false;
+                }
+                hasBlocks = true;
+            } else if (curBlock != null && tokenType == SQLToken.T_BLOCK_END) {
+                // Sometimes query contains END clause without BEGIN. E.g. CASE, IF, etc.
+                // This END doesn't mean block
+                curBlock = curBlock.parent;
+            } else if (tokenType == SQLToken.T_SET_DELIMITER || tokenType == SQLToken.T_CONTROL) {
+                isDelimiter = true;
+                isControl = true;
+            } else if (tokenType == SQLToken.T_COMMENT) {
+                lastTokenLineFeeds = tokenLength < 2 ? 0 : countLineFeeds(tokenOffset + tokenLength - 2, 2);
+            }
+        } finally {
+            if (!token.isWhitespace() && !token.isEOF()) {
+                prevNotEmptyTokenType = tokenType;
+            }
+        }
+    }
+
+    /**
+     * Type of the last processed token. Block begin which follows block end (END CASE, END LOOP) is reported as T_UNKNOWN.
+     */
+    public int getTokenType() {
+        return tokenType;
+    }
+
+    /**
+     * Last processed token is a statement delimiter, blank line (if enabled) or control command.
+     * Delimiters inside blocks are reported too, see {@link #isInsideBlock()}.
+     */
+    public boolean isDelimiter() {
+        return isDelimiter;
+    }
+
+    public boolean isControl() {
+        return isControl;
+    }
+
+    /**
+     * Text of the last processed delimiter token. Null for blank lines and other tokens.
+     */
+    @Nullable
+    public String getDelimiterText() {
+        return delimiterText;
+    }
+
+    public boolean isInsideBlock() {
+        return curBlock != null;
+    }
+
+    public boolean hasBlocks() {
+        return hasBlocks;
+    }
+
+    private String getText(int offset, int length) {
+        try {
+            return document.get(offset, length);
+        } catch (BadLocationException e) {
+            log.debug(e);
+            return "";
+        }
+    }
+
+    private int countLineFeeds(int offset, int length) {
+        int lfCount = 0;
+        try {
+            for (int i = offset; i < offset + length; i++) {
+                if (document.getChar(i) == '\n') {
+                    lfCount++;
+                }
+            }
+        } catch (BadLocationException e) {
+            log.error(e);
+        }
+        return lfCount;
+    }
+
+}